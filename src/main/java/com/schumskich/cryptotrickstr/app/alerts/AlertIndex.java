@@ -0,0 +1,123 @@
+package com.schumskich.cryptotrickstr.app.alerts;
+
+import com.schumskich.cryptotrickstr.app.alerts.index.IntervalIndex;
+import com.schumskich.cryptotrickstr.app.alerts.persistence.AlertSubscriptionEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An immutable index of alert subscriptions. The subscriptions of each coin (and the ones for all coins) are kept in
+ * an {@link IntervalIndex} by their price gap percentage range, or by their price gap range if they have no
+ * percentage range. Finding the alerts matching a coin therefore takes two stabbing queries instead of a scan of all
+ * subscriptions.
+ */
+public class AlertIndex {
+    private final Group allCoins;
+    private final Map<String, Group> groupsBySymbol = new HashMap<>();
+    private final int size;
+
+    public AlertIndex(Collection<AlertSubscriptionEntity> subscriptions) {
+        List<AlertSubscriptionEntity> allCoinSubscriptions = new ArrayList<>();
+        Map<String, List<AlertSubscriptionEntity>> subscriptionsBySymbol = new HashMap<>();
+        for (AlertSubscriptionEntity subscription : subscriptions) {
+            if (subscription.getSymbol() == null) {
+                allCoinSubscriptions.add(subscription);
+            } else {
+                subscriptionsBySymbol.computeIfAbsent(subscription.getSymbol(), symbol -> new ArrayList<>())
+                        .add(subscription);
+            }
+        }
+        this.allCoins = new Group(allCoinSubscriptions);
+        subscriptionsBySymbol.forEach((symbol, group) -> this.groupsBySymbol.put(symbol, new Group(group)));
+        this.size = subscriptions.size();
+    }
+
+    public static AlertIndex empty() {
+        return new AlertIndex(Collections.emptyList());
+    }
+
+    /**
+     * Finds the alerts whose ranges contain the price gap of a coin.
+     *
+     * @param symbol          The coin.
+     * @param priceGap        The price gap of the coin or <code>null</code>.
+     * @param priceGapPercent The price gap percentage of the coin or <code>null</code>.
+     * @param consumer        Receives the matching alerts.
+     */
+    public void findMatches(String symbol, Double priceGap, Double priceGapPercent,
+                            Consumer<AlertSubscriptionEntity> consumer) {
+        this.allCoins.findMatches(priceGap, priceGapPercent, consumer);
+        Group group = this.groupsBySymbol.get(symbol);
+        if (group != null) {
+            group.findMatches(priceGap, priceGapPercent, consumer);
+        }
+    }
+
+    /**
+     * @return The number of indexed subscriptions.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    private static class Group {
+        private final AlertSubscriptionEntity[] byPercent;
+        private final IntervalIndex percentIndex;
+        private final AlertSubscriptionEntity[] byGap;
+        private final IntervalIndex gapIndex;
+
+        private Group(List<AlertSubscriptionEntity> subscriptions) {
+            List<AlertSubscriptionEntity> byPercent = new ArrayList<>();
+            List<AlertSubscriptionEntity> byGap = new ArrayList<>();
+            for (AlertSubscriptionEntity subscription : subscriptions) {
+                if (subscription.getMinPriceGapPercent() != null || subscription.getMaxPriceGapPercent() != null) {
+                    byPercent.add(subscription);
+                } else {
+                    byGap.add(subscription);
+                }
+            }
+            this.byPercent = byPercent.toArray(new AlertSubscriptionEntity[0]);
+            this.percentIndex = createIndex(this.byPercent, AlertSubscriptionEntity::getMinPriceGapPercent,
+                    AlertSubscriptionEntity::getMaxPriceGapPercent);
+            this.byGap = byGap.toArray(new AlertSubscriptionEntity[0]);
+            this.gapIndex = createIndex(this.byGap, AlertSubscriptionEntity::getMinPriceGap,
+                    AlertSubscriptionEntity::getMaxPriceGap);
+        }
+
+        private void findMatches(Double priceGap, Double priceGapPercent,
+                                 Consumer<AlertSubscriptionEntity> consumer) {
+            if (priceGapPercent != null && !priceGapPercent.isNaN()) {
+                // The price gap range of these alerts is not indexed, so it is checked here
+                this.percentIndex.findContaining(priceGapPercent, i -> {
+                    if (this.byPercent[i].matches(priceGap, priceGapPercent)) {
+                        consumer.accept(this.byPercent[i]);
+                    }
+                });
+            }
+            if (priceGap != null && !priceGap.isNaN()) {
+                this.gapIndex.findContaining(priceGap, i -> consumer.accept(this.byGap[i]));
+            }
+        }
+
+        private static IntervalIndex createIndex(AlertSubscriptionEntity[] subscriptions,
+                                                 Function<AlertSubscriptionEntity, Double> min,
+                                                 Function<AlertSubscriptionEntity, Double> max) {
+            double[] lows = new double[subscriptions.length];
+            double[] highs = new double[subscriptions.length];
+            for (int i = 0; i < subscriptions.length; i++) {
+                Double low = min.apply(subscriptions[i]);
+                Double high = max.apply(subscriptions[i]);
+                lows[i] = low != null ? low : Double.NEGATIVE_INFINITY;
+                highs[i] = high != null ? high : Double.POSITIVE_INFINITY;
+            }
+            return new IntervalIndex(lows, highs);
+        }
+    }
+}
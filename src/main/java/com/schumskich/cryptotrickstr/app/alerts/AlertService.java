@@ -0,0 +1,190 @@
+package com.schumskich.cryptotrickstr.app.alerts;
+
+import com.schumskich.cryptotrickstr.app.alerts.persistence.AlertSubscriptionEntity;
+import com.schumskich.cryptotrickstr.app.alerts.persistence.AlertSubscriptionRepository;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinsChangedEvent;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.config.AlertConfig;
+import com.schumskich.cryptotrickstr.support.concurrent.DroppingExecutor;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Manages the alert subscriptions and evaluates them after every stored batch of coins. Only the changed coins are
+ * looked up in the {@link AlertIndex}, so the evaluation does not scan all subscriptions. An alert fires when the
+ * price gap of a coin enters its range (or when the alert is new and the price gap already is within its range);
+ * it fires again only after the price gap has left the range. After the app has been started, the first change of a
+ * coin fires all alerts whose range the coin is within.
+ * <p>
+ * The index is rebuilt lazily by the first evaluation after the subscriptions changed. Fired alerts are delivered
+ * by the {@link AlertSink} on a {@link DroppingExecutor} that queues up to <code>alerts.queueCapacity</code> batches
+ * and counts the alerts of dropped batches in the <code>ingest.counter.alerts.dropped</code> metric.
+ */
+@Service
+@ConditionalOnProperty(prefix = "alerts", name = "enabled", havingValue = "true")
+public class AlertService {
+    private static Logger LOG = LoggerFactory.getLogger(AlertService.class);
+
+    private final AlertSubscriptionRepository alertSubscriptionRepository;
+    private final AlertSink alertSink;
+    private final IngestMetrics metrics;
+    private final DroppingExecutor sender;
+
+    private final ConcurrentMap<Long, AlertSubscriptionEntity> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicBoolean indexOutdated = new AtomicBoolean();
+    private volatile AlertIndex index = AlertIndex.empty();
+
+    /**
+     * The price gaps of all coins as of their last evaluation, keyed by symbol. Guarded by this.
+     */
+    private final Map<String, EvaluatedGap> evaluatedGaps = new HashMap<>();
+
+    @Autowired
+    public AlertService(AlertConfig alertConfig, AlertSubscriptionRepository alertSubscriptionRepository,
+                        AlertSink alertSink, IngestMetrics ingestMetrics) {
+        this(alertSubscriptionRepository, alertSink, ingestMetrics, new DroppingExecutor("alert-sink-",
+                alertConfig.getQueueCapacity(), ingestMetrics, "alerts.dropped"));
+    }
+
+    public AlertService(AlertSubscriptionRepository alertSubscriptionRepository, AlertSink alertSink,
+                        IngestMetrics metrics, DroppingExecutor sender) {
+        this.alertSubscriptionRepository = alertSubscriptionRepository;
+        this.alertSink = alertSink;
+        this.metrics = metrics;
+        this.sender = sender;
+    }
+
+    @PostConstruct
+    public void loadSubscriptions() {
+        this.alertSubscriptionRepository.findAll()
+                .forEach(subscription -> this.subscriptions.put(subscription.getId(), subscription));
+        this.indexOutdated.set(true);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        this.sender.shutdown();
+    }
+
+    /**
+     * Stores a new alert subscription.
+     *
+     * @param subscription The symbol and ranges of the alert (the id is ignored).
+     * @return The stored subscription.
+     * @throws IllegalArgumentException If the alert has no range or an empty one.
+     */
+    public AlertSubscriptionEntity subscribe(AlertSubscriptionEntity subscription) {
+        validateRange(subscription.getMinPriceGapPercent(), subscription.getMaxPriceGapPercent(), "price gap percent");
+        validateRange(subscription.getMinPriceGap(), subscription.getMaxPriceGap(), "price gap");
+        if (subscription.getMinPriceGapPercent() == null && subscription.getMaxPriceGapPercent() == null
+                && subscription.getMinPriceGap() == null && subscription.getMaxPriceGap() == null) {
+            throw new IllegalArgumentException("An alert needs a price gap percent or price gap bound.");
+        }
+
+        subscription.setId(0);
+        subscription.setDateCreated(0);
+        AlertSubscriptionEntity stored = this.alertSubscriptionRepository.save(subscription);
+        this.subscriptions.put(stored.getId(), stored);
+        this.indexOutdated.set(true);
+        return stored;
+    }
+
+    /**
+     * @param id The id of the subscription.
+     * @return Whether the subscription existed.
+     */
+    public boolean unsubscribe(long id) {
+        if (this.subscriptions.remove(id) == null) {
+            return false;
+        }
+        this.alertSubscriptionRepository.delete(id);
+        this.indexOutdated.set(true);
+        return true;
+    }
+
+    /**
+     * @return All subscriptions, oldest first.
+     */
+    public List<AlertSubscriptionEntity> getSubscriptions() {
+        return this.subscriptions.values().stream()
+                .sorted(Comparator.comparingLong(AlertSubscriptionEntity::getId))
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(CoinsChangedEvent.class)
+    public synchronized void onCoinsChanged(CoinsChangedEvent event) {
+        if (this.indexOutdated.compareAndSet(true, false)) {
+            this.index = new AlertIndex(new ArrayList<>(this.subscriptions.values()));
+        }
+
+        long now = System.currentTimeMillis();
+        List<FiredAlert> firedAlerts = new ArrayList<>();
+        for (CoinEntity coin : event.getChangedCoins()) {
+            EvaluatedGap previous = this.evaluatedGaps.put(coin.getSymbol(),
+                    new EvaluatedGap(coin.getPriceGap(), coin.getPriceGapPercent(), now));
+            this.index.findMatches(coin.getSymbol(), coin.getPriceGap(), coin.getPriceGapPercent(), subscription -> {
+                if (previous == null || subscription.getDateCreated() >= previous.evaluated
+                        || !subscription.matches(previous.priceGap, previous.priceGapPercent)) {
+                    firedAlerts.add(new FiredAlert(subscription.getId(), coin.getSymbol(), coin.getPriceGap(),
+                            coin.getPriceGapPercent(), coin.getMinPriceExchange(), coin.getMaxPriceExchange(), now));
+                }
+            });
+        }
+
+        if (!firedAlerts.isEmpty()) {
+            this.metrics.increment("alerts.fired", firedAlerts.size());
+            this.sender.execute(() -> send(firedAlerts), firedAlerts.size());
+        }
+    }
+
+    private void send(List<FiredAlert> firedAlerts) {
+        try {
+            this.alertSink.send(firedAlerts);
+        } catch (Exception e) {
+            this.metrics.increment("alerts.sinkErrors");
+            LOG.warn("Could not send " + firedAlerts.size() + " alerts.", e);
+        }
+    }
+
+    private static void validateRange(Double min, Double max, String name) {
+        if (min != null && min.isNaN() || max != null && max.isNaN()) {
+            throw new IllegalArgumentException("The " + name + " bounds must be numbers.");
+        }
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("The " + name + " range [" + min + ", " + max + "] is empty.");
+        }
+    }
+
+    private static class EvaluatedGap {
+        private final Double priceGap;
+        private final Double priceGapPercent;
+
+        /**
+         * In milliseconds since the epoch.
+         */
+        private final long evaluated;
+
+        private EvaluatedGap(Double priceGap, Double priceGapPercent, long evaluated) {
+            this.priceGap = priceGap;
+            this.priceGapPercent = priceGapPercent;
+            this.evaluated = evaluated;
+        }
+    }
+}
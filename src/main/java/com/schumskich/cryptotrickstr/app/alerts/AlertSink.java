@@ -0,0 +1,16 @@
+package com.schumskich.cryptotrickstr.app.alerts;
+
+import java.util.List;
+
+/**
+ * Delivers fired alerts. The sink is chosen using the <code>alerts.sink</code> property. Sinks are called by a single
+ * background thread, so they may block, but the alerts queue up in the meantime.
+ */
+public interface AlertSink {
+
+    /**
+     * @param alerts The alerts fired by one stored batch of coins.
+     * @throws Exception If the alerts could not be delivered (they are not retried).
+     */
+    void send(List<FiredAlert> alerts) throws Exception;
+}
@@ -0,0 +1,35 @@
+package com.schumskich.cryptotrickstr.app.alerts;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.schumskich.cryptotrickstr.support.json.EpochMillisSerializer;
+import lombok.Getter;
+
+/**
+ * An alert whose range the price gap of a coin has entered.
+ */
+@Getter
+public class FiredAlert {
+    private final long subscriptionId;
+    private final String symbol;
+    private final Double priceGap;
+    private final Double priceGapPercent;
+    private final String minPriceExchange;
+    private final String maxPriceExchange;
+
+    /**
+     * In milliseconds since the epoch.
+     */
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    private final long timestamp;
+
+    public FiredAlert(long subscriptionId, String symbol, Double priceGap, Double priceGapPercent,
+                      String minPriceExchange, String maxPriceExchange, long timestamp) {
+        this.subscriptionId = subscriptionId;
+        this.symbol = symbol;
+        this.priceGap = priceGap;
+        this.priceGapPercent = priceGapPercent;
+        this.minPriceExchange = minPriceExchange;
+        this.maxPriceExchange = maxPriceExchange;
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,110 @@
+package com.schumskich.cryptotrickstr.app.alerts.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A static segment tree that finds all intervals containing a point ("stabbing query") in
+ * <code>O(log n + k)</code>, where <code>k</code> is the number of matching intervals.
+ * <p>
+ * The distinct bounds <code>b[0] < ... < b[m-1]</code> of all intervals split the axis into <code>2m + 1</code>
+ * elementary segments: <code>(-inf, b[0])</code>, <code>[b[0], b[0]]</code>, <code>(b[0], b[1])</code>, ...,
+ * <code>(b[m-1], inf)</code>. These are the leaves of a complete binary tree. Each interval is stored in the
+ * <code>O(log n)</code> nodes that exactly cover its leaves, so the intervals containing a point are the ones stored
+ * on the path from the leaf of the point to the root. The intervals of all nodes are kept in a single array, so the
+ * tree consists of three primitive arrays. Instances are immutable.
+ */
+public class IntervalIndex {
+    private final double[] bounds;
+    private final int leafCount;
+
+    /**
+     * The intervals of node <code>n</code> are <code>intervals[offsets[n]]</code> to
+     * <code>intervals[offsets[n + 1] - 1]</code>.
+     */
+    private final int[] offsets;
+    private final int[] intervals;
+
+    /**
+     * @param lows  The lower bounds (inclusive) of the intervals or {@link Double#NEGATIVE_INFINITY}.
+     * @param highs The upper bounds (inclusive) of the intervals or {@link Double#POSITIVE_INFINITY}. The interval
+     *              <code>i</code> is <code>[lows[i], highs[i]]</code>, it must not be empty.
+     */
+    public IntervalIndex(double[] lows, double[] highs) {
+        double[] allBounds = new double[lows.length * 2];
+        for (int i = 0; i < lows.length; i++) {
+            if (!(lows[i] <= highs[i])) {
+                throw new IllegalArgumentException("The interval [" + lows[i] + ", " + highs[i] + "] is empty.");
+            }
+            allBounds[2 * i] = lows[i];
+            allBounds[2 * i + 1] = highs[i];
+        }
+        Arrays.sort(allBounds);
+        int distinct = 0;
+        for (int i = 0; i < allBounds.length; i++) {
+            if (i == 0 || allBounds[i] != allBounds[i - 1]) {
+                allBounds[distinct++] = allBounds[i];
+            }
+        }
+        this.bounds = Arrays.copyOf(allBounds, distinct);
+        this.leafCount = Integer.highestOneBit(2 * distinct + 1) << 1;
+
+        // Count the intervals per node first, so that they fit into a single array
+        this.offsets = new int[2 * this.leafCount + 1];
+        for (int i = 0; i < lows.length; i++) {
+            forEachCoveringNode(leafOf(lows[i]), leafOf(highs[i]), node -> this.offsets[node + 1]++);
+        }
+        for (int node = 0; node < 2 * this.leafCount; node++) {
+            this.offsets[node + 1] += this.offsets[node];
+        }
+        this.intervals = new int[this.offsets[2 * this.leafCount]];
+        int[] next = Arrays.copyOf(this.offsets, 2 * this.leafCount);
+        for (int i = 0; i < lows.length; i++) {
+            int interval = i;
+            forEachCoveringNode(leafOf(lows[i]), leafOf(highs[i]), node -> this.intervals[next[node]++] = interval);
+        }
+    }
+
+    /**
+     * Finds all intervals containing a point.
+     *
+     * @param point    The point (not {@link Double#NaN}).
+     * @param consumer Receives the index of every matching interval (in no particular order).
+     */
+    public void findContaining(double point, IntConsumer consumer) {
+        for (int node = this.leafCount + leafOf(point); node > 0; node >>= 1) {
+            for (int i = this.offsets[node]; i < this.offsets[node + 1]; i++) {
+                consumer.accept(this.intervals[i]);
+            }
+        }
+    }
+
+    /**
+     * @return The number of stored references to intervals (a measure of the size of the index).
+     */
+    public int storedIntervalCount() {
+        return this.intervals.length;
+    }
+
+    /**
+     * @return The index of the elementary segment that contains the point.
+     */
+    private int leafOf(double point) {
+        int position = Arrays.binarySearch(this.bounds, point);
+        return position >= 0 ? 2 * position + 1 : 2 * (-position - 1);
+    }
+
+    /**
+     * Visits the nodes that exactly cover the leaves <code>first</code> to <code>last</code> (both inclusive).
+     */
+    private void forEachCoveringNode(int first, int last, IntConsumer consumer) {
+        for (int l = first + this.leafCount, r = last + this.leafCount + 1; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                consumer.accept(l++);
+            }
+            if ((r & 1) == 1) {
+                consumer.accept(--r);
+            }
+        }
+    }
+}
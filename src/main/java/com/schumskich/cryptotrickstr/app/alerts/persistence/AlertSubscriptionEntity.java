@@ -0,0 +1,68 @@
+package com.schumskich.cryptotrickstr.app.alerts.persistence;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.schumskich.cryptotrickstr.support.json.EpochMillisSerializer;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * An alert that fires when the price gap of a coin enters a range. Each bound is optional, but at least one of them
+ * must be given. An alert fires again only after the price gap has left the range.
+ */
+@Getter
+@Setter
+@Entity
+public class AlertSubscriptionEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alertSequence")
+    @SequenceGenerator(name = "alertSequence", sequenceName = "ALERT_SEQUENCE", allocationSize = 1)
+    private long id;
+
+    /**
+     * The coin or <code>null</code> for all coins.
+     */
+    @Column
+    private String symbol;
+
+    @Column
+    private Double minPriceGapPercent;
+
+    @Column
+    private Double maxPriceGapPercent;
+
+    @Column
+    private Double minPriceGap;
+
+    @Column
+    private Double maxPriceGap;
+
+    /**
+     * In milliseconds since the epoch.
+     */
+    @Column(nullable = false)
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    private long dateCreated;
+
+    @PrePersist
+    public void updateTimeStamps() {
+        if (dateCreated == 0) {
+            dateCreated = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @return Whether a price gap lies within the ranges of the alert (<code>null</code> values do not).
+     */
+    public boolean matches(Double priceGap, Double priceGapPercent) {
+        return (minPriceGapPercent == null && maxPriceGapPercent == null || within(priceGapPercent,
+                minPriceGapPercent, maxPriceGapPercent))
+                && (minPriceGap == null && maxPriceGap == null || within(priceGap, minPriceGap, maxPriceGap));
+    }
+
+    private static boolean within(Double value, Double min, Double max) {
+        return value != null && (min == null || value >= min) && (max == null || value <= max);
+    }
+}
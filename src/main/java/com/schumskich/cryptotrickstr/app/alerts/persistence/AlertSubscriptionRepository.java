@@ -0,0 +1,8 @@
+package com.schumskich.cryptotrickstr.app.alerts.persistence;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+@RepositoryRestResource(exported = false)
+public interface AlertSubscriptionRepository extends CrudRepository<AlertSubscriptionEntity, Long> {
+}
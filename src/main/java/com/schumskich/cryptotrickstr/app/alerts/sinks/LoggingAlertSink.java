@@ -0,0 +1,28 @@
+package com.schumskich.cryptotrickstr.app.alerts.sinks;
+
+import com.schumskich.cryptotrickstr.app.alerts.AlertSink;
+import com.schumskich.cryptotrickstr.app.alerts.FiredAlert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes fired alerts to the log.
+ */
+@Component
+@ConditionalOnProperty(prefix = "alerts", name = "sink", havingValue = "log", matchIfMissing = true)
+public class LoggingAlertSink implements AlertSink {
+    private static Logger LOG = LoggerFactory.getLogger(LoggingAlertSink.class);
+
+    @Override
+    public void send(List<FiredAlert> alerts) {
+        for (FiredAlert alert : alerts) {
+            LOG.info("Alert " + alert.getSubscriptionId() + " fired: the price gap of " + alert.getSymbol() + " is "
+                    + alert.getPriceGap() + " (" + alert.getPriceGapPercent() + "%) between "
+                    + alert.getMinPriceExchange() + " and " + alert.getMaxPriceExchange() + ".");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.schumskich.cryptotrickstr.app.alerts.sinks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.schumskich.cryptotrickstr.app.alerts.AlertSink;
+import com.schumskich.cryptotrickstr.app.alerts.FiredAlert;
+import com.schumskich.cryptotrickstr.config.AlertConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Posts fired alerts as a JSON array to <code>alerts.webhook.url</code>. The alerts are serialized by the object mapper
+ * of the RESTful API, so timestamps are written like in its responses. Failed requests are not retried.
+ */
+@Component
+@ConditionalOnProperty(prefix = "alerts", name = "sink", havingValue = "webhook")
+public class WebhookAlertSink implements AlertSink {
+    private final RestTemplate restTemplate;
+    private final String url;
+
+    @Autowired
+    public WebhookAlertSink(AlertConfig alertConfig, ObjectMapper objectMapper) {
+        this(alertConfig.getWebhook().getUrl(), alertConfig.getWebhook().getConnectTimeout(),
+                alertConfig.getWebhook().getReadTimeout(), objectMapper);
+    }
+
+    public WebhookAlertSink(String url, int connectTimeout, int readTimeout, ObjectMapper objectMapper) {
+        // Not the REST template of the CryptoCompare API, which resolves paths against the API
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.restTemplate.setMessageConverters(Collections.singletonList(
+                new MappingJackson2HttpMessageConverter(objectMapper)));
+        this.url = url;
+    }
+
+    @Override
+    public void send(List<FiredAlert> alerts) {
+        this.restTemplate.postForLocation(this.url, alerts);
+    }
+}
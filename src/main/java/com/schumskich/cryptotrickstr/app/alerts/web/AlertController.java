@@ -0,0 +1,54 @@
+package com.schumskich.cryptotrickstr.app.alerts.web;
+
+import com.schumskich.cryptotrickstr.app.alerts.AlertService;
+import com.schumskich.cryptotrickstr.app.alerts.persistence.AlertSubscriptionEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Registers and removes alert subscriptions (see {@link AlertService}).
+ */
+@RestController
+@RequestMapping("/alerts")
+@ConditionalOnProperty(prefix = "alerts", name = "enabled", havingValue = "true")
+public class AlertController {
+    private final AlertService alertService;
+
+    @Autowired
+    public AlertController(AlertService alertService) {
+        this.alertService = alertService;
+    }
+
+    @RequestMapping(method = RequestMethod.GET)
+    public List<AlertSubscriptionEntity> findAll() {
+        return this.alertService.getSubscriptions();
+    }
+
+    @RequestMapping(method = RequestMethod.POST)
+    @ResponseStatus(HttpStatus.CREATED)
+    public AlertSubscriptionEntity subscribe(@RequestBody AlertSubscriptionEntity subscription) {
+        return this.alertService.subscribe(subscription);
+    }
+
+    @RequestMapping(method = RequestMethod.DELETE, path = "/{id}")
+    public ResponseEntity<Void> unsubscribe(@PathVariable("id") long id) {
+        return this.alertService.unsubscribe(id)
+                ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidSubscription(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,47 @@
+package com.schumskich.cryptotrickstr.app.arbitrage;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A sequence of trades and transfers that ends with more of the currency it started with (fees included).
+ */
+@Getter
+public class ArbitrageCycle {
+    /**
+     * The gain of running through the cycle once (in percent of the invested amount).
+     */
+    private final double profitPercent;
+
+    private final List<Step> steps;
+
+    public ArbitrageCycle(double profitPercent, List<Step> steps) {
+        this.profitPercent = profitPercent;
+        this.steps = steps;
+    }
+
+    /**
+     * Exchanging one currency for another one (on the same exchange) or moving a currency to another exchange.
+     */
+    @Getter
+    public static class Step {
+        private final String fromExchange;
+        private final String fromCurrency;
+        private final String toExchange;
+        private final String toCurrency;
+
+        /**
+         * The amount of the target currency received for one unit of the source currency (fees included).
+         */
+        private final double rate;
+
+        public Step(String fromExchange, String fromCurrency, String toExchange, String toCurrency, double rate) {
+            this.fromExchange = fromExchange;
+            this.fromCurrency = fromCurrency;
+            this.toExchange = toExchange;
+            this.toCurrency = toCurrency;
+            this.rate = rate;
+        }
+    }
+}
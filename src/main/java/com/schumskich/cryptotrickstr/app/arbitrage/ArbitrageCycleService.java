@@ -0,0 +1,285 @@
+package com.schumskich.cryptotrickstr.app.arbitrage;
+
+import com.schumskich.cryptotrickstr.app.arbitrage.engine.NegativeCycleDetector;
+import com.schumskich.cryptotrickstr.app.coins.ingest.QuotesReceivedEvent;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinStore;
+import com.schumskich.cryptotrickstr.config.ArbitrageConfig;
+import com.schumskich.cryptotrickstr.config.CryptoCompareConfig;
+import com.schumskich.cryptotrickstr.support.cryptocompare.CryptoCompareAdapter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.PriceMultiFullResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects arbitrage cycles over several exchanges and quote currencies, e.g. buying ETH with USD on one exchange,
+ * selling it for BTC and selling the BTC for USD again.
+ * <p>
+ * Every pair of exchange and currency is a node of a graph. A trade on an exchange is an edge with the weight
+ * <code>-log(rate)</code> (fees included), so that the weight of a cycle is negative if and only if running through
+ * the cycle is profitable. Moving a currency to another exchange is modelled using a hub node per currency (with the
+ * transfer fee on the edge to the hub), so the number of transfer edges grows linearly with the number of exchanges.
+ * The {@link NegativeCycleDetector} updates the graph one quote at a time, so a refresh only costs work around the
+ * changed prices instead of a search of the whole graph.
+ * <p>
+ * The graph is fed with the quotes of the ingest pipeline (in <code>arbitrage.cycles.ingestCurrency</code>) and
+ * periodically with the prices of all coins in all quote currencies on every whitelisted exchange (see
+ * {@link #refreshQuotes()}).
+ */
+@Service
+@ConditionalOnProperty(prefix = "arbitrage.cycles", name = "enabled", havingValue = "true")
+public class ArbitrageCycleService implements PublicMetrics {
+    private static Logger LOG = LoggerFactory.getLogger(ArbitrageCycleService.class);
+
+    private final ArbitrageConfig.Cycles config;
+    private final List<String> exchanges;
+    private final CryptoCompareAdapter adapter;
+    private final CoinStore coinStore;
+
+    private final double tradeWeight;
+    private final double transferWeight;
+
+    private final NegativeCycleDetector detector = new NegativeCycleDetector();
+    private final Map<String, Integer> nodes = new HashMap<>();
+    private final List<String> nodeExchanges = new ArrayList<>();
+    private final List<String> nodeCurrencies = new ArrayList<>();
+    private final Map<Long, Integer> edges = new HashMap<>();
+
+    /**
+     * The time of the quote of each trade edge (in milliseconds since the epoch), 0 for transfer edges and removed
+     * quotes.
+     */
+    private long[] quoteTimes = new long[16];
+
+    private long quoteUpdates;
+    private volatile List<ArbitrageCycle> cycles = Collections.emptyList();
+
+    @Autowired
+    public ArbitrageCycleService(ArbitrageConfig arbitrageConfig, CryptoCompareConfig cryptoCompareConfig,
+                                 CryptoCompareAdapter adapter, CoinStore coinStore) {
+        this.config = arbitrageConfig.getCycles();
+        this.exchanges = cryptoCompareConfig.getExchangeWhitelist();
+        this.adapter = adapter;
+        this.coinStore = coinStore;
+        this.tradeWeight = -Math.log(1 - this.config.getTradeFeePercent() / 100);
+        this.transferWeight = -Math.log(1 - this.config.getTransferFeePercent() / 100);
+    }
+
+    /**
+     * @return The detected cycles, most profitable first.
+     */
+    public List<ArbitrageCycle> getCycles() {
+        return this.cycles;
+    }
+
+    @EventListener(QuotesReceivedEvent.class)
+    public void onQuotesReceived(QuotesReceivedEvent event) {
+        try {
+            synchronized (this) {
+                for (Map.Entry<String, ExchangeQuotes> entry : event.getQuotesBySymbol().entrySet()) {
+                    ExchangeQuotes quotes = entry.getValue();
+                    for (int i = 0; i < quotes.size(); i++) {
+                        updateQuote(quotes.getExchangeName(i), entry.getKey(), this.config.getIngestCurrency(),
+                                quotes.getPrice(i), quotes.getLastUpdated(i), event.getTimestamp());
+                    }
+                }
+                detectCycles();
+            }
+        } catch (Throwable t) {
+            // The ingest pipeline must not fail because of the cycle detection
+            LOG.error("Could not update the arbitrage cycles.", t);
+        }
+    }
+
+    /**
+     * Fetches the prices of all stored coins in all quote currencies on every whitelisted exchange (one request per
+     * exchange and chunk of symbols), removes outdated quotes and detects the cycles of the updated graph.
+     */
+    public void refreshQuotes() {
+        List<String> symbols = new ArrayList<>();
+        for (CoinEntity coin : this.coinStore.findAll()) {
+            symbols.add(coin.getSymbol());
+        }
+        if (symbols.isEmpty()) {
+            return;
+        }
+
+        for (String exchange : this.exchanges) {
+            Map<String, Map<String, PriceMultiFullResponse.PriceData>> prices =
+                    this.adapter.fetchCurrencyPrices(symbols, this.config.getQuoteCurrencies(), exchange);
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                prices.forEach((symbol, pricesByCurrency) -> pricesByCurrency.forEach((currency, data) -> {
+                    if (data.getPrice() != null && data.getLastUpdated() != null) {
+                        updateQuote(exchange, symbol, currency, data.getPrice(), data.getLastUpdated(), now);
+                    }
+                }));
+            }
+        }
+
+        synchronized (this) {
+            removeOutdatedQuotes(System.currentTimeMillis());
+            detectCycles();
+            LOG.info("Refreshed the arbitrage graph (" + this.detector.nodeCount() + " nodes, "
+                    + this.detector.edgeCount() + " edges, " + this.cycles.size() + " cycles).");
+        }
+    }
+
+    /**
+     * Updates the edges of a currency pair on an exchange.
+     *
+     * @param exchange    The name of the exchange.
+     * @param base        The symbol of the currency that is bought or sold.
+     * @param quote       The symbol of the currency the price is given in.
+     * @param price       The price of one unit of the base currency.
+     * @param lastUpdated The time of the quote (in milliseconds since the epoch).
+     * @param now         The current time (in milliseconds since the epoch).
+     */
+    public synchronized void updateQuote(String exchange, String base, String quote, double price,
+                                         long lastUpdated, long now) {
+        if (base.equals(quote) || now - lastUpdated >= this.config.getMaxQuoteAge()) {
+            return;
+        }
+        // An invalid price removes the pair.
+        boolean valid = price > 0 && !Double.isInfinite(price);
+        int baseNode = node(exchange, base);
+        int quoteNode = node(exchange, quote);
+        setTradeWeight(edge(quoteNode, baseNode),
+                valid ? Math.log(price) + this.tradeWeight : Double.POSITIVE_INFINITY, lastUpdated);
+        setTradeWeight(edge(baseNode, quoteNode),
+                valid ? -Math.log(price) + this.tradeWeight : Double.POSITIVE_INFINITY, lastUpdated);
+        this.quoteUpdates++;
+    }
+
+    /**
+     * Removes the quotes that have not been updated for <code>arbitrage.cycles.maxQuoteAge</code> milliseconds.
+     *
+     * @param now The current time (in milliseconds since the epoch).
+     */
+    public synchronized void removeOutdatedQuotes(long now) {
+        for (int edge = 0; edge < this.detector.edgeCount(); edge++) {
+            if (this.quoteTimes[edge] != 0 && now - this.quoteTimes[edge] >= this.config.getMaxQuoteAge()) {
+                this.detector.setWeight(edge, Double.POSITIVE_INFINITY);
+                this.quoteTimes[edge] = 0;
+            }
+        }
+    }
+
+    /**
+     * Replaces the detected cycles with the profitable cycles of the current graph.
+     */
+    public synchronized void detectCycles() {
+        List<ArbitrageCycle> detected = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int[] cycle : this.detector.findCycles()) {
+            int[] sortedEdges = cycle.clone();
+            Arrays.sort(sortedEdges);
+            if (seen.add(Arrays.toString(sortedEdges))) {
+                ArbitrageCycle arbitrageCycle = toArbitrageCycle(cycle);
+                if (arbitrageCycle.getProfitPercent() >= this.config.getMinProfitPercent()) {
+                    detected.add(arbitrageCycle);
+                }
+            }
+        }
+        detected.sort(Comparator.comparingDouble(ArbitrageCycle::getProfitPercent).reversed());
+        this.cycles = Collections.unmodifiableList(
+                new ArrayList<>(detected.subList(0, Math.min(detected.size(), this.config.getMaxCycles()))));
+    }
+
+    @Override
+    public synchronized Collection<Metric<?>> metrics() {
+        String prefix = "arbitrage.cycles.";
+        return Arrays.asList(
+                new Metric<>(prefix + "nodes", this.detector.nodeCount()),
+                new Metric<>(prefix + "edges", this.detector.edgeCount()),
+                new Metric<>(prefix + "excludedEdges", this.detector.excludedEdgeCount()),
+                new Metric<>(prefix + "settledNodes", this.detector.getSettledNodes()),
+                new Metric<>(prefix + "quoteUpdates", this.quoteUpdates),
+                new Metric<>(prefix + "count", this.cycles.size()));
+    }
+
+    private void setTradeWeight(int edge, double weight, long lastUpdated) {
+        this.detector.setWeight(edge, weight);
+        this.quoteTimes[edge] = weight == Double.POSITIVE_INFINITY ? 0 : lastUpdated;
+    }
+
+    /**
+     * Returns the node of a currency on an exchange and creates it (including its transfer edges) if necessary.
+     *
+     * @param exchange The name of the exchange or <code>null</code> for the hub node of the currency.
+     */
+    private int node(String exchange, String currency) {
+        String key = exchange == null ? "|" + currency : exchange + "|" + currency;
+        Integer node = this.nodes.get(key);
+        if (node != null) {
+            return node;
+        }
+
+        int created = this.detector.addNode();
+        this.nodes.put(key, created);
+        this.nodeExchanges.add(exchange);
+        this.nodeCurrencies.add(currency);
+        if (exchange != null) {
+            int hub = node(null, currency);
+            this.detector.setWeight(edge(created, hub), this.transferWeight);
+            this.detector.setWeight(edge(hub, created), 0);
+        }
+        return created;
+    }
+
+    private int edge(int from, int to) {
+        return this.edges.computeIfAbsent(((long) from << 32) | to, key -> {
+            int edge = this.detector.addEdge(from, to);
+            if (edge == this.quoteTimes.length) {
+                this.quoteTimes = Arrays.copyOf(this.quoteTimes, edge * 2);
+            }
+            return edge;
+        });
+    }
+
+    /**
+     * Converts the edges of a cycle into steps. A transfer through a hub node becomes one step.
+     */
+    private ArbitrageCycle toArbitrageCycle(int[] cycle) {
+        int start = 0;
+        while (this.nodeExchanges.get(this.detector.getFrom(cycle[start])) == null) {
+            start++;
+        }
+
+        List<ArbitrageCycle.Step> steps = new ArrayList<>();
+        double weight = 0;
+        for (int i = 0; i < cycle.length; i++) {
+            int edge = cycle[(start + i) % cycle.length];
+            int from = this.detector.getFrom(edge);
+            int to = this.detector.getTo(edge);
+            double stepWeight = this.detector.getWeight(edge);
+            if (this.nodeExchanges.get(to) == null) {
+                edge = cycle[(start + ++i) % cycle.length];
+                to = this.detector.getTo(edge);
+                stepWeight += this.detector.getWeight(edge);
+            }
+            weight += stepWeight;
+            steps.add(new ArbitrageCycle.Step(this.nodeExchanges.get(from), this.nodeCurrencies.get(from),
+                    this.nodeExchanges.get(to), this.nodeCurrencies.get(to), Math.exp(-stepWeight)));
+        }
+        return new ArbitrageCycle((Math.exp(-weight) - 1) * 100, steps);
+    }
+}
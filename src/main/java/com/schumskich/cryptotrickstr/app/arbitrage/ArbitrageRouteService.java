@@ -0,0 +1,86 @@
+package com.schumskich.cryptotrickstr.app.arbitrage;
+
+import com.schumskich.cryptotrickstr.app.arbitrage.engine.ArbitrageRoutes;
+import com.schumskich.cryptotrickstr.app.arbitrage.engine.SpreadMatrixEngine;
+import com.schumskich.cryptotrickstr.app.arbitrage.persistence.ArbitrageRouteEntity;
+import com.schumskich.cryptotrickstr.app.arbitrage.persistence.ArbitrageRouteRepository;
+import com.schumskich.cryptotrickstr.config.ArbitrageConfig;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ArbitrageRouteService {
+    private final ArbitrageRouteRepository routeRepository;
+    private final SpreadMatrixEngine engine = new SpreadMatrixEngine();
+    private final ArbitrageRoutes routes;
+
+    @Autowired
+    public ArbitrageRouteService(ArbitrageConfig arbitrageConfig, ArbitrageRouteRepository routeRepository) {
+        this.routeRepository = routeRepository;
+        this.routes = new ArbitrageRoutes(arbitrageConfig.getRoutesPerCoin());
+    }
+
+    /**
+     * Computes the best arbitrage routes of the given coins and replaces their stored routes in one transaction.
+     *
+     * @param quotesBySymbol The quotes of all relevant exchanges, keyed by cryptocurrency symbol.
+     */
+    @Transactional
+    public synchronized void updateRoutes(Map<String, ExchangeQuotes> quotesBySymbol) {
+        Map<String, List<ArbitrageRouteEntity>> storedRoutes = new HashMap<>();
+        for (ArbitrageRouteEntity route : this.routeRepository.findBySymbolIn(quotesBySymbol.keySet())) {
+            storedRoutes.computeIfAbsent(route.getSymbol(), symbol -> new ArrayList<>()).add(route);
+        }
+
+        List<ArbitrageRouteEntity> changedRoutes = new ArrayList<>();
+        List<ArbitrageRouteEntity> obsoleteRoutes = new ArrayList<>();
+        for (Map.Entry<String, ExchangeQuotes> entry : quotesBySymbol.entrySet()) {
+            ExchangeQuotes quotes = entry.getValue();
+            this.engine.computeRoutes(quotes, this.routes);
+
+            List<ArbitrageRouteEntity> existing = storedRoutes.getOrDefault(entry.getKey(), new ArrayList<>());
+            existing.sort(Comparator.comparingInt(ArbitrageRouteEntity::getRouteRank));
+            for (int rank = 0; rank < this.routes.size(); rank++) {
+                ArbitrageRouteEntity route = rank < existing.size() ? existing.get(rank) : new ArbitrageRouteEntity();
+                setRoute(entry.getKey(), rank, quotes, route);
+                changedRoutes.add(route);
+            }
+            for (int rank = this.routes.size(); rank < existing.size(); rank++) {
+                obsoleteRoutes.add(existing.get(rank));
+            }
+        }
+
+        if (!obsoleteRoutes.isEmpty()) {
+            this.routeRepository.delete(obsoleteRoutes);
+        }
+        if (!changedRoutes.isEmpty()) {
+            this.routeRepository.save(changedRoutes);
+        }
+    }
+
+    private void setRoute(String symbol, int rank, ExchangeQuotes quotes, ArbitrageRouteEntity route) {
+        int buy = this.routes.getBuyQuote(rank);
+        int sell = this.routes.getSellQuote(rank);
+
+        route.setSymbol(symbol);
+        route.setRouteRank(rank);
+        route.setBuyExchange(quotes.getExchangeName(buy));
+        route.setBuyPrice(quotes.getPrice(buy));
+        route.setBuyVolume24H(quotes.getVolume24H(buy));
+        route.setBuyPriceUpdated(quotes.getLastUpdated(buy));
+        route.setSellExchange(quotes.getExchangeName(sell));
+        route.setSellPrice(quotes.getPrice(sell));
+        route.setSellVolume24H(quotes.getVolume24H(sell));
+        route.setSellPriceUpdated(quotes.getLastUpdated(sell));
+        route.setSpread(this.routes.getSpread(rank));
+        route.setSpreadPercent(this.routes.getSpread(rank) / quotes.getPrice(buy) * 100);
+    }
+}
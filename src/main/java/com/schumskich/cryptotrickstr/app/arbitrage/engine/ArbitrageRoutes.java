@@ -0,0 +1,77 @@
+package com.schumskich.cryptotrickstr.app.arbitrage.engine;
+
+/**
+ * A reusable buffer for the best arbitrage routes of a coin, ordered by descending spread. A route is described by the
+ * indexes of the quotes (see {@link com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes})
+ * of the exchange to buy on and the exchange to sell on.
+ */
+public class ArbitrageRoutes {
+    private final int[] buyQuotes;
+    private final int[] sellQuotes;
+    private final double[] spreads;
+    private int size;
+
+    /**
+     * @param capacity The maximum number of routes to keep.
+     */
+    public ArbitrageRoutes(int capacity) {
+        this.buyQuotes = new int[capacity];
+        this.sellQuotes = new int[capacity];
+        this.spreads = new double[capacity];
+    }
+
+    /**
+     * Removes all routes.
+     */
+    void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Adds a route if its spread is among the best ones seen since the last {@link #clear()}.
+     *
+     * @param buyQuote  The index of the quote to buy.
+     * @param sellQuote The index of the quote to sell.
+     * @param spread    The price difference between both quotes.
+     */
+    void offer(int buyQuote, int sellQuote, double spread) {
+        int position = this.size;
+        while (position > 0 && this.spreads[position - 1] < spread) {
+            position--;
+        }
+        if (position >= capacity()) {
+            return;
+        }
+
+        int last = Math.min(this.size, capacity() - 1);
+        for (int i = last; i > position; i--) {
+            this.buyQuotes[i] = this.buyQuotes[i - 1];
+            this.sellQuotes[i] = this.sellQuotes[i - 1];
+            this.spreads[i] = this.spreads[i - 1];
+        }
+        this.buyQuotes[position] = buyQuote;
+        this.sellQuotes[position] = sellQuote;
+        this.spreads[position] = spread;
+        this.size = last + 1;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int capacity() {
+        return this.spreads.length;
+    }
+
+    public int getBuyQuote(int rank) {
+        return this.buyQuotes[rank];
+    }
+
+    public int getSellQuote(int rank) {
+        return this.sellQuotes[rank];
+    }
+
+    public double getSpread(int rank) {
+        return this.spreads[rank];
+    }
+}
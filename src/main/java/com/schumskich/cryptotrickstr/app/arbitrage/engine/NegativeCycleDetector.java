@@ -0,0 +1,307 @@
+package com.schumskich.cryptotrickstr.app.arbitrage.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds negative cycles in a weighted directed graph whose edge weights change one at a time.
+ * <p>
+ * The detector maintains a feasible potential <code>p</code> of all nodes, i.e.
+ * <code>p[from] + weight - p[to] >= 0</code> for every edge of the graph (the "reduced cost" of the edge). Such a
+ * potential exists if and only if the graph contains no negative cycle. Increasing a weight keeps the potential
+ * feasible. If decreasing a weight gives the edge <code>(u, v)</code> a negative reduced cost <code>c</code>, a
+ * Dijkstra search over the (non-negative) reduced costs starting at <code>v</code> decides whether <code>u</code> can
+ * be reached at a cost below <code>-c</code>: in that case the path and the edge form a negative cycle, otherwise the
+ * potential of every node reached below that cost is lowered, so that it is feasible again. The search is pruned at
+ * <code>-c</code>, so the work of an update depends on the size of the change and not on the size of the graph.
+ * <p>
+ * Edges that close a negative cycle are excluded from the potential until their weight no longer does so. They are
+ * checked again by {@link #findCycles()}, which reports one cycle per excluded edge. A cycle that consists of several
+ * excluded edges only is not reported, but each of those edges is part of another reported cycle.
+ * <p>
+ * All work is done on primitive arrays that are reused between updates. Instances are not thread safe.
+ */
+public class NegativeCycleDetector {
+    /**
+     * Cycles whose weight is closer to zero than this are not considered negative (the weights are sums of
+     * logarithms, so rounding errors must not be reported as cycles).
+     */
+    private static final double EPSILON = 1e-9;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int nodeCount;
+    private double[] potentials = new double[INITIAL_CAPACITY];
+    private int[][] outEdges = new int[INITIAL_CAPACITY][];
+    private int[] outDegrees = new int[INITIAL_CAPACITY];
+
+    private int edgeCount;
+    private int[] edgeFrom = new int[INITIAL_CAPACITY];
+    private int[] edgeTo = new int[INITIAL_CAPACITY];
+    private double[] weights = new double[INITIAL_CAPACITY];
+    private boolean[] excluded = new boolean[INITIAL_CAPACITY];
+
+    private int[] excludedEdges = new int[INITIAL_CAPACITY];
+    private int excludedCount;
+
+    // Scratch space of the Dijkstra search, reset after every search
+    private double[] distances = new double[INITIAL_CAPACITY];
+    private int[] predecessors = new int[INITIAL_CAPACITY];
+    private boolean[] settled = new boolean[INITIAL_CAPACITY];
+    private int[] touched = new int[INITIAL_CAPACITY];
+    private int touchedCount;
+    private int[] heapNodes = new int[INITIAL_CAPACITY];
+    private double[] heapKeys = new double[INITIAL_CAPACITY];
+    private int heapSize;
+
+    private long settledNodes;
+
+    public NegativeCycleDetector() {
+        Arrays.fill(this.distances, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @return The index of the new node.
+     */
+    public int addNode() {
+        if (this.nodeCount == this.potentials.length) {
+            int capacity = this.nodeCount * 2;
+            this.potentials = Arrays.copyOf(this.potentials, capacity);
+            this.outEdges = Arrays.copyOf(this.outEdges, capacity);
+            this.outDegrees = Arrays.copyOf(this.outDegrees, capacity);
+            this.distances = Arrays.copyOf(this.distances, capacity);
+            Arrays.fill(this.distances, this.nodeCount, capacity, Double.POSITIVE_INFINITY);
+            this.predecessors = Arrays.copyOf(this.predecessors, capacity);
+            this.settled = Arrays.copyOf(this.settled, capacity);
+            this.touched = Arrays.copyOf(this.touched, capacity);
+        }
+        this.outEdges[this.nodeCount] = new int[4];
+        return this.nodeCount++;
+    }
+
+    /**
+     * Adds an edge with an infinite weight (i.e. an edge that does not exist yet for all practical purposes).
+     *
+     * @param from The index of the node the edge starts at.
+     * @param to   The index of the node the edge ends at.
+     * @return The index of the new edge.
+     */
+    public int addEdge(int from, int to) {
+        if (this.edgeCount == this.weights.length) {
+            int capacity = this.edgeCount * 2;
+            this.edgeFrom = Arrays.copyOf(this.edgeFrom, capacity);
+            this.edgeTo = Arrays.copyOf(this.edgeTo, capacity);
+            this.weights = Arrays.copyOf(this.weights, capacity);
+            this.excluded = Arrays.copyOf(this.excluded, capacity);
+        }
+        int edge = this.edgeCount++;
+        this.edgeFrom[edge] = from;
+        this.edgeTo[edge] = to;
+        this.weights[edge] = Double.POSITIVE_INFINITY;
+
+        if (this.outDegrees[from] == this.outEdges[from].length) {
+            this.outEdges[from] = Arrays.copyOf(this.outEdges[from], this.outDegrees[from] * 2);
+        }
+        this.outEdges[from][this.outDegrees[from]++] = edge;
+        return edge;
+    }
+
+    /**
+     * Changes the weight of an edge. If the edge closes a negative cycle, it is excluded until a call of
+     * {@link #findCycles()} finds that it does not close one anymore.
+     *
+     * @param edge   The index of the edge.
+     * @param weight The new weight or {@link Double#POSITIVE_INFINITY} to remove the edge.
+     */
+    public void setWeight(int edge, double weight) {
+        double previous = this.weights[edge];
+        this.weights[edge] = weight;
+        if (!this.excluded[edge] && weight < previous && tryInsert(edge) != null) {
+            this.excluded[edge] = true;
+            if (this.excludedCount == this.excludedEdges.length) {
+                this.excludedEdges = Arrays.copyOf(this.excludedEdges, this.excludedCount * 2);
+            }
+            this.excludedEdges[this.excludedCount++] = edge;
+        }
+    }
+
+    /**
+     * Checks all excluded edges again and includes the ones that do not close a negative cycle anymore.
+     *
+     * @return The negative cycles closed by the remaining excluded edges. A cycle is given by the indexes of its
+     * edges, starting with the excluded edge.
+     */
+    public List<int[]> findCycles() {
+        List<int[]> cycles = new ArrayList<>();
+        int i = 0;
+        while (i < this.excludedCount) {
+            int edge = this.excludedEdges[i];
+            int[] cycle = tryInsert(edge);
+            if (cycle != null) {
+                cycles.add(cycle);
+                i++;
+            } else {
+                this.excluded[edge] = false;
+                this.excludedEdges[i] = this.excludedEdges[--this.excludedCount];
+            }
+        }
+        return cycles;
+    }
+
+    public int nodeCount() {
+        return this.nodeCount;
+    }
+
+    public int edgeCount() {
+        return this.edgeCount;
+    }
+
+    public int excludedEdgeCount() {
+        return this.excludedCount;
+    }
+
+    public int getFrom(int edge) {
+        return this.edgeFrom[edge];
+    }
+
+    public int getTo(int edge) {
+        return this.edgeTo[edge];
+    }
+
+    public double getWeight(int edge) {
+        return this.weights[edge];
+    }
+
+    /**
+     * @return The number of nodes settled by all searches so far (a measure of the work done by the detector).
+     */
+    public long getSettledNodes() {
+        return this.settledNodes;
+    }
+
+    /**
+     * Includes an edge into the potential, unless it closes a negative cycle.
+     *
+     * @param edge The index of the edge.
+     * @return The edges of the negative cycle closed by the edge or <code>null</code> if the edge has been included.
+     */
+    private int[] tryInsert(int edge) {
+        int u = this.edgeFrom[edge];
+        int v = this.edgeTo[edge];
+        double reducedCost = this.potentials[u] + this.weights[edge] - this.potentials[v];
+        if (!(reducedCost < 0)) {
+            return null;
+        }
+        if (u == v) {
+            return reducedCost < -EPSILON ? new int[]{edge} : null;
+        }
+
+        // Nodes that cannot be reached below this bound keep their potential.
+        double bound = -reducedCost - EPSILON;
+        int[] cycle = null;
+        push(v, 0);
+        while (this.heapSize > 0) {
+            int node = this.heapNodes[0];
+            double distance = this.heapKeys[0];
+            pop();
+            if (this.settled[node]) {
+                continue;
+            }
+            this.settled[node] = true;
+            this.settledNodes++;
+            if (node == u) {
+                cycle = extractCycle(edge);
+                break;
+            }
+
+            for (int i = 0; i < this.outDegrees[node]; i++) {
+                int out = this.outEdges[node][i];
+                int next = this.edgeTo[out];
+                if (this.excluded[out] || this.weights[out] == Double.POSITIVE_INFINITY || this.settled[next]) {
+                    continue;
+                }
+                // Clamped, as rounding errors may leave tiny negative reduced costs behind.
+                double candidate = distance + Math.max(0,
+                        this.potentials[node] + this.weights[out] - this.potentials[next]);
+                if (candidate < bound && candidate < this.distances[next]) {
+                    this.predecessors[next] = out;
+                    push(next, candidate);
+                }
+            }
+        }
+
+        for (int i = 0; i < this.touchedCount; i++) {
+            int node = this.touched[i];
+            if (cycle == null && this.settled[node]) {
+                this.potentials[node] += reducedCost + this.distances[node];
+            }
+            this.distances[node] = Double.POSITIVE_INFINITY;
+            this.settled[node] = false;
+        }
+        this.touchedCount = 0;
+        this.heapSize = 0;
+        return cycle;
+    }
+
+    /**
+     * @return The edges of the cycle formed by the given edge and the path found by the search.
+     */
+    private int[] extractCycle(int edge) {
+        int length = 1;
+        for (int node = this.edgeFrom[edge]; node != this.edgeTo[edge]; node = this.edgeFrom[this.predecessors[node]]) {
+            length++;
+        }
+        int[] cycle = new int[length];
+        cycle[0] = edge;
+        int node = this.edgeFrom[edge];
+        for (int i = length - 1; i > 0; i--) {
+            cycle[i] = this.predecessors[node];
+            node = this.edgeFrom[cycle[i]];
+        }
+        return cycle;
+    }
+
+    /**
+     * Adds a node to the heap. Nodes are added again if their distance decreases, outdated entries are skipped when
+     * they are removed.
+     */
+    private void push(int node, double distance) {
+        if (this.distances[node] == Double.POSITIVE_INFINITY) {
+            this.touched[this.touchedCount++] = node;
+        }
+        this.distances[node] = distance;
+
+        if (this.heapSize == this.heapNodes.length) {
+            this.heapNodes = Arrays.copyOf(this.heapNodes, this.heapSize * 2);
+            this.heapKeys = Arrays.copyOf(this.heapKeys, this.heapSize * 2);
+        }
+        int i = this.heapSize++;
+        while (i > 0 && this.heapKeys[(i - 1) / 2] > distance) {
+            this.heapNodes[i] = this.heapNodes[(i - 1) / 2];
+            this.heapKeys[i] = this.heapKeys[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        this.heapNodes[i] = node;
+        this.heapKeys[i] = distance;
+    }
+
+    private void pop() {
+        int node = this.heapNodes[--this.heapSize];
+        double key = this.heapKeys[this.heapSize];
+        int i = 0;
+        while (2 * i + 1 < this.heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < this.heapSize && this.heapKeys[child + 1] < this.heapKeys[child]) {
+                child++;
+            }
+            if (this.heapKeys[child] >= key) {
+                break;
+            }
+            this.heapNodes[i] = this.heapNodes[child];
+            this.heapKeys[i] = this.heapKeys[child];
+            i = child;
+        }
+        this.heapNodes[i] = node;
+        this.heapKeys[i] = key;
+    }
+}
@@ -0,0 +1,85 @@
+package com.schumskich.cryptotrickstr.app.arbitrage.engine;
+
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+
+/**
+ * Finds the best arbitrage routes (buy on one exchange, sell on another one) of a coin.
+ * <p>
+ * The spread matrix of all exchange pairs is never built explicitly: once the quotes are sorted by price, the spread
+ * of a pair is the difference of their sorted positions' prices, and the <code>k</code> largest spreads can only be
+ * formed by one of the <code>k</code> cheapest and one of the <code>k</code> most expensive quotes. A computation
+ * therefore costs <code>O(n log n + k²)</code> for <code>n</code> quotes.
+ * <p>
+ * All work is done on primitive arrays that are reused between calls, so computing routes does not allocate memory
+ * (unless a coin has more quotes than any coin before). Instances are not thread safe.
+ */
+public class SpreadMatrixEngine {
+    private int[] order = new int[16];
+
+    /**
+     * Computes the best routes of a coin.
+     *
+     * @param quotes The quotes of all relevant exchanges of the coin.
+     * @param routes The buffer to store the best routes in (the number of routes is limited by its capacity).
+     */
+    public void computeRoutes(ExchangeQuotes quotes, ArbitrageRoutes routes) {
+        routes.clear();
+        int n = quotes.size();
+        if (n < 2) {
+            return;
+        }
+
+        if (this.order.length < n) {
+            this.order = new int[Math.max(n, this.order.length * 2)];
+        }
+        for (int i = 0; i < n; i++) {
+            this.order[i] = i;
+        }
+        sortByPrice(quotes, this.order, n);
+
+        int candidates = Math.min(routes.capacity(), n);
+        for (int buy = 0; buy < candidates; buy++) {
+            for (int sell = n - 1; sell > buy && sell >= n - candidates; sell--) {
+                double spread = quotes.getPrice(this.order[sell]) - quotes.getPrice(this.order[buy]);
+                if (spread > 0) {
+                    routes.offer(this.order[buy], this.order[sell], spread);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts the first <code>n</code> quote indexes in the given array by ascending price (heap sort, so that the
+     * sort is in-place and needs no additional memory).
+     */
+    private static void sortByPrice(ExchangeQuotes quotes, int[] order, int n) {
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(quotes, order, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            int tmp = order[0];
+            order[0] = order[end];
+            order[end] = tmp;
+            siftDown(quotes, order, 0, end);
+        }
+    }
+
+    private static void siftDown(ExchangeQuotes quotes, int[] order, int root, int n) {
+        while (true) {
+            int child = 2 * root + 1;
+            if (child >= n) {
+                return;
+            }
+            if (child + 1 < n && quotes.getPrice(order[child + 1]) > quotes.getPrice(order[child])) {
+                child++;
+            }
+            if (quotes.getPrice(order[root]) >= quotes.getPrice(order[child])) {
+                return;
+            }
+            int tmp = order[root];
+            order[root] = order[child];
+            order[child] = tmp;
+            root = child;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.schumskich.cryptotrickstr.app.arbitrage.persistence;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.schumskich.cryptotrickstr.support.json.EpochMillisDeserializer;
+import com.schumskich.cryptotrickstr.support.json.EpochMillisSerializer;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+@Getter
+@Setter
+@Entity
+@Table(indexes = {
+        @Index(name = "IDX_ROUTE_SYMBOL_RANK", columnList = "symbol,routeRank", unique = true),
+        @Index(name = "IDX_ROUTE_SPREAD_PERCENT", columnList = "spreadPercent"),
+        @Index(name = "IDX_ROUTE_EXCHANGES", columnList = "buyExchange,sellExchange")
+})
+public class ArbitrageRouteEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "routeSequence")
+    @SequenceGenerator(name = "routeSequence", sequenceName = "ROUTE_SEQUENCE", allocationSize = 50)
+    private long id;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    /**
+     * The rank of the route within the routes of the coin (0 = largest spread).
+     */
+    @Column(nullable = false)
+    private int routeRank;
+
+    @Column
+    private String buyExchange;
+
+    @Column
+    private double buyPrice;
+
+    @Column
+    private double buyVolume24H;
+
+    @Column
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    @JsonDeserialize(using = EpochMillisDeserializer.class)
+    private long buyPriceUpdated;
+
+    @Column
+    private String sellExchange;
+
+    @Column
+    private double sellPrice;
+
+    @Column
+    private double sellVolume24H;
+
+    @Column
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    @JsonDeserialize(using = EpochMillisDeserializer.class)
+    private long sellPriceUpdated;
+
+    @Column
+    private double spread;
+
+    @Column
+    private double spreadPercent;
+
+    @Column(nullable = false)
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    @JsonDeserialize(using = EpochMillisDeserializer.class)
+    private long dateUpdated;
+
+    @PreUpdate
+    @PrePersist
+    public void updateTimeStamps() {
+        dateUpdated = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,22 @@
+package com.schumskich.cryptotrickstr.app.arbitrage.persistence;
+
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+import java.util.Collection;
+import java.util.List;
+
+@RepositoryRestResource(collectionResourceRel = "routes", path = "/routes")
+public interface ArbitrageRouteRepository extends PagingAndSortingRepository<ArbitrageRouteEntity, Long> {
+    List<ArbitrageRouteEntity> findBySymbolOrderByRouteRankAsc(@Param("symbol") String symbol);
+
+    List<ArbitrageRouteEntity> findBySpreadPercentBetween(@Param("from") Double from, @Param("to") Double to);
+
+    List<ArbitrageRouteEntity> findByBuyExchangeAndSellExchange(@Param("buy") String buyExchange,
+                                                                @Param("sell") String sellExchange);
+
+    @RestResource(exported = false)
+    List<ArbitrageRouteEntity> findBySymbolIn(Collection<String> symbols);
+}
@@ -0,0 +1,35 @@
+package com.schumskich.cryptotrickstr.app.arbitrage.tasks;
+
+import com.schumskich.cryptotrickstr.app.arbitrage.ArbitrageCycleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "arbitrage.cycles", name = "enabled", havingValue = "true")
+public class RefreshArbitrageCyclesTask {
+    private static Logger LOG = LoggerFactory.getLogger(RefreshArbitrageCyclesTask.class);
+
+    private final ArbitrageCycleService arbitrageCycleService;
+
+    @Autowired
+    public RefreshArbitrageCyclesTask(ArbitrageCycleService arbitrageCycleService) {
+        this.arbitrageCycleService = arbitrageCycleService;
+    }
+
+    /**
+     * Periodically fetches the prices of all coins in all quote currencies. The next fetch is scheduled
+     * <code>arbitrage.cycles.refreshInterval</code> milliseconds after the previous one has finished.
+     */
+    @Scheduled(fixedDelayString = "${arbitrage.cycles.refreshInterval}")
+    public void refresh() {
+        try {
+            this.arbitrageCycleService.refreshQuotes();
+        } catch (Throwable t) {
+            LOG.error("Could not refresh the arbitrage cycles.", t);
+        }
+    }
+}
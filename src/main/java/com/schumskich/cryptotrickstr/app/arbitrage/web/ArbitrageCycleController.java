@@ -0,0 +1,36 @@
+package com.schumskich.cryptotrickstr.app.arbitrage.web;
+
+import com.schumskich.cryptotrickstr.app.arbitrage.ArbitrageCycle;
+import com.schumskich.cryptotrickstr.app.arbitrage.ArbitrageCycleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the arbitrage cycles detected by the {@link ArbitrageCycleService}, most profitable first.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "arbitrage.cycles", name = "enabled", havingValue = "true")
+public class ArbitrageCycleController {
+    private final ArbitrageCycleService arbitrageCycleService;
+
+    @Autowired
+    public ArbitrageCycleController(ArbitrageCycleService arbitrageCycleService) {
+        this.arbitrageCycleService = arbitrageCycleService;
+    }
+
+    @RequestMapping(method = RequestMethod.GET, path = "/cycles")
+    public List<ArbitrageCycle> findCycles(
+            @RequestParam(name = "currency", required = false) String currency) {
+        return this.arbitrageCycleService.getCycles().stream()
+                .filter(cycle -> currency == null || cycle.getSteps().stream()
+                        .anyMatch(step -> currency.equals(step.getFromCurrency())))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+package com.schumskich.cryptotrickstr.app.cluster;
+
+import com.schumskich.cryptotrickstr.app.cluster.persistence.RefreshSymbolEntity;
+import com.schumskich.cryptotrickstr.app.cluster.persistence.RefreshSymbolRepository;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinSelector;
+import com.schumskich.cryptotrickstr.app.coins.ingest.TopCoinsSelector;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Selects the coins of the partitions owned by this node (see {@link RefreshLeaseCoordinator}), so that each coin is
+ * refreshed by exactly one node. Only the owner of the first partition fetches the top coins and shares them with
+ * the other nodes using the database; the other nodes refresh the top coins of the latest shared list. This way the
+ * number of API requests per refresh cycle does not grow with the number of nodes.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "cluster", name = "enabled", havingValue = "true")
+public class PartitionedCoinSelector implements CoinSelector {
+    private static Logger LOG = LoggerFactory.getLogger(PartitionedCoinSelector.class);
+
+    private final RefreshLeaseCoordinator coordinator;
+    private final TopCoinsSelector topCoinsSelector;
+    private final RefreshSymbolRepository symbolRepository;
+
+    @Autowired
+    public PartitionedCoinSelector(RefreshLeaseCoordinator coordinator, TopCoinsSelector topCoinsSelector,
+                                   RefreshSymbolRepository symbolRepository) {
+        this.coordinator = coordinator;
+        this.topCoinsSelector = topCoinsSelector;
+        this.symbolRepository = symbolRepository;
+    }
+
+    @Override
+    public List<TopCoinsResponse.CoinInfo> selectCoins() {
+        List<TopCoinsResponse.CoinInfo> coins = new ArrayList<>();
+        selectCoins(coins::add);
+        return coins;
+    }
+
+    /**
+     * @param consumer The consumer of the coins of the owned partitions.
+     * @return The number of pages of the top coins fetched by this node (only the owner of partition 0 fetches them).
+     */
+    @Override
+    public int selectCoins(Consumer<TopCoinsResponse.CoinInfo> consumer) {
+        Set<Integer> partitions = this.coordinator.getOwnedPartitions(System.currentTimeMillis());
+        if (partitions.isEmpty()) {
+            LOG.info("Node '" + this.coordinator.getNodeId() + "' does not own any partitions.");
+            return 0;
+        }
+
+        List<TopCoinsResponse.CoinInfo> topCoins;
+        int requests = 0;
+        if (partitions.contains(0)) {
+            topCoins = new ArrayList<>();
+            requests = this.topCoinsSelector.selectCoins(topCoins::add);
+            shareTopCoins(topCoins);
+        } else {
+            topCoins = this.symbolRepository.findAllByOrderByTopRankAsc().stream()
+                    .map(PartitionedCoinSelector::toCoinInfo)
+                    .collect(Collectors.toList());
+        }
+        topCoins.stream()
+                .filter(coin -> partitions.contains(this.coordinator.partitionOf(coin.getName())))
+                .forEach(consumer);
+        return requests;
+    }
+
+    /**
+     * Stores the top coins before the symbols that dropped out of them are removed, so that other nodes never see an
+     * incomplete list.
+     *
+     * @param topCoins The current top coins.
+     */
+    private void shareTopCoins(List<TopCoinsResponse.CoinInfo> topCoins) {
+        if (topCoins.isEmpty()) {
+            return;
+        }
+        List<RefreshSymbolEntity> symbols = new ArrayList<>(topCoins.size());
+        for (TopCoinsResponse.CoinInfo coin : topCoins) {
+            RefreshSymbolEntity symbol = new RefreshSymbolEntity();
+            symbol.setSymbol(coin.getName());
+            symbol.setFullName(coin.getFullName());
+            symbol.setTopRank(symbols.size());
+            symbols.add(symbol);
+        }
+        this.symbolRepository.save(symbols);
+        this.symbolRepository.deleteBySymbolNotIn(
+                symbols.stream().map(RefreshSymbolEntity::getSymbol).collect(Collectors.toList()));
+    }
+
+    private static TopCoinsResponse.CoinInfo toCoinInfo(RefreshSymbolEntity symbol) {
+        TopCoinsResponse.CoinInfo coin = new TopCoinsResponse.CoinInfo();
+        coin.setName(symbol.getSymbol());
+        coin.setFullName(symbol.getFullName());
+        return coin;
+    }
+}
@@ -0,0 +1,224 @@
+package com.schumskich.cryptotrickstr.app.cluster;
+
+import com.schumskich.cryptotrickstr.app.cluster.persistence.ClusterNodeEntity;
+import com.schumskich.cryptotrickstr.app.cluster.persistence.ClusterNodeRepository;
+import com.schumskich.cryptotrickstr.app.cluster.persistence.RefreshLeaseEntity;
+import com.schumskich.cryptotrickstr.app.cluster.persistence.RefreshLeaseRepository;
+import com.schumskich.cryptotrickstr.config.ClusterConfig;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Splits the symbols into a fixed number of partitions and claims a fair share of them for this node using leases
+ * in the shared database. The fair share is the number of partitions divided by the number of live nodes (rounded
+ * up). With every heartbeat a node renews its leases, releases the partitions above its fair share (so that joining
+ * nodes can claim them) and claims released or expired partitions up to its fair share (so that the partitions of a
+ * dead node are taken over once its leases have expired). Leases are written with optimistic locking, so a node that
+ * loses a race for a lease just tries again with its next heartbeat.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cluster", name = "enabled", havingValue = "true")
+public class RefreshLeaseCoordinator {
+    private static Logger LOG = LoggerFactory.getLogger(RefreshLeaseCoordinator.class);
+
+    @Getter
+    private final String nodeId;
+
+    @Getter
+    private final int partitions;
+
+    private final long leaseDuration;
+    private final long heartbeatInterval;
+    private final RefreshLeaseRepository leaseRepository;
+    private final ClusterNodeRepository nodeRepository;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cluster-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The expiry times of the leases held by this node, keyed by partition.
+     */
+    private volatile Map<Integer, Long> ownedLeases = Collections.emptyMap();
+
+    @Autowired
+    public RefreshLeaseCoordinator(ClusterConfig clusterConfig, RefreshLeaseRepository leaseRepository,
+                                   ClusterNodeRepository nodeRepository) {
+        this(StringUtils.hasText(clusterConfig.getNodeId()) ? clusterConfig.getNodeId() : UUID.randomUUID().toString(),
+                clusterConfig.getPartitions(), clusterConfig.getLeaseDuration(), clusterConfig.getHeartbeatInterval(),
+                leaseRepository, nodeRepository);
+    }
+
+    public RefreshLeaseCoordinator(String nodeId, int partitions, long leaseDuration, long heartbeatInterval,
+                                   RefreshLeaseRepository leaseRepository, ClusterNodeRepository nodeRepository) {
+        this.nodeId = nodeId;
+        this.partitions = partitions;
+        this.leaseDuration = leaseDuration;
+        this.heartbeatInterval = heartbeatInterval;
+        this.leaseRepository = leaseRepository;
+        this.nodeRepository = nodeRepository;
+    }
+
+    /**
+     * Creates the leases of all partitions (unless another node already did) and starts the heartbeats.
+     */
+    @PostConstruct
+    public void start() {
+        createLeases();
+        LOG.info("Joining the cluster as node '" + this.nodeId + "'.");
+        this.heartbeats.scheduleWithFixedDelay(() -> {
+            try {
+                heartbeat(System.currentTimeMillis());
+            } catch (Throwable t) {
+                // The leases of this node expire unless the next heartbeat succeeds
+                LOG.error("Could not renew the leases of node '" + this.nodeId + "'.", t);
+            }
+        }, 0, this.heartbeatInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the heartbeats and releases all leases of this node, so that the other nodes can take over its
+     * partitions without waiting for the leases to expire.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        this.heartbeats.shutdown();
+        this.heartbeats.awaitTermination(10, TimeUnit.SECONDS);
+        for (RefreshLeaseEntity lease : this.leaseRepository.findAllByOrderByPartitionIdAsc()) {
+            if (this.nodeId.equals(lease.getOwner())) {
+                lease.setOwner(null);
+                lease.setExpiresAt(0);
+                trySave(lease);
+            }
+        }
+        this.ownedLeases = Collections.emptyMap();
+        this.nodeRepository.delete(this.nodeId);
+    }
+
+    /**
+     * Creates the leases of all partitions that do not exist yet.
+     */
+    public void createLeases() {
+        for (int partition = 0; partition < this.partitions; partition++) {
+            if (this.leaseRepository.exists(partition)) {
+                continue;
+            }
+            RefreshLeaseEntity lease = new RefreshLeaseEntity();
+            lease.setPartitionId(partition);
+            try {
+                this.leaseRepository.save(lease);
+            } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+                LOG.debug("The lease of partition " + partition + " has been created by another node.");
+            }
+        }
+    }
+
+    /**
+     * Records the heartbeat of this node and renews, releases and claims leases (see above).
+     *
+     * @param now The current time (in milliseconds since the epoch).
+     */
+    public synchronized void heartbeat(long now) {
+        ClusterNodeEntity node = new ClusterNodeEntity();
+        node.setNodeId(this.nodeId);
+        node.setLastHeartbeat(now);
+        this.nodeRepository.save(node);
+        this.nodeRepository.deleteByLastHeartbeatBefore(now - 10 * this.leaseDuration);
+
+        long liveNodes = Math.max(1, this.nodeRepository.countByLastHeartbeatGreaterThan(now - this.leaseDuration));
+        int fairShare = (int) ((this.partitions + liveNodes - 1) / liveNodes);
+
+        List<RefreshLeaseEntity> leases = this.leaseRepository.findAllByOrderByPartitionIdAsc();
+        List<RefreshLeaseEntity> owned = leases.stream()
+                .filter(lease -> this.nodeId.equals(lease.getOwner()))
+                .collect(Collectors.toList());
+        Map<Integer, Long> renewed = new HashMap<>();
+        for (int i = 0; i < owned.size(); i++) {
+            RefreshLeaseEntity lease = owned.get(i);
+            boolean release = i >= fairShare;
+            lease.setOwner(release ? null : this.nodeId);
+            lease.setExpiresAt(release ? 0 : now + this.leaseDuration);
+            if (trySave(lease) && !release) {
+                renewed.put(lease.getPartitionId(), lease.getExpiresAt());
+            }
+        }
+
+        List<RefreshLeaseEntity> claimable = new ArrayList<>();
+        for (RefreshLeaseEntity lease : leases) {
+            if (lease.getOwner() == null || (!this.nodeId.equals(lease.getOwner()) && lease.getExpiresAt() <= now)) {
+                claimable.add(lease);
+            }
+        }
+        for (RefreshLeaseEntity lease : claimable) {
+            if (renewed.size() >= fairShare) {
+                break;
+            }
+            String previousOwner = lease.getOwner();
+            lease.setOwner(this.nodeId);
+            lease.setExpiresAt(now + this.leaseDuration);
+            if (trySave(lease)) {
+                renewed.put(lease.getPartitionId(), lease.getExpiresAt());
+                if (previousOwner != null) {
+                    LOG.info("Took over partition " + lease.getPartitionId() + " from node '" + previousOwner + "'.");
+                }
+            }
+        }
+
+        if (!renewed.keySet().equals(this.ownedLeases.keySet())) {
+            LOG.info("Node '" + this.nodeId + "' owns " + renewed.size() + " of " + this.partitions
+                    + " partitions (" + liveNodes + " live nodes).");
+        }
+        this.ownedLeases = Collections.unmodifiableMap(renewed);
+    }
+
+    /**
+     * @param now The current time (in milliseconds since the epoch).
+     * @return The partitions whose leases are held by this node and have not expired.
+     */
+    public Set<Integer> getOwnedPartitions(long now) {
+        return this.ownedLeases.entrySet().stream()
+                .filter(entry -> entry.getValue() > now)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * @param symbol The symbol of a coin.
+     * @return The partition of the symbol, which is the same on all nodes.
+     */
+    public int partitionOf(String symbol) {
+        return Math.floorMod(symbol.hashCode(), this.partitions);
+    }
+
+    private boolean trySave(RefreshLeaseEntity lease) {
+        try {
+            this.leaseRepository.save(lease);
+            return true;
+        } catch (OptimisticLockingFailureException e) {
+            LOG.debug("The lease of partition " + lease.getPartitionId() + " has been changed by another node.");
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.schumskich.cryptotrickstr.app.cluster.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * The heartbeat of a node. The number of live nodes determines the fair share of partitions of each node.
+ */
+@Getter
+@Setter
+@Entity
+public class ClusterNodeEntity {
+
+    @Id
+    private String nodeId;
+
+    /**
+     * The time (in milliseconds since the epoch) of the last heartbeat of the node.
+     */
+    @Column(nullable = false)
+    private long lastHeartbeat;
+}
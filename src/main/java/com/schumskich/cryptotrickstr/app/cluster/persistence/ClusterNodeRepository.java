@@ -0,0 +1,24 @@
+package com.schumskich.cryptotrickstr.app.cluster.persistence;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.transaction.annotation.Transactional;
+
+@RepositoryRestResource(exported = false)
+public interface ClusterNodeRepository extends CrudRepository<ClusterNodeEntity, String> {
+    long countByLastHeartbeatGreaterThan(long time);
+
+    /**
+     * Removes the nodes that have not sent a heartbeat since the given time.
+     *
+     * @param time The time (in milliseconds since the epoch).
+     * @return The number of removed nodes.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from ClusterNodeEntity n where n.lastHeartbeat < :time")
+    int deleteByLastHeartbeatBefore(@Param("time") long time);
+}
@@ -0,0 +1,37 @@
+package com.schumskich.cryptotrickstr.app.cluster.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * The lease of a partition of the symbols. Only the node that owns an unexpired lease refreshes the symbols of the
+ * partition. Leases are claimed and renewed with optimistic locking, so two nodes can never hold the same lease.
+ */
+@Getter
+@Setter
+@Entity
+public class RefreshLeaseEntity {
+
+    @Id
+    private int partitionId;
+
+    /**
+     * The node that holds the lease or <code>null</code> if the lease has been released.
+     */
+    @Column
+    private String owner;
+
+    /**
+     * The time (in milliseconds since the epoch) after which the lease can be claimed by other nodes.
+     */
+    @Column(nullable = false)
+    private long expiresAt;
+
+    /**
+     * A wrapper type, so that new leases are recognized by their missing version (the id of the first partition is 0).
+     */
+    @Version
+    private Long version;
+}
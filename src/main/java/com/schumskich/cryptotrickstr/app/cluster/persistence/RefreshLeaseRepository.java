@@ -0,0 +1,11 @@
+package com.schumskich.cryptotrickstr.app.cluster.persistence;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface RefreshLeaseRepository extends CrudRepository<RefreshLeaseEntity, Integer> {
+    List<RefreshLeaseEntity> findAllByOrderByPartitionIdAsc();
+}
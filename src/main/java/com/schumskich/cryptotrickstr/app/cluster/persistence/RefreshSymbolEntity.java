@@ -0,0 +1,28 @@
+package com.schumskich.cryptotrickstr.app.cluster.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * A symbol of the current top coins. The list is fetched by the owner of the first partition and shared with all
+ * other nodes, so that the top coins are requested only once per refresh cycle.
+ */
+@Getter
+@Setter
+@Entity
+public class RefreshSymbolEntity {
+
+    @Id
+    private String symbol;
+
+    @Column
+    private String fullName;
+
+    /**
+     * The position of the coin in the top coins.
+     */
+    @Column(nullable = false)
+    private int topRank;
+}
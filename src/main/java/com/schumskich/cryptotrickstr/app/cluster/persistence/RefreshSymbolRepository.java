@@ -0,0 +1,27 @@
+package com.schumskich.cryptotrickstr.app.cluster.persistence;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface RefreshSymbolRepository extends CrudRepository<RefreshSymbolEntity, String> {
+    List<RefreshSymbolEntity> findAllByOrderByTopRankAsc();
+
+    /**
+     * Removes all symbols except the given ones using a single bulk statement.
+     *
+     * @param symbols The symbols to keep.
+     * @return The number of removed symbols.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshSymbolEntity s where s.symbol not in :symbols")
+    int deleteBySymbolNotIn(@Param("symbols") Collection<String> symbols);
+}
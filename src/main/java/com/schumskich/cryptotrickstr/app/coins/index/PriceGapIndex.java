@@ -0,0 +1,274 @@
+package com.schumskich.cryptotrickstr.app.coins.index;
+
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An in-memory index of all coins by price gap and price gap percentage. The index consists of sorted primitive
+ * arrays, so that range queries are answered using binary search. Each version of the index is immutable and
+ * replaced as a whole, either by {@link #rebuild(Iterable)} or by {@link #update(Collection)}, so that readers never
+ * need to take a lock. An update merges the changed coins into the sorted arrays of the previous version, so it does
+ * not sort all coins again.
+ */
+@Component
+public class PriceGapIndex {
+    private volatile Snapshot snapshot = new Snapshot(new CoinEntity[0]);
+
+    /**
+     * The positions of the coins in the array of the current snapshot, keyed by symbol. Guarded by this.
+     */
+    private final Map<String, Integer> positionsBySymbol = new HashMap<>();
+
+    /**
+     * Replaces the index with a new one containing the given coins.
+     *
+     * @param coins All coins to index.
+     */
+    public synchronized void rebuild(Iterable<CoinEntity> coins) {
+        List<CoinEntity> coinList = new ArrayList<>();
+        coins.forEach(coinList::add);
+        this.positionsBySymbol.clear();
+        for (int i = 0; i < coinList.size(); i++) {
+            this.positionsBySymbol.put(coinList.get(i).getSymbol(), i);
+        }
+        this.snapshot = new Snapshot(coinList.toArray(new CoinEntity[0]));
+    }
+
+    /**
+     * Replaces the indexed coins with the same symbols as the given coins and adds the others.
+     *
+     * @param changedCoins The new or changed coins.
+     */
+    public synchronized void update(Collection<CoinEntity> changedCoins) {
+        if (changedCoins.isEmpty()) {
+            return;
+        }
+        Snapshot previous = this.snapshot;
+        CoinEntity[] coins = Arrays.copyOf(previous.coins, previous.coins.length + changedCoins.size());
+        int size = previous.coins.length;
+        boolean[] changed = new boolean[coins.length];
+        int[] changedPositions = new int[changedCoins.size()];
+        int changedCount = 0;
+        for (CoinEntity coin : changedCoins) {
+            Integer position = this.positionsBySymbol.get(coin.getSymbol());
+            if (position == null) {
+                position = size++;
+                this.positionsBySymbol.put(coin.getSymbol(), position);
+            }
+            coins[position] = coin;
+            if (!changed[position]) {
+                changed[position] = true;
+                changedPositions[changedCount++] = position;
+            }
+        }
+        coins = Arrays.copyOf(coins, size);
+        this.snapshot = new Snapshot(coins,
+                previous.priceGaps.update(coins, changed, changedPositions, changedCount, CoinEntity::getPriceGap),
+                previous.priceGapPercents.update(coins, changed, changedPositions, changedCount,
+                        CoinEntity::getPriceGapPercent));
+    }
+
+    /**
+     * Finds all coins with a price gap within the given range (both bounds inclusive).
+     *
+     * @param from The lower bound or <code>null</code> if unbounded.
+     * @param to   The upper bound or <code>null</code> if unbounded.
+     * @return All matching coins, ordered by ascending price gap.
+     */
+    public List<CoinEntity> findByPriceGapBetween(Double from, Double to) {
+        Snapshot snapshot = this.snapshot;
+        return snapshot.priceGaps.findBetween(snapshot.coins, from, to);
+    }
+
+    /**
+     * Finds all coins with a price gap percentage within the given range (both bounds inclusive).
+     *
+     * @param from The lower bound or <code>null</code> if unbounded.
+     * @param to   The upper bound or <code>null</code> if unbounded.
+     * @return All matching coins, ordered by ascending price gap percentage.
+     */
+    public List<CoinEntity> findByPriceGapPercentBetween(Double from, Double to) {
+        Snapshot snapshot = this.snapshot;
+        return snapshot.priceGapPercents.findBetween(snapshot.coins, from, to);
+    }
+
+    /**
+     * @return The number of indexed coins.
+     */
+    public int size() {
+        return this.snapshot.coins.length;
+    }
+
+    private static class Snapshot {
+        private final CoinEntity[] coins;
+        private final SortedKeys priceGaps;
+        private final SortedKeys priceGapPercents;
+
+        private Snapshot(CoinEntity[] coins) {
+            this(coins, SortedKeys.build(coins, CoinEntity::getPriceGap),
+                    SortedKeys.build(coins, CoinEntity::getPriceGapPercent));
+        }
+
+        private Snapshot(CoinEntity[] coins, SortedKeys priceGaps, SortedKeys priceGapPercents) {
+            this.coins = coins;
+            this.priceGaps = priceGaps;
+            this.priceGapPercents = priceGapPercents;
+        }
+    }
+
+    /**
+     * Sorted keys of all coins that have a (non <code>null</code>) key and the positions of these coins in the
+     * array of all coins.
+     */
+    private static class SortedKeys {
+        private final double[] keys;
+        private final int[] positions;
+
+        private SortedKeys(double[] keys, int[] positions) {
+            this.keys = keys;
+            this.positions = positions;
+        }
+
+        private static SortedKeys build(CoinEntity[] coins, Function<CoinEntity, Double> keyFunction) {
+            double[] keys = new double[coins.length];
+            int[] positions = new int[coins.length];
+            int size = 0;
+            for (int i = 0; i < coins.length; i++) {
+                Double key = keyFunction.apply(coins[i]);
+                if (key != null) {
+                    keys[size] = key;
+                    positions[size++] = i;
+                }
+            }
+            return sort(Arrays.copyOf(keys, size), Arrays.copyOf(positions, size));
+        }
+
+        /**
+         * Removes the keys of the changed coins, sorts their new keys and merges them with the remaining keys (which
+         * are still sorted).
+         */
+        private SortedKeys update(CoinEntity[] coins, boolean[] changed, int[] changedPositions, int changedCount,
+                                  Function<CoinEntity, Double> keyFunction) {
+            double[] keptKeys = new double[this.keys.length];
+            int[] keptPositions = new int[this.keys.length];
+            int keptCount = 0;
+            for (int i = 0; i < this.keys.length; i++) {
+                if (!changed[this.positions[i]]) {
+                    keptKeys[keptCount] = this.keys[i];
+                    keptPositions[keptCount++] = this.positions[i];
+                }
+            }
+
+            double[] addedKeys = new double[changedCount];
+            int[] addedPositions = new int[changedCount];
+            int addedCount = 0;
+            for (int i = 0; i < changedCount; i++) {
+                Double key = keyFunction.apply(coins[changedPositions[i]]);
+                if (key != null) {
+                    addedKeys[addedCount] = key;
+                    addedPositions[addedCount++] = changedPositions[i];
+                }
+            }
+            SortedKeys added = sort(Arrays.copyOf(addedKeys, addedCount), Arrays.copyOf(addedPositions, addedCount));
+
+            double[] mergedKeys = new double[keptCount + addedCount];
+            int[] mergedPositions = new int[keptCount + addedCount];
+            merge(keptKeys, keptPositions, 0, keptCount, added.keys, added.positions, 0, addedCount,
+                    mergedKeys, mergedPositions, 0);
+            return new SortedKeys(mergedKeys, mergedPositions);
+        }
+
+        /**
+         * Sorts the keys and their positions with a bottom-up merge sort on the primitive arrays.
+         */
+        private static SortedKeys sort(double[] keys, int[] positions) {
+            double[] keyBuffer = new double[keys.length];
+            int[] positionBuffer = new int[keys.length];
+            for (int width = 1; width < keys.length; width *= 2) {
+                for (int low = 0; low < keys.length; low += 2 * width) {
+                    int middle = Math.min(low + width, keys.length);
+                    int high = Math.min(low + 2 * width, keys.length);
+                    merge(keys, positions, low, middle, keys, positions, middle, high, keyBuffer, positionBuffer, low);
+                }
+                double[] sortedKeys = keyBuffer;
+                keyBuffer = keys;
+                keys = sortedKeys;
+                int[] sortedPositions = positionBuffer;
+                positionBuffer = positions;
+                positions = sortedPositions;
+            }
+            return new SortedKeys(keys, positions);
+        }
+
+        private static void merge(double[] leftKeys, int[] leftPositions, int left, int leftEnd,
+                                  double[] rightKeys, int[] rightPositions, int right, int rightEnd,
+                                  double[] keys, int[] positions, int target) {
+            while (left < leftEnd || right < rightEnd) {
+                if (right == rightEnd || left < leftEnd && leftKeys[left] <= rightKeys[right]) {
+                    keys[target] = leftKeys[left];
+                    positions[target++] = leftPositions[left++];
+                } else {
+                    keys[target] = rightKeys[right];
+                    positions[target++] = rightPositions[right++];
+                }
+            }
+        }
+
+        private List<CoinEntity> findBetween(CoinEntity[] coins, Double from, Double to) {
+            int start = from == null ? 0 : lowerBound(from);
+            int end = to == null ? this.keys.length : upperBound(to);
+            if (start >= end) {
+                return Collections.emptyList();
+            }
+
+            List<CoinEntity> result = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                result.add(coins[this.positions[i]]);
+            }
+            return result;
+        }
+
+        /**
+         * @return The index of the first key that is greater than or equal to the given key.
+         */
+        private int lowerBound(double key) {
+            int low = 0;
+            int high = this.keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (this.keys[middle] < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return The index of the first key that is greater than the given key.
+         */
+        private int upperBound(double key) {
+            int low = 0;
+            int high = this.keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (this.keys[middle] <= key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.schumskich.cryptotrickstr.app.coins.index;
+
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinsChangedEvent;
+import com.schumskich.cryptotrickstr.app.coins.ingest.RefreshCompletedEvent;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinStore;
+import com.schumskich.cryptotrickstr.config.ClusterConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.rest.core.event.AfterCreateEvent;
+import org.springframework.data.rest.core.event.AfterDeleteEvent;
+import org.springframework.data.rest.core.event.AfterSaveEvent;
+import org.springframework.data.rest.core.event.RepositoryEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link PriceGapIndex} up to date. The coins changed by the ingest pipeline are merged into the index,
+ * while the index is rebuilt from the {@link CoinStore} at startup and after coins have been written using the
+ * RESTful API. Nodes of a cluster also rebuild the index after each refresh cycle, as the coins refreshed by the
+ * other nodes are only visible in the database.
+ */
+@Component
+public class PriceGapIndexUpdater {
+    private static Logger LOG = LoggerFactory.getLogger(PriceGapIndexUpdater.class);
+
+    private final PriceGapIndex priceGapIndex;
+    private final CoinStore coinStore;
+    private final boolean clustered;
+
+    @Autowired
+    public PriceGapIndexUpdater(PriceGapIndex priceGapIndex, CoinStore coinStore, ClusterConfig clusterConfig) {
+        this.priceGapIndex = priceGapIndex;
+        this.coinStore = coinStore;
+        this.clustered = clusterConfig.getEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Synchronized with {@link #rebuild()}, so that a rebuild that read the coins before a batch has been stored
+     * cannot replace the index after the batch has been merged into it.
+     */
+    @EventListener(CoinsChangedEvent.class)
+    public synchronized void onCoinsChanged(CoinsChangedEvent event) {
+        this.priceGapIndex.update(event.getChangedCoins());
+    }
+
+    @EventListener(RefreshCompletedEvent.class)
+    public void onRefreshCompleted() {
+        if (this.clustered) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Coins can also be created, updated or deleted using the RESTful API.
+     *
+     * @param event The event published by Spring Data REST.
+     */
+    @EventListener({AfterCreateEvent.class, AfterSaveEvent.class, AfterDeleteEvent.class})
+    public void onRepositoryEvent(RepositoryEvent event) {
+        if (event.getSource() instanceof CoinEntity) {
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        try {
+            this.priceGapIndex.rebuild(this.coinStore.findAll());
+            LOG.debug("Rebuilt the price gap index (" + this.priceGapIndex.size() + " coins).");
+        } catch (Throwable t) {
+            // The previous index stays in place and will be replaced with the next successful rebuild
+            LOG.error("Could not rebuild the price gap index.", t);
+        }
+    }
+}
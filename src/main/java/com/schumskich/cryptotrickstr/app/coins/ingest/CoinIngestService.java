@@ -0,0 +1,518 @@
+package com.schumskich.cryptotrickstr.app.coins.ingest;
+
+import com.schumskich.cryptotrickstr.app.arbitrage.ArbitrageRouteService;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinStore;
+import com.schumskich.cryptotrickstr.config.IngestConfig;
+import com.schumskich.cryptotrickstr.support.cryptocompare.CryptoCompareAdapter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.CoinSnapshotResponse;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ReflectionUtils;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Service
+public class CoinIngestService {
+    private static Logger LOG = LoggerFactory.getLogger(CoinIngestService.class);
+
+    /**
+     * Marks the end of the discovered coins.
+     */
+    private static final TopCoinsResponse.CoinInfo END_OF_COINS = new TopCoinsResponse.CoinInfo();
+
+    /**
+     * The milliseconds the fetch stage waits for a response before it checks for newly discovered coins.
+     */
+    private static final long DISCOVERY_POLL_MILLIS = 10;
+
+    private final CryptoCompareAdapter cryptoCompareAdapter;
+    private final CoinSelector coinSelector;
+    private final CoinSnapshotMapper mapper;
+    private final CoinStore coinStore;
+    private final ArbitrageRouteService arbitrageRouteService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IngestConfig ingestConfig;
+    private final IngestMetrics metrics;
+    private final ExecutorService executor;
+    private final ExecutorService discoveryExecutor;
+    private final AtomicBoolean refreshRunning = new AtomicBoolean();
+
+    @Autowired
+    public CoinIngestService(
+            IngestConfig ingestConfig,
+            CryptoCompareAdapter cryptoCompareAdapter,
+            CoinSelector coinSelector,
+            CoinSnapshotMapper coinSnapshotMapper,
+            CoinStore coinStore,
+            ArbitrageRouteService arbitrageRouteService,
+            ApplicationEventPublisher eventPublisher,
+            IngestMetrics ingestMetrics
+    ) {
+        this.cryptoCompareAdapter = cryptoCompareAdapter;
+        this.coinSelector = coinSelector;
+        this.mapper = coinSnapshotMapper;
+        this.coinStore = coinStore;
+        this.arbitrageRouteService = arbitrageRouteService;
+        this.eventPublisher = eventPublisher;
+        this.ingestConfig = ingestConfig;
+        this.metrics = ingestMetrics;
+        this.executor = Executors.newFixedThreadPool(ingestConfig.getWorkerThreads(),
+                new CustomizableThreadFactory("ingest-"));
+        this.discoveryExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("ingest-discovery-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+        this.discoveryExecutor.shutdownNow();
+    }
+
+    /**
+     * Runs one refresh cycle: fetches current information of the coins selected by the {@link CoinSelector} from the
+     * remote API, processes it and saves/updates it in the database. Coins whose information did not change since the
+     * last refresh are not written again. A {@link QuotesReceivedEvent} is published for every processed batch of
+     * coins, a {@link CoinsChangedEvent} for every stored batch of coins and a {@link RefreshCompletedEvent} at the end
+     * of the refresh cycle. Only one refresh cycle can run at a time.
+     *
+     * @return The result of the refresh cycle or an empty {@link Optional} if another refresh cycle is still running.
+     */
+    public Optional<RefreshResult> refresh() {
+        return refresh(this.coinSelector);
+    }
+
+    /**
+     * Runs a refresh cycle of the given coins only (see {@link #refresh()}).
+     *
+     * @param coins The coins to refresh.
+     * @return The result of the refresh cycle or an empty {@link Optional} if another refresh cycle is still running.
+     */
+    public Optional<RefreshResult> refresh(List<TopCoinsResponse.CoinInfo> coins) {
+        return refresh(() -> coins);
+    }
+
+    private Optional<RefreshResult> refresh(CoinSelector coinSelector) {
+        if (!this.refreshRunning.compareAndSet(false, true)) {
+            LOG.warn("Skipping refresh, because the previous refresh cycle is still running.");
+            return Optional.empty();
+        }
+
+        try {
+            RefreshResult result = runRefreshCycle(coinSelector);
+            this.eventPublisher.publishEvent(new RefreshCompletedEvent(result));
+            return Optional.of(result);
+        } finally {
+            this.refreshRunning.set(false);
+        }
+    }
+
+    /**
+     * Runs a refresh cycle. The coins are discovered by a separate thread and handed over to the fetch stage using a
+     * bounded queue, so fetching starts with the first discovered coins and the memory used by a refresh cycle does
+     * not depend on the number of coins. If the discovery fails after some coins have been discovered, the cycle
+     * refreshes these coins only.
+     *
+     * @param coinSelector The selector of the coins to refresh.
+     * @return The result of the refresh cycle.
+     */
+    private RefreshResult runRefreshCycle(CoinSelector coinSelector) {
+        BlockingQueue<TopCoinsResponse.CoinInfo> discoveredCoins =
+                new ArrayBlockingQueue<>(this.ingestConfig.getDiscovery().getQueueCapacity());
+        AtomicInteger discoveredCount = new AtomicInteger();
+        AtomicReference<Throwable> discoveryFailure = new AtomicReference<>();
+        Future<?> discovery = this.discoveryExecutor.submit(() ->
+                discoverCoins(coinSelector, discoveredCoins, discoveredCount, discoveryFailure));
+
+        RefreshResult result = new RefreshResult();
+        try {
+            if (this.ingestConfig.getFetchMode() == IngestConfig.FetchMode.BATCH) {
+                fetchInBatches(discoveredCoins, result);
+            } else {
+                fetchSnapshots(discoveredCoins, result);
+            }
+        } finally {
+            // Stops the discovery if the fetch stage has been interrupted
+            discovery.cancel(true);
+        }
+
+        Throwable failure = discoveryFailure.get();
+        if (failure != null) {
+            if (discoveredCount.get() == 0) {
+                ReflectionUtils.rethrowRuntimeException(failure);
+            }
+            this.metrics.increment("discoveryErrors");
+            LOG.error("Could not discover all coins. Refreshed the first " + discoveredCount.get() + " coins only.",
+                    failure);
+        }
+        return result;
+    }
+
+    /**
+     * Puts the coins selected by the given selector into the queue (blocking while it is full), followed by
+     * {@link #END_OF_COINS}. The end is queued even if the discovery fails, as the fetch stage waits for it.
+     */
+    private void discoverCoins(CoinSelector coinSelector, BlockingQueue<TopCoinsResponse.CoinInfo> discoveredCoins,
+                               AtomicInteger discoveredCount, AtomicReference<Throwable> discoveryFailure) {
+        try {
+            coinSelector.selectCoins(coin -> {
+                try {
+                    discoveredCoins.put(coin);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrupted while discovering coins.");
+                }
+                discoveredCount.incrementAndGet();
+                this.metrics.increment("coins.discovered");
+            });
+        } catch (CancellationException e) {
+            // The fetch stage has stopped
+        } catch (Throwable t) {
+            discoveryFailure.set(t);
+        } finally {
+            try {
+                discoveredCoins.put(END_OF_COINS);
+            } catch (InterruptedException e) {
+                // Must not block when interrupted. If the queue is full, the fetch stage is not waiting for it anyway.
+                Thread.currentThread().interrupt();
+                discoveredCoins.offer(END_OF_COINS);
+            }
+        }
+    }
+
+    /**
+     * Fetches a snapshot of every discovered coin using a separate request and stores the fetched snapshots in
+     * batches.
+     *
+     * @param discoveredCoins The coins to fetch, terminated by {@link #END_OF_COINS}.
+     * @param result          The result of the current refresh cycle.
+     */
+    private void fetchSnapshots(BlockingQueue<TopCoinsResponse.CoinInfo> discoveredCoins, RefreshResult result) {
+        // Enough requests to keep all workers busy, without taking more coins out of the queue than necessary
+        int maxPendingSymbols = 2 * this.ingestConfig.getWorkerThreads();
+        try {
+            // Snapshots are fetched concurrently by the worker pool, but processed and persisted in batches
+            // on this thread, so the repository is never accessed concurrently and the counters need no locking.
+            CompletionService<CoinSnapshotResponse> completionService = new ExecutorCompletionService<>(this.executor);
+            Map<Future<CoinSnapshotResponse>, String> pendingSymbols = new HashMap<>();
+            Map<String, CoinSnapshotResponse> fetchedResponses = new LinkedHashMap<>();
+            boolean discoveryFinished = false;
+            while (!discoveryFinished || !pendingSymbols.isEmpty()) {
+                while (!discoveryFinished && pendingSymbols.size() < maxPendingSymbols) {
+                    TopCoinsResponse.CoinInfo coin =
+                            pendingSymbols.isEmpty() ? discoveredCoins.take() : discoveredCoins.poll();
+                    if (coin == null) {
+                        break;
+                    }
+                    if (coin == END_OF_COINS) {
+                        discoveryFinished = true;
+                    } else {
+                        String symbol = coin.getName();
+                        Future<CoinSnapshotResponse> future = completionService.submit(() -> this.metrics.time(
+                                IngestMetrics.SNAPSHOT_FETCH,
+                                () -> this.cryptoCompareAdapter.fetchCoinSnapshot(symbol)));
+                        pendingSymbols.put(future, symbol);
+                    }
+                }
+                if (pendingSymbols.isEmpty()) {
+                    continue;
+                }
+
+                // While coins are being discovered, wait for a response only briefly to submit new coins soon
+                Future<CoinSnapshotResponse> future = discoveryFinished ? completionService.take()
+                        : completionService.poll(DISCOVERY_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (future == null) {
+                    continue;
+                }
+                String symbol = pendingSymbols.remove(future);
+                try {
+                    fetchedResponses.put(symbol, future.get());
+                } catch (ExecutionException e) {
+                    this.metrics.increment("fetchErrors");
+                    LOG.error("Could not fetch a snapshot of symbol '" + symbol + "'.", e.getCause());
+                }
+
+                if (fetchedResponses.size() >= this.ingestConfig.getPersistBatchSize()) {
+                    tryStoreResponses(fetchedResponses, result);
+                    fetchedResponses.clear();
+                }
+            }
+            if (!fetchedResponses.isEmpty()) {
+                tryStoreResponses(fetchedResponses, result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while refreshing coin data.");
+        }
+    }
+
+    /**
+     * Fetches the discovered coins in chunks of <code>persistBatchSize</code> coins using the multi-symbol batch API,
+     * which needs far fewer requests than fetching a snapshot of every coin. Each chunk is stored before the next one
+     * is fetched.
+     *
+     * @param discoveredCoins The coins to fetch, terminated by {@link #END_OF_COINS}.
+     * @param result          The result of the current refresh cycle.
+     */
+    private void fetchInBatches(BlockingQueue<TopCoinsResponse.CoinInfo> discoveredCoins, RefreshResult result) {
+        int batchSize = this.ingestConfig.getPersistBatchSize();
+        List<TopCoinsResponse.CoinInfo> batch = new ArrayList<>(batchSize);
+        try {
+            boolean discoveryFinished = false;
+            while (!discoveryFinished && !Thread.currentThread().isInterrupted()) {
+                TopCoinsResponse.CoinInfo coin = discoveredCoins.take();
+                discoveryFinished = coin == END_OF_COINS;
+                if (!discoveryFinished) {
+                    batch.add(coin);
+                }
+                if (batch.size() >= batchSize || (discoveryFinished && !batch.isEmpty())) {
+                    fetchBatch(batch, result);
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while refreshing coin data.");
+        }
+    }
+
+    /**
+     * Fetches and stores a chunk of coins using the multi-symbol batch API. The batch API does not provide the full
+     * names of the coins, so they are taken from the top coins.
+     *
+     * @param batch  The coins to fetch.
+     * @param result The result of the current refresh cycle.
+     */
+    private void fetchBatch(List<TopCoinsResponse.CoinInfo> batch, RefreshResult result) {
+        List<String> symbols = batch.stream().map(TopCoinsResponse.CoinInfo::getName).collect(Collectors.toList());
+
+        Map<String, CoinSnapshotResponse> fetchedResponses;
+        try {
+            fetchedResponses = this.metrics.time(IngestMetrics.BATCH_FETCH,
+                    () -> this.cryptoCompareAdapter.fetchCoinSnapshots(symbols));
+        } catch (RuntimeException e) {
+            this.metrics.increment("fetchErrors", symbols.size());
+            LOG.error("Could not fetch the prices of symbols " + symbols + ".", e);
+            return;
+        }
+
+        for (TopCoinsResponse.CoinInfo coinInfo : batch) {
+            CoinSnapshotResponse response = fetchedResponses.get(coinInfo.getName());
+            if (response == null) {
+                this.metrics.increment("fetchErrors");
+                LOG.warn("Did not receive any prices of symbol '" + coinInfo.getName() + "'.");
+            } else if (response.getResponseData() != null && response.getResponseData().getCoinInfo() != null
+                    && response.getResponseData().getCoinInfo().getFullName() == null) {
+                response.getResponseData().getCoinInfo().setFullName(coinInfo.getFullName());
+            }
+        }
+        if (!fetchedResponses.isEmpty()) {
+            tryStoreResponses(fetchedResponses, result);
+        }
+    }
+
+    /**
+     * Stores a batch of responses (see {@link #storeResponses(Map, RefreshResult)}). Errors are logged, so that
+     * the following batches of the refresh cycle are stored nevertheless.
+     *
+     * @param responses The responses to process, keyed by cryptocurrency symbol.
+     * @param result    The result of the current refresh cycle to add the numbers of this batch to.
+     */
+    private void tryStoreResponses(Map<String, CoinSnapshotResponse> responses, RefreshResult result) {
+        try {
+            storeResponses(responses, result);
+        } catch (Throwable t) {
+            LOG.error("Could not store the snapshots of symbols " + responses.keySet() + ".", t);
+        }
+    }
+
+    /**
+     * Processes a batch of {@link CoinSnapshotResponse} objects and stores all changed coins (and their arbitrage
+     * routes) in the database.
+     *
+     * @param responses The responses to process, keyed by cryptocurrency symbol.
+     * @param result    The result of the current refresh cycle to add the numbers of this batch to.
+     */
+    private void storeResponses(Map<String, CoinSnapshotResponse> responses, RefreshResult result) {
+        int[] coinsUnchanged = {0};
+        long[] processingNanos = {0};
+        Map<String, ExchangeQuotes> receivedQuotes = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        List<CoinEntity> storedEntities = this.coinStore.upsert(responses.keySet(), (symbol, entity) -> {
+            long processingStart = System.nanoTime();
+            ProcessingResult processingResult = processResponse(responses.get(symbol), entity);
+            if (processingResult == ProcessingResult.UNCHANGED) {
+                coinsUnchanged[0]++;
+            }
+            if (processingResult != ProcessingResult.UNPROCESSABLE) {
+                receivedQuotes.put(symbol, responses.get(symbol).getResponseData().getExchangeQuotes());
+            }
+            processingNanos[0] += System.nanoTime() - processingStart;
+            return processingResult == ProcessingResult.CHANGED;
+        });
+        // The time spent on loading and saving the entities (including the commit), without processing the responses
+        this.metrics.record(IngestMetrics.REPOSITORY_SAVE, System.nanoTime() - start - processingNanos[0]);
+        this.metrics.increment("coins.stored", storedEntities.size());
+        this.metrics.increment("coins.unchanged", coinsUnchanged[0]);
+        result.addBatch(responses.size(), storedEntities.size(), coinsUnchanged[0]);
+        if (!receivedQuotes.isEmpty()) {
+            this.eventPublisher.publishEvent(new QuotesReceivedEvent(System.currentTimeMillis(), receivedQuotes));
+        }
+
+        Map<String, ExchangeQuotes> changedQuotes = new LinkedHashMap<>();
+        for (CoinEntity entity : storedEntities) {
+            CoinSnapshotResponse response = responses.get(entity.getSymbol());
+            changedQuotes.put(entity.getSymbol(), response.getResponseData().getExchangeQuotes());
+        }
+        if (!changedQuotes.isEmpty()) {
+            this.arbitrageRouteService.updateRoutes(changedQuotes);
+            this.eventPublisher.publishEvent(new CoinsChangedEvent(storedEntities));
+        }
+    }
+
+    /**
+     * Processes a {@link CoinSnapshotResponse}.
+     *
+     * @param response The response object to process.
+     * @param entity   The (new or already stored) entity to update.
+     * @return Whether the response has been processed and changed the entity.
+     */
+    private ProcessingResult processResponse(CoinSnapshotResponse response, CoinEntity entity) {
+        String missingField = findMissingField(response);
+        if (missingField != null) {
+            LOG.debug("Cannot process response, because the required field '" + missingField + "' is not present.");
+            this.metrics.increment("skipped.missing" + missingField);
+            return ProcessingResult.UNPROCESSABLE;
+        }
+
+        ExchangeQuotes quotes = response.getResponseData().getExchangeQuotes();
+        if (quotes.isFilterTimed()) {
+            this.metrics.record(IngestMetrics.EXCHANGE_FILTERING, quotes.getFilterNanos());
+        }
+        this.metrics.increment("exchanges.notWhitelisted", quotes.getNotWhitelistedCount());
+        this.metrics.increment("exchanges.stale", quotes.getStaleCount());
+
+        List<Object> contentBefore = contentOf(entity);
+        long mappingStart = System.nanoTime();
+        mapToEntity(response, entity);
+        this.metrics.record(IngestMetrics.MAPPING, System.nanoTime() - mappingStart);
+        setPrices(quotes, entity);
+        return contentBefore.equals(contentOf(entity)) ? ProcessingResult.UNCHANGED : ProcessingResult.CHANGED;
+    }
+
+    /**
+     * Collects all values of a {@link CoinEntity} that are set from the remote API, so that two states of an
+     * entity can be compared. The ID and the timestamps maintained by JPA are not included.
+     *
+     * @param entity The entity to collect the values from.
+     * @return The values of the entity.
+     */
+    private static List<Object> contentOf(CoinEntity entity) {
+        return Arrays.asList(entity.getSymbol(), entity.getFullName(), entity.getTotalCoinsMined(),
+                entity.getAggregatedPrice(), entity.getAggregatedDayPriceOpen(), entity.getAggregatedDayPriceHigh(),
+                entity.getAggregatedDayPriceLow(), entity.getTotalVolume24H(),
+                entity.getMinPrice(), entity.getMinPriceExchange(), entity.getMinPriceUpdated(),
+                entity.getMaxPrice(), entity.getMaxPriceExchange(), entity.getMaxPriceUpdated(),
+                entity.getPriceGap(), entity.getPriceGapPercent());
+    }
+
+    /**
+     * Sets the information of the exchanges with the minimum and maximum price and all related fields in the given
+     * {@link CoinEntity} object.
+     *
+     * @param quotes The quotes of all relevant exchanges.
+     * @param entity The entity to set the price information.
+     */
+    private void setPrices(ExchangeQuotes quotes, CoinEntity entity) {
+        if (quotes.isEmpty()) {
+            entity.setMaxPrice(null);
+            entity.setMaxPriceExchange(null);
+            entity.setMaxPriceUpdated(null);
+            entity.setMinPrice(null);
+            entity.setMinPriceExchange(null);
+            entity.setMinPriceUpdated(null);
+            entity.setPriceGap(null);
+            entity.setPriceGapPercent(null);
+            return;
+        }
+
+        entity.setMaxPrice(quotes.getMaxPrice());
+        entity.setMaxPriceExchange(quotes.getMaxPriceExchange());
+        entity.setMaxPriceUpdated(quotes.getMaxPriceUpdated());
+
+        entity.setMinPrice(quotes.getMinPrice());
+        entity.setMinPriceExchange(quotes.getMinPriceExchange());
+        entity.setMinPriceUpdated(quotes.getMinPriceUpdated());
+
+        entity.setPriceGap(entity.getMaxPrice() - entity.getMinPrice());
+        entity.setPriceGapPercent(entity.getPriceGap() / entity.getMinPrice() * 100);
+    }
+
+    /**
+     * Maps the values from a {@link CoinSnapshotResponse} object to a {@link CoinEntity} object.
+     * <code>minPrice, minPriceExchange, minPriceUpdated and maxPrice, maxPriceExchange, maxPriceUpdated</code>
+     * won't be mapped.
+     *
+     * @param coinSnapshotResponse The response object to map from.
+     * @param entity               The entity object to map to.
+     */
+    private void mapToEntity(CoinSnapshotResponse coinSnapshotResponse, CoinEntity entity) {
+        this.mapper.updateEntity(coinSnapshotResponse.getResponseData().getCoinInfo(), entity);
+        this.mapper.updateEntity(coinSnapshotResponse.getResponseData().getAggregatedData(), entity);
+    }
+
+    /**
+     * Checks if the given {@link CoinSnapshotResponse} object does contain all necessary information to be
+     * processed.
+     *
+     * @param response {@link CoinSnapshotResponse} object to check.
+     * @return The name of the first missing field or <code>null</code> if the response can be processed.
+     */
+    private String findMissingField(CoinSnapshotResponse response) {
+        CoinSnapshotResponse.ResponseData data = response.getResponseData();
+        if (data == null) {
+            return "Data";
+        }
+        if (data.getCoinInfo() == null) {
+            return "CoinInfo";
+        }
+        if (data.getAggregatedData() == null) {
+            return "AggregatedData";
+        }
+        if (data.getExchangeQuotes() == null) {
+            return "Exchanges";
+        }
+        return null;
+    }
+
+    private enum ProcessingResult {
+        CHANGED, UNCHANGED, UNPROCESSABLE
+    }
+}
@@ -0,0 +1,31 @@
+package com.schumskich.cryptotrickstr.app.coins.ingest;
+
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Selects the coins that are refreshed by a refresh cycle of this node.
+ */
+public interface CoinSelector {
+
+    /**
+     * @return The coins to refresh, ordered by their position in the top coins.
+     */
+    List<TopCoinsResponse.CoinInfo> selectCoins();
+
+    /**
+     * Passes the coins to refresh to the given consumer, ordered by their position in the top coins. Implementations
+     * that discover the coins step by step pass each coin as soon as it is known, so that the caller can start
+     * refreshing it and the complete list is never held in memory.
+     *
+     * @param consumer The consumer of the coins. It may block until it is able to take the next coin.
+     * @return The number of requests sent to the API to select the coins (e.g. the pages of the top coins), so that
+     * callers with a call budget can charge them.
+     */
+    default int selectCoins(Consumer<TopCoinsResponse.CoinInfo> consumer) {
+        selectCoins().forEach(consumer);
+        return 0;
+    }
+}
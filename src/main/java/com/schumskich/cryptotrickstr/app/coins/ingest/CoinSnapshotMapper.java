@@ -0,0 +1,30 @@
+package com.schumskich.cryptotrickstr.app.coins.ingest;
+
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.CoinSnapshotResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Maps the information of a {@link CoinSnapshotResponse} onto a {@link CoinEntity}. The implementation is generated
+ * by MapStruct at build time, so that mapping is plain getter/setter code without any reflection at runtime. Fields
+ * that are <code>null</code> in the response do not overwrite the values of the entity. The price information of the
+ * exchanges is not mapped.
+ */
+@Mapper(componentModel = "spring",
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface CoinSnapshotMapper {
+
+    @Mapping(source = "name", target = "symbol")
+    void updateEntity(CoinSnapshotResponse.CoinInfo coinInfo, @MappingTarget CoinEntity entity);
+
+    @Mapping(source = "price", target = "aggregatedPrice")
+    @Mapping(source = "openDay", target = "aggregatedDayPriceOpen")
+    @Mapping(source = "highDay", target = "aggregatedDayPriceHigh")
+    @Mapping(source = "lowDay", target = "aggregatedDayPriceLow")
+    void updateEntity(CoinSnapshotResponse.AggregatedData aggregatedData, @MappingTarget CoinEntity entity);
+}
@@ -0,0 +1,18 @@
+package com.schumskich.cryptotrickstr.app.coins.ingest;
+
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by {@link CoinIngestService} after a batch of changed coins has been stored.
+ */
+@Getter
+public class CoinsChangedEvent {
+    private final List<CoinEntity> changedCoins;
+
+    public CoinsChangedEvent(List<CoinEntity> changedCoins) {
+        this.changedCoins = changedCoins;
+    }
+}
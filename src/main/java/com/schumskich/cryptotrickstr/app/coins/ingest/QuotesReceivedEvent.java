@@ -0,0 +1,28 @@
+package com.schumskich.cryptotrickstr.app.coins.ingest;
+
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Published by {@link CoinIngestService} after a batch of coins has been processed, including the coins that did not
+ * change. Listeners must not block, as they are called by the ingest pipeline.
+ */
+@Getter
+public class QuotesReceivedEvent {
+    /**
+     * The time the quotes have been received (in milliseconds since the epoch).
+     */
+    private final long timestamp;
+
+    /**
+     * The quotes of all relevant exchanges, keyed by cryptocurrency symbol.
+     */
+    private final Map<String, ExchangeQuotes> quotesBySymbol;
+
+    public QuotesReceivedEvent(long timestamp, Map<String, ExchangeQuotes> quotesBySymbol) {
+        this.timestamp = timestamp;
+        this.quotesBySymbol = quotesBySymbol;
+    }
+}
@@ -0,0 +1,15 @@
+package com.schumskich.cryptotrickstr.app.coins.ingest;
+
+import lombok.Getter;
+
+/**
+ * Published by {@link CoinIngestService} after a refresh cycle has finished.
+ */
+@Getter
+public class RefreshCompletedEvent {
+    private final RefreshResult result;
+
+    public RefreshCompletedEvent(RefreshResult result) {
+        this.result = result;
+    }
+}
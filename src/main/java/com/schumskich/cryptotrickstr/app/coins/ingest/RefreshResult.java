@@ -0,0 +1,25 @@
+package com.schumskich.cryptotrickstr.app.coins.ingest;
+
+import lombok.Getter;
+
+/**
+ * The numbers of coins processed within one refresh cycle.
+ */
+@Getter
+public class RefreshResult {
+    private int coinsProcessed;
+    private int coinsStored;
+    private int coinsUnchanged;
+
+    void addBatch(int coinsProcessed, int coinsStored, int coinsUnchanged) {
+        this.coinsProcessed += coinsProcessed;
+        this.coinsStored += coinsStored;
+        this.coinsUnchanged += coinsUnchanged;
+    }
+
+    @Override
+    public String toString() {
+        return "stored " + this.coinsStored + "/" + this.coinsProcessed + " coins, "
+                + this.coinsUnchanged + " unchanged";
+    }
+}
@@ -0,0 +1,120 @@
+package com.schumskich.cryptotrickstr.app.coins.ingest;
+
+import com.schumskich.cryptotrickstr.config.IngestConfig;
+import com.schumskich.cryptotrickstr.support.cryptocompare.CryptoCompareAdapter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareApiException;
+import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareThrottledException;
+import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareUnavailableException;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * The default {@link CoinSelector} that refreshes the top <code>ingest.discovery.maxCoins</code> coins. The top coins
+ * are fetched page by page, so that only one page is held in memory at a time.
+ */
+@Component
+public class TopCoinsSelector implements CoinSelector {
+    private static Logger LOG = LoggerFactory.getLogger(TopCoinsSelector.class);
+
+    private final CryptoCompareAdapter cryptoCompareAdapter;
+    private final IngestMetrics metrics;
+    private final int maxCoins;
+    private final int pageSize;
+
+    @Autowired
+    public TopCoinsSelector(IngestConfig ingestConfig, CryptoCompareAdapter cryptoCompareAdapter,
+                            IngestMetrics ingestMetrics) {
+        this.cryptoCompareAdapter = cryptoCompareAdapter;
+        this.metrics = ingestMetrics;
+        this.maxCoins = ingestConfig.getDiscovery().getMaxCoins();
+        this.pageSize = ingestConfig.getDiscovery().getPageSize();
+    }
+
+    @Override
+    public List<TopCoinsResponse.CoinInfo> selectCoins() {
+        List<TopCoinsResponse.CoinInfo> coins = new ArrayList<>();
+        selectCoins(coins::add);
+        return coins;
+    }
+
+    /**
+     * Fetches the top coins page by page until <code>ingest.discovery.maxCoins</code> coins have been selected or a
+     * page is not full (i.e. it is the last page). Coins are passed on as soon as their page has
+     * been received. The ranking may change while paging, so coins that moved from one page to the next one are
+     * skipped.
+     *
+     * @param consumer The consumer of the coins.
+     * @return The number of fetched pages.
+     */
+    @Override
+    public int selectCoins(Consumer<TopCoinsResponse.CoinInfo> consumer) {
+        Set<String> previousPage = Collections.emptySet();
+        int selected = 0;
+        int page = 0;
+        while (selected < this.maxCoins) {
+            List<TopCoinsResponse.CoinInfo> coins = fetchPage(page++);
+            Set<String> currentPage = new HashSet<>();
+            for (TopCoinsResponse.CoinInfo coin : coins) {
+                if (selected >= this.maxCoins) {
+                    break;
+                }
+                currentPage.add(coin.getName());
+                if (!previousPage.contains(coin.getName())) {
+                    consumer.accept(coin);
+                    selected++;
+                }
+            }
+
+            if (coins.size() < this.pageSize) {
+                break;
+            }
+            previousPage = currentPage;
+        }
+        return page;
+    }
+
+    /**
+     * Fetches a page of the top coins. Errors of the first page are passed on; an error response of a later page is
+     * taken as the end of the top coins.
+     *
+     * @param page The index of the page (starting at 0).
+     * @return The coins of the page.
+     */
+    private List<TopCoinsResponse.CoinInfo> fetchPage(int page) {
+        TopCoinsResponse response;
+        if (page == 0) {
+            response = this.metrics.time(IngestMetrics.TOP_COINS_FETCH, this.cryptoCompareAdapter::fetchTopCoins);
+        } else {
+            try {
+                response = this.metrics.time(IngestMetrics.TOP_COINS_FETCH,
+                        () -> this.cryptoCompareAdapter.fetchTopCoins(page));
+            } catch (CryptoCompareThrottledException | CryptoCompareUnavailableException e) {
+                throw e;
+            } catch (CryptoCompareApiException e) {
+                LOG.debug("No top coins on page " + page + ": " + e.getMessage());
+                return Collections.emptyList();
+            }
+        }
+
+        if (response == null || response.getResponseData() == null) {
+            return Collections.emptyList();
+        }
+        return response.getResponseData().stream()
+                .map(TopCoinsResponse.ResponseData::getCoinInfo)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
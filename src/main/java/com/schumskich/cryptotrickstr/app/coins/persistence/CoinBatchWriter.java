@@ -0,0 +1,74 @@
+package com.schumskich.cryptotrickstr.app.coins.persistence;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * The default {@link CoinStore} that reads and writes the coins directly from and to the database.
+ */
+@Component
+public class CoinBatchWriter implements CoinStore {
+    private final CoinRepository coinRepository;
+
+    @Autowired
+    public CoinBatchWriter(CoinRepository coinRepository) {
+        this.coinRepository = coinRepository;
+    }
+
+    /**
+     * Loads all existing {@link CoinEntity} objects of the given symbols with a single query, lets the updater
+     * modify them (or a new entity if a symbol is not stored yet) and stores the result in one transaction.
+     * Inserts and updates are sent to the database as JDBC batches (see <code>hibernate.jdbc.batch_size</code>).
+     *
+     * @param symbols The symbols of the coins to update.
+     * @param updater Updates the entity of a symbol and returns whether the entity should be stored.
+     * @return All entities that have been stored.
+     */
+    @Override
+    @Transactional
+    public List<CoinEntity> upsert(Collection<String> symbols, BiPredicate<String, CoinEntity> updater) {
+        Map<String, CoinEntity> existingEntities = new HashMap<>();
+        for (CoinEntity entity : this.coinRepository.findBySymbolIn(symbols)) {
+            existingEntities.putIfAbsent(entity.getSymbol(), entity);
+        }
+
+        List<CoinEntity> entities = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            CoinEntity entity = existingEntities.get(symbol);
+            if (entity == null) {
+                entity = new CoinEntity();
+            }
+            if (updater.test(symbol, entity)) {
+                entities.add(entity);
+            }
+        }
+
+        if (!entities.isEmpty()) {
+            this.coinRepository.save(entities);
+        }
+        return entities;
+    }
+
+    @Override
+    public Iterable<CoinEntity> findAll() {
+        return this.coinRepository.findAll();
+    }
+
+    @Override
+    public CoinEntity findOneBySymbol(String symbol) {
+        return this.coinRepository.findOneBySymbol(symbol);
+    }
+
+    @Override
+    public List<CoinEntity> findByFullName(String fullName) {
+        return this.coinRepository.findByFullName(fullName);
+    }
+}
@@ -1,15 +1,19 @@
 package com.schumskich.cryptotrickstr.app.coins.persistence;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.schumskich.cryptotrickstr.support.json.EpochMillisDeserializer;
+import com.schumskich.cryptotrickstr.support.json.EpochMillisSerializer;
 import lombok.Getter;
 import lombok.Setter;
 
 import javax.persistence.*;
-import java.util.Date;
 
 @Getter
 @Setter
 @Entity
 @Table(indexes = {
+        @Index(name = "IDX_SYMBOL", columnList = "symbol"),
         @Index(name = "IDX_FULL_NAME", columnList = "fullName"),
         @Index(name = "IDX_MIN_PRICE", columnList = "minPrice"),
         @Index(name = "IDX_MAX_PRICE", columnList = "maxPrice")
@@ -17,7 +21,8 @@ import java.util.Date;
 public class CoinEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "coinSequence")
+    @SequenceGenerator(name = "coinSequence", sequenceName = "COIN_SEQUENCE", allocationSize = 50)
     private long id;
 
     @Column
@@ -50,8 +55,13 @@ public class CoinEntity {
     @Column
     private String minPriceExchange;
 
+    /**
+     * The time the exchange with the minimum price last updated the price (in milliseconds since the epoch).
+     */
     @Column
-    private Date minPriceUpdated;
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    @JsonDeserialize(using = EpochMillisDeserializer.class)
+    private Long minPriceUpdated;
 
     @Column
     private Double maxPrice;
@@ -59,8 +69,13 @@ public class CoinEntity {
     @Column
     private String maxPriceExchange;
 
+    /**
+     * The time the exchange with the maximum price last updated the price (in milliseconds since the epoch).
+     */
     @Column
-    private Date maxPriceUpdated;
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    @JsonDeserialize(using = EpochMillisDeserializer.class)
+    private Long maxPriceUpdated;
 
     @Column
     private Double priceGapPercent;
@@ -68,18 +83,28 @@ public class CoinEntity {
     @Column
     private Double priceGap;
 
+    /**
+     * In milliseconds since the epoch.
+     */
     @Column(nullable = false)
-    private Date dateCreated;
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    @JsonDeserialize(using = EpochMillisDeserializer.class)
+    private long dateCreated;
 
+    /**
+     * In milliseconds since the epoch.
+     */
     @Column(nullable = false)
-    private Date dateUpdated;
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    @JsonDeserialize(using = EpochMillisDeserializer.class)
+    private long dateUpdated;
 
     @PreUpdate
     @PrePersist
     public void updateTimeStamps() {
-        dateUpdated = new Date();
-        if (dateCreated == null) {
-            dateCreated = new Date();
+        dateUpdated = System.currentTimeMillis();
+        if (dateCreated == 0) {
+            dateCreated = dateUpdated;
         }
     }
 }
\ No newline at end of file
@@ -3,13 +3,18 @@ package com.schumskich.cryptotrickstr.app.coins.persistence;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 
+import java.util.Collection;
 import java.util.List;
 
 @RepositoryRestResource(collectionResourceRel = "coins", path = "/coins")
 public interface CoinRepository extends PagingAndSortingRepository<CoinEntity, Long> {
     CoinEntity findOneBySymbol(@Param("symbol") String symbol);
 
+    @RestResource(exported = false)
+    List<CoinEntity> findBySymbolIn(Collection<String> symbols);
+
     List<CoinEntity> findByFullName(@Param("name") String name);
 
     List<CoinEntity> findByPriceGapBetween(@Param("from") Double from, @Param("to") Double to);
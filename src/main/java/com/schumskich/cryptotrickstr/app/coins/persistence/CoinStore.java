@@ -0,0 +1,40 @@
+package com.schumskich.cryptotrickstr.app.coins.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * The authoritative state of the coins that is updated by the ingest pipeline. By default this is the database
+ * itself ({@link CoinBatchWriter}). With <code>ingest.writeBehind.enabled</code> the coins are kept in memory and
+ * written to the database asynchronously (see {@link com.schumskich.cryptotrickstr.app.coins.store}).
+ */
+public interface CoinStore {
+
+    /**
+     * Lets the updater modify the current entity of each symbol (or a new entity if a symbol is not stored yet) and
+     * stores the result.
+     *
+     * @param symbols The symbols of the coins to update.
+     * @param updater Updates the entity of a symbol and returns whether the entity should be stored.
+     * @return All entities that have been stored.
+     */
+    List<CoinEntity> upsert(Collection<String> symbols, BiPredicate<String, CoinEntity> updater);
+
+    /**
+     * @return All stored coins.
+     */
+    Iterable<CoinEntity> findAll();
+
+    /**
+     * @param symbol The symbol of the coin.
+     * @return The coin or <code>null</code> if there is no coin with this symbol.
+     */
+    CoinEntity findOneBySymbol(String symbol);
+
+    /**
+     * @param fullName The full name of the coins.
+     * @return All coins with this full name.
+     */
+    List<CoinEntity> findByFullName(String fullName);
+}
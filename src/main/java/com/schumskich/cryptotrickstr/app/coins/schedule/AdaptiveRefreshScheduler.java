@@ -0,0 +1,203 @@
+package com.schumskich.cryptotrickstr.app.coins.schedule;
+
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinIngestService;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinSelector;
+import com.schumskich.cryptotrickstr.app.coins.ingest.RefreshResult;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinStore;
+import com.schumskich.cryptotrickstr.config.IngestConfig;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Refreshes each coin at its own interval instead of refreshing all coins at once. The interval of a coin shrinks
+ * with its priority, which grows with its price gap, the rate its price changes at and its volume:
+ * <pre>
+ * priority = 1 + gapWeight * gap% + volatilityWeight * change%/min + volumeWeight * log10(1 + volume / 1M USD)
+ * interval = maxInterval / priority (at least minInterval)
+ * </pre>
+ * The coins are kept in a priority queue ordered by the time of their next refresh. With every tick the scheduler
+ * refreshes the coins that are due, but never more than the budget of <code>callsPerMinute</code> allows. If more
+ * coins are due than the budget allows, the most overdue ones go first, and since busy coins are queued again
+ * sooner, they get a larger part of the budget.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ingest.adaptive", name = "enabled", havingValue = "true")
+public class AdaptiveRefreshScheduler implements PublicMetrics {
+    private static Logger LOG = LoggerFactory.getLogger(AdaptiveRefreshScheduler.class);
+    private static final double MILLION_USD = 1e6;
+
+    private final CoinIngestService coinIngestService;
+    private final CoinSelector coinSelector;
+    private final CoinStore coinStore;
+    private final IngestConfig.Adaptive config;
+    private final IngestMetrics metrics;
+
+    private final PriorityQueue<SymbolRefreshState> queue =
+            new PriorityQueue<>(Comparator.comparingLong(SymbolRefreshState::getNextRefresh));
+    private final Map<String, SymbolRefreshState> states = new HashMap<>();
+    private long nextTopCoinsRefresh;
+    private long lastTick = -1;
+
+    /**
+     * The number of coins that can be refreshed without exceeding the budget.
+     */
+    private double credit;
+
+    @Autowired
+    public AdaptiveRefreshScheduler(CoinIngestService coinIngestService, CoinSelector coinSelector,
+                                    CoinStore coinStore, IngestConfig ingestConfig, IngestMetrics ingestMetrics) {
+        this.coinIngestService = coinIngestService;
+        this.coinSelector = coinSelector;
+        this.coinStore = coinStore;
+        this.config = ingestConfig.getAdaptive();
+        this.metrics = ingestMetrics;
+    }
+
+    /**
+     * Refreshes the coins that are due within the budget. The top coins, which decide the coins that are refreshed,
+     * are requested every <code>topCoinsInterval</code> milliseconds.
+     *
+     * @param now The current time (in milliseconds since the epoch).
+     * @return The number of refreshed coins.
+     */
+    public synchronized int tick(long now) {
+        double callsPerMilli = this.config.getCallsPerMinute() / TimeUnit.MINUTES.toMillis(1);
+        double maxCredit = Math.max(1, callsPerMilli * this.config.getTickInterval());
+        this.credit = this.lastTick < 0 ? maxCredit
+                : Math.min(maxCredit, this.credit + callsPerMilli * (now - this.lastTick));
+        this.lastTick = now;
+
+        if (now >= this.nextTopCoinsRefresh) {
+            // Each page of the top coins is a request of its own
+            this.credit -= updateTopCoins(now);
+        }
+
+        List<SymbolRefreshState> due = new ArrayList<>();
+        while (this.credit >= 1 && !this.queue.isEmpty() && this.queue.peek().getNextRefresh() <= now) {
+            due.add(this.queue.poll());
+            this.credit -= 1;
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Optional<RefreshResult> result;
+        try {
+            result = this.coinIngestService.refresh(due.stream().map(AdaptiveRefreshScheduler::toCoinInfo)
+                    .collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            // Try again with the next tick
+            this.queue.addAll(due);
+            throw e;
+        }
+        if (!result.isPresent()) {
+            // Another refresh cycle is running, so nothing has been requested. Try again with the next tick.
+            this.queue.addAll(due);
+            this.credit += due.size();
+            return 0;
+        }
+
+        for (SymbolRefreshState state : due) {
+            state.observe(this.coinStore.findOneBySymbol(state.getSymbol()), now);
+            state.setInterval(intervalOf(state));
+            state.setNextRefresh(now + state.getInterval());
+            this.queue.add(state);
+        }
+        this.metrics.increment("adaptive.refreshedCoins", due.size());
+        return due.size();
+    }
+
+    /**
+     * @param symbol The symbol of a coin.
+     * @return The current refresh interval (in milliseconds) of the coin or <code>null</code> if it is unknown.
+     */
+    public synchronized Long getInterval(String symbol) {
+        SymbolRefreshState state = this.states.get(symbol);
+        return state == null ? null : state.getInterval();
+    }
+
+    @Override
+    public synchronized Collection<Metric<?>> metrics() {
+        long now = System.currentTimeMillis();
+        return Arrays.asList(
+                new Metric<>("ingest.adaptive.coins", this.states.size()),
+                new Metric<>("ingest.adaptive.dueCoins",
+                        this.queue.stream().filter(state -> state.getNextRefresh() <= now).count()),
+                new Metric<>("ingest.adaptive.meanIntervalMillis",
+                        this.states.values().stream().mapToLong(SymbolRefreshState::getInterval).average()
+                                .orElse(0)));
+    }
+
+    long intervalOf(SymbolRefreshState state) {
+        double priority = 1
+                + this.config.getGapWeight() * Math.max(0, state.getPriceGapPercent())
+                + this.config.getVolatilityWeight() * state.getChangeRate()
+                + this.config.getVolumeWeight() * Math.log10(1 + Math.max(0, state.getVolumeUsd()) / MILLION_USD);
+        long interval = Math.round(this.config.getMaxInterval() / priority);
+        return Math.max(this.config.getMinInterval(), Math.min(this.config.getMaxInterval(), interval));
+    }
+
+    /**
+     * Adds the coins that entered the top coins (they are refreshed right away) and removes the ones that left.
+     *
+     * @param now The current time (in milliseconds since the epoch).
+     * @return The number of requests sent to fetch the top coins.
+     */
+    private int updateTopCoins(long now) {
+        List<TopCoinsResponse.CoinInfo> topCoins = new ArrayList<>();
+        int requests;
+        try {
+            requests = this.coinSelector.selectCoins(topCoins::add);
+        } catch (RuntimeException e) {
+            // Keep the current coins and try again with the next tick
+            LOG.error("Could not fetch the top coins.", e);
+            return 0;
+        }
+        this.nextTopCoinsRefresh = now + this.config.getTopCoinsInterval();
+
+        Set<String> symbols = new HashSet<>();
+        for (TopCoinsResponse.CoinInfo coin : topCoins) {
+            symbols.add(coin.getName());
+            SymbolRefreshState state = this.states.get(coin.getName());
+            if (state == null) {
+                state = new SymbolRefreshState(coin.getName(), coin.getFullName(), now);
+                state.setInterval(this.config.getMaxInterval());
+                this.states.put(coin.getName(), state);
+                this.queue.add(state);
+            } else {
+                state.setFullName(coin.getFullName());
+            }
+        }
+        this.states.keySet().retainAll(symbols);
+        this.queue.removeIf(state -> !symbols.contains(state.getSymbol()));
+        return requests;
+    }
+
+    private static TopCoinsResponse.CoinInfo toCoinInfo(SymbolRefreshState state) {
+        TopCoinsResponse.CoinInfo coin = new TopCoinsResponse.CoinInfo();
+        coin.setName(state.getSymbol());
+        coin.setFullName(state.getFullName());
+        return coin;
+    }
+}
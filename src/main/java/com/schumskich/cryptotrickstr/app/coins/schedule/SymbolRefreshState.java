@@ -0,0 +1,69 @@
+package com.schumskich.cryptotrickstr.app.coins.schedule;
+
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the {@link AdaptiveRefreshScheduler} knows about a coin: its latest price gap and volume and how fast its
+ * price changes, and when it is refreshed next.
+ */
+@Getter
+class SymbolRefreshState {
+    /**
+     * The weight of the latest observation in the moving average of the change rate.
+     */
+    private static final double CHANGE_RATE_ALPHA = 0.3;
+
+    private final String symbol;
+
+    @Setter
+    private String fullName;
+
+    private double lastPrice;
+    private long lastRefresh = -1;
+
+    /**
+     * The exponential moving average of the price change (in percent per minute).
+     */
+    private double changeRate;
+
+    private double priceGapPercent;
+    private double volumeUsd;
+
+    @Setter
+    private long interval;
+
+    @Setter
+    private long nextRefresh;
+
+    SymbolRefreshState(String symbol, String fullName, long nextRefresh) {
+        this.symbol = symbol;
+        this.fullName = fullName;
+        this.nextRefresh = nextRefresh;
+    }
+
+    /**
+     * Updates the state with the coin after it has been refreshed.
+     *
+     * @param coin The refreshed coin or <code>null</code> if it has not been stored (yet).
+     * @param now  The time of the refresh (in milliseconds since the epoch).
+     */
+    void observe(CoinEntity coin, long now) {
+        if (coin == null) {
+            return;
+        }
+        double price = coin.getAggregatedPrice();
+        if (this.lastRefresh >= 0 && this.lastPrice > 0 && now > this.lastRefresh) {
+            double minutes = (double) (now - this.lastRefresh) / TimeUnit.MINUTES.toMillis(1);
+            double rate = Math.abs(price - this.lastPrice) / this.lastPrice * 100 / minutes;
+            this.changeRate = CHANGE_RATE_ALPHA * rate + (1 - CHANGE_RATE_ALPHA) * this.changeRate;
+        }
+        this.lastPrice = price;
+        this.lastRefresh = now;
+        this.priceGapPercent = coin.getPriceGapPercent() == null ? 0 : coin.getPriceGapPercent();
+        this.volumeUsd = coin.getTotalVolume24H() * price;
+    }
+}
@@ -0,0 +1,25 @@
+package com.schumskich.cryptotrickstr.app.coins.store;
+
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+/**
+ * Copies {@link CoinEntity} objects. The entities of the {@link WriteBehindCoinStore} are never modified once they
+ * are visible to readers, so each update works on a copy. The implementation is generated by MapStruct.
+ */
+@Mapper(componentModel = "spring")
+public interface CoinEntityCopier {
+
+    CoinEntity copy(CoinEntity entity);
+
+    /**
+     * Copies all values except the id, which is assigned by the database.
+     *
+     * @param source The entity to copy the values from.
+     * @param target The entity to copy the values to.
+     */
+    @Mapping(target = "id", ignore = true)
+    void copyValues(CoinEntity source, @MappingTarget CoinEntity target);
+}
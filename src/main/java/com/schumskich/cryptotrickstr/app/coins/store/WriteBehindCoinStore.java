@@ -0,0 +1,277 @@
+package com.schumskich.cryptotrickstr.app.coins.store;
+
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinBatchWriter;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinStore;
+import com.schumskich.cryptotrickstr.config.IngestConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.rest.core.event.AfterCreateEvent;
+import org.springframework.data.rest.core.event.AfterDeleteEvent;
+import org.springframework.data.rest.core.event.AfterSaveEvent;
+import org.springframework.data.rest.core.event.RepositoryEvent;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link CoinStore} that keeps the authoritative state of the coins in memory and writes changes to the database
+ * asynchronously (write-behind). Updated symbols are queued until the next flush, so that any number of updates of
+ * a coin between two flushes results in a single database write. The queue is flushed every
+ * <code>flushInterval</code> milliseconds (or earlier, as soon as it holds <code>maxQueueDepth</code> symbols) in
+ * batches of <code>maxBatchSize</code> coins. Symbols of a failed batch stay queued and are written with the next
+ * flush. If the app crashes, at most the updates of one flush interval are lost; on shutdown the queue is flushed.
+ * <p>
+ * The stored entities are never modified: each update works on a copy that replaces the entity of its symbol, so
+ * readers can use the returned entities without any synchronization.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "ingest.writeBehind", name = "enabled", havingValue = "true")
+public class WriteBehindCoinStore implements CoinStore, PublicMetrics {
+    private static Logger LOG = LoggerFactory.getLogger(WriteBehindCoinStore.class);
+
+    private final CoinBatchWriter coinBatchWriter;
+    private final CoinEntityCopier copier;
+    private final long flushInterval;
+    private final int maxBatchSize;
+    private final int maxQueueDepth;
+
+    private final ConcurrentMap<String, CoinEntity> coins = new ConcurrentHashMap<>();
+    /**
+     * The queue of symbols that have not been written yet, mapped to the time of their first unwritten update.
+     */
+    private final ConcurrentMap<String, Long> dirtySince = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coin-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedCoins = new LongAdder();
+    private final LongAdder flushErrors = new LongAdder();
+    private volatile long lastFlushMillis;
+
+    @Autowired
+    public WriteBehindCoinStore(IngestConfig ingestConfig, CoinBatchWriter coinBatchWriter, CoinEntityCopier copier) {
+        this(coinBatchWriter, copier, ingestConfig.getWriteBehind().getFlushInterval(),
+                ingestConfig.getWriteBehind().getMaxBatchSize(), ingestConfig.getWriteBehind().getMaxQueueDepth());
+    }
+
+    public WriteBehindCoinStore(CoinBatchWriter coinBatchWriter, CoinEntityCopier copier, long flushInterval,
+                                int maxBatchSize, int maxQueueDepth) {
+        this.coinBatchWriter = coinBatchWriter;
+        this.copier = copier;
+        this.flushInterval = flushInterval;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxQueueDepth = Math.max(1, maxQueueDepth);
+    }
+
+    /**
+     * Loads all coins from the database and starts flushing.
+     */
+    @PostConstruct
+    public void start() {
+        for (CoinEntity entity : this.coinBatchWriter.findAll()) {
+            this.coins.put(entity.getSymbol(), entity);
+        }
+        LOG.info("Loaded " + this.coins.size() + " coins into the write-behind store.");
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, this.flushInterval, this.flushInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops flushing periodically and writes all queued coins to the database.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        this.flusher.shutdown();
+        this.flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    @Override
+    public List<CoinEntity> upsert(Collection<String> symbols, BiPredicate<String, CoinEntity> updater) {
+        List<CoinEntity> entities = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            // compute() serializes concurrent updates of the same symbol
+            this.coins.compute(symbol, (key, current) -> {
+                CoinEntity entity = current == null ? new CoinEntity() : this.copier.copy(current);
+                if (!updater.test(symbol, entity)) {
+                    return current;
+                }
+                entity.updateTimeStamps();
+                entities.add(entity);
+                this.dirtySince.putIfAbsent(symbol, System.currentTimeMillis());
+                return entity;
+            });
+        }
+
+        if (this.dirtySince.size() >= this.maxQueueDepth && this.flushRequested.compareAndSet(false, true)) {
+            this.flusher.execute(this::flushQuietly);
+        }
+        return entities;
+    }
+
+    @Override
+    public Iterable<CoinEntity> findAll() {
+        return new ArrayList<>(this.coins.values());
+    }
+
+    @Override
+    public CoinEntity findOneBySymbol(String symbol) {
+        return symbol == null ? null : this.coins.get(symbol);
+    }
+
+    @Override
+    public List<CoinEntity> findByFullName(String fullName) {
+        return this.coins.values().stream()
+                .filter(entity -> fullName != null && fullName.equals(entity.getFullName()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes all queued coins to the database.
+     *
+     * @throws RuntimeException If a batch could not be written. Its symbols and all following ones stay queued.
+     */
+    public synchronized void flush() {
+        this.flushRequested.set(false);
+        long start = System.currentTimeMillis();
+        List<String> symbols = new ArrayList<>(this.dirtySince.keySet());
+        for (int from = 0; from < symbols.size(); from += this.maxBatchSize) {
+            // Dequeue before reading the entities, so that concurrent updates are queued again
+            Map<String, Long> batch = new LinkedHashMap<>();
+            for (String symbol : symbols.subList(from, Math.min(symbols.size(), from + this.maxBatchSize))) {
+                Long since = this.dirtySince.remove(symbol);
+                if (since != null) {
+                    batch.put(symbol, since);
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            List<CoinEntity> written;
+            try {
+                written = this.coinBatchWriter.upsert(batch.keySet(), (symbol, storedEntity) -> {
+                    CoinEntity entity = this.coins.get(symbol);
+                    if (entity == null) {
+                        return false;
+                    }
+                    this.copier.copyValues(entity, storedEntity);
+                    return true;
+                });
+            } catch (RuntimeException e) {
+                batch.forEach((symbol, since) -> this.dirtySince.merge(symbol, since, Math::min));
+                this.flushErrors.increment();
+                throw e;
+            }
+            written.forEach(this::assignId);
+            this.flushedCoins.add(written.size());
+        }
+        this.flushes.increment();
+        this.lastFlushMillis = System.currentTimeMillis() - start;
+    }
+
+    /**
+     * @return The number of coins that have been updated but not written to the database yet.
+     */
+    public int getQueueDepth() {
+        return this.dirtySince.size();
+    }
+
+    /**
+     * @return The age (in milliseconds) of the oldest update that has not been written to the database yet.
+     */
+    public long getLagMillis() {
+        long now = System.currentTimeMillis();
+        return this.dirtySince.values().stream().mapToLong(since -> now - since).max().orElse(0);
+    }
+
+    /**
+     * Coins can also be created, updated or deleted using the RESTful API, which writes to the database directly.
+     * This listener runs before the listeners that read from the store (e.g. the price gap index).
+     *
+     * @param event The event published by Spring Data REST.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener({AfterCreateEvent.class, AfterSaveEvent.class, AfterDeleteEvent.class})
+    public void onRepositoryEvent(RepositoryEvent event) {
+        if (!(event.getSource() instanceof CoinEntity) || ((CoinEntity) event.getSource()).getSymbol() == null) {
+            return;
+        }
+        CoinEntity entity = (CoinEntity) event.getSource();
+        // The symbol might have been changed
+        this.coins.values().removeIf(existing -> existing.getId() == entity.getId()
+                && !entity.getSymbol().equals(existing.getSymbol()));
+        if (event instanceof AfterDeleteEvent) {
+            this.coins.remove(entity.getSymbol());
+        } else {
+            this.coins.put(entity.getSymbol(), this.copier.copy(entity));
+        }
+        this.dirtySince.remove(entity.getSymbol());
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        String prefix = "coins.writeBehind.";
+        return Arrays.asList(
+                new Metric<>(prefix + "queueDepth", getQueueDepth()),
+                new Metric<>(prefix + "lagMillis", getLagMillis()),
+                new Metric<>(prefix + "flushes", this.flushes.sum()),
+                new Metric<>(prefix + "flushedCoins", this.flushedCoins.sum()),
+                new Metric<>(prefix + "flushErrors", this.flushErrors.sum()),
+                new Metric<>(prefix + "lastFlushMillis", this.lastFlushMillis));
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            // The coins stay queued and are written with the next flush
+            LOG.error("Could not write the coins to the database.", t);
+        }
+    }
+
+    /**
+     * Replaces the entity of the written coin with a copy that holds the id assigned by the database, unless it has
+     * been updated in the meantime (the newer entity then gets its id with the next flush).
+     *
+     * @param written The entity that has been written to the database.
+     */
+    private void assignId(CoinEntity written) {
+        CoinEntity entity = this.coins.get(written.getSymbol());
+        if (entity != null && entity.getId() != written.getId()) {
+            CoinEntity withId = this.copier.copy(entity);
+            withId.setId(written.getId());
+            this.coins.replace(written.getSymbol(), entity, withId);
+        }
+    }
+}
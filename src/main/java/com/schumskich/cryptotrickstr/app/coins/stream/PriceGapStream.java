@@ -0,0 +1,127 @@
+package com.schumskich.cryptotrickstr.app.coins.stream;
+
+import com.schumskich.cryptotrickstr.app.coins.index.PriceGapIndex;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinsChangedEvent;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.config.StreamConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes the changes of the stored coins to subscribed clients. After every stored batch of coins, only the fields
+ * that changed since the previous update are sent, and only to the clients whose price gap percentage range the
+ * coin matches (see {@link PriceGapSubscription}).
+ */
+@Component
+public class PriceGapStream {
+    static final String PRICE_GAP_PERCENT = "priceGapPercent";
+
+    private final PriceGapIndex priceGapIndex;
+    private final Executor dispatcher;
+    private final long maxLagMillis;
+    private final Set<PriceGapSubscription> subscriptions = new CopyOnWriteArraySet<>();
+
+    /**
+     * The fields of all coins as last sent to the clients, keyed by symbol. Guarded by this.
+     */
+    private final Map<String, Map<String, Object>> publishedCoins = new HashMap<>();
+
+    @Autowired
+    public PriceGapStream(StreamConfig streamConfig, PriceGapIndex priceGapIndex) {
+        this(priceGapIndex, Executors.newFixedThreadPool(streamConfig.getDispatcherThreads(),
+                new CustomizableThreadFactory("price-gap-stream-")), streamConfig.getMaxLag());
+    }
+
+    public PriceGapStream(PriceGapIndex priceGapIndex, Executor dispatcher, long maxLagMillis) {
+        this.priceGapIndex = priceGapIndex;
+        this.dispatcher = dispatcher;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.subscriptions.forEach(PriceGapSubscription::close);
+        if (this.dispatcher instanceof ExecutorService) {
+            ((ExecutorService) this.dispatcher).shutdownNow();
+        }
+    }
+
+    /**
+     * Subscribes a client to the coins within a price gap percentage range. The client first receives a
+     * <code>snapshot</code> event with all matching coins and then a <code>changes</code> event with the changed
+     * fields of the matching coins after every stored batch of coins. Coins that no longer match the range are
+     * sent as <code>removed</code>.
+     *
+     * @param from The lower bound (inclusive) or <code>null</code> if unbounded.
+     * @param to   The upper bound (inclusive) or <code>null</code> if unbounded.
+     * @param sink The connection to the client.
+     * @return The subscription.
+     */
+    public synchronized PriceGapSubscription subscribe(Double from, Double to, UpdateSink sink) {
+        // Coins that did not change since the app has been started are only known by the index
+        for (CoinEntity coin : this.priceGapIndex.findByPriceGapPercentBetween(null, null)) {
+            this.publishedCoins.putIfAbsent(coin.getSymbol(), toFields(coin));
+        }
+
+        PriceGapSubscription[] subscription = new PriceGapSubscription[1];
+        subscription[0] = new PriceGapSubscription(from, to, sink, this.dispatcher, this.maxLagMillis,
+                () -> this.subscriptions.remove(subscription[0]));
+        subscription[0].snapshot(this.publishedCoins);
+        this.subscriptions.add(subscription[0]);
+        subscription[0].flush();
+        return subscription[0];
+    }
+
+    /**
+     * @return The number of subscribed clients.
+     */
+    public int getSubscriptionCount() {
+        return this.subscriptions.size();
+    }
+
+    @EventListener(CoinsChangedEvent.class)
+    public synchronized void onCoinsChanged(CoinsChangedEvent event) {
+        for (CoinEntity coin : event.getChangedCoins()) {
+            Map<String, Object> fields = toFields(coin);
+            Map<String, Object> previousFields = this.publishedCoins.put(coin.getSymbol(), fields);
+            Map<String, Object> changedFields = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                if (previousFields == null || !Objects.equals(previousFields.get(field.getKey()), field.getValue())) {
+                    changedFields.put(field.getKey(), field.getValue());
+                }
+            }
+            if (!changedFields.isEmpty()) {
+                this.subscriptions.forEach(subscription -> subscription.update(coin.getSymbol(), fields,
+                        changedFields));
+            }
+        }
+        this.subscriptions.forEach(PriceGapSubscription::flush);
+    }
+
+    private static Map<String, Object> toFields(CoinEntity coin) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("fullName", coin.getFullName());
+        fields.put("aggregatedPrice", coin.getAggregatedPrice());
+        fields.put("totalVolume24H", coin.getTotalVolume24H());
+        fields.put("minPrice", coin.getMinPrice());
+        fields.put("minPriceExchange", coin.getMinPriceExchange());
+        fields.put("maxPrice", coin.getMaxPrice());
+        fields.put("maxPriceExchange", coin.getMaxPriceExchange());
+        fields.put("priceGap", coin.getPriceGap());
+        fields.put(PRICE_GAP_PERCENT, coin.getPriceGapPercent());
+        return fields;
+    }
+}
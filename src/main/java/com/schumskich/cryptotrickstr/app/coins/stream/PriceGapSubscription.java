@@ -0,0 +1,181 @@
+package com.schumskich.cryptotrickstr.app.coins.stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A client of the {@link PriceGapStream} that is interested in the coins within a price gap percentage range.
+ * Updates are queued per coin and merged with the pending update of the same coin, so the queue never holds more
+ * entries than there are coins, no matter how slow the client is. The queue is sent by a dispatcher thread instead
+ * of the thread that publishes the updates.
+ */
+public class PriceGapSubscription {
+    private static Logger LOG = LoggerFactory.getLogger(PriceGapSubscription.class);
+
+    private static final Map<String, Object> REMOVED = Collections.singletonMap("removed", true);
+
+    private final Double from;
+    private final Double to;
+    private final UpdateSink sink;
+    private final Executor dispatcher;
+    private final long maxLagMillis;
+    private final Runnable onClose;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * The coins the client knows about. Only accessed by the {@link PriceGapStream} while holding its lock.
+     */
+    private final Set<String> visibleSymbols = new HashSet<>();
+
+    // Guarded by this
+    private List<Map<String, Object>> pendingSnapshot;
+    private Map<String, Map<String, Object>> pendingUpdates = new LinkedHashMap<>();
+    private long pendingSince;
+    private boolean sending;
+
+    PriceGapSubscription(Double from, Double to, UpdateSink sink, Executor dispatcher, long maxLagMillis,
+                         Runnable onClose) {
+        this.from = from;
+        this.to = to;
+        this.sink = sink;
+        this.dispatcher = dispatcher;
+        this.maxLagMillis = maxLagMillis;
+        this.onClose = onClose;
+    }
+
+    boolean matches(Double priceGapPercent) {
+        return priceGapPercent != null && (this.from == null || priceGapPercent >= this.from)
+                && (this.to == null || priceGapPercent <= this.to);
+    }
+
+    /**
+     * Queues all matching coins as the first event.
+     *
+     * @param coins The fields of all known coins, keyed by symbol.
+     */
+    void snapshot(Map<String, Map<String, Object>> coins) {
+        List<Map<String, Object>> snapshot = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> entry : coins.entrySet()) {
+            if (matches((Double) entry.getValue().get(PriceGapStream.PRICE_GAP_PERCENT))) {
+                this.visibleSymbols.add(entry.getKey());
+                snapshot.add(toUpdate(entry.getKey(), entry.getValue()));
+            }
+        }
+        synchronized (this) {
+            this.pendingSnapshot = snapshot;
+            this.pendingSince = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Queues the update of a coin. Coins that start matching the range are sent with all fields, coins that stop
+     * matching it are sent as removed.
+     *
+     * @param symbol        The symbol of the coin.
+     * @param fields        All fields of the coin.
+     * @param changedFields The fields that changed since the last update.
+     */
+    void update(String symbol, Map<String, Object> fields, Map<String, Object> changedFields) {
+        if (matches((Double) fields.get(PriceGapStream.PRICE_GAP_PERCENT))) {
+            queue(symbol, this.visibleSymbols.add(symbol) ? fields : changedFields);
+        } else if (this.visibleSymbols.remove(symbol)) {
+            queue(symbol, REMOVED);
+        }
+    }
+
+    private synchronized void queue(String symbol, Map<String, Object> fields) {
+        if (this.pendingSnapshot == null && this.pendingUpdates.isEmpty()) {
+            this.pendingSince = System.currentTimeMillis();
+        }
+        Map<String, Object> pending = this.pendingUpdates.get(symbol);
+        if (pending == null || fields == REMOVED || pending == REMOVED) {
+            this.pendingUpdates.put(symbol, fields == REMOVED ? REMOVED : new LinkedHashMap<>(fields));
+        } else {
+            pending.putAll(fields);
+        }
+    }
+
+    /**
+     * Starts sending the queued updates unless they are already being sent. A client that has not received the
+     * oldest queued update within <code>stream.maxLag</code> milliseconds is disconnected, it will receive a new
+     * snapshot when it reconnects.
+     */
+    void flush() {
+        synchronized (this) {
+            if (this.closed.get() || (this.pendingSnapshot == null && this.pendingUpdates.isEmpty())) {
+                return;
+            }
+            if (this.sending) {
+                if (System.currentTimeMillis() - this.pendingSince <= this.maxLagMillis) {
+                    return;
+                }
+            } else {
+                this.sending = true;
+                this.dispatcher.execute(this::send);
+                return;
+            }
+        }
+        LOG.info("Disconnecting a price gap stream client that fell behind by more than " + this.maxLagMillis
+                + " ms.");
+        close();
+    }
+
+    private void send() {
+        while (!this.closed.get()) {
+            List<Map<String, Object>> snapshot;
+            Map<String, Map<String, Object>> updates;
+            synchronized (this) {
+                if (this.pendingSnapshot == null && this.pendingUpdates.isEmpty()) {
+                    this.sending = false;
+                    return;
+                }
+                snapshot = this.pendingSnapshot;
+                updates = this.pendingUpdates;
+                this.pendingSnapshot = null;
+                this.pendingUpdates = new LinkedHashMap<>();
+            }
+
+            try {
+                if (snapshot != null) {
+                    this.sink.send("snapshot", snapshot);
+                }
+                if (!updates.isEmpty()) {
+                    List<Map<String, Object>> changes = new ArrayList<>(updates.size());
+                    updates.forEach((symbol, fields) -> changes.add(toUpdate(symbol, fields)));
+                    this.sink.send("changes", changes);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Could not send price gap updates, the client has probably disconnected.", e);
+                close();
+            }
+        }
+    }
+
+    /**
+     * Closes the connection to the client and stops all updates.
+     */
+    public void close() {
+        if (this.closed.compareAndSet(false, true)) {
+            this.onClose.run();
+            this.sink.close();
+        }
+    }
+
+    private static Map<String, Object> toUpdate(String symbol, Map<String, Object> fields) {
+        Map<String, Object> update = new LinkedHashMap<>();
+        update.put("symbol", symbol);
+        update.putAll(fields);
+        return update;
+    }
+}
@@ -0,0 +1,22 @@
+package com.schumskich.cryptotrickstr.app.coins.stream;
+
+import java.io.IOException;
+
+/**
+ * The connection to a client of the {@link PriceGapStream} (e.g. a server-sent events response).
+ */
+public interface UpdateSink {
+    /**
+     * Sends an event to the client. May block if the client does not read fast enough.
+     *
+     * @param name The name of the event.
+     * @param data The data of the event.
+     * @throws IOException If the event could not be sent.
+     */
+    void send(String name, Object data) throws IOException;
+
+    /**
+     * Closes the connection to the client.
+     */
+    void close();
+}
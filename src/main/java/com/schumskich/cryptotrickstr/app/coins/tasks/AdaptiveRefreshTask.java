@@ -0,0 +1,38 @@
+package com.schumskich.cryptotrickstr.app.coins.tasks;
+
+import com.schumskich.cryptotrickstr.app.coins.schedule.AdaptiveRefreshScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "ingest.adaptive", name = "enabled", havingValue = "true")
+public class AdaptiveRefreshTask {
+    private static Logger LOG = LoggerFactory.getLogger(AdaptiveRefreshTask.class);
+
+    private final AdaptiveRefreshScheduler scheduler;
+
+    @Autowired
+    public AdaptiveRefreshTask(AdaptiveRefreshScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Lets the scheduler refresh the coins that are due every <code>ingest.adaptive.tickInterval</code>
+     * milliseconds.
+     */
+    @Scheduled(fixedDelayString = "${ingest.adaptive.tickInterval}")
+    public void tick() {
+        try {
+            int refreshed = this.scheduler.tick(System.currentTimeMillis());
+            if (refreshed > 0) {
+                LOG.debug("Refreshed " + refreshed + " coins.");
+            }
+        } catch (Throwable t) {
+            LOG.error("Could not refresh coin data.", t);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.schumskich.cryptotrickstr.app.coins.tasks;
+
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinIngestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "ingest", name = "scheduledRefresh", havingValue = "true")
+public class RefreshCoinsTask {
+    private static Logger LOG = LoggerFactory.getLogger(RefreshCoinsTask.class);
+
+    private final CoinIngestService coinIngestService;
+
+    @Autowired
+    public RefreshCoinsTask(CoinIngestService coinIngestService) {
+        this.coinIngestService = coinIngestService;
+    }
+
+    /**
+     * Periodically refreshes the coin information in the database. The next refresh cycle is scheduled
+     * <code>ingest.refreshInterval</code> milliseconds after the previous one has finished, so that refresh cycles
+     * never overlap.
+     */
+    @Scheduled(initialDelayString = "${ingest.refreshInterval}", fixedDelayString = "${ingest.refreshInterval}")
+    public void refresh() {
+        try {
+            this.coinIngestService.refresh().ifPresent(result -> LOG.info("Refreshed coin data (" + result + ")."));
+        } catch (Throwable t) {
+            LOG.error("Could not refresh coin data.", t);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.schumskich.cryptotrickstr.app.coins.web;
+
+import com.schumskich.cryptotrickstr.app.coins.index.PriceGapIndex;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.hateoas.Resources;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the price gap searches of the <code>coins</code> resource from the {@link PriceGapIndex} and the searches by
+ * symbol and name from the {@link CoinStore} instead of the database (which lags behind the in-memory store if
+ * write-behind is enabled). These handlers take precedence over the generic search handler of Spring Data REST.
+ */
+@RepositoryRestController
+public class CoinSearchController {
+    private final PriceGapIndex priceGapIndex;
+    private final CoinStore coinStore;
+
+    @Autowired
+    public CoinSearchController(PriceGapIndex priceGapIndex, CoinStore coinStore) {
+        this.priceGapIndex = priceGapIndex;
+        this.coinStore = coinStore;
+    }
+
+    @ResponseBody
+    @RequestMapping(method = RequestMethod.GET, path = "/coins/search/findOneBySymbol")
+    public ResponseEntity<PersistentEntityResource> findOneBySymbol(
+            @RequestParam(name = "symbol", required = false) String symbol,
+            PersistentEntityResourceAssembler assembler) {
+        CoinEntity coin = this.coinStore.findOneBySymbol(symbol);
+        return coin == null
+                ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : ResponseEntity.ok(assembler.toResource(coin));
+    }
+
+    @ResponseBody
+    @RequestMapping(method = RequestMethod.GET, path = "/coins/search/findByFullName")
+    public Resources<PersistentEntityResource> findByFullName(
+            @RequestParam(name = "name", required = false) String name,
+            PersistentEntityResourceAssembler assembler) {
+        return toResources(this.coinStore.findByFullName(name), assembler);
+    }
+
+    @ResponseBody
+    @RequestMapping(method = RequestMethod.GET, path = "/coins/search/findByPriceGapBetween")
+    public Resources<PersistentEntityResource> findByPriceGapBetween(
+            @RequestParam(name = "from", required = false) Double from,
+            @RequestParam(name = "to", required = false) Double to,
+            PersistentEntityResourceAssembler assembler) {
+        return toResources(this.priceGapIndex.findByPriceGapBetween(from, to), assembler);
+    }
+
+    @ResponseBody
+    @RequestMapping(method = RequestMethod.GET, path = "/coins/search/findByPriceGapPercentBetween")
+    public Resources<PersistentEntityResource> findByPriceGapPercentBetween(
+            @RequestParam(name = "from", required = false) Double from,
+            @RequestParam(name = "to", required = false) Double to,
+            PersistentEntityResourceAssembler assembler) {
+        return toResources(this.priceGapIndex.findByPriceGapPercentBetween(from, to), assembler);
+    }
+
+    private static Resources<PersistentEntityResource> toResources(List<CoinEntity> coins,
+                                                                   PersistentEntityResourceAssembler assembler) {
+        return new Resources<>(coins.stream().map(assembler::toResource).collect(Collectors.toList()));
+    }
+}
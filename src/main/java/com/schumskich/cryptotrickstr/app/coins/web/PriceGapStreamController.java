@@ -0,0 +1,51 @@
+package com.schumskich.cryptotrickstr.app.coins.web;
+
+import com.schumskich.cryptotrickstr.app.coins.stream.PriceGapStream;
+import com.schumskich.cryptotrickstr.app.coins.stream.PriceGapSubscription;
+import com.schumskich.cryptotrickstr.app.coins.stream.UpdateSink;
+import com.schumskich.cryptotrickstr.config.StreamConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Streams the changes of the coins within a price gap percentage range as server-sent events, so that clients do not
+ * need to poll the <code>coins</code> resource.
+ */
+@RestController
+public class PriceGapStreamController {
+    private final PriceGapStream priceGapStream;
+    private final StreamConfig streamConfig;
+
+    @Autowired
+    public PriceGapStreamController(PriceGapStream priceGapStream, StreamConfig streamConfig) {
+        this.priceGapStream = priceGapStream;
+        this.streamConfig = streamConfig;
+    }
+
+    @RequestMapping(method = RequestMethod.GET, path = "/coins/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(name = "from", required = false) Double from,
+                             @RequestParam(name = "to", required = false) Double to) {
+        SseEmitter emitter = new SseEmitter(this.streamConfig.getTimeout());
+        PriceGapSubscription subscription = this.priceGapStream.subscribe(from, to, new UpdateSink() {
+            @Override
+            public void send(String name, Object data) throws IOException {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        return emitter;
+    }
+}
@@ -0,0 +1,23 @@
+package com.schumskich.cryptotrickstr.app.history;
+
+import com.schumskich.cryptotrickstr.app.history.persistence.CandleResolution;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceCandleEntity;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The candles of a coin within a time window, read from the resolution chosen by {@link PriceHistoryService}.
+ */
+@Getter
+public class PriceHistory {
+    private final String symbol;
+    private final CandleResolution resolution;
+    private final List<PriceCandleEntity> candles;
+
+    public PriceHistory(String symbol, CandleResolution resolution, List<PriceCandleEntity> candles) {
+        this.symbol = symbol;
+        this.resolution = resolution;
+        this.candles = candles;
+    }
+}
@@ -0,0 +1,36 @@
+package com.schumskich.cryptotrickstr.app.history;
+
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinsChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends every batch of changed coins stored by the ingest pipeline to the price history. Coins that did not change
+ * during a refresh cycle are not appended, so a gap between two ticks means the prices stayed the same.
+ */
+@Component
+@ConditionalOnProperty(prefix = "history", name = "enabled", havingValue = "true")
+public class PriceHistoryRecorder {
+    private static Logger LOG = LoggerFactory.getLogger(PriceHistoryRecorder.class);
+
+    private final PriceHistoryWriter historyWriter;
+
+    @Autowired
+    public PriceHistoryRecorder(PriceHistoryWriter historyWriter) {
+        this.historyWriter = historyWriter;
+    }
+
+    @EventListener(CoinsChangedEvent.class)
+    public void onCoinsChanged(CoinsChangedEvent event) {
+        try {
+            this.historyWriter.append(event.getChangedCoins());
+        } catch (Throwable t) {
+            // The coins have already been stored, so the ingest pipeline goes on without this part of the history
+            LOG.error("Could not append " + event.getChangedCoins().size() + " coins to the price history.", t);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.schumskich.cryptotrickstr.app.history;
+
+import com.schumskich.cryptotrickstr.app.history.persistence.CandleResolution;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceCandleRepository;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceTickEntity;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceTickRepository;
+import com.schumskich.cryptotrickstr.config.HistoryConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class PriceHistoryService {
+    private final PriceTickRepository tickRepository;
+    private final PriceCandleRepository candleRepository;
+    private final HistoryConfig historyConfig;
+
+    @Autowired
+    public PriceHistoryService(HistoryConfig historyConfig, PriceTickRepository tickRepository,
+                               PriceCandleRepository candleRepository) {
+        this.tickRepository = tickRepository;
+        this.candleRepository = candleRepository;
+        this.historyConfig = historyConfig;
+    }
+
+    /**
+     * Finds the candles of a coin within a time window.
+     *
+     * @param symbol     The symbol of the coin.
+     * @param from       The start of the time window (inclusive).
+     * @param to         The end of the time window (inclusive).
+     * @param resolution The resolution to read or <code>null</code> to choose it using
+     *                   {@link #selectResolution(Date, Date)}.
+     * @return The candles of the coin, ordered by time. The first candle may start before <code>from</code>.
+     */
+    public PriceHistory findCandles(String symbol, Date from, Date to, CandleResolution resolution) {
+        CandleResolution selectedResolution = resolution != null ? resolution : selectResolution(from, to);
+        long firstBucketStart = selectedResolution.bucketStart(from.getTime());
+        return new PriceHistory(symbol, selectedResolution, this.candleRepository
+                .findBySymbolAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(symbol, selectedResolution,
+                        firstBucketStart, to.getTime()));
+    }
+
+    public List<PriceTickEntity> findTicks(String symbol, Date from, Date to) {
+        return this.tickRepository.findBySymbolAndTimestampBetweenOrderByTimestampAsc(symbol, from.getTime(),
+                to.getTime());
+    }
+
+    /**
+     * Selects the coarsest resolution that still splits the time window into at least
+     * <code>history.minCandlesPerQuery</code> buckets, so that long time windows read few rows. Windows that are too
+     * short for any resolution are read from the finest one.
+     *
+     * @param from The start of the time window.
+     * @param to   The end of the time window.
+     * @return The selected resolution.
+     */
+    public CandleResolution selectResolution(Date from, Date to) {
+        long windowMillis = to.getTime() - from.getTime();
+        CandleResolution[] resolutions = CandleResolution.values();
+        for (int i = resolutions.length - 1; i > 0; i--) {
+            if (windowMillis / resolutions[i].getDurationMillis() >= this.historyConfig.getMinCandlesPerQuery()) {
+                return resolutions[i];
+            }
+        }
+        return resolutions[0];
+    }
+
+    /**
+     * Removes all ticks and candles that exceed their retention period. Ticks are removed whole days at a time.
+     *
+     * @param now The current time.
+     * @return The number of removed ticks and candles.
+     */
+    @Transactional
+    public int purge(Date now) {
+        HistoryConfig.Retention retention = this.historyConfig.getRetention();
+        long today = TimeUnit.MILLISECONDS.toDays(now.getTime());
+        int removed = this.tickRepository.deleteByDayBefore(today - retention.getTicks());
+        for (CandleResolution resolution : CandleResolution.values()) {
+            long before = now.getTime() - TimeUnit.DAYS.toMillis(retention.getCandles(resolution));
+            removed += this.candleRepository.deleteByResolutionAndBucketStartBefore(resolution, before);
+        }
+        return removed;
+    }
+}
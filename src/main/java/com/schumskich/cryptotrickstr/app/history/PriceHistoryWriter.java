@@ -0,0 +1,126 @@
+package com.schumskich.cryptotrickstr.app.history;
+
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.history.persistence.CandleResolution;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceCandleEntity;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceCandleRepository;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceTickEntity;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceTickRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Component
+public class PriceHistoryWriter {
+    private final PriceTickRepository tickRepository;
+    private final PriceCandleRepository candleRepository;
+
+    @Autowired
+    public PriceHistoryWriter(PriceTickRepository tickRepository, PriceCandleRepository candleRepository) {
+        this.tickRepository = tickRepository;
+        this.candleRepository = candleRepository;
+    }
+
+    /**
+     * Appends a tick of each coin to the history and merges the ticks into the candles of all resolutions in one
+     * transaction. Ticks and candles are sent to the database as JDBC batches and the candles of a resolution are
+     * loaded with a single query per bucket (usually one, as all coins of a batch have been updated at about the
+     * same time).
+     *
+     * @param coins The coins to append.
+     * @return The appended ticks.
+     */
+    @Transactional
+    public List<PriceTickEntity> append(List<CoinEntity> coins) {
+        List<PriceTickEntity> ticks = coins.stream().map(PriceHistoryWriter::toTick).collect(Collectors.toList());
+        this.tickRepository.save(ticks);
+
+        List<PriceCandleEntity> changedCandles = new ArrayList<>();
+        for (CandleResolution resolution : CandleResolution.values()) {
+            Map<Long, List<PriceTickEntity>> ticksByBucket = ticks.stream().collect(Collectors.groupingBy(
+                    tick -> resolution.bucketStart(tick.getTimestamp())));
+            for (Map.Entry<Long, List<PriceTickEntity>> entry : ticksByBucket.entrySet()) {
+                changedCandles.addAll(mergeIntoCandles(resolution, entry.getKey(), entry.getValue()));
+            }
+        }
+        this.candleRepository.save(changedCandles);
+        return ticks;
+    }
+
+    private List<PriceCandleEntity> mergeIntoCandles(CandleResolution resolution, long bucketStart,
+                                                     List<PriceTickEntity> ticks) {
+        Map<String, PriceCandleEntity> candles = new HashMap<>();
+        List<String> symbols = ticks.stream().map(PriceTickEntity::getSymbol).collect(Collectors.toList());
+        for (PriceCandleEntity candle : this.candleRepository.findByResolutionAndBucketStartAndSymbolIn(resolution,
+                bucketStart, symbols)) {
+            candles.put(candle.getSymbol(), candle);
+        }
+
+        for (PriceTickEntity tick : ticks) {
+            PriceCandleEntity candle = candles.computeIfAbsent(tick.getSymbol(), symbol -> {
+                PriceCandleEntity newCandle = new PriceCandleEntity();
+                newCandle.setSymbol(symbol);
+                newCandle.setResolution(resolution);
+                newCandle.setBucketStart(bucketStart);
+                return newCandle;
+            });
+            addTick(candle, tick);
+        }
+        return new ArrayList<>(candles.values());
+    }
+
+    /**
+     * Adds a tick to a candle. Ticks are appended in chronological order, so the latest tick closes the candle.
+     *
+     * @param candle The (new or already stored) candle.
+     * @param tick   The tick to add.
+     */
+    private static void addTick(PriceCandleEntity candle, PriceTickEntity tick) {
+        double price = tick.getAggregatedPrice();
+        if (candle.getTickCount() == 0) {
+            candle.setOpenPrice(price);
+            candle.setHighPrice(price);
+            candle.setLowPrice(price);
+        } else {
+            candle.setHighPrice(Math.max(candle.getHighPrice(), price));
+            candle.setLowPrice(Math.min(candle.getLowPrice(), price));
+        }
+        candle.setClosePrice(price);
+        candle.setMinExchangePrice(min(candle.getMinExchangePrice(), tick.getMinPrice()));
+        candle.setMaxExchangePrice(max(candle.getMaxExchangePrice(), tick.getMaxPrice()));
+        candle.setMaxPriceGapPercent(max(candle.getMaxPriceGapPercent(), tick.getPriceGapPercent()));
+        candle.setClosePriceGapPercent(tick.getPriceGapPercent());
+        candle.setTickCount(candle.getTickCount() + 1);
+    }
+
+    private static PriceTickEntity toTick(CoinEntity coin) {
+        long timestamp = coin.getDateUpdated() != 0 ? coin.getDateUpdated() : System.currentTimeMillis();
+        PriceTickEntity tick = new PriceTickEntity();
+        tick.setSymbol(coin.getSymbol());
+        tick.setTimestamp(timestamp);
+        tick.setDay(TimeUnit.MILLISECONDS.toDays(timestamp));
+        tick.setAggregatedPrice(coin.getAggregatedPrice());
+        tick.setMinPrice(coin.getMinPrice());
+        tick.setMinPriceExchange(coin.getMinPriceExchange());
+        tick.setMaxPrice(coin.getMaxPrice());
+        tick.setMaxPriceExchange(coin.getMaxPriceExchange());
+        tick.setPriceGap(coin.getPriceGap());
+        tick.setPriceGapPercent(coin.getPriceGapPercent());
+        return tick;
+    }
+
+    private static Double min(Double a, Double b) {
+        return a == null ? b : (b == null ? a : Double.valueOf(Math.min(a, b)));
+    }
+
+    private static Double max(Double a, Double b) {
+        return a == null ? b : (b == null ? a : Double.valueOf(Math.max(a, b)));
+    }
+}
@@ -0,0 +1,76 @@
+package com.schumskich.cryptotrickstr.app.history;
+
+import com.schumskich.cryptotrickstr.app.coins.ingest.QuotesReceivedEvent;
+import com.schumskich.cryptotrickstr.config.HistoryConfig;
+import com.schumskich.cryptotrickstr.support.concurrent.DroppingExecutor;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import com.schumskich.cryptotrickstr.support.tickfile.QuoteTickStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+
+/**
+ * Appends every exchange quote received by the ingest pipeline to the {@link QuoteTickStore}. The quotes are written
+ * by a {@link DroppingExecutor} that queues up to <code>history.quoteFile.queueCapacity</code> batches and counts the
+ * quotes of dropped batches in the <code>ingest.counter.quoteTicks.dropped</code> metric.
+ */
+@Component
+@ConditionalOnProperty(prefix = "history.quoteFile", name = "enabled", havingValue = "true")
+public class QuoteTickRecorder {
+    private static Logger LOG = LoggerFactory.getLogger(QuoteTickRecorder.class);
+
+    private final QuoteTickStore quoteTickStore;
+    private final IngestMetrics metrics;
+    private final DroppingExecutor writer;
+
+    @Autowired
+    public QuoteTickRecorder(HistoryConfig historyConfig, QuoteTickStore quoteTickStore, IngestMetrics ingestMetrics) {
+        this.quoteTickStore = quoteTickStore;
+        this.metrics = ingestMetrics;
+        this.writer = new DroppingExecutor("quote-ticks-", historyConfig.getQuoteFile().getQueueCapacity(),
+                ingestMetrics, "quoteTicks.dropped");
+    }
+
+    /**
+     * Writes the queued quotes before the {@link QuoteTickStore} is closed.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        this.writer.shutdown();
+    }
+
+    @EventListener(QuotesReceivedEvent.class)
+    public void onQuotesReceived(QuotesReceivedEvent event) {
+        this.writer.execute(() -> write(event), countQuotes(event));
+    }
+
+    private void write(QuotesReceivedEvent event) {
+        long written = 0;
+        try {
+            for (Map.Entry<String, ExchangeQuotes> entry : event.getQuotesBySymbol().entrySet()) {
+                ExchangeQuotes quotes = entry.getValue();
+                for (int i = 0; i < quotes.size(); i++) {
+                    this.quoteTickStore.append(event.getTimestamp(), entry.getKey(), quotes.getExchangeName(i),
+                            quotes.getPrice(i), quotes.getVolume24H(i), quotes.getLastUpdated(i));
+                    written++;
+                }
+            }
+        } catch (Throwable t) {
+            this.metrics.increment("quoteTicks.errors");
+            LOG.error("Could not append quotes to the quote tick file.", t);
+        } finally {
+            this.metrics.increment("quoteTicks.written", written);
+        }
+    }
+
+    private static long countQuotes(QuotesReceivedEvent event) {
+        return event.getQuotesBySymbol().values().stream().mapToLong(ExchangeQuotes::size).sum();
+    }
+}
@@ -0,0 +1,31 @@
+package com.schumskich.cryptotrickstr.app.history.persistence;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time span covered by a {@link PriceCandleEntity}, from the finest to the coarsest resolution. Buckets are
+ * aligned to the epoch (i.e. days start at midnight UTC).
+ */
+public enum CandleResolution {
+    MINUTE(TimeUnit.MINUTES.toMillis(1)),
+    HOUR(TimeUnit.HOURS.toMillis(1)),
+    DAY(TimeUnit.DAYS.toMillis(1));
+
+    private final long durationMillis;
+
+    CandleResolution(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public long getDurationMillis() {
+        return this.durationMillis;
+    }
+
+    /**
+     * @param timestampMillis A timestamp (in milliseconds since the epoch).
+     * @return The start of the bucket that contains the timestamp (in milliseconds since the epoch).
+     */
+    public long bucketStart(long timestampMillis) {
+        return Math.floorDiv(timestampMillis, this.durationMillis) * this.durationMillis;
+    }
+}
@@ -0,0 +1,80 @@
+package com.schumskich.cryptotrickstr.app.history.persistence;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.schumskich.cryptotrickstr.support.json.EpochMillisDeserializer;
+import com.schumskich.cryptotrickstr.support.json.EpochMillisSerializer;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * The open/high/low/close values of the aggregated price of a coin within one time bucket, together with the most
+ * extreme exchange prices and price gap of that bucket.
+ */
+@Getter
+@Setter
+@Entity
+@Table(indexes = {
+        @Index(name = "IDX_CANDLE_SYMBOL_BUCKET", columnList = "symbol,resolution,bucketStart", unique = true),
+        @Index(name = "IDX_CANDLE_RESOLUTION_BUCKET", columnList = "resolution,bucketStart")
+})
+public class PriceCandleEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candleSequence")
+    @SequenceGenerator(name = "candleSequence", sequenceName = "CANDLE_SEQUENCE", allocationSize = 50)
+    private long id;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private CandleResolution resolution;
+
+    /**
+     * In milliseconds since the epoch.
+     */
+    @Column(nullable = false)
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    @JsonDeserialize(using = EpochMillisDeserializer.class)
+    private long bucketStart;
+
+    @Column
+    private double openPrice;
+
+    @Column
+    private double highPrice;
+
+    @Column
+    private double lowPrice;
+
+    @Column
+    private double closePrice;
+
+    /**
+     * The lowest price of any exchange within the bucket.
+     */
+    @Column
+    private Double minExchangePrice;
+
+    /**
+     * The highest price of any exchange within the bucket.
+     */
+    @Column
+    private Double maxExchangePrice;
+
+    @Column
+    private Double maxPriceGapPercent;
+
+    @Column
+    private Double closePriceGapPercent;
+
+    /**
+     * The number of ticks that have been aggregated into this candle.
+     */
+    @Column
+    private int tickCount;
+}
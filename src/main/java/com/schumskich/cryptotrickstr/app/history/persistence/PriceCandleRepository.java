@@ -0,0 +1,31 @@
+package com.schumskich.cryptotrickstr.app.history.persistence;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.util.Collection;
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface PriceCandleRepository extends CrudRepository<PriceCandleEntity, Long> {
+    List<PriceCandleEntity> findByResolutionAndBucketStartAndSymbolIn(CandleResolution resolution, long bucketStart,
+                                                                      Collection<String> symbols);
+
+    List<PriceCandleEntity> findBySymbolAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(
+            String symbol, CandleResolution resolution, long from, long to);
+
+    /**
+     * Removes all candles of a resolution that start before the given time using a single bulk statement.
+     *
+     * @param resolution The resolution of the candles to remove.
+     * @param before     The start of the first bucket to keep (in milliseconds since the epoch).
+     * @return The number of removed candles.
+     */
+    @Modifying
+    @Query("delete from PriceCandleEntity c where c.resolution = :resolution and c.bucketStart < :before")
+    int deleteByResolutionAndBucketStartBefore(@Param("resolution") CandleResolution resolution,
+                                               @Param("before") long before);
+}
@@ -0,0 +1,67 @@
+package com.schumskich.cryptotrickstr.app.history.persistence;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.schumskich.cryptotrickstr.support.json.EpochMillisDeserializer;
+import com.schumskich.cryptotrickstr.support.json.EpochMillisSerializer;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * The prices of a coin at one point in time. Ticks are only ever appended and removed a whole day at a time when
+ * they exceed the retention period, so the <code>day</code> column is the partition key of the table.
+ */
+@Getter
+@Setter
+@Entity
+@Table(indexes = {
+        @Index(name = "IDX_TICK_DAY", columnList = "day"),
+        @Index(name = "IDX_TICK_SYMBOL_TIMESTAMP", columnList = "symbol,timestamp")
+})
+public class PriceTickEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tickSequence")
+    @SequenceGenerator(name = "tickSequence", sequenceName = "TICK_SEQUENCE", allocationSize = 50)
+    private long id;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    /**
+     * In milliseconds since the epoch.
+     */
+    @Column(nullable = false)
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    @JsonDeserialize(using = EpochMillisDeserializer.class)
+    private long timestamp;
+
+    /**
+     * The number of days since the epoch (UTC) of the timestamp.
+     */
+    @Column(nullable = false)
+    private long day;
+
+    @Column
+    private double aggregatedPrice;
+
+    @Column
+    private Double minPrice;
+
+    @Column
+    private String minPriceExchange;
+
+    @Column
+    private Double maxPrice;
+
+    @Column
+    private String maxPriceExchange;
+
+    @Column
+    private Double priceGap;
+
+    @Column
+    private Double priceGapPercent;
+}
@@ -0,0 +1,24 @@
+package com.schumskich.cryptotrickstr.app.history.persistence;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface PriceTickRepository extends CrudRepository<PriceTickEntity, Long> {
+    List<PriceTickEntity> findBySymbolAndTimestampBetweenOrderByTimestampAsc(String symbol, long from, long to);
+
+    /**
+     * Removes all ticks of the days before the given day using a single bulk statement.
+     *
+     * @param day The first day (in days since the epoch) to keep.
+     * @return The number of removed ticks.
+     */
+    @Modifying
+    @Query("delete from PriceTickEntity t where t.day < :day")
+    int deleteByDayBefore(@Param("day") long day);
+}
@@ -0,0 +1,38 @@
+package com.schumskich.cryptotrickstr.app.history.tasks;
+
+import com.schumskich.cryptotrickstr.app.history.PriceHistoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+@Component
+@ConditionalOnProperty(prefix = "history", name = "enabled", havingValue = "true")
+public class PurgeHistoryTask {
+    private static Logger LOG = LoggerFactory.getLogger(PurgeHistoryTask.class);
+
+    private final PriceHistoryService priceHistoryService;
+
+    @Autowired
+    public PurgeHistoryTask(PriceHistoryService priceHistoryService) {
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    /**
+     * Periodically removes the parts of the price history that exceed their retention period
+     * (see <code>history.retention</code>).
+     */
+    @Scheduled(initialDelayString = "${history.purgeInterval}", fixedDelayString = "${history.purgeInterval}")
+    public void purge() {
+        try {
+            int removed = this.priceHistoryService.purge(new Date());
+            LOG.info("Purged " + removed + " ticks and candles from the price history.");
+        } catch (Throwable t) {
+            LOG.error("Could not purge the price history.", t);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.schumskich.cryptotrickstr.app.history.tasks;
+
+import com.schumskich.cryptotrickstr.config.HistoryConfig;
+import com.schumskich.cryptotrickstr.support.tickfile.QuoteTickStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(prefix = "history.quoteFile", name = "enabled", havingValue = "true")
+public class PurgeQuoteFileTask {
+    private static Logger LOG = LoggerFactory.getLogger(PurgeQuoteFileTask.class);
+
+    private final HistoryConfig historyConfig;
+    private final QuoteTickStore quoteTickStore;
+
+    @Autowired
+    public PurgeQuoteFileTask(HistoryConfig historyConfig, QuoteTickStore quoteTickStore) {
+        this.historyConfig = historyConfig;
+        this.quoteTickStore = quoteTickStore;
+    }
+
+    /**
+     * Periodically deletes the segment files of the quote file that exceed their retention period
+     * (see <code>history.quoteFile.retention</code>).
+     */
+    @Scheduled(initialDelayString = "${history.purgeInterval}", fixedDelayString = "${history.purgeInterval}")
+    public void purge() {
+        try {
+            long before = System.currentTimeMillis()
+                    - TimeUnit.DAYS.toMillis(this.historyConfig.getQuoteFile().getRetention());
+            int removed = this.quoteTickStore.purge(before);
+            LOG.info("Purged " + removed + " segment files from the quote file.");
+        } catch (Throwable t) {
+            LOG.error("Could not purge the quote file.", t);
+        }
+    }
+}
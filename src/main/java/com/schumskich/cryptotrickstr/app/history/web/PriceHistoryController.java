@@ -0,0 +1,56 @@
+package com.schumskich.cryptotrickstr.app.history.web;
+
+import com.schumskich.cryptotrickstr.app.history.PriceHistory;
+import com.schumskich.cryptotrickstr.app.history.PriceHistoryService;
+import com.schumskich.cryptotrickstr.app.history.persistence.CandleResolution;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceTickEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the price history of a coin. The time window is given as ISO date-times (e.g.
+ * <code>2018-03-01T00:00:00Z</code>) and defaults to the last day.
+ */
+@RestController
+@RequestMapping("/history/{symbol}")
+public class PriceHistoryController {
+    private final PriceHistoryService priceHistoryService;
+
+    @Autowired
+    public PriceHistoryController(PriceHistoryService priceHistoryService) {
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    @RequestMapping(method = RequestMethod.GET, path = "/candles")
+    public PriceHistory findCandles(
+            @PathVariable("symbol") String symbol,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Date from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Date to,
+            @RequestParam(name = "resolution", required = false) CandleResolution resolution) {
+        Date end = to != null ? to : new Date();
+        return this.priceHistoryService.findCandles(symbol, from != null ? from : defaultStart(end), end, resolution);
+    }
+
+    @RequestMapping(method = RequestMethod.GET, path = "/ticks")
+    public List<PriceTickEntity> findTicks(
+            @PathVariable("symbol") String symbol,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Date from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Date to) {
+        Date end = to != null ? to : new Date();
+        return this.priceHistoryService.findTicks(symbol, from != null ? from : defaultStart(end), end);
+    }
+
+    private static Date defaultStart(Date end) {
+        return new Date(end.getTime() - TimeUnit.DAYS.toMillis(1));
+    }
+}
@@ -0,0 +1,101 @@
+package com.schumskich.cryptotrickstr.app.quotes;
+
+import com.schumskich.cryptotrickstr.app.quotes.persistence.ExchangeEntity;
+import com.schumskich.cryptotrickstr.app.quotes.persistence.ExchangeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interns exchange names as integer ids. Each name is stored once in the {@link ExchangeRepository} and cached
+ * afterwards, so only the first quote of a new exchange causes a database access. New exchanges are registered in a
+ * separate transaction, so that a name registered concurrently by another node does not roll back the transaction
+ * of the caller (e.g. the one of the {@link com.schumskich.cryptotrickstr.app.quotes.persistence.ExchangeQuoteWriter}).
+ */
+@Component
+public class ExchangeIds {
+    private final ExchangeRepository exchangeRepository;
+    private final TransactionTemplate registration;
+    private final ConcurrentMap<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ExchangeIds(ExchangeRepository exchangeRepository, PlatformTransactionManager transactionManager) {
+        this.exchangeRepository = exchangeRepository;
+        this.registration = new TransactionTemplate(transactionManager);
+        this.registration.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @param name The name of the exchange.
+     * @return The id of the exchange. Unknown exchanges are registered.
+     */
+    public int idOf(String name) {
+        Integer id = this.idsByName.get(name);
+        return id != null ? id : register(name);
+    }
+
+    /**
+     * @param name The name of the exchange.
+     * @return The id of the exchange or <code>null</code> if no quote of the exchange has been stored yet.
+     */
+    public Integer findId(String name) {
+        Integer id = this.idsByName.get(name);
+        if (id == null) {
+            ExchangeEntity exchange = this.exchangeRepository.findOneByName(name);
+            id = exchange != null ? remember(exchange) : null;
+        }
+        return id;
+    }
+
+    /**
+     * @param id The id of the exchange.
+     * @return The name of the exchange or <code>null</code> if the id is unknown.
+     */
+    public String nameOf(int id) {
+        String name = this.namesById.get(id);
+        if (name == null) {
+            ExchangeEntity exchange = this.exchangeRepository.findOne(id);
+            if (exchange != null) {
+                remember(exchange);
+                name = exchange.getName();
+            }
+        }
+        return name;
+    }
+
+    private synchronized int register(String name) {
+        Integer id = this.idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        ExchangeEntity exchange;
+        try {
+            exchange = this.registration.execute(status -> {
+                ExchangeEntity existing = this.exchangeRepository.findOneByName(name);
+                if (existing != null) {
+                    return existing;
+                }
+                ExchangeEntity created = new ExchangeEntity();
+                created.setName(name);
+                return this.exchangeRepository.save(created);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Registered by another node in the meantime
+            exchange = this.exchangeRepository.findOneByName(name);
+        }
+        return remember(exchange);
+    }
+
+    private int remember(ExchangeEntity exchange) {
+        this.idsByName.put(exchange.getName(), exchange.getId());
+        this.namesById.put(exchange.getId(), exchange.getName());
+        return exchange.getId();
+    }
+}
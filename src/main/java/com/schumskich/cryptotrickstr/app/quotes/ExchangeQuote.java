@@ -0,0 +1,30 @@
+package com.schumskich.cryptotrickstr.app.quotes;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.schumskich.cryptotrickstr.support.json.EpochMillisSerializer;
+import lombok.Getter;
+
+/**
+ * The latest quote of a coin on one exchange, as served by the quote searches.
+ */
+@Getter
+public class ExchangeQuote {
+    private final String symbol;
+    private final String exchange;
+    private final double price;
+    private final double volume24H;
+
+    /**
+     * The time the exchange last updated the price (in milliseconds since the epoch).
+     */
+    @JsonSerialize(using = EpochMillisSerializer.class)
+    private final long lastUpdated;
+
+    public ExchangeQuote(String symbol, String exchange, double price, double volume24H, long lastUpdated) {
+        this.symbol = symbol;
+        this.exchange = exchange;
+        this.price = price;
+        this.volume24H = volume24H;
+        this.lastUpdated = lastUpdated;
+    }
+}
@@ -0,0 +1,78 @@
+package com.schumskich.cryptotrickstr.app.quotes;
+
+import com.schumskich.cryptotrickstr.app.quotes.persistence.ExchangeQuoteEntity;
+import com.schumskich.cryptotrickstr.app.quotes.persistence.ExchangeQuoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+
+/**
+ * Searches the quote table, which holds the latest quote of every coin on every whitelisted exchange (see
+ * {@link QuoteTableRecorder}). All results are ordered by price, cheapest first.
+ */
+@Service
+public class ExchangeQuoteService {
+    private final ExchangeQuoteRepository exchangeQuoteRepository;
+    private final ExchangeIds exchangeIds;
+
+    @Autowired
+    public ExchangeQuoteService(ExchangeQuoteRepository exchangeQuoteRepository, ExchangeIds exchangeIds) {
+        this.exchangeQuoteRepository = exchangeQuoteRepository;
+        this.exchangeIds = exchangeIds;
+    }
+
+    /**
+     * @param exchange The name of the exchange.
+     * @param pageable The page to return.
+     * @return The quotes of all coins on the exchange.
+     */
+    public Page<ExchangeQuote> findByExchange(String exchange, Pageable pageable) {
+        Integer exchangeId = this.exchangeIds.findId(exchange);
+        if (exchangeId == null) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+        return toQuotes(this.exchangeQuoteRepository.findByExchangeIdOrderByPriceAsc(exchangeId, pageable));
+    }
+
+    /**
+     * @param from     The minimum price (inclusive).
+     * @param to       The maximum price (inclusive).
+     * @param exchange The name of the exchange or <code>null</code> to search all exchanges.
+     * @param pageable The page to return.
+     * @return The quotes within the price range.
+     */
+    public Page<ExchangeQuote> findByPriceBetween(double from, double to, String exchange, Pageable pageable) {
+        if (exchange == null) {
+            return toQuotes(this.exchangeQuoteRepository.findByPriceBetweenOrderByPriceAsc(from, to, pageable));
+        }
+        Integer exchangeId = this.exchangeIds.findId(exchange);
+        if (exchangeId == null) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+        return toQuotes(this.exchangeQuoteRepository.findByExchangeIdAndPriceBetweenOrderByPriceAsc(exchangeId,
+                from, to, pageable));
+    }
+
+    /**
+     * @param exchange The name of the exchange.
+     * @param pageable The page to return.
+     * @return The quotes of the coins whose lowest price is on the exchange.
+     */
+    public Page<ExchangeQuote> findCheapestOn(String exchange, Pageable pageable) {
+        Integer exchangeId = this.exchangeIds.findId(exchange);
+        if (exchangeId == null) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+        return toQuotes(this.exchangeQuoteRepository.findCheapestOn(exchangeId, pageable));
+    }
+
+    private Page<ExchangeQuote> toQuotes(Page<ExchangeQuoteEntity> entities) {
+        return entities.map(entity -> new ExchangeQuote(entity.getSymbol(),
+                this.exchangeIds.nameOf(entity.getExchangeId()), entity.getPrice(), entity.getVolume24H(),
+                entity.getLastUpdated()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.schumskich.cryptotrickstr.app.quotes;
+
+import com.schumskich.cryptotrickstr.app.coins.ingest.QuotesReceivedEvent;
+import com.schumskich.cryptotrickstr.app.quotes.persistence.ExchangeQuoteWriter;
+import com.schumskich.cryptotrickstr.config.IngestConfig;
+import com.schumskich.cryptotrickstr.support.concurrent.DroppingExecutor;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Keeps the quote table up to date with the quotes of all whitelisted exchanges received by the ingest pipeline. The
+ * quotes are written by a {@link DroppingExecutor} that queues up to <code>ingest.quoteTable.queueCapacity</code>
+ * batches and counts the quotes of dropped batches in the <code>ingest.counter.quoteTable.dropped</code> metric. The
+ * next update of the affected coins replaces their quotes anyway.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ingest.quoteTable", name = "enabled", havingValue = "true")
+public class QuoteTableRecorder {
+    private static Logger LOG = LoggerFactory.getLogger(QuoteTableRecorder.class);
+
+    private final ExchangeQuoteWriter exchangeQuoteWriter;
+    private final IngestMetrics metrics;
+    private final DroppingExecutor writer;
+
+    @Autowired
+    public QuoteTableRecorder(IngestConfig ingestConfig, ExchangeQuoteWriter exchangeQuoteWriter,
+                              IngestMetrics ingestMetrics) {
+        this.exchangeQuoteWriter = exchangeQuoteWriter;
+        this.metrics = ingestMetrics;
+        this.writer = new DroppingExecutor("quote-table-", ingestConfig.getQuoteTable().getQueueCapacity(),
+                ingestMetrics, "quoteTable.dropped");
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        this.writer.shutdown();
+    }
+
+    @EventListener(QuotesReceivedEvent.class)
+    public void onQuotesReceived(QuotesReceivedEvent event) {
+        this.writer.execute(() -> write(event), countQuotes(event));
+    }
+
+    private void write(QuotesReceivedEvent event) {
+        try {
+            int written = this.metrics.time("quoteTableWrite",
+                    () -> this.exchangeQuoteWriter.write(event.getTimestamp(), event.getQuotesBySymbol()));
+            this.metrics.increment("quoteTable.written", written);
+        } catch (Throwable t) {
+            this.metrics.increment("quoteTable.errors");
+            LOG.error("Could not write quotes to the quote table.", t);
+        }
+    }
+
+    private static long countQuotes(QuotesReceivedEvent event) {
+        return event.getQuotesBySymbol().values().stream().mapToLong(ExchangeQuotes::size).sum();
+    }
+}
@@ -0,0 +1,25 @@
+package com.schumskich.cryptotrickstr.app.quotes.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * An exchange. The quote table refers to exchanges by their integer id instead of their name, which keeps its rows
+ * and its indexes small.
+ */
+@Getter
+@Setter
+@Entity
+@Table(indexes = @Index(name = "IDX_EXCHANGE_NAME", columnList = "name", unique = true))
+public class ExchangeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exchangeSequence")
+    @SequenceGenerator(name = "exchangeSequence", sequenceName = "EXCHANGE_SEQUENCE", allocationSize = 1)
+    private int id;
+
+    @Column(nullable = false)
+    private String name;
+}
@@ -0,0 +1,61 @@
+package com.schumskich.cryptotrickstr.app.quotes.persistence;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * The latest quote of a coin on one exchange. The rows are written by {@link ExchangeQuoteWriter}, the composite
+ * index on the exchange and the price serves the searches by exchange and by price range. The index on the symbol and
+ * the price finds the cheaper quotes of a coin for {@link ExchangeQuoteRepository#findCheapestOn}.
+ */
+@Getter
+@Setter
+@Entity
+@IdClass(ExchangeQuoteEntity.Key.class)
+@Table(indexes = {
+        @Index(name = "IDX_QUOTE_EXCHANGE_PRICE", columnList = "exchangeId,price"),
+        @Index(name = "IDX_QUOTE_PRICE", columnList = "price"),
+        @Index(name = "IDX_QUOTE_SYMBOL_PRICE", columnList = "symbol,price")
+})
+public class ExchangeQuoteEntity {
+
+    @Id
+    private String symbol;
+
+    /**
+     * The id of the {@link ExchangeEntity}.
+     */
+    @Id
+    private int exchangeId;
+
+    @Column(nullable = false)
+    private double price;
+
+    @Column(nullable = false)
+    private double volume24H;
+
+    /**
+     * The time the exchange last updated the price (in milliseconds since the epoch).
+     */
+    @Column(nullable = false)
+    private long lastUpdated;
+
+    /**
+     * The time the quote has been received (in milliseconds since the epoch). Quotes of a coin that were not received
+     * with its latest update belong to exchanges that do not list the coin anymore.
+     */
+    @Column(nullable = false)
+    private long received;
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String symbol;
+        private int exchangeId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.schumskich.cryptotrickstr.app.quotes.persistence;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+@RepositoryRestResource(exported = false)
+public interface ExchangeQuoteRepository extends CrudRepository<ExchangeQuoteEntity, ExchangeQuoteEntity.Key> {
+    Page<ExchangeQuoteEntity> findByExchangeIdOrderByPriceAsc(int exchangeId, Pageable pageable);
+
+    Page<ExchangeQuoteEntity> findByExchangeIdAndPriceBetweenOrderByPriceAsc(int exchangeId, double from, double to,
+                                                                             Pageable pageable);
+
+    Page<ExchangeQuoteEntity> findByPriceBetweenOrderByPriceAsc(double from, double to, Pageable pageable);
+
+    /**
+     * Selects the quotes of the exchange that no other exchange undercuts. Coins with the same lowest price on several
+     * exchanges are returned for each of them.
+     */
+    @Query(value = "select q from ExchangeQuoteEntity q where q.exchangeId = :exchangeId and not exists ("
+            + "select o from ExchangeQuoteEntity o where o.symbol = q.symbol and o.price < q.price) "
+            + "order by q.price asc",
+            countQuery = "select count(q) from ExchangeQuoteEntity q where q.exchangeId = :exchangeId and not exists ("
+                    + "select o from ExchangeQuoteEntity o where o.symbol = q.symbol and o.price < q.price)")
+    Page<ExchangeQuoteEntity> findCheapestOn(@Param("exchangeId") int exchangeId, Pageable pageable);
+}
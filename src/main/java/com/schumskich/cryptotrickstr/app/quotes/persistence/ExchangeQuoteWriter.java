@@ -0,0 +1,93 @@
+package com.schumskich.cryptotrickstr.app.quotes.persistence;
+
+import com.schumskich.cryptotrickstr.app.quotes.ExchangeIds;
+import com.schumskich.cryptotrickstr.config.IngestConfig;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the quotes of all exchanges into the {@link ExchangeQuoteEntity} table. JPA would issue a select and an
+ * insert or update per quote, so the quotes are written with plain JDBC instead: the quotes of up to
+ * <code>ingest.quoteTable.batchSize</code> rows are upserted with a single multi-row <code>MERGE</code> statement,
+ * followed by a single <code>DELETE</code> of the quotes of the same coins that were not received anymore (exchanges
+ * that stopped listing a coin). The <code>MERGE ... KEY</code> syntax is specific to H2.
+ */
+@Component
+public class ExchangeQuoteWriter {
+    private static final String MERGE = "MERGE INTO exchange_quote_entity "
+            + "(symbol, exchange_id, price, volume24h, last_updated, received) KEY (symbol, exchange_id) VALUES ";
+    private static final int COLUMNS = 6;
+    private static final String MERGE_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String DELETE = "DELETE FROM exchange_quote_entity WHERE received < ? AND symbol IN ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExchangeIds exchangeIds;
+    private final int batchSize;
+
+    @Autowired
+    public ExchangeQuoteWriter(JdbcTemplate jdbcTemplate, ExchangeIds exchangeIds, IngestConfig ingestConfig) {
+        this(jdbcTemplate, exchangeIds, ingestConfig.getQuoteTable().getBatchSize());
+    }
+
+    public ExchangeQuoteWriter(JdbcTemplate jdbcTemplate, ExchangeIds exchangeIds, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exchangeIds = exchangeIds;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Replaces the stored quotes of the given coins.
+     *
+     * @param received       The time the quotes have been received (in milliseconds since the epoch).
+     * @param quotesBySymbol The quotes of all whitelisted exchanges per coin.
+     * @return The number of written quotes.
+     */
+    @Transactional
+    public int write(long received, Map<String, ExchangeQuotes> quotesBySymbol) {
+        List<Object> rows = new ArrayList<>();
+        List<String> symbols = new ArrayList<>();
+        int written = 0;
+        for (Map.Entry<String, ExchangeQuotes> entry : quotesBySymbol.entrySet()) {
+            ExchangeQuotes quotes = entry.getValue();
+            for (int i = 0; i < quotes.size(); i++) {
+                rows.add(entry.getKey());
+                rows.add(this.exchangeIds.idOf(quotes.getExchangeName(i)));
+                rows.add(quotes.getPrice(i));
+                rows.add(quotes.getVolume24H(i));
+                rows.add(quotes.getLastUpdated(i));
+                rows.add(received);
+            }
+            symbols.add(entry.getKey());
+            if (rows.size() >= this.batchSize * COLUMNS) {
+                written += flush(received, rows, symbols);
+            }
+        }
+        return written + flush(received, rows, symbols);
+    }
+
+    private int flush(long received, List<Object> rows, List<String> symbols) {
+        int rowCount = rows.size() / COLUMNS;
+        if (rowCount > 0) {
+            this.jdbcTemplate.update(MERGE + String.join(", ", Collections.nCopies(rowCount, MERGE_ROW)),
+                    rows.toArray());
+        }
+        if (!symbols.isEmpty()) {
+            List<Object> args = new ArrayList<>(symbols.size() + 1);
+            args.add(received);
+            args.addAll(symbols);
+            this.jdbcTemplate.update(DELETE + "(" + String.join(", ", Collections.nCopies(symbols.size(), "?")) + ")",
+                    args.toArray());
+        }
+        rows.clear();
+        symbols.clear();
+        return rowCount;
+    }
+}
@@ -0,0 +1,9 @@
+package com.schumskich.cryptotrickstr.app.quotes.persistence;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+@RepositoryRestResource(exported = false)
+public interface ExchangeRepository extends CrudRepository<ExchangeEntity, Integer> {
+    ExchangeEntity findOneByName(String name);
+}
@@ -0,0 +1,48 @@
+package com.schumskich.cryptotrickstr.app.quotes.web;
+
+import com.schumskich.cryptotrickstr.app.quotes.ExchangeQuote;
+import com.schumskich.cryptotrickstr.app.quotes.ExchangeQuoteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Searches the latest quotes of all coins on all whitelisted exchanges, cheapest first. The results are paged using
+ * the <code>page</code> and <code>size</code> parameters, like the searches of Spring Data REST.
+ */
+@RestController
+@RequestMapping("/quotes/search")
+@ConditionalOnProperty(prefix = "ingest.quoteTable", name = "enabled", havingValue = "true")
+public class ExchangeQuoteController {
+    private final ExchangeQuoteService exchangeQuoteService;
+
+    @Autowired
+    public ExchangeQuoteController(ExchangeQuoteService exchangeQuoteService) {
+        this.exchangeQuoteService = exchangeQuoteService;
+    }
+
+    @RequestMapping(method = RequestMethod.GET, path = "/findByExchange")
+    public Page<ExchangeQuote> findByExchange(@RequestParam(name = "exchange") String exchange, Pageable pageable) {
+        return this.exchangeQuoteService.findByExchange(exchange, pageable);
+    }
+
+    @RequestMapping(method = RequestMethod.GET, path = "/findCheapestOn")
+    public Page<ExchangeQuote> findCheapestOn(@RequestParam(name = "exchange") String exchange, Pageable pageable) {
+        return this.exchangeQuoteService.findCheapestOn(exchange, pageable);
+    }
+
+    @RequestMapping(method = RequestMethod.GET, path = "/findByPriceBetween")
+    public Page<ExchangeQuote> findByPriceBetween(
+            @RequestParam(name = "from", required = false) Double from,
+            @RequestParam(name = "to", required = false) Double to,
+            @RequestParam(name = "exchange", required = false) String exchange,
+            Pageable pageable) {
+        return this.exchangeQuoteService.findByPriceBetween(from != null ? from : 0,
+                to != null ? to : Double.MAX_VALUE, exchange, pageable);
+    }
+}
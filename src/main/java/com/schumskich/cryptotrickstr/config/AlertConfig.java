@@ -0,0 +1,56 @@
+package com.schumskich.cryptotrickstr.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "alerts")
+public class AlertConfig {
+    @NotNull
+    Boolean enabled;
+
+    /**
+     * The {@link com.schumskich.cryptotrickstr.app.alerts.AlertSink} that delivers fired alerts (<code>log</code> or
+     * <code>webhook</code>).
+     */
+    @NotNull
+    String sink;
+
+    /**
+     * The number of batches of fired alerts waiting to be sent before new batches are dropped.
+     */
+    @NotNull
+    Integer queueCapacity;
+
+    @Valid
+    @NotNull
+    Webhook webhook = new Webhook();
+
+    @Getter
+    @Setter
+    public static class Webhook {
+        /**
+         * Required by the <code>webhook</code> sink only.
+         */
+        String url;
+
+        /**
+         * In milliseconds.
+         */
+        @NotNull
+        Integer connectTimeout;
+
+        /**
+         * In milliseconds.
+         */
+        @NotNull
+        Integer readTimeout;
+    }
+}
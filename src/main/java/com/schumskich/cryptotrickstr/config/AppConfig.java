@@ -1,21 +1,141 @@
 package com.schumskich.cryptotrickstr.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.schumskich.cryptotrickstr.support.cryptocompare.recording.ReplayClientHttpRequestFactory;
+import com.schumskich.cryptotrickstr.support.cryptocompare.recording.ResponseRecorder;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeFilter;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import com.schumskich.cryptotrickstr.support.metrics.TimedJsonHttpMessageConverter;
+import com.schumskich.cryptotrickstr.support.tickfile.QuoteTickStore;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriTemplateHandler;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class AppConfig {
 
+    /**
+     * Creates the REST template used to access the CryptoCompare API. Depending on
+     * <code>cryptocompare.recording.mode</code>, responses are recorded or replayed from an earlier recording.
+     */
     @Bean
-    public RestTemplate restTemplate(CryptoCompareConfig cryptoCompareConfig) {
+    public RestTemplate restTemplate(CryptoCompareConfig cryptoCompareConfig, ExchangeFilter exchangeFilter,
+                                     HttpClient cryptoCompareHttpClient, IngestMetrics ingestMetrics)
+            throws IOException {
         DefaultUriTemplateHandler defaultUriTemplateHandler = new DefaultUriTemplateHandler();
         defaultUriTemplateHandler.setBaseUrl(cryptoCompareConfig.getUrl());
-        return new RestTemplateBuilder()
+        CryptoCompareConfig.Recording recording = cryptoCompareConfig.getRecording();
+        ClientHttpRequestFactory requestFactory = recording.getMode() == CryptoCompareConfig.RecordingMode.REPLAY
+                ? new ReplayClientHttpRequestFactory(Paths.get(recording.getDirectory()), recording.getReplayTiming())
+                : new HttpComponentsClientHttpRequestFactory(cryptoCompareHttpClient);
+        RestTemplateBuilder restTemplateBuilder = new RestTemplateBuilder()
                 .uriTemplateHandler(defaultUriTemplateHandler)
+                .requestFactory(requestFactory);
+        if (recording.getMode() == CryptoCompareConfig.RecordingMode.RECORD) {
+            restTemplateBuilder = restTemplateBuilder.additionalInterceptors(
+                    new ResponseRecorder(Paths.get(recording.getDirectory())));
+        }
+        RestTemplate restTemplate = restTemplateBuilder.build();
+
+        // Let the JSON deserializer drop irrelevant exchange information while parsing the response and record the
+        // time spent on deserialization
+        List<HttpMessageConverter<?>> converters = restTemplate.getMessageConverters();
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                ObjectMapper objectMapper = ((MappingJackson2HttpMessageConverter) converters.get(i)).getObjectMapper();
+                objectMapper.setConfig(objectMapper.getDeserializationConfig()
+                        .withAttribute(ExchangeFilter.class, exchangeFilter));
+                converters.set(i, new TimedJsonHttpMessageConverter(objectMapper, ingestMetrics));
+            }
+        }
+        return restTemplate;
+    }
+
+    @Bean
+    public PoolingHttpClientConnectionManager cryptoCompareConnectionManager(CryptoCompareConfig cryptoCompareConfig) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(cryptoCompareConfig.getHttp().getMaxConnectionsTotal());
+        connectionManager.setDefaultMaxPerRoute(cryptoCompareConfig.getHttp().getMaxConnectionsPerRoute());
+        return connectionManager;
+    }
+
+    /**
+     * Creates the HTTP client used to access the CryptoCompare API. Connections are pooled per route and kept alive
+     * between requests, so that the TCP and TLS handshakes are not repeated for every request. Unless disabled,
+     * responses are requested gzip/deflate compressed and decoded transparently.
+     */
+    @Bean
+    public CloseableHttpClient cryptoCompareHttpClient(CryptoCompareConfig cryptoCompareConfig,
+                                                      PoolingHttpClientConnectionManager connectionManager) {
+        CryptoCompareConfig.Http http = cryptoCompareConfig.getHttp();
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(http.getConnectTimeout())
+                .setSocketTimeout(http.getReadTimeout())
+                .setConnectionRequestTimeout(http.getConnectionRequestTimeout())
                 .build();
+
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? serverKeepAlive : http.getKeepAlive();
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(http.getKeepAlive().longValue(), TimeUnit.MILLISECONDS);
+        if (!http.getCompression()) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Opens the file that keeps every exchange quote for backtesting.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "history.quoteFile", name = "enabled", havingValue = "true")
+    public QuoteTickStore quoteTickStore(HistoryConfig historyConfig) throws IOException {
+        return new QuoteTickStore(Paths.get(historyConfig.getQuoteFile().getDirectory()),
+                historyConfig.getQuoteFile().getSegmentCapacity());
+    }
+
+    /**
+     * Runs the <code>@Scheduled</code> tasks. Without this bean, Spring runs all of them on a single thread, so a
+     * long refresh cycle would delay e.g. the purge of the price history.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler taskScheduler(SchedulerConfig schedulerConfig) {
+        ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(schedulerConfig.getPoolSize());
+        taskScheduler.setThreadNamePrefix("scheduler-");
+        return taskScheduler;
+    }
+
+    @Bean
+    public ExchangeFilter exchangeFilter(CryptoCompareConfig cryptoCompareConfig) {
+        return new ExchangeFilter(cryptoCompareConfig.getExchangeWhitelist(),
+                TimeUnit.HOURS.toMillis(cryptoCompareConfig.getExchangeDataStaleAfter()));
     }
 
 }
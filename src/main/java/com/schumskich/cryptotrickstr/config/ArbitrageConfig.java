@@ -0,0 +1,80 @@
+package com.schumskich.cryptotrickstr.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "arbitrage")
+public class ArbitrageConfig {
+    @NotNull
+    Integer routesPerCoin;
+
+    @Valid
+    @NotNull
+    Cycles cycles = new Cycles();
+
+    /**
+     * Detects arbitrage cycles over several exchanges and quote currencies (see
+     * {@link com.schumskich.cryptotrickstr.app.arbitrage.ArbitrageCycleService}).
+     */
+    @Getter
+    @Setter
+    public static class Cycles {
+        @NotNull
+        Boolean enabled;
+
+        /**
+         * The currencies the prices of the coins are fetched in.
+         */
+        @NotNull
+        List<String> quoteCurrencies;
+
+        /**
+         * The currency of the quotes received by the ingest pipeline (see the <code>tsym</code> parameter of the
+         * CryptoCompare paths).
+         */
+        @NotNull
+        String ingestCurrency;
+
+        /**
+         * The milliseconds between two requests for the prices in all quote currencies.
+         */
+        @NotNull
+        Long refreshInterval;
+
+        /**
+         * The milliseconds after which a quote is removed from the graph.
+         */
+        @NotNull
+        Long maxQuoteAge;
+
+        /**
+         * The fee (in percent) of a trade on an exchange.
+         */
+        @NotNull
+        Double tradeFeePercent;
+
+        /**
+         * The fee (in percent) of moving funds from one exchange to another one.
+         */
+        @NotNull
+        Double transferFeePercent;
+
+        @NotNull
+        Double minProfitPercent;
+
+        /**
+         * The maximum number of cycles kept (the most profitable ones).
+         */
+        @NotNull
+        Integer maxCycles;
+    }
+}
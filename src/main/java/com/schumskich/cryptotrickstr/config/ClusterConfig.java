@@ -0,0 +1,43 @@
+package com.schumskich.cryptotrickstr.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "cluster")
+public class ClusterConfig {
+    /**
+     * Splits the refresh cycles between all nodes that share the database.
+     */
+    @NotNull
+    Boolean enabled;
+
+    /**
+     * The unique name of this node. A random name is used if it is empty.
+     */
+    String nodeId;
+
+    /**
+     * The number of partitions the symbols are split into. All nodes must use the same number.
+     */
+    @NotNull
+    Integer partitions;
+
+    /**
+     * The milliseconds a lease of a partition (and the heartbeat of a node) stays valid without being renewed.
+     */
+    @NotNull
+    Long leaseDuration;
+
+    /**
+     * The milliseconds between two renewals of the leases of this node.
+     */
+    @NotNull
+    Long heartbeatInterval;
+}
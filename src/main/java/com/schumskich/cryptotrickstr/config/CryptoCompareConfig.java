@@ -5,6 +5,7 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import java.util.List;
 
@@ -27,4 +28,133 @@ public class CryptoCompareConfig {
 
     @NotNull
     String symbolSnapshotPath;
+
+    @NotNull
+    String priceMultiFullPath;
+
+    /**
+     * The path of the prices of multiple coins in multiple currencies, followed by the symbols of the coins (the
+     * currencies and the exchange are appended as parameters).
+     */
+    @NotNull
+    String currencyPricesPath;
+
+    @NotNull
+    Integer batchSymbolsMaxLength;
+
+    @NotNull
+    Integer batchSymbolsMaxCount;
+
+    @Valid
+    @NotNull
+    Http http = new Http();
+
+    @Valid
+    @NotNull
+    Resilience resilience = new Resilience();
+
+    @Valid
+    @NotNull
+    Recording recording = new Recording();
+
+    @Getter
+    @Setter
+    public static class Http {
+        @NotNull
+        Integer maxConnectionsTotal;
+
+        @NotNull
+        Integer maxConnectionsPerRoute;
+
+        @NotNull
+        Integer connectTimeout;
+
+        @NotNull
+        Integer readTimeout;
+
+        @NotNull
+        Integer connectionRequestTimeout;
+
+        @NotNull
+        Long keepAlive;
+
+        @NotNull
+        Boolean compression;
+    }
+
+    @Getter
+    @Setter
+    public static class Resilience {
+        @NotNull
+        Double requestsPerSecond;
+
+        @NotNull
+        Double minRequestsPerSecond;
+
+        @NotNull
+        Double rateIncreaseStep;
+
+        @NotNull
+        Double rateDecreaseFactor;
+
+        @NotNull
+        Double burst;
+
+        @NotNull
+        Integer maxAttempts;
+
+        @NotNull
+        Long initialBackoff;
+
+        @NotNull
+        Long maxBackoff;
+
+        @NotNull
+        Integer circuitFailureThreshold;
+
+        @NotNull
+        Long circuitOpenDuration;
+    }
+
+    @Getter
+    @Setter
+    public static class Recording {
+        @NotNull
+        RecordingMode mode;
+
+        @NotNull
+        String directory;
+
+        @NotNull
+        ReplayTiming replayTiming;
+    }
+
+    public enum RecordingMode {
+        /**
+         * Requests are sent to CryptoCompare.
+         */
+        OFF,
+
+        /**
+         * Requests are sent to CryptoCompare and the responses are written to the recording directory.
+         */
+        RECORD,
+
+        /**
+         * No requests are sent to CryptoCompare, the responses are read from the recording directory.
+         */
+        REPLAY
+    }
+
+    public enum ReplayTiming {
+        /**
+         * Responses are served with the same delays between them as they have been recorded.
+         */
+        ORIGINAL,
+
+        /**
+         * Responses are served immediately.
+         */
+        FAST
+    }
 }
@@ -0,0 +1,89 @@
+package com.schumskich.cryptotrickstr.config;
+
+import com.schumskich.cryptotrickstr.app.history.persistence.CandleResolution;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "history")
+public class HistoryConfig {
+    @NotNull
+    Boolean enabled;
+
+    @NotNull
+    Integer minCandlesPerQuery;
+
+    @NotNull
+    Long purgeInterval;
+
+    @Valid
+    @NotNull
+    Retention retention = new Retention();
+
+    @Valid
+    @NotNull
+    QuoteFile quoteFile = new QuoteFile();
+
+    /**
+     * The number of days the history is kept for.
+     */
+    @Getter
+    @Setter
+    public static class Retention {
+        @NotNull
+        Integer ticks;
+
+        @NotNull
+        Integer minuteCandles;
+
+        @NotNull
+        Integer hourCandles;
+
+        @NotNull
+        Integer dayCandles;
+
+        public int getCandles(CandleResolution resolution) {
+            switch (resolution) {
+                case MINUTE:
+                    return this.minuteCandles;
+                case HOUR:
+                    return this.hourCandles;
+                default:
+                    return this.dayCandles;
+            }
+        }
+    }
+
+    /**
+     * The memory-mapped file that keeps every exchange quote (see
+     * {@link com.schumskich.cryptotrickstr.support.tickfile.QuoteTickStore}).
+     */
+    @Getter
+    @Setter
+    public static class QuoteFile {
+        @NotNull
+        Boolean enabled;
+
+        @NotNull
+        String directory;
+
+        @NotNull
+        Integer segmentCapacity;
+
+        @NotNull
+        Integer queueCapacity;
+
+        /**
+         * The number of days the quotes are kept for.
+         */
+        @NotNull
+        Integer retention;
+    }
+}
@@ -0,0 +1,191 @@
+package com.schumskich.cryptotrickstr.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ingest")
+public class IngestConfig {
+    @NotNull
+    Integer workerThreads;
+
+    @NotNull
+    Integer persistBatchSize;
+
+    @NotNull
+    Boolean scheduledRefresh;
+
+    @NotNull
+    Long refreshInterval;
+
+    @NotNull
+    FetchMode fetchMode;
+
+    @Valid
+    @NotNull
+    Discovery discovery = new Discovery();
+
+    @Valid
+    @NotNull
+    WriteBehind writeBehind = new WriteBehind();
+
+    @Valid
+    @NotNull
+    Adaptive adaptive = new Adaptive();
+
+    @Valid
+    @NotNull
+    QuoteTable quoteTable = new QuoteTable();
+
+    public enum FetchMode {
+        /**
+         * Fetches a full snapshot of each coin using a separate request.
+         */
+        SNAPSHOT,
+
+        /**
+         * Fetches the price information of many coins at once (one request per whitelisted exchange and chunk
+         * of symbols).
+         */
+        BATCH
+    }
+
+    /**
+     * Discovers the coins to refresh (see {@link com.schumskich.cryptotrickstr.app.coins.ingest.TopCoinsSelector}).
+     */
+    @Getter
+    @Setter
+    public static class Discovery {
+        /**
+         * The maximum number of top coins that are refreshed.
+         */
+        @NotNull
+        Integer maxCoins;
+
+        /**
+         * The number of coins per page of the top coins (the <code>limit</code> parameter of
+         * <code>cryptocompare.topSymbolsByVolumePath</code>).
+         */
+        @NotNull
+        Integer pageSize;
+
+        /**
+         * The number of discovered coins that may wait for the fetch stage. The discovery pauses while the queue is
+         * full.
+         */
+        @NotNull
+        Integer queueCapacity;
+    }
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+        /**
+         * Keeps the coins in memory and writes them to the database asynchronously.
+         */
+        @NotNull
+        Boolean enabled;
+
+        /**
+         * The milliseconds between two flushes of the write-behind queue.
+         */
+        @NotNull
+        Long flushInterval;
+
+        /**
+         * The maximum number of coins written to the database in one transaction.
+         */
+        @NotNull
+        Integer maxBatchSize;
+
+        /**
+         * The number of queued coins that triggers a flush before the flush interval has passed.
+         */
+        @NotNull
+        Integer maxQueueDepth;
+    }
+
+    /**
+     * Refreshes each coin at its own interval (see
+     * {@link com.schumskich.cryptotrickstr.app.coins.schedule.AdaptiveRefreshScheduler}).
+     */
+    @Getter
+    @Setter
+    public static class Adaptive {
+        @NotNull
+        Boolean enabled;
+
+        /**
+         * The number of coins that may be refreshed per minute (in <code>snapshot</code> fetch mode, the number of
+         * requests). The requests for the top coins count against the budget, too.
+         */
+        @NotNull
+        Double callsPerMinute;
+
+        /**
+         * The milliseconds between two decisions which coins to refresh next.
+         */
+        @NotNull
+        Long tickInterval;
+
+        @NotNull
+        Long minInterval;
+
+        @NotNull
+        Long maxInterval;
+
+        /**
+         * The milliseconds between two requests for the top coins, which decide the coins that are refreshed.
+         */
+        @NotNull
+        Long topCoinsInterval;
+
+        /**
+         * The weight of the price gap (in percent) in the priority of a coin.
+         */
+        @NotNull
+        Double gapWeight;
+
+        /**
+         * The weight of the price change rate (in percent per minute) in the priority of a coin.
+         */
+        @NotNull
+        Double volatilityWeight;
+
+        /**
+         * The weight of the 24 hour volume (log10 of the volume in millions of USD) in the priority of a coin.
+         */
+        @NotNull
+        Double volumeWeight;
+    }
+
+    /**
+     * Stores the quotes of all whitelisted exchanges (see
+     * {@link com.schumskich.cryptotrickstr.app.quotes.QuoteTableRecorder}).
+     */
+    @Getter
+    @Setter
+    public static class QuoteTable {
+        @NotNull
+        Boolean enabled;
+
+        /**
+         * The maximum number of quotes written with one statement.
+         */
+        @NotNull
+        Integer batchSize;
+
+        /**
+         * The number of batches of quotes waiting to be written before new batches are dropped.
+         */
+        @NotNull
+        Integer queueCapacity;
+    }
+}
@@ -0,0 +1,21 @@
+package com.schumskich.cryptotrickstr.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "scheduler")
+public class SchedulerConfig {
+    /**
+     * The number of threads running the <code>@Scheduled</code> tasks, so that a long refresh cycle does not delay
+     * the other tasks.
+     */
+    @NotNull
+    Integer poolSize;
+}
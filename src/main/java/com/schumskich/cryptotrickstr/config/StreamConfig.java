@@ -0,0 +1,23 @@
+package com.schumskich.cryptotrickstr.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "stream")
+public class StreamConfig {
+    @NotNull
+    Long timeout;
+
+    @NotNull
+    Integer dispatcherThreads;
+
+    @NotNull
+    Long maxLag;
+}
@@ -0,0 +1,80 @@
+package com.schumskich.cryptotrickstr.support.concurrent;
+
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on a single background thread, so that the caller (usually the ingest pipeline) never waits for slow
+ * consumers like files, databases or remote services. The tasks are queued in a bounded queue. If the thread falls
+ * behind by more tasks than the queue can hold, new tasks are dropped instead of blocking the caller, and the items
+ * they would have processed are counted in the given metric.
+ */
+public class DroppingExecutor {
+    private static Logger LOG = LoggerFactory.getLogger(DroppingExecutor.class);
+
+    private final Executor executor;
+    private final IngestMetrics metrics;
+    private final String droppedMetric;
+
+    /**
+     * @param threadNamePrefix The prefix of the name of the background thread.
+     * @param queueCapacity    The maximum number of queued tasks.
+     * @param metrics          The metrics to count the dropped items in.
+     * @param droppedMetric    The name of the counter of dropped items, e.g. <code>quoteTicks.dropped</code>.
+     */
+    public DroppingExecutor(String threadNamePrefix, int queueCapacity, IngestMetrics metrics, String droppedMetric) {
+        this(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory(threadNamePrefix), new ThreadPoolExecutor.AbortPolicy()),
+                metrics, droppedMetric);
+    }
+
+    /**
+     * @param executor      The executor running the tasks, e.g. <code>Runnable::run</code> in tests. It must throw a
+     *                      {@link RejectedExecutionException} if a task cannot be queued.
+     * @param metrics       The metrics to count the dropped items in.
+     * @param droppedMetric The name of the counter of dropped items.
+     */
+    public DroppingExecutor(Executor executor, IngestMetrics metrics, String droppedMetric) {
+        this.executor = executor;
+        this.metrics = metrics;
+        this.droppedMetric = droppedMetric;
+    }
+
+    /**
+     * Queues a task or drops it if the queue is full.
+     *
+     * @param task  The task.
+     * @param items The number of items processed by the task (e.g. quotes), counted if the task is dropped.
+     */
+    public void execute(Runnable task, long items) {
+        try {
+            this.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            this.metrics.increment(this.droppedMetric, items);
+        }
+    }
+
+    /**
+     * Runs the queued tasks and stops the background thread. Tasks that are still queued after 10 seconds are
+     * dropped.
+     */
+    public void shutdown() throws InterruptedException {
+        if (this.executor instanceof ExecutorService) {
+            ExecutorService executorService = (ExecutorService) this.executor;
+            executorService.shutdown();
+            if (!executorService.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOG.warn("Dropped " + executorService.shutdownNow().size() + " queued tasks (" + this.droppedMetric
+                        + ") on shutdown.");
+            }
+        }
+    }
+}
@@ -1,10 +1,22 @@
 package com.schumskich.cryptotrickstr.support.cryptocompare;
 
 import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.CoinSnapshotResponse;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.PriceMultiFullResponse;
 import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
 
+import java.util.List;
+import java.util.Map;
+
 public interface CryptoCompareAdapter {
     TopCoinsResponse fetchTopCoins();
 
+    TopCoinsResponse fetchTopCoins(int page);
+
     CoinSnapshotResponse fetchCoinSnapshot(String symbol);
+
+    Map<String, CoinSnapshotResponse> fetchCoinSnapshots(List<String> symbols);
+
+    Map<String, Map<String, PriceMultiFullResponse.PriceData>> fetchCurrencyPrices(List<String> symbols,
+                                                                                  List<String> currencies,
+                                                                                  String exchange);
 }
@@ -2,23 +2,43 @@ package com.schumskich.cryptotrickstr.support.cryptocompare;
 
 import com.schumskich.cryptotrickstr.config.CryptoCompareConfig;
 import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareApiException;
+import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareThrottledException;
+import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareUnavailableException;
 import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.AbstractCryptoCompareResponse;
 import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.CoinSnapshotResponse;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeFilter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.PriceMultiFullResponse;
 import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 public class CryptoCompareAdapterImpl implements CryptoCompareAdapter {
+    private static Logger LOG = LoggerFactory.getLogger(CryptoCompareAdapterImpl.class);
+
     private final CryptoCompareConfig config;
     private final RestTemplate restTemplate;
+    private final ExchangeFilter exchangeFilter;
+    private final CryptoCompareRequestExecutor requestExecutor;
 
     @Autowired
-    public CryptoCompareAdapterImpl(CryptoCompareConfig cryptoCompareConfig, RestTemplate restTemplate) {
+    public CryptoCompareAdapterImpl(CryptoCompareConfig cryptoCompareConfig, RestTemplate restTemplate,
+                                    ExchangeFilter exchangeFilter, CryptoCompareRequestExecutor requestExecutor) {
         this.config = cryptoCompareConfig;
         this.restTemplate = restTemplate;
+        this.exchangeFilter = exchangeFilter;
+        this.requestExecutor = requestExecutor;
     }
 
     /**
@@ -28,10 +48,19 @@ public class CryptoCompareAdapterImpl implements CryptoCompareAdapter {
      */
     @Override
     public TopCoinsResponse fetchTopCoins() {
-        ResponseEntity<TopCoinsResponse> response =
-                restTemplate.getForEntity(config.getTopSymbolsByVolumePath(), TopCoinsResponse.class);
-        checkForErrors(response);
-        return response.getBody();
+        return fetchTopCoins(0);
+    }
+
+    /**
+     * Fetches a page of the top coins by trading volume.
+     *
+     * @param page The index of the page (starting at 0).
+     * @return The response object.
+     */
+    @Override
+    public TopCoinsResponse fetchTopCoins(int page) {
+        String path = config.getTopSymbolsByVolumePath() + (page == 0 ? "" : "&page=" + page);
+        return get(path, TopCoinsResponse.class);
     }
 
     /**
@@ -42,10 +71,181 @@ public class CryptoCompareAdapterImpl implements CryptoCompareAdapter {
      */
     @Override
     public CoinSnapshotResponse fetchCoinSnapshot(String symbol) {
-        ResponseEntity<CoinSnapshotResponse> response =
-                restTemplate.getForEntity(config.getSymbolSnapshotPath() + symbol, CoinSnapshotResponse.class);
-        checkForErrors(response);
-        return response.getBody();
+        return get(config.getSymbolSnapshotPath() + symbol, CoinSnapshotResponse.class);
+    }
+
+    /**
+     * Fetches the price information of multiple coins using as few requests as possible. The symbols are split into
+     * chunks that fit into the limits of the remote API. For each chunk, the aggregated prices and the prices on
+     * every whitelisted exchange are fetched using one request each, so that the number of requests does not depend
+     * on the number of coins per chunk. Exchange quotes are filtered the same way as the ones of a coin snapshot.
+     * The full names of the coins are not available using this API and are left empty.
+     *
+     * @param symbols The symbols of the coins to fetch the data for.
+     * @return The responses keyed by symbol. Coins without any price information are not contained.
+     */
+    @Override
+    public Map<String, CoinSnapshotResponse> fetchCoinSnapshots(List<String> symbols) {
+        Map<String, CoinSnapshotResponse> responses = new LinkedHashMap<>();
+        for (List<String> chunk : chunkSymbols(symbols, config.getBatchSymbolsMaxLength(),
+                config.getBatchSymbolsMaxCount())) {
+            String symbolList = String.join(",", chunk);
+            Map<String, ExchangeQuotes> quotesBySymbol = new HashMap<>();
+            Map<String, PriceMultiFullResponse.PriceData> aggregatedPrices = fetchPrices(symbolList, null);
+            for (String symbol : aggregatedPrices.keySet()) {
+                quotesBySymbol.put(symbol, new ExchangeQuotes(this.exchangeFilter));
+            }
+
+            for (String exchange : config.getExchangeWhitelist()) {
+                Map<String, PriceMultiFullResponse.PriceData> exchangePrices;
+                try {
+                    exchangePrices = fetchPrices(symbolList, exchange);
+                } catch (CryptoCompareThrottledException | CryptoCompareUnavailableException e) {
+                    throw e;
+                } catch (CryptoCompareApiException e) {
+                    // The API returns an error if none of the coins is traded on the exchange.
+                    LOG.debug("No prices of exchange '" + exchange + "' for symbols " + chunk + ": " + e.getMessage());
+                    continue;
+                }
+                exchangePrices.forEach((symbol, data) -> {
+                    ExchangeQuotes quotes = quotesBySymbol.get(symbol);
+                    if (quotes != null && data.getPrice() != null && data.getLastUpdated() != null) {
+                        quotes.offer(exchange, data.getPrice(), data.getVolume24H() == null ? 0 : data.getVolume24H(),
+                                data.getLastUpdated());
+                    }
+                });
+            }
+
+            aggregatedPrices.forEach((symbol, data) ->
+                    responses.put(symbol, toCoinSnapshotResponse(symbol, data, quotesBySymbol.get(symbol))));
+        }
+        return responses;
+    }
+
+    /**
+     * Fetches the prices of multiple coins in multiple currencies on one exchange, using one request per chunk of
+     * symbols (see {@link #fetchCoinSnapshots(List)}).
+     *
+     * @param symbols    The symbols of the coins to fetch the prices of.
+     * @param currencies The symbols of the currencies to fetch the prices in.
+     * @param exchange   The exchange to fetch the prices of.
+     * @return The price information keyed by the symbol of the coin and the symbol of the currency. Pairs that are
+     * not traded on the exchange are not contained.
+     */
+    @Override
+    public Map<String, Map<String, PriceMultiFullResponse.PriceData>> fetchCurrencyPrices(List<String> symbols,
+                                                                                         List<String> currencies,
+                                                                                         String exchange) {
+        Map<String, Map<String, PriceMultiFullResponse.PriceData>> prices = new HashMap<>();
+        String currencyList = String.join(",", currencies);
+        for (List<String> chunk : chunkSymbols(symbols, config.getBatchSymbolsMaxLength(),
+                config.getBatchSymbolsMaxCount())) {
+            String path = config.getCurrencyPricesPath() + String.join(",", chunk) + "&tsyms=" + currencyList
+                    + "&e=" + exchange;
+            PriceMultiFullResponse response;
+            try {
+                response = get(path, PriceMultiFullResponse.class);
+            } catch (CryptoCompareThrottledException | CryptoCompareUnavailableException e) {
+                throw e;
+            } catch (CryptoCompareApiException e) {
+                // The API returns an error if none of the pairs is traded on the exchange.
+                LOG.debug("No prices of exchange '" + exchange + "' for symbols " + chunk + ": " + e.getMessage());
+                continue;
+            }
+            if (response.getRaw() != null) {
+                prices.putAll(response.getRaw());
+            }
+        }
+        return prices;
+    }
+
+    /**
+     * Splits a list of symbols into chunks, so that the comma separated symbols of a chunk are not longer than
+     * <code>maxLength</code> characters and a chunk does not contain more than <code>maxCount</code> symbols.
+     *
+     * @param symbols   The symbols to split.
+     * @param maxLength The maximum length of the comma separated symbols of a chunk.
+     * @param maxCount  The maximum number of symbols of a chunk.
+     * @return The chunks in the order of the given symbols.
+     */
+    public static List<List<String>> chunkSymbols(List<String> symbols, int maxLength, int maxCount) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        int chunkLength = 0;
+        for (String symbol : symbols) {
+            int lengthWithSymbol = chunk.isEmpty() ? symbol.length() : chunkLength + 1 + symbol.length();
+            if (!chunk.isEmpty() && (lengthWithSymbol > maxLength || chunk.size() >= maxCount)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                lengthWithSymbol = symbol.length();
+            }
+            chunk.add(symbol);
+            chunkLength = lengthWithSymbol;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Fetches the prices of multiple coins.
+     *
+     * @param symbolList The comma separated symbols of the coins.
+     * @param exchange   The exchange to fetch the prices of or <code>null</code> to fetch the aggregated prices.
+     * @return The price information keyed by symbol.
+     */
+    private Map<String, PriceMultiFullResponse.PriceData> fetchPrices(String symbolList, String exchange) {
+        String path = config.getPriceMultiFullPath() + symbolList + (exchange == null ? "" : "&e=" + exchange);
+        PriceMultiFullResponse response = get(path, PriceMultiFullResponse.class);
+
+        Map<String, PriceMultiFullResponse.PriceData> prices = new HashMap<>();
+        if (response.getRaw() != null) {
+            response.getRaw().forEach((symbol, pricesByCurrency) -> pricesByCurrency.values().stream()
+                    .findFirst()
+                    .ifPresent(data -> prices.put(symbol, data)));
+        }
+        return prices;
+    }
+
+    private static CoinSnapshotResponse toCoinSnapshotResponse(String symbol, PriceMultiFullResponse.PriceData data,
+                                                               ExchangeQuotes quotes) {
+        CoinSnapshotResponse.CoinInfo coinInfo = new CoinSnapshotResponse.CoinInfo();
+        coinInfo.setName(symbol);
+        coinInfo.setTotalCoinsMined(data.getSupply() == null ? null : data.getSupply().longValue());
+        coinInfo.setTotalVolume24H(data.getTotalVolume24H());
+
+        CoinSnapshotResponse.AggregatedData aggregatedData = new CoinSnapshotResponse.AggregatedData();
+        aggregatedData.setPrice(data.getPrice());
+        aggregatedData.setLastUpdated(data.getLastUpdated());
+        aggregatedData.setOpenDay(data.getOpenDay());
+        aggregatedData.setHighDay(data.getHighDay());
+        aggregatedData.setLowDay(data.getLowDay());
+
+        CoinSnapshotResponse.ResponseData responseData = new CoinSnapshotResponse.ResponseData();
+        responseData.setCoinInfo(coinInfo);
+        responseData.setAggregatedData(aggregatedData);
+        responseData.setExchangeQuotes(quotes);
+
+        CoinSnapshotResponse response = new CoinSnapshotResponse();
+        response.setResponseData(responseData);
+        return response;
+    }
+
+    /**
+     * Sends a GET request (see {@link CryptoCompareRequestExecutor}) and checks the response for errors.
+     *
+     * @param path         The path to request.
+     * @param responseType The type of the response.
+     * @param <T>          The type of the response.
+     * @return The response.
+     */
+    private <T extends AbstractCryptoCompareResponse> T get(String path, Class<T> responseType) {
+        return requestExecutor.execute(() -> {
+            ResponseEntity<T> response = restTemplate.getForEntity(path, responseType);
+            checkForErrors(response);
+            return response.getBody();
+        });
     }
 
     /**
@@ -63,6 +263,9 @@ public class CryptoCompareAdapterImpl implements CryptoCompareAdapter {
         AbstractCryptoCompareResponse body = response.getBody();
         boolean containsError = "Error".equals(body.getMessage()) || "Error".equals(body.getResponse());
         boolean falsePositive = "No exchanges available".equals(body.getMessage());
+        if (containsError && body.getMessage() != null && body.getMessage().toLowerCase().contains("rate limit")) {
+            throw new CryptoCompareThrottledException(toLogMessageText(response));
+        }
         if (containsError && !falsePositive) {
             throw new CryptoCompareApiException(toLogMessageText(response));
         }
@@ -0,0 +1,36 @@
+package com.schumskich.cryptotrickstr.support.cryptocompare;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Exposes the usage of the CryptoCompare HTTP connection pool using the <code>/metrics</code> endpoint.
+ */
+@Component
+public class CryptoCompareHttpPoolMetrics implements PublicMetrics {
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    @Autowired
+    public CryptoCompareHttpPoolMetrics(PoolingHttpClientConnectionManager cryptoCompareConnectionManager) {
+        this.connectionManager = cryptoCompareConnectionManager;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        PoolStats stats = this.connectionManager.getTotalStats();
+        return Arrays.asList(
+                new Metric<>("cryptocompare.http.pool.leased", stats.getLeased()),
+                new Metric<>("cryptocompare.http.pool.available", stats.getAvailable()),
+                new Metric<>("cryptocompare.http.pool.pending", stats.getPending()),
+                new Metric<>("cryptocompare.http.pool.max", stats.getMax()),
+                new Metric<>("cryptocompare.http.pool.routes", this.connectionManager.getRoutes().size())
+        );
+    }
+}
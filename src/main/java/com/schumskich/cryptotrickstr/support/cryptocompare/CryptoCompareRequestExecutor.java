@@ -0,0 +1,160 @@
+package com.schumskich.cryptotrickstr.support.cryptocompare;
+
+import com.schumskich.cryptotrickstr.config.CryptoCompareConfig;
+import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareApiException;
+import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareThrottledException;
+import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareUnavailableException;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import com.schumskich.cryptotrickstr.support.ratelimit.AdaptiveRateLimiter;
+import com.schumskich.cryptotrickstr.support.resilience.CircuitBreaker;
+import com.schumskich.cryptotrickstr.support.resilience.ExponentialBackoff;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executes all requests to the CryptoCompare API. Requests are rate limited by an {@link AdaptiveRateLimiter} that
+ * slows down whenever CryptoCompare throttles us. Throttled requests and requests that failed because of an outage
+ * (I/O errors and 5xx responses) are retried after a jittered exponential backoff. Consecutive outage failures open
+ * a {@link CircuitBreaker}, so that requests fail immediately instead of being sent while CryptoCompare is down.
+ * Error responses of the API itself (e.g. an unknown symbol) are not retried.
+ */
+@Component
+public class CryptoCompareRequestExecutor {
+    private static Logger LOG = LoggerFactory.getLogger(CryptoCompareRequestExecutor.class);
+
+    @Getter
+    private final AdaptiveRateLimiter rateLimiter;
+
+    @Getter
+    private final CircuitBreaker circuitBreaker;
+
+    private final ExponentialBackoff backoff;
+    private final int maxAttempts;
+    private final IngestMetrics metrics;
+
+    @Autowired
+    public CryptoCompareRequestExecutor(CryptoCompareConfig cryptoCompareConfig, IngestMetrics ingestMetrics) {
+        this(createRateLimiter(cryptoCompareConfig.getResilience()),
+                new CircuitBreaker(cryptoCompareConfig.getResilience().getCircuitFailureThreshold(),
+                        cryptoCompareConfig.getResilience().getCircuitOpenDuration()),
+                new ExponentialBackoff(cryptoCompareConfig.getResilience().getInitialBackoff(),
+                        cryptoCompareConfig.getResilience().getMaxBackoff()),
+                cryptoCompareConfig.getResilience().getMaxAttempts(),
+                ingestMetrics);
+    }
+
+    public CryptoCompareRequestExecutor(AdaptiveRateLimiter rateLimiter, CircuitBreaker circuitBreaker,
+                                        ExponentialBackoff backoff, int maxAttempts, IngestMetrics metrics) {
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.backoff = backoff;
+        this.maxAttempts = maxAttempts;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Executes a request.
+     *
+     * @param request The request to execute. It must throw a {@link CryptoCompareThrottledException} if the API
+     *                responded that we exceeded the rate limit.
+     * @param <T>     The type of the response.
+     * @return The response.
+     * @throws CryptoCompareThrottledException   If the request has still been throttled after the last attempt.
+     * @throws CryptoCompareUnavailableException If the API has not been reachable after the last attempt or the
+     *                                           circuit breaker is open.
+     */
+    public <T> T execute(Supplier<T> request) {
+        for (int attempt = 1; ; attempt++) {
+            // Asking the circuit breaker first, so that rejected requests do not use up rate limiter tokens. Rejected
+            // requests fail immediately, as waiting for a retry would only delay the caller during an outage.
+            if (!this.circuitBreaker.tryAcquirePermission()) {
+                this.metrics.increment("api.circuitOpenRejections");
+                throw new CryptoCompareUnavailableException("The circuit breaker is open.");
+            }
+
+            try {
+                this.rateLimiter.acquire();
+            } catch (InterruptedException e) {
+                this.circuitBreaker.release();
+                Thread.currentThread().interrupt();
+                throw new CryptoCompareApiException("Interrupted while waiting for the rate limiter.", e);
+            }
+
+            CryptoCompareApiException failure;
+            try {
+                T response = request.get();
+                this.circuitBreaker.onSuccess();
+                this.rateLimiter.onSuccess();
+                return response;
+            } catch (RuntimeException e) {
+                failure = classify(e);
+            } catch (Throwable e) {
+                // Every permitted request has to report its outcome, or a half open circuit would never close.
+                this.circuitBreaker.onFailure();
+                throw e;
+            }
+
+            if (attempt >= this.maxAttempts || this.circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+                this.metrics.increment("api.failedRequests");
+                throw failure;
+            }
+            this.metrics.increment("api.retries");
+            long delayMillis = this.backoff.delayMillis(attempt);
+            LOG.debug("Attempt " + attempt + " failed (" + failure.getMessage() + "). Retrying in " + delayMillis
+                    + " ms.");
+            try {
+                TimeUnit.MILLISECONDS.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Decides whether a failed request is retried and reports the outcome to the rate limiter and circuit breaker.
+     *
+     * @param e The exception thrown by the request.
+     * @return The failure if the request is retried.
+     * @throws RuntimeException The given exception if the request must not be retried.
+     */
+    private CryptoCompareApiException classify(RuntimeException e) {
+        boolean throttled = e instanceof CryptoCompareThrottledException || (e instanceof HttpStatusCodeException
+                && ((HttpStatusCodeException) e).getStatusCode() == HttpStatus.TOO_MANY_REQUESTS);
+        if (throttled) {
+            // The API is reachable, we are just too fast.
+            this.metrics.increment("api.throttled");
+            this.circuitBreaker.onSuccess();
+            this.rateLimiter.onThrottled();
+            LOG.warn("CryptoCompare throttled a request. Decreased the rate to "
+                    + String.format("%.2f", this.rateLimiter.getRate()) + " requests per second.");
+            return e instanceof CryptoCompareThrottledException
+                    ? (CryptoCompareThrottledException) e : new CryptoCompareThrottledException(e.getMessage());
+        }
+
+        if (e instanceof ResourceAccessException || e instanceof HttpServerErrorException) {
+            this.metrics.increment("api.unavailable");
+            this.circuitBreaker.onFailure();
+            return new CryptoCompareUnavailableException(e.getMessage(), e);
+        }
+
+        this.metrics.increment("api.errors");
+        this.circuitBreaker.onSuccess();
+        throw e;
+    }
+
+    private static AdaptiveRateLimiter createRateLimiter(CryptoCompareConfig.Resilience config) {
+        return new AdaptiveRateLimiter(config.getMinRequestsPerSecond(), config.getRequestsPerSecond(),
+                config.getRateIncreaseStep(), config.getRateDecreaseFactor(), config.getBurst());
+    }
+}
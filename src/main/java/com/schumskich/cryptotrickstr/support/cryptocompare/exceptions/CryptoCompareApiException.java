@@ -4,4 +4,8 @@ public class CryptoCompareApiException extends RuntimeException {
     public CryptoCompareApiException(String message) {
         super(message);
     }
+
+    public CryptoCompareApiException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
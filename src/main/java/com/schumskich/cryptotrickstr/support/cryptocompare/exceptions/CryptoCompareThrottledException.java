@@ -0,0 +1,10 @@
+package com.schumskich.cryptotrickstr.support.cryptocompare.exceptions;
+
+/**
+ * Thrown if CryptoCompare rejected a request, because we exceeded the rate limit.
+ */
+public class CryptoCompareThrottledException extends CryptoCompareApiException {
+    public CryptoCompareThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.schumskich.cryptotrickstr.support.cryptocompare.exceptions;
+
+/**
+ * Thrown if CryptoCompare could not be reached or a request has not been sent, because the circuit breaker is open.
+ */
+public class CryptoCompareUnavailableException extends CryptoCompareApiException {
+    public CryptoCompareUnavailableException(String message) {
+        super(message);
+    }
+
+    public CryptoCompareUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
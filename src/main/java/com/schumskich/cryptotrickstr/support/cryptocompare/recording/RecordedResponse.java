@@ -0,0 +1,136 @@
+package com.schumskich.cryptotrickstr.support.cryptocompare.recording;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A recorded response of the CryptoCompare API. Each response is stored in a gzip compressed file that starts with
+ * a header line (<code>timestamp \t status \t content type \t request path and query</code>) followed by the raw
+ * response body.
+ */
+class RecordedResponse {
+    private final long timestamp;
+    private final int status;
+    private final String contentType;
+    private final String requestKey;
+    private final byte[] body;
+
+    RecordedResponse(long timestamp, int status, String contentType, String requestKey, byte[] body) {
+        this.timestamp = timestamp;
+        this.status = status;
+        this.contentType = contentType;
+        this.requestKey = requestKey;
+        this.body = body;
+    }
+
+    /**
+     * @param uri The URI of a request.
+     * @return The key of the request, independent of the host it has been sent to.
+     */
+    static String requestKey(URI uri) {
+        return uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+    }
+
+    static RecordedResponse read(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file)))) {
+            StringBuilder header = new StringBuilder();
+            for (int c = in.read(); c != '\n'; c = in.read()) {
+                if (c < 0) {
+                    throw new IOException("'" + file + "' is not a recorded response.");
+                }
+                header.append((char) c);
+            }
+            String[] fields = header.toString().split("\t", 4);
+            if (fields.length != 4) {
+                throw new IOException("'" + file + "' is not a recorded response.");
+            }
+            return new RecordedResponse(Long.parseLong(fields[0]), Integer.parseInt(fields[1]), fields[2], fields[3],
+                    StreamUtils.copyToByteArray(in));
+        }
+    }
+
+    void write(Path file) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            String header = this.timestamp + "\t" + this.status + "\t" + this.contentType + "\t" + this.requestKey
+                    + "\n";
+            out.write(header.getBytes(StandardCharsets.UTF_8));
+            out.write(this.body);
+        }
+    }
+
+    long getTimestamp() {
+        return this.timestamp;
+    }
+
+    String getRequestKey() {
+        return this.requestKey;
+    }
+
+    ClientHttpResponse toClientHttpResponse() {
+        HttpHeaders headers = new HttpHeaders();
+        if (!this.contentType.isEmpty()) {
+            headers.setContentType(MediaType.parseMediaType(this.contentType));
+        }
+        headers.setContentLength(this.body.length);
+        return new BufferedResponse(this.status, headers, this.body);
+    }
+
+    /**
+     * A response whose body has been read completely.
+     */
+    static class BufferedResponse implements ClientHttpResponse {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        BufferedResponse(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.valueOf(this.status);
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return this.status;
+        }
+
+        @Override
+        public String getStatusText() {
+            return getStatusCode().getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(this.body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.schumskich.cryptotrickstr.support.cryptocompare.recording;
+
+import com.schumskich.cryptotrickstr.config.CryptoCompareConfig;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serves the responses recorded by {@link ResponseRecorder} instead of sending requests. The recorded responses of
+ * a request (same path and query) are served in the order they have been recorded; once all of them have been
+ * served, the replay starts over with the first one, so that a recording can drive any number of refresh cycles.
+ * Requests that have never been recorded are answered with <code>404 Not Found</code>.
+ */
+public class ReplayClientHttpRequestFactory implements ClientHttpRequestFactory {
+    private final CryptoCompareConfig.ReplayTiming timing;
+    private final Map<String, Replay> replays = new HashMap<>();
+    private final long recordingStart;
+    private final long recordingDuration;
+    private final long replayStart;
+
+    /**
+     * Loads all recorded responses of a directory (including its subdirectories).
+     *
+     * @param directory The recording directory.
+     * @param timing    The timing of the replayed responses.
+     * @throws IOException If the recording could not be read.
+     */
+    public ReplayClientHttpRequestFactory(Path directory, CryptoCompareConfig.ReplayTiming timing)
+            throws IOException {
+        this.timing = timing;
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(".gz")).sorted()
+                    .collect(Collectors.toList());
+        }
+
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (Path file : files) {
+            RecordedResponse response = RecordedResponse.read(file);
+            this.replays.computeIfAbsent(response.getRequestKey(), key -> new Replay()).responses.add(response);
+            first = Math.min(first, response.getTimestamp());
+            last = Math.max(last, response.getTimestamp());
+        }
+        this.recordingStart = files.isEmpty() ? 0 : first;
+        this.recordingDuration = files.isEmpty() ? 0 : last - first + 1;
+        this.replayStart = System.currentTimeMillis();
+    }
+
+    /**
+     * @return The number of distinct requests that can be replayed.
+     */
+    public int size() {
+        return this.replays.size();
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        return new AbstractClientHttpRequest() {
+            @Override
+            public HttpMethod getMethod() {
+                return httpMethod;
+            }
+
+            @Override
+            public URI getURI() {
+                return uri;
+            }
+
+            @Override
+            protected OutputStream getBodyInternal(HttpHeaders headers) {
+                return new ByteArrayOutputStream();
+            }
+
+            @Override
+            protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+                return replay(uri);
+            }
+        };
+    }
+
+    private ClientHttpResponse replay(URI uri) throws IOException {
+        Replay replay = this.replays.get(RecordedResponse.requestKey(uri));
+        if (replay == null) {
+            return new RecordedResponse.BufferedResponse(HttpStatus.NOT_FOUND.value(), new HttpHeaders(),
+                    new byte[0]);
+        }
+
+        RecordedResponse response;
+        long round;
+        synchronized (replay) {
+            response = replay.responses.get(replay.next);
+            round = replay.round;
+            if (++replay.next == replay.responses.size()) {
+                replay.next = 0;
+                replay.round++;
+            }
+        }
+
+        if (this.timing == CryptoCompareConfig.ReplayTiming.ORIGINAL) {
+            long dueTime = this.replayStart + round * this.recordingDuration
+                    + response.getTimestamp() - this.recordingStart;
+            long delay = dueTime - System.currentTimeMillis();
+            if (delay > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for a replayed response.");
+                }
+            }
+        }
+        return response.toClientHttpResponse();
+    }
+
+    private static class Replay {
+        private final List<RecordedResponse> responses = new ArrayList<>();
+        private int next;
+        private long round;
+    }
+}
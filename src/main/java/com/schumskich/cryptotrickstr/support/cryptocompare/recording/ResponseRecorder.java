@@ -0,0 +1,66 @@
+package com.schumskich.cryptotrickstr.support.cryptocompare.recording;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes every response of the CryptoCompare API to a compressed file in a directory per day (UTC), so that the
+ * responses can be replayed by {@link ReplayClientHttpRequestFactory}. The file names start with the time the
+ * response has been received, so they sort chronologically.
+ */
+public class ResponseRecorder implements ClientHttpRequestInterceptor {
+    private static Logger LOG = LoggerFactory.getLogger(ResponseRecorder.class);
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd")
+            .withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HHmmssSSS")
+            .withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ResponseRecorder(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        RecordedResponse.BufferedResponse response;
+        try (ClientHttpResponse originalResponse = execution.execute(request, body)) {
+            response = new RecordedResponse.BufferedResponse(originalResponse.getRawStatusCode(),
+                    originalResponse.getHeaders(), StreamUtils.copyToByteArray(originalResponse.getBody()));
+        }
+
+        long timestamp = System.currentTimeMillis();
+        MediaType contentType = response.getHeaders().getContentType();
+        RecordedResponse recordedResponse = new RecordedResponse(timestamp, response.getRawStatusCode(),
+                contentType == null ? "" : contentType.toString(), RecordedResponse.requestKey(request.getURI()),
+                StreamUtils.copyToByteArray(response.getBody()));
+        try {
+            Instant instant = Instant.ofEpochMilli(timestamp);
+            Path dayDirectory = Files.createDirectories(this.directory.resolve(DAY_FORMAT.format(instant)));
+            String name = TIME_FORMAT.format(instant) + "-" + String.format("%09d", this.sequence.incrementAndGet())
+                    + ".gz";
+            recordedResponse.write(dayDirectory.resolve(name));
+        } catch (IOException e) {
+            // A gap in the recording must not break the ingest pipeline
+            LOG.error("Could not record the response of '" + request.getURI() + "'.", e);
+        }
+        return response;
+    }
+}
@@ -5,8 +5,6 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.Date;
-import java.util.List;
 
 @Getter
 @Setter
@@ -25,7 +23,8 @@ public class CoinSnapshotResponse extends AbstractCryptoCompareResponse {
         private AggregatedData aggregatedData;
 
         @JsonProperty("Exchanges")
-        private List<ExchangeInfo> exchangeInfoList;
+        @JsonDeserialize(using = ExchangeQuotesDeserializer.class)
+        private ExchangeQuotes exchangeQuotes;
     }
 
     @Getter
@@ -36,7 +35,8 @@ public class CoinSnapshotResponse extends AbstractCryptoCompareResponse {
         private Double price;
 
         @JsonProperty("LASTUPDATE")
-        private Date lastUpdated;
+        @JsonDeserialize(using = UnixTimestampDeserializer.class)
+        private Long lastUpdated;
 
         @JsonProperty("OPENDAY")
         private Double openDay;
@@ -65,32 +65,4 @@ public class CoinSnapshotResponse extends AbstractCryptoCompareResponse {
         @JsonProperty("TotalVolume24H")
         private Double totalVolume24H;
     }
-
-    @Getter
-    @Setter
-    public static class ExchangeInfo {
-
-        @JsonProperty("MARKET")
-        private String exchangeName;
-
-        @JsonProperty("PRICE")
-        private Double price;
-
-        @JsonProperty("LASTUPDATE")
-        @JsonDeserialize(using = UnixTimestampDeserializer.class)
-        private Date lastUpdated;
-
-        @JsonProperty("OPEN24HOUR")
-        private Double open24H;
-
-        @JsonProperty("HIGH24HOUR")
-        private Double high24H;
-
-        @JsonProperty("LOW24HOUR")
-        private Double low24H;
-
-        @JsonProperty("VOLUME24HOUR")
-        private Double volume24H;
-
-    }
 }
@@ -0,0 +1,43 @@
+package com.schumskich.cryptotrickstr.support.cryptocompare.transfer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Decides which exchange information of a coin snapshot is relevant: only quotes of whitelisted exchanges which are
+ * not older than a configured period are accepted. The filter is passed to {@link ExchangeQuotesDeserializer} as a
+ * Jackson deserialization attribute (using {@link ExchangeFilter} as key), so that irrelevant exchange information is
+ * dropped while the response is being parsed.
+ */
+public class ExchangeFilter {
+    private static final ExchangeFilter ACCEPT_ALL = new ExchangeFilter(null, Long.MAX_VALUE);
+
+    private final Set<String> whitelist;
+    private final long staleAfterMillis;
+
+    /**
+     * @param whitelist        The names of all accepted exchanges or <code>null</code> to accept all exchanges.
+     * @param staleAfterMillis The age (in milliseconds) after which the information of an exchange is ignored.
+     */
+    public ExchangeFilter(Collection<String> whitelist, long staleAfterMillis) {
+        this.whitelist = whitelist == null ? null : Collections.unmodifiableSet(new HashSet<>(whitelist));
+        this.staleAfterMillis = staleAfterMillis;
+    }
+
+    /**
+     * @return A filter that accepts the information of every exchange.
+     */
+    public static ExchangeFilter acceptAll() {
+        return ACCEPT_ALL;
+    }
+
+    public boolean isWhitelisted(String exchangeName) {
+        return this.whitelist == null || this.whitelist.contains(exchangeName);
+    }
+
+    public boolean isStale(long lastUpdatedMillis, long nowMillis) {
+        return nowMillis - lastUpdatedMillis >= this.staleAfterMillis;
+    }
+}
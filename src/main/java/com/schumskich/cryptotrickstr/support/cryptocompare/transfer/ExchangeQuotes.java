@@ -0,0 +1,174 @@
+package com.schumskich.cryptotrickstr.support.cryptocompare.transfer;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the quotes of all relevant exchanges of a coin in primitive arrays and tracks the exchanges with the lowest
+ * and the highest price. Quotes are offered one after another (usually while the response is being parsed, see
+ * {@link ExchangeQuotesDeserializer}), so that no object needs to be created for an exchange. Quotes that are
+ * rejected by the {@link ExchangeFilter} are ignored.
+ */
+public class ExchangeQuotes {
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Reading the clock costs more than filtering a quote, so the filter time is only measured for one in this
+     * many instances.
+     */
+    private static final int FILTER_TIMING_SAMPLE_RATE = 16;
+
+    private final ExchangeFilter filter;
+    private final long nowMillis;
+    private final boolean filterTimed;
+
+    private String[] exchangeNames = new String[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private double[] volumes24H = new double[INITIAL_CAPACITY];
+    private long[] lastUpdated = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private int minPriceIndex = -1;
+    private int maxPriceIndex = -1;
+
+    private int notWhitelistedCount;
+    private int staleCount;
+    private long filterNanos;
+
+    public ExchangeQuotes(ExchangeFilter filter) {
+        this.filter = filter;
+        this.nowMillis = System.currentTimeMillis();
+        this.filterTimed = ThreadLocalRandom.current().nextInt(FILTER_TIMING_SAMPLE_RATE) == 0;
+    }
+
+    /**
+     * Offers the quote of an exchange.
+     *
+     * @param exchangeName      The name of the exchange.
+     * @param price             The price of the coin on this exchange.
+     * @param volume24H         The traded volume of the last 24 hours on this exchange.
+     * @param lastUpdatedMillis The time of the last update of the price (epoch milliseconds).
+     * @return Whether the quote has been accepted by the filter.
+     */
+    public boolean offer(String exchangeName, double price, double volume24H, long lastUpdatedMillis) {
+        long filterStart = this.filterTimed ? System.nanoTime() : 0;
+        boolean whitelisted = this.filter.isWhitelisted(exchangeName);
+        boolean stale = whitelisted && this.filter.isStale(lastUpdatedMillis, this.nowMillis);
+        if (this.filterTimed) {
+            this.filterNanos += System.nanoTime() - filterStart;
+        }
+        if (!whitelisted) {
+            this.notWhitelistedCount++;
+            return false;
+        }
+        if (stale) {
+            this.staleCount++;
+            return false;
+        }
+
+        if (this.size == this.prices.length) {
+            int capacity = this.size * 2;
+            this.exchangeNames = Arrays.copyOf(this.exchangeNames, capacity);
+            this.prices = Arrays.copyOf(this.prices, capacity);
+            this.volumes24H = Arrays.copyOf(this.volumes24H, capacity);
+            this.lastUpdated = Arrays.copyOf(this.lastUpdated, capacity);
+        }
+
+        int index = this.size++;
+        this.exchangeNames[index] = exchangeName;
+        this.prices[index] = price;
+        this.volumes24H[index] = volume24H;
+        this.lastUpdated[index] = lastUpdatedMillis;
+
+        if (this.minPriceIndex < 0 || price < this.prices[this.minPriceIndex]) {
+            this.minPriceIndex = index;
+        }
+        if (this.maxPriceIndex < 0 || price > this.prices[this.maxPriceIndex]) {
+            this.maxPriceIndex = index;
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of accepted quotes.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return Whether no quote has been accepted.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return The number of rejected quotes of exchanges that are not whitelisted.
+     */
+    public int getNotWhitelistedCount() {
+        return this.notWhitelistedCount;
+    }
+
+    /**
+     * @return The number of rejected quotes of whitelisted exchanges that are stale.
+     */
+    public int getStaleCount() {
+        return this.staleCount;
+    }
+
+    /**
+     * @return Whether the time spent on filtering has been measured for this instance (see {@link #getFilterNanos()}).
+     */
+    public boolean isFilterTimed() {
+        return this.filterTimed;
+    }
+
+    /**
+     * @return The time (in nanoseconds) spent on filtering the offered quotes if {@link #isFilterTimed()} is
+     * <code>true</code>.
+     */
+    public long getFilterNanos() {
+        return this.filterNanos;
+    }
+
+    public String getExchangeName(int index) {
+        return this.exchangeNames[index];
+    }
+
+    public double getPrice(int index) {
+        return this.prices[index];
+    }
+
+    public double getVolume24H(int index) {
+        return this.volumes24H[index];
+    }
+
+    public long getLastUpdated(int index) {
+        return this.lastUpdated[index];
+    }
+
+    public String getMinPriceExchange() {
+        return this.exchangeNames[this.minPriceIndex];
+    }
+
+    public double getMinPrice() {
+        return this.prices[this.minPriceIndex];
+    }
+
+    public long getMinPriceUpdated() {
+        return this.lastUpdated[this.minPriceIndex];
+    }
+
+    public String getMaxPriceExchange() {
+        return this.exchangeNames[this.maxPriceIndex];
+    }
+
+    public double getMaxPrice() {
+        return this.prices[this.maxPriceIndex];
+    }
+
+    public long getMaxPriceUpdated() {
+        return this.lastUpdated[this.maxPriceIndex];
+    }
+}
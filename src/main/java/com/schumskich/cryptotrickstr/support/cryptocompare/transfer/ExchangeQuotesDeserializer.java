@@ -0,0 +1,69 @@
+package com.schumskich.cryptotrickstr.support.cryptocompare.transfer;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams through the list of exchanges of a coin snapshot and offers every quote to an {@link ExchangeQuotes}
+ * object. Only the fields needed to select the quotes are read, so no object is created for an exchange. The
+ * {@link ExchangeFilter} is taken from the deserialization attribute with the key {@link ExchangeFilter}
+ * (all exchanges are accepted if the attribute is not set). Elements of the list that are not objects are skipped.
+ */
+public class ExchangeQuotesDeserializer extends JsonDeserializer<ExchangeQuotes> {
+
+    @Override
+    public ExchangeQuotes deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        if (!jp.isExpectedStartArrayToken()) {
+            return (ExchangeQuotes) ctxt.handleUnexpectedToken(ExchangeQuotes.class, jp);
+        }
+
+        ExchangeFilter filter = (ExchangeFilter) ctxt.getAttribute(ExchangeFilter.class);
+        ExchangeQuotes quotes = new ExchangeQuotes(filter == null ? ExchangeFilter.acceptAll() : filter);
+        for (JsonToken token = jp.nextToken(); token != JsonToken.END_ARRAY; token = jp.nextToken()) {
+            if (token == null) {
+                throw new JsonParseException(jp, "Unexpected end of input within the exchanges.");
+            }
+            if (token != JsonToken.START_OBJECT) {
+                // Leaves the parser at the end of the element, so that the rest of the snapshot is parsed correctly
+                jp.skipChildren();
+                continue;
+            }
+
+            String exchangeName = null;
+            double price = Double.NaN;
+            double volume24H = 0;
+            long lastUpdatedMillis = 0;
+            while (jp.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = jp.getCurrentName();
+                jp.nextToken();
+                switch (fieldName) {
+                    case "MARKET":
+                        exchangeName = jp.getValueAsString();
+                        break;
+                    case "PRICE":
+                        price = jp.getValueAsDouble(Double.NaN);
+                        break;
+                    case "VOLUME24HOUR":
+                        volume24H = jp.getValueAsDouble(0);
+                        break;
+                    case "LASTUPDATE":
+                        lastUpdatedMillis = TimeUnit.SECONDS.toMillis(jp.getValueAsLong());
+                        break;
+                    default:
+                        jp.skipChildren();
+                }
+            }
+
+            if (exchangeName != null && !Double.isNaN(price)) {
+                quotes.offer(exchangeName, price, volume24H, lastUpdatedMillis);
+            }
+        }
+        return quotes;
+    }
+}
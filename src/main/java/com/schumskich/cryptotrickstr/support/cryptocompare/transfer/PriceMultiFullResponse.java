@@ -0,0 +1,55 @@
+package com.schumskich.cryptotrickstr.support.cryptocompare.transfer;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * Price information of multiple coins, either aggregated over all exchanges or of a single exchange.
+ */
+@Getter
+@Setter
+public class PriceMultiFullResponse extends AbstractCryptoCompareResponse {
+
+    /**
+     * The price information keyed by the symbol of the coin and the symbol of the currency the price is given in.
+     */
+    @JsonProperty("RAW")
+    private Map<String, Map<String, PriceData>> raw;
+
+    @Getter
+    @Setter
+    public static class PriceData {
+
+        @JsonProperty("MARKET")
+        private String market;
+
+        @JsonProperty("PRICE")
+        private Double price;
+
+        @JsonProperty("LASTUPDATE")
+        @JsonDeserialize(using = UnixTimestampDeserializer.class)
+        private Long lastUpdated;
+
+        @JsonProperty("VOLUME24HOUR")
+        private Double volume24H;
+
+        @JsonProperty("TOTALVOLUME24H")
+        private Double totalVolume24H;
+
+        @JsonProperty("OPENDAY")
+        private Double openDay;
+
+        @JsonProperty("HIGHDAY")
+        private Double highDay;
+
+        @JsonProperty("LOWDAY")
+        private Double lowDay;
+
+        @JsonProperty("SUPPLY")
+        private Double supply;
+    }
+}
@@ -25,5 +25,8 @@ public class TopCoinsResponse extends AbstractCryptoCompareResponse {
     public static class CoinInfo {
         @JsonProperty("Name")
         private String name;
+
+        @JsonProperty("FullName")
+        private String fullName;
     }
 }
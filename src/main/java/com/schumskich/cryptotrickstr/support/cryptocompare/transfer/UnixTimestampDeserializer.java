@@ -2,21 +2,28 @@ package com.schumskich.cryptotrickstr.support.cryptocompare.transfer;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 
 import java.io.IOException;
-import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
-public class UnixTimestampDeserializer extends JsonDeserializer<Date> {
+/**
+ * Reads a Unix timestamp (in seconds) as epoch milliseconds. Numbers are taken straight from the numeric token;
+ * timestamps sent as strings are parsed as well. Anything else results in <code>null</code>.
+ */
+public class UnixTimestampDeserializer extends JsonDeserializer<Long> {
 
     @Override
-    public Date deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-        String timestamp = jp.getText().trim();
+    public Long deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+        if (jp.getCurrentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return TimeUnit.SECONDS.toMillis(jp.getLongValue());
+        }
         try {
-            return new Date(Long.valueOf(timestamp + "000"));
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(jp.getText().trim()));
         } catch (NumberFormatException e) {
             return null;
         }
     }
-}
\ No newline at end of file
+}
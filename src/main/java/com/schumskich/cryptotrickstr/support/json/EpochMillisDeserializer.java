@@ -0,0 +1,47 @@
+package com.schumskich.cryptotrickstr.support.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Reads a timestamp that is kept as epoch milliseconds exactly like a {@link java.util.Date}, i.e. from an ISO-8601
+ * string or a number of milliseconds. Counterpart of the {@link EpochMillisSerializer}.
+ */
+public class EpochMillisDeserializer extends StdDeserializer<Long> implements ContextualDeserializer {
+    private final Long nullValue;
+
+    public EpochMillisDeserializer() {
+        this(null);
+    }
+
+    private EpochMillisDeserializer(Long nullValue) {
+        super(Long.class);
+        this.nullValue = nullValue;
+    }
+
+    @Override
+    public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        Date date = _parseDate(p, ctxt);
+        return date == null ? this.nullValue : date.getTime();
+    }
+
+    @Override
+    public Long getNullValue(DeserializationContext ctxt) {
+        return this.nullValue;
+    }
+
+    /**
+     * A <code>null</code> is read as 0 for primitive fields, like Jackson does for other numbers.
+     */
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+        return property != null && property.getType().isPrimitive() ? new EpochMillisDeserializer(0L) : this;
+    }
+}
@@ -0,0 +1,23 @@
+package com.schumskich.cryptotrickstr.support.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a timestamp that is kept as epoch milliseconds exactly like a {@link java.util.Date}, so that the
+ * representation in the RESTful API does not depend on how the timestamp is stored.
+ */
+public class EpochMillisSerializer extends StdSerializer<Long> {
+
+    public EpochMillisSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        provider.defaultSerializeDateValue(value, gen);
+    }
+}
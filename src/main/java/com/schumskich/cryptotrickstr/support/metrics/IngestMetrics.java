@@ -0,0 +1,131 @@
+package com.schumskich.cryptotrickstr.support.metrics;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collects timers of the stages of the ingest pipeline and counters of noteworthy events and exposes them using the
+ * <code>/metrics</code> endpoint. For a timer named <code>x</code>, the values <code>ingest.timer.x.count</code>,
+ * <code>ingest.timer.x.totalMillis</code>, <code>ingest.timer.x.meanMillis</code> and
+ * <code>ingest.timer.x.maxMillis</code> are exposed. A counter named <code>y</code> is exposed as
+ * <code>ingest.counter.y</code>. All values are accumulated since the start of the app and can be recorded
+ * concurrently.
+ */
+@Component
+public class IngestMetrics implements PublicMetrics {
+    public static final String TOP_COINS_FETCH = "topCoinsFetch";
+    public static final String SNAPSHOT_FETCH = "snapshotFetch";
+    public static final String BATCH_FETCH = "batchFetch";
+    public static final String DESERIALIZATION = "deserialization";
+    /**
+     * Only sampled (see {@link com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes}), so the
+     * count of this timer is lower than the number of processed coins.
+     */
+    public static final String EXCHANGE_FILTERING = "exchangeFiltering";
+    public static final String MAPPING = "mapping";
+    public static final String REPOSITORY_SAVE = "repositorySave";
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Runs a stage and records its duration.
+     *
+     * @param timer The name of the timer.
+     * @param stage The stage to run.
+     * @param <T>   The type of the result of the stage.
+     * @return The result of the stage.
+     */
+    public <T> T time(String timer, Supplier<T> stage) {
+        long start = System.nanoTime();
+        try {
+            return stage.get();
+        } finally {
+            record(timer, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the duration of a stage.
+     *
+     * @param timer The name of the timer.
+     * @param nanos The duration (in nanoseconds).
+     */
+    public void record(String timer, long nanos) {
+        this.timers.computeIfAbsent(timer, name -> new Timer()).record(nanos);
+    }
+
+    public void increment(String counter) {
+        increment(counter, 1);
+    }
+
+    public void increment(String counter, long delta) {
+        if (delta != 0) {
+            this.counters.computeIfAbsent(counter, name -> new LongAdder()).add(delta);
+        }
+    }
+
+    /**
+     * @param timer The name of the timer.
+     * @return The number of recorded durations of the timer.
+     */
+    public long getTimerCount(String timer) {
+        Timer t = this.timers.get(timer);
+        return t == null ? 0 : t.count.sum();
+    }
+
+    /**
+     * @param counter The name of the counter.
+     * @return The current value of the counter.
+     */
+    public long getCounter(String counter) {
+        LongAdder c = this.counters.get(counter);
+        return c == null ? 0 : c.sum();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        for (Map.Entry<String, Timer> entry : this.timers.entrySet()) {
+            String prefix = "ingest.timer." + entry.getKey();
+            long count = entry.getValue().count.sum();
+            double totalMillis = toMillis(entry.getValue().totalNanos.sum());
+            metrics.add(new Metric<>(prefix + ".count", count));
+            metrics.add(new Metric<>(prefix + ".totalMillis", totalMillis));
+            metrics.add(new Metric<>(prefix + ".meanMillis", count == 0 ? 0 : totalMillis / count));
+            metrics.add(new Metric<>(prefix + ".maxMillis", toMillis(entry.getValue().maxNanos.get())));
+        }
+        for (Map.Entry<String, LongAdder> entry : this.counters.entrySet()) {
+            metrics.add(new Metric<>("ingest.counter." + entry.getKey(), entry.getValue().sum()));
+        }
+        return metrics;
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private void record(long nanos) {
+            this.count.increment();
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulate(nanos);
+        }
+    }
+}
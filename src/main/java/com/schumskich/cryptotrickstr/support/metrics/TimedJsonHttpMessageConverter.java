@@ -0,0 +1,34 @@
+package com.schumskich.cryptotrickstr.support.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * A JSON message converter that records the time spent on reading responses in the
+ * {@link IngestMetrics#DESERIALIZATION} timer. Responses are parsed while they are streamed, so the recorded time
+ * includes receiving the response body.
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    private final IngestMetrics metrics;
+
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper, IngestMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        long start = System.nanoTime();
+        try {
+            return super.read(type, contextClass, inputMessage);
+        } finally {
+            this.metrics.record(IngestMetrics.DESERIALIZATION, System.nanoTime() - start);
+        }
+    }
+}
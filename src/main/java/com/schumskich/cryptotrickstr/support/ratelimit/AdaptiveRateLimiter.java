@@ -0,0 +1,101 @@
+package com.schumskich.cryptotrickstr.support.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread safe token bucket rate limiter that adapts its rate to the throttling responses of the remote side.
+ * The rate starts at the maximum rate. Each throttling response multiplies the rate with a decrease factor (but not
+ * below the minimum rate), each successful request adds a constant step (but not above the maximum rate). This
+ * additive-increase/multiplicative-decrease scheme converges to the highest rate the remote side accepts.
+ */
+public class AdaptiveRateLimiter {
+    private final double minRate;
+    private final double maxRate;
+    private final double increaseStep;
+    private final double decreaseFactor;
+    private final double burst;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param minRate        The minimum number of requests per second.
+     * @param maxRate        The initial and maximum number of requests per second. A value <= 0 disables the limit.
+     * @param increaseStep   The number of requests per second the rate is increased by after a successful request.
+     * @param decreaseFactor The factor (between 0 and 1) the rate is multiplied with after a throttling response.
+     * @param burst          The maximum number of requests that can be started at once after an idle period.
+     */
+    public AdaptiveRateLimiter(double minRate, double maxRate, double increaseStep, double decreaseFactor,
+                               double burst) {
+        this.minRate = Math.min(minRate, maxRate);
+        this.maxRate = maxRate;
+        this.increaseStep = increaseStep;
+        this.decreaseFactor = decreaseFactor;
+        this.burst = Math.max(1, burst);
+        this.rate = maxRate;
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Blocks until the caller is allowed to start the next request. Callers reserve their token in the order they
+     * arrive, so waiting callers are served in FIFO order.
+     *
+     * @throws InterruptedException If the thread has been interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        if (this.maxRate <= 0) {
+            return;
+        }
+
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            this.tokens -= 1;
+            waitNanos = this.tokens >= 0 ? 0 : (long) (-this.tokens / this.rate * TimeUnit.SECONDS.toNanos(1));
+        }
+
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Increases the rate after a successful request.
+     */
+    public synchronized void onSuccess() {
+        if (this.maxRate <= 0) {
+            return;
+        }
+        refill();
+        this.rate = Math.min(this.maxRate, this.rate + this.increaseStep);
+    }
+
+    /**
+     * Decreases the rate after the remote side signalled that we sent too many requests. Saved up tokens are
+     * dropped, so that no burst of requests follows.
+     */
+    public synchronized void onThrottled() {
+        if (this.maxRate <= 0) {
+            return;
+        }
+        refill();
+        this.rate = Math.max(this.minRate, this.rate * this.decreaseFactor);
+        this.tokens = Math.min(this.tokens, 0);
+    }
+
+    /**
+     * @return The current number of requests per second.
+     */
+    public synchronized double getRate() {
+        return this.rate;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (double) (now - this.lastRefillNanos) / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = Math.min(this.burst, this.tokens + elapsedSeconds * this.rate);
+        this.lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,82 @@
+package com.schumskich.cryptotrickstr.support.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread safe circuit breaker. After a number of consecutive failures the circuit opens and all requests are
+ * rejected, so that a remote service which is down is not flooded with requests. After the open duration has
+ * passed, a single trial request is permitted (half open). The circuit closes again if the trial request succeeds
+ * and opens again otherwise.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+
+    /**
+     * @param failureThreshold   The number of consecutive failures that open the circuit.
+     * @param openDurationMillis The time (in milliseconds) the circuit stays open before a trial request is permitted.
+     */
+    public CircuitBreaker(int failureThreshold, long openDurationMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+    }
+
+    /**
+     * Checks whether a request may be sent. A caller that has been permitted to send a request must report the
+     * outcome using {@link #onSuccess()} or {@link #onFailure()}, or {@link #release()} the permission if the request
+     * has not been sent.
+     *
+     * @return <code>true</code> if the request may be sent. <code>false</code> otherwise.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        switch (this.state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - this.openedAtNanos >= this.openDurationNanos) {
+                    this.state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // The trial request is still running.
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        this.state = State.CLOSED;
+        this.consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        this.consecutiveFailures++;
+        if (this.state == State.HALF_OPEN || this.consecutiveFailures >= this.failureThreshold) {
+            this.state = State.OPEN;
+            this.openedAtNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Gives back a permission without a request having been sent. If it has been the permission for the trial request,
+     * the next caller is permitted to send it.
+     */
+    public synchronized void release() {
+        if (this.state == State.HALF_OPEN) {
+            // The open duration has already passed.
+            this.state = State.OPEN;
+        }
+    }
+
+    public synchronized State getState() {
+        return this.state;
+    }
+}
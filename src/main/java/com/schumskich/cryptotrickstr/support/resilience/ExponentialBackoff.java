@@ -0,0 +1,34 @@
+package com.schumskich.cryptotrickstr.support.resilience;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computes the delays between retries. The upper bound of the delay doubles with every attempt (up to a maximum) and
+ * the actual delay is chosen randomly between zero and this bound ("full jitter"), so that clients that failed at the
+ * same time do not retry at the same time.
+ */
+public class ExponentialBackoff {
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * @param initialDelayMillis The upper bound of the delay (in milliseconds) after the first attempt.
+     * @param maxDelayMillis     The maximum upper bound of the delay (in milliseconds).
+     */
+    public ExponentialBackoff(long initialDelayMillis, long maxDelayMillis) {
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * @param attempt The number of the failed attempt (starting with 1).
+     * @return The delay (in milliseconds) before the next attempt.
+     */
+    public long delayMillis(int attempt) {
+        long bound = this.initialDelayMillis << Math.min(attempt - 1, 30);
+        if (bound <= 0 || bound > this.maxDelayMillis) {
+            bound = this.maxDelayMillis;
+        }
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+}
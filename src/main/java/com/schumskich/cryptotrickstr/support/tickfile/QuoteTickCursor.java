@@ -0,0 +1,60 @@
+package com.schumskich.cryptotrickstr.support.tickfile;
+
+/**
+ * A view of the current row of a scan over a {@link QuoteTickStore}. The values are read directly from the mapped
+ * file, so the cursor is only valid within the callback of the scan and must not be kept.
+ */
+public final class QuoteTickCursor {
+    private final TickDictionary symbols;
+    private final TickDictionary exchanges;
+    private QuoteTickSegment segment;
+    private int row;
+
+    QuoteTickCursor(TickDictionary symbols, TickDictionary exchanges) {
+        this.symbols = symbols;
+        this.exchanges = exchanges;
+    }
+
+    void moveTo(QuoteTickSegment segment, int row) {
+        this.segment = segment;
+        this.row = row;
+    }
+
+    /**
+     * @return The time the quote has been recorded (in milliseconds since the epoch).
+     */
+    public long getTimestamp() {
+        return this.segment.getTimestamp(this.row);
+    }
+
+    public int getSymbolId() {
+        return this.segment.getSymbolId(this.row);
+    }
+
+    public String getSymbol() {
+        return this.symbols.decode(getSymbolId());
+    }
+
+    public int getExchangeId() {
+        return this.segment.getExchangeId(this.row);
+    }
+
+    public String getExchange() {
+        return this.exchanges.decode(getExchangeId());
+    }
+
+    public double getPrice() {
+        return this.segment.getPrice(this.row);
+    }
+
+    public double getVolume24H() {
+        return this.segment.getVolume24H(this.row);
+    }
+
+    /**
+     * @return The time the exchange last updated the quote (in milliseconds since the epoch).
+     */
+    public long getLastUpdated() {
+        return this.segment.getLastUpdated(this.row);
+    }
+}
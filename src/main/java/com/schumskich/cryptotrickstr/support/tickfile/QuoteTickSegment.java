@@ -0,0 +1,150 @@
+package com.schumskich.cryptotrickstr.support.tickfile;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A memory-mapped file with room for a fixed number of rows. Each column is stored as a contiguous array, so a scan
+ * over one column only touches the pages of that column.
+ * <pre>
+ * header:  magic (int), version (int), capacity (int), row count (int)
+ * columns: timestamp (long[capacity]), symbol ID (int[capacity]), exchange ID (int[capacity]),
+ *          price (double[capacity]), volume24H (double[capacity]), lastUpdated (long[capacity])
+ * </pre>
+ * The row count is written after the columns of a row, so readers never see incomplete rows.
+ */
+class QuoteTickSegment {
+    private static final int MAGIC = 0x5154434B;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int ROW_COUNT_OFFSET = 12;
+    private static final int ROW_BYTES = 8 + 4 + 4 + 8 + 8 + 8;
+
+    /**
+     * A single {@link MappedByteBuffer} can map at most 2 GB.
+     */
+    static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_BYTES) / ROW_BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int symbolOffset;
+    private final int exchangeOffset;
+    private final int priceOffset;
+    private final int volumeOffset;
+    private final int lastUpdatedOffset;
+
+    /**
+     * The number of complete rows. Written by the writer after the columns of a row, so that reading it makes the
+     * row visible to other threads.
+     */
+    private volatile int rowCount;
+
+    private QuoteTickSegment(MappedByteBuffer buffer, int capacity, int rowCount) {
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.symbolOffset = HEADER_BYTES + capacity * 8;
+        this.exchangeOffset = this.symbolOffset + capacity * 4;
+        this.priceOffset = this.exchangeOffset + capacity * 4;
+        this.volumeOffset = this.priceOffset + capacity * 8;
+        this.lastUpdatedOffset = this.volumeOffset + capacity * 8;
+        this.rowCount = rowCount;
+    }
+
+    static QuoteTickSegment create(Path file, int capacity) throws IOException {
+        MappedByteBuffer buffer = map(file, HEADER_BYTES + (long) capacity * ROW_BYTES);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, capacity);
+        buffer.putInt(ROW_COUNT_OFFSET, 0);
+        return new QuoteTickSegment(buffer, capacity, 0);
+    }
+
+    static QuoteTickSegment open(Path file) throws IOException {
+        MappedByteBuffer buffer = map(file, -1);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("'" + file + "' is not a quote tick segment.");
+        }
+        return new QuoteTickSegment(buffer, buffer.getInt(8), buffer.getInt(ROW_COUNT_OFFSET));
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel has been closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size < 0 ? channel.size() : size);
+        }
+    }
+
+    boolean isFull() {
+        return this.rowCount >= this.capacity;
+    }
+
+    int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Appends a row. Must only be called by the writer.
+     */
+    void append(long timestamp, int symbolId, int exchangeId, double price, double volume24H, long lastUpdated) {
+        int row = this.rowCount;
+        this.buffer.putLong(HEADER_BYTES + row * 8, timestamp);
+        this.buffer.putInt(this.symbolOffset + row * 4, symbolId);
+        this.buffer.putInt(this.exchangeOffset + row * 4, exchangeId);
+        this.buffer.putDouble(this.priceOffset + row * 8, price);
+        this.buffer.putDouble(this.volumeOffset + row * 8, volume24H);
+        this.buffer.putLong(this.lastUpdatedOffset + row * 8, lastUpdated);
+        this.buffer.putInt(ROW_COUNT_OFFSET, row + 1);
+        this.rowCount = row + 1;
+    }
+
+    void force() {
+        this.buffer.force();
+    }
+
+    /**
+     * @param timestamp A timestamp.
+     * @param rows      The number of rows to search.
+     * @return The first row with a timestamp not before the given one (<code>rows</code> if there is none).
+     */
+    int findFirstRow(long timestamp, int rows) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getTimestamp(middle) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    long getTimestamp(int row) {
+        return this.buffer.getLong(HEADER_BYTES + row * 8);
+    }
+
+    int getSymbolId(int row) {
+        return this.buffer.getInt(this.symbolOffset + row * 4);
+    }
+
+    int getExchangeId(int row) {
+        return this.buffer.getInt(this.exchangeOffset + row * 4);
+    }
+
+    double getPrice(int row) {
+        return this.buffer.getDouble(this.priceOffset + row * 8);
+    }
+
+    double getVolume24H(int row) {
+        return this.buffer.getDouble(this.volumeOffset + row * 8);
+    }
+
+    long getLastUpdated(int row) {
+        return this.buffer.getLong(this.lastUpdatedOffset + row * 8);
+    }
+}
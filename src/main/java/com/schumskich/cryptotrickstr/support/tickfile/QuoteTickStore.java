@@ -0,0 +1,188 @@
+package com.schumskich.cryptotrickstr.support.tickfile;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * An append-only store of exchange quotes in memory-mapped, columnar segment files. Symbols and exchanges are
+ * encoded as ints using dictionaries. Rows are ordered by their timestamp, so scans over a time range only read the
+ * matching rows. There can be one writer and any number of concurrent readers.
+ */
+public class QuoteTickStore implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "quotes-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final TickDictionary symbols;
+    private final TickDictionary exchanges;
+    private final List<QuoteTickSegment> segments = new CopyOnWriteArrayList<>();
+    private final List<Path> segmentFiles = new ArrayList<>();
+    private long lastTimestamp = Long.MIN_VALUE;
+    private long nextSegmentNumber;
+
+    /**
+     * Opens the store in the given directory or creates a new one.
+     *
+     * @param directory       The directory of the store.
+     * @param segmentCapacity The number of rows per segment file.
+     * @throws IOException If the store could not be opened.
+     */
+    public QuoteTickStore(Path directory, int segmentCapacity) throws IOException {
+        if (segmentCapacity < 1 || segmentCapacity > QuoteTickSegment.MAX_CAPACITY) {
+            throw new IllegalArgumentException("The segment capacity must be between 1 and "
+                    + QuoteTickSegment.MAX_CAPACITY + ".");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentCapacity = segmentCapacity;
+        this.symbols = new TickDictionary(directory.resolve("symbols.dict"));
+        this.exchanges = new TickDictionary(directory.resolve("exchanges.dict"));
+
+        List<Path> segmentFiles = new ArrayList<>();
+        String segmentPattern = SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, segmentPattern)) {
+            stream.forEach(segmentFiles::add);
+        }
+        // The segment numbers are zero padded, so the names sort chronologically
+        Collections.sort(segmentFiles);
+        for (Path file : segmentFiles) {
+            this.segments.add(QuoteTickSegment.open(file));
+            this.segmentFiles.add(file);
+        }
+        if (!segmentFiles.isEmpty()) {
+            // Purged segments leave gaps, so the number of segments cannot be used for the next name
+            String lastName = segmentFiles.get(segmentFiles.size() - 1).getFileName().toString();
+            this.nextSegmentNumber = Long.parseLong(lastName.substring(SEGMENT_PREFIX.length(),
+                    lastName.length() - SEGMENT_SUFFIX.length())) + 1;
+        }
+        QuoteTickSegment lastSegment = getLastSegment();
+        if (lastSegment != null && lastSegment.getRowCount() > 0) {
+            this.lastTimestamp = lastSegment.getTimestamp(lastSegment.getRowCount() - 1);
+        }
+    }
+
+    /**
+     * Appends a quote. Must only be called by a single thread at a time. A timestamp before the timestamp of the
+     * previous row (e.g. after the system clock has been set back) is replaced by the previous one, so that the rows
+     * stay ordered.
+     *
+     * @param timestamp   The time the quote has been recorded (in milliseconds since the epoch).
+     * @param symbol      The symbol of the cryptocurrency.
+     * @param exchange    The name of the exchange.
+     * @param price       The price.
+     * @param volume24H   The volume of the last 24 hours.
+     * @param lastUpdated The time the exchange last updated the quote (in milliseconds since the epoch).
+     * @throws IOException If a new segment or dictionary entry could not be written.
+     */
+    public synchronized void append(long timestamp, String symbol, String exchange, double price, double volume24H,
+                                    long lastUpdated) throws IOException {
+        QuoteTickSegment segment = getLastSegment();
+        if (segment == null || segment.isFull()) {
+            if (segment != null) {
+                segment.force();
+            }
+            String name = String.format("%s%08d%s", SEGMENT_PREFIX, this.nextSegmentNumber, SEGMENT_SUFFIX);
+            Path file = this.directory.resolve(name);
+            segment = QuoteTickSegment.create(file, this.segmentCapacity);
+            this.segments.add(segment);
+            this.segmentFiles.add(file);
+            this.nextSegmentNumber++;
+        }
+        this.lastTimestamp = Math.max(this.lastTimestamp, timestamp);
+        segment.append(this.lastTimestamp, this.symbols.encode(symbol), this.exchanges.encode(exchange), price,
+                volume24H, lastUpdated);
+    }
+
+    /**
+     * Sequentially visits all quotes recorded within a time range, in the order they have been appended. The
+     * values are not copied, the visitor reads them from the mapped files using the cursor.
+     *
+     * @param from    The start of the time range (inclusive, in milliseconds since the epoch).
+     * @param to      The end of the time range (exclusive, in milliseconds since the epoch).
+     * @param symbol  The symbol of the quotes to visit or <code>null</code> to visit the quotes of all symbols.
+     * @param visitor Called with the cursor positioned on each matching quote.
+     * @return The number of visited quotes.
+     */
+    public long scan(long from, long to, String symbol, Consumer<QuoteTickCursor> visitor) {
+        int symbolId = symbol == null ? -1 : this.symbols.find(symbol);
+        if (symbol != null && symbolId < 0) {
+            return 0;
+        }
+
+        QuoteTickCursor cursor = new QuoteTickCursor(this.symbols, this.exchanges);
+        long visited = 0;
+        for (QuoteTickSegment segment : this.segments) {
+            int rows = segment.getRowCount();
+            if (rows == 0 || segment.getTimestamp(rows - 1) < from) {
+                continue;
+            }
+            if (segment.getTimestamp(0) >= to) {
+                break;
+            }
+            for (int row = segment.findFirstRow(from, rows); row < rows && segment.getTimestamp(row) < to; row++) {
+                if (symbolId < 0 || segment.getSymbolId(row) == symbolId) {
+                    cursor.moveTo(segment, row);
+                    visitor.accept(cursor);
+                    visited++;
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Deletes the segment files that only contain quotes recorded before the given time. The segment that is
+     * currently written is always kept. Scans that are already running can still read the deleted segments, their
+     * mapping is released once they are garbage collected.
+     *
+     * @param before The time (in milliseconds since the epoch) before which quotes may be deleted.
+     * @return The number of deleted segment files.
+     * @throws IOException If a segment file could not be deleted.
+     */
+    public synchronized int purge(long before) throws IOException {
+        int purged = 0;
+        while (this.segments.size() > 1) {
+            QuoteTickSegment segment = this.segments.get(0);
+            int rows = segment.getRowCount();
+            if (rows > 0 && segment.getTimestamp(rows - 1) >= before) {
+                break;
+            }
+            // Removed before the file is deleted, so that new scans do not read it anymore
+            this.segments.remove(0);
+            Files.deleteIfExists(this.segmentFiles.remove(0));
+            purged++;
+        }
+        return purged;
+    }
+
+    /**
+     * @return The number of stored quotes.
+     */
+    public long size() {
+        long size = 0;
+        for (QuoteTickSegment segment : this.segments) {
+            size += segment.getRowCount();
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (QuoteTickSegment segment : this.segments) {
+            segment.force();
+        }
+        this.symbols.close();
+        this.exchanges.close();
+    }
+
+    private QuoteTickSegment getLastSegment() {
+        return this.segments.isEmpty() ? null : this.segments.get(this.segments.size() - 1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.schumskich.cryptotrickstr.support.tickfile;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Encodes names (e.g. symbols or exchanges) as ints. The names are stored in a text file, one name per line, so
+ * the line number of a name is its ID. New names are only ever appended, so IDs never change.
+ */
+class TickDictionary implements AutoCloseable {
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile List<String> names;
+    private final BufferedWriter writer;
+
+    TickDictionary(Path file) throws IOException {
+        List<String> storedNames = Files.exists(file)
+                ? Files.readAllLines(file, StandardCharsets.UTF_8) : new ArrayList<>();
+        for (String name : storedNames) {
+            this.ids.put(name, this.ids.size());
+        }
+        this.names = new ArrayList<>(storedNames);
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Returns the ID of a name and adds the name to the dictionary if necessary. Must only be called by the writer.
+     *
+     * @param name The name.
+     * @return The ID of the name.
+     * @throws IOException If a new name could not be written to the dictionary file.
+     */
+    int encode(String name) throws IOException {
+        Integer id = this.ids.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        // The name is persisted before any row refers to it
+        this.writer.write(name);
+        this.writer.newLine();
+        this.writer.flush();
+        // Readers may decode concurrently, so the list of names is replaced instead of modified
+        List<String> newNames = new ArrayList<>(this.names);
+        newNames.add(name);
+        this.names = newNames;
+        this.ids.put(name, newNames.size() - 1);
+        return newNames.size() - 1;
+    }
+
+    /**
+     * @param name The name.
+     * @return The ID of the name or <code>-1</code> if the dictionary does not contain the name.
+     */
+    int find(String name) {
+        return this.ids.getOrDefault(name, -1);
+    }
+
+    String decode(int id) {
+        return this.names.get(id);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+}
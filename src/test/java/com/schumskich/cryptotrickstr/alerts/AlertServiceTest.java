@@ -0,0 +1,166 @@
+package com.schumskich.cryptotrickstr.alerts;
+
+import com.schumskich.cryptotrickstr.app.alerts.AlertIndex;
+import com.schumskich.cryptotrickstr.app.alerts.AlertService;
+import com.schumskich.cryptotrickstr.app.alerts.FiredAlert;
+import com.schumskich.cryptotrickstr.app.alerts.persistence.AlertSubscriptionEntity;
+import com.schumskich.cryptotrickstr.app.alerts.persistence.AlertSubscriptionRepository;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinsChangedEvent;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.support.concurrent.DroppingExecutor;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AlertServiceTest {
+    private AlertSubscriptionRepository repository;
+    private IngestMetrics metrics;
+    private List<FiredAlert> sentAlerts;
+    private AlertService service;
+
+    @Before
+    public void setUp() {
+        // Set up mocks
+        AtomicLong ids = new AtomicLong();
+        this.repository = mock(AlertSubscriptionRepository.class);
+        when(this.repository.findAll()).thenReturn(Collections.emptyList());
+        when(this.repository.save(any(AlertSubscriptionEntity.class))).thenAnswer(invocation -> {
+            AlertSubscriptionEntity subscription = (AlertSubscriptionEntity) invocation.getArguments()[0];
+            subscription.setId(ids.incrementAndGet());
+            subscription.updateTimeStamps();
+            return subscription;
+        });
+        this.metrics = new IngestMetrics();
+        this.sentAlerts = new ArrayList<>();
+        this.service = new AlertService(this.repository, this.sentAlerts::addAll, this.metrics,
+                new DroppingExecutor(Runnable::run, this.metrics, "alerts.dropped"));
+        this.service.loadSubscriptions();
+    }
+
+    @Test
+    public void firesWhenPriceGapEntersRange() {
+        // Set up mocks
+        long eth = this.service.subscribe(createSubscription("ETH", 5.0, null, null, null)).getId();
+        long all = this.service.subscribe(createSubscription(null, null, null, 10.0, 100.0)).getId();
+        this.service.subscribe(createSubscription("BTC", 1.0, null, null, null));
+
+        // Run the code under test
+        List<String> fired = new ArrayList<>();
+        for (double[] gap : new double[][]{{5, 6}, {20, 7}, {20, 3}, {20, 6}, {200, 6}}) {
+            this.service.onCoinsChanged(new CoinsChangedEvent(Collections.singletonList(
+                    createCoin("ETH", gap[0], gap[1]))));
+            fired.add(this.sentAlerts.stream().map(alert -> String.valueOf(alert.getSubscriptionId()))
+                    .collect(Collectors.joining(",")));
+            this.sentAlerts.clear();
+        }
+
+        // Check test result: the alerts fire again only after leaving their range
+        assertThat(fired, is(equalTo(Arrays.asList(String.valueOf(eth), String.valueOf(all), "",
+                String.valueOf(eth), ""))));
+        assertThat(this.metrics.getCounter("alerts.fired"), is(equalTo(3L)));
+    }
+
+    @Test
+    public void firesNewSubscriptionsForCoinsWithinRange() {
+        // Set up mocks
+        this.service.onCoinsChanged(new CoinsChangedEvent(Collections.singletonList(createCoin("ETH", 5, 6))));
+        AlertSubscriptionEntity subscription = this.service.subscribe(createSubscription("ETH", 5.0, 10.0, null,
+                null));
+
+        // Run the code under test
+        this.service.onCoinsChanged(new CoinsChangedEvent(Collections.singletonList(createCoin("ETH", 5, 6))));
+        this.service.unsubscribe(subscription.getId());
+        this.service.onCoinsChanged(new CoinsChangedEvent(Collections.singletonList(createCoin("ETH", 5, 1))));
+        this.service.onCoinsChanged(new CoinsChangedEvent(Collections.singletonList(createCoin("ETH", 5, 6))));
+
+        // Check test result
+        assertThat(this.sentAlerts.stream().map(FiredAlert::getSubscriptionId).collect(Collectors.toList()),
+                contains(subscription.getId()));
+        assertThat(this.service.getSubscriptions(), is(empty()));
+        verify(this.repository).delete(subscription.getId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSubscriptionsWithoutRange() {
+        // Run the code under test
+        this.service.subscribe(createSubscription("ETH", null, null, null, null));
+    }
+
+    @Test
+    public void indexFindsTheSameAlertsAsAScan() {
+        // Set up mocks
+        Random random = new Random(42);
+        String[] symbols = {null, "BTC", "ETH", "LTC"};
+        List<AlertSubscriptionEntity> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Double minPercent = random.nextBoolean() ? (double) random.nextInt(20) : null;
+            Double maxPercent = random.nextBoolean() ? (double) 20 + random.nextInt(20) : null;
+            Double minGap = random.nextBoolean() ? (double) random.nextInt(50) : null;
+            Double maxGap = random.nextBoolean() || minPercent == null && maxPercent == null && minGap == null
+                    ? (double) 50 + random.nextInt(50) : null;
+            AlertSubscriptionEntity subscription = createSubscription(symbols[random.nextInt(symbols.length)],
+                    minPercent, maxPercent, minGap, maxGap);
+            subscription.setId(i);
+            subscriptions.add(subscription);
+        }
+
+        // Run the code under test
+        AlertIndex index = new AlertIndex(subscriptions);
+
+        // Check test result
+        for (int i = 0; i < 1000; i++) {
+            String symbol = symbols[1 + random.nextInt(symbols.length - 1)];
+            Double gap = random.nextInt(10) == 0 ? null : (double) random.nextInt(110);
+            Double percent = random.nextInt(10) == 0 ? null : (double) random.nextInt(45);
+            Set<Long> found = new HashSet<>();
+            index.findMatches(symbol, gap, percent, subscription -> assertThat(found.add(subscription.getId()),
+                    is(true)));
+            Set<Long> scanned = subscriptions.stream()
+                    .filter(subscription -> subscription.getSymbol() == null || subscription.getSymbol().equals(symbol))
+                    .filter(subscription -> subscription.matches(gap, percent))
+                    .map(AlertSubscriptionEntity::getId)
+                    .collect(Collectors.toSet());
+            assertThat(found, is(equalTo(scanned)));
+        }
+    }
+
+    private static AlertSubscriptionEntity createSubscription(String symbol, Double minPriceGapPercent,
+                                                              Double maxPriceGapPercent, Double minPriceGap,
+                                                              Double maxPriceGap) {
+        AlertSubscriptionEntity subscription = new AlertSubscriptionEntity();
+        subscription.setSymbol(symbol);
+        subscription.setMinPriceGapPercent(minPriceGapPercent);
+        subscription.setMaxPriceGapPercent(maxPriceGapPercent);
+        subscription.setMinPriceGap(minPriceGap);
+        subscription.setMaxPriceGap(maxPriceGap);
+        return subscription;
+    }
+
+    private static CoinEntity createCoin(String symbol, double priceGap, double priceGapPercent) {
+        CoinEntity coin = new CoinEntity();
+        coin.setSymbol(symbol);
+        coin.setPriceGap(priceGap);
+        coin.setPriceGapPercent(priceGapPercent);
+        return coin;
+    }
+}
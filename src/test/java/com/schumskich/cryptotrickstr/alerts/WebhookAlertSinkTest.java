@@ -0,0 +1,83 @@
+package com.schumskich.cryptotrickstr.alerts;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.schumskich.cryptotrickstr.app.alerts.FiredAlert;
+import com.schumskich.cryptotrickstr.app.alerts.sinks.WebhookAlertSink;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Sends alerts to a local stub server.
+ */
+public class WebhookAlertSinkTest {
+    private HttpServer server;
+    private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger status = new AtomicInteger(204);
+
+    private WebhookAlertSink sink;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " "
+                    + exchange.getRequestHeaders().getFirst("Content-Type") + " "
+                    + StreamUtils.copyToString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        sink = new WebhookAlertSink("http://localhost:" + server.getAddress().getPort() + "/hooks/alerts", 1000,
+                1000, new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void postsAlertsAsJson() {
+        // Run the code under test
+        sink.send(Collections.singletonList(new FiredAlert(7, "ETH", 20.0, 6.5, "Kraken", "Bitfinex", 0)));
+
+        // Check test result
+        assertThat(requests.size(), is(equalTo(1)));
+        assertThat(requests.poll(), startsWith("POST /hooks/alerts application/json;charset=UTF-8 "
+                + "[{\"subscriptionId\":7,\"symbol\":\"ETH\",\"priceGap\":20.0,\"priceGapPercent\":6.5,"
+                + "\"minPriceExchange\":\"Kraken\",\"maxPriceExchange\":\"Bitfinex\","
+                + "\"timestamp\":\"1970-01-01T00:00:00.000"));
+    }
+
+    @Test(expected = HttpServerErrorException.class)
+    public void failsOnErrorResponses() {
+        // Set up stub
+        status.set(503);
+
+        // Run the code under test
+        try {
+            sink.send(Collections.singletonList(new FiredAlert(7, "ETH", 20.0, 6.5, "Kraken", "Bitfinex", 0)));
+        } finally {
+            // Check test result
+            assertThat(requests.poll(), startsWith("POST /hooks/alerts"));
+        }
+    }
+}
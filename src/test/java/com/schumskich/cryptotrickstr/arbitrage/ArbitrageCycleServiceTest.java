@@ -0,0 +1,107 @@
+package com.schumskich.cryptotrickstr.arbitrage;
+
+import com.schumskich.cryptotrickstr.app.arbitrage.ArbitrageCycle;
+import com.schumskich.cryptotrickstr.app.arbitrage.ArbitrageCycleService;
+import com.schumskich.cryptotrickstr.config.ArbitrageConfig;
+import com.schumskich.cryptotrickstr.config.CryptoCompareConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class ArbitrageCycleServiceTest {
+    private static final long NOW = 1_520_000_000_000L;
+
+    private ArbitrageCycleService service;
+
+    @Before
+    public void setUp() {
+        ArbitrageConfig config = new ArbitrageConfig();
+        config.getCycles().setQuoteCurrencies(Arrays.asList("USD", "BTC"));
+        config.getCycles().setIngestCurrency("USD");
+        config.getCycles().setMaxQuoteAge(60000L);
+        config.getCycles().setTradeFeePercent(0.2);
+        config.getCycles().setTransferFeePercent(0.5);
+        config.getCycles().setMinProfitPercent(0.1);
+        config.getCycles().setMaxCycles(10);
+        CryptoCompareConfig cryptoCompareConfig = new CryptoCompareConfig();
+        cryptoCompareConfig.setExchangeWhitelist(Arrays.asList("Kraken", "Bitfinex"));
+        service = new ArbitrageCycleService(config, cryptoCompareConfig, null, null);
+    }
+
+    @Test
+    public void findsTriangularCycleOnOneExchange() {
+        // Set up quotes (ETH is cheaper in USD than in BTC)
+        service.updateQuote("Kraken", "BTC", "USD", 10000, NOW, NOW);
+        service.updateQuote("Kraken", "ETH", "USD", 500, NOW, NOW);
+        service.updateQuote("Kraken", "ETH", "BTC", 0.06, NOW, NOW);
+
+        // Run the code under test
+        service.detectCycles();
+
+        // Check test result
+        assertThat(service.getCycles().size(), is(equalTo(1)));
+        ArbitrageCycle cycle = service.getCycles().get(0);
+        assertThat(cycle.getProfitPercent(), is(closeTo((1.2 * Math.pow(0.998, 3) - 1) * 100, 1e-9)));
+        assertThat(toPath(cycle), is(equalTo(rotateTo(toPath(cycle).get(0),
+                "Kraken:USD>Kraken:ETH", "Kraken:ETH>Kraken:BTC", "Kraken:BTC>Kraken:USD"))));
+    }
+
+    @Test
+    public void findsCycleOverTwoExchangesUntilPricesConverge() {
+        // Set up quotes
+        service.updateQuote("Kraken", "ETH", "USD", 500, NOW, NOW);
+        service.updateQuote("Bitfinex", "ETH", "USD", 520, NOW, NOW);
+
+        // Run the code under test
+        service.detectCycles();
+
+        // Check test result
+        assertThat(service.getCycles().size(), is(equalTo(1)));
+        ArbitrageCycle cycle = service.getCycles().get(0);
+        assertThat(cycle.getProfitPercent(),
+                is(closeTo((1.04 * Math.pow(0.998, 2) * Math.pow(0.995, 2) - 1) * 100, 1e-9)));
+        assertThat(toPath(cycle), is(equalTo(rotateTo(toPath(cycle).get(0), "Kraken:USD>Kraken:ETH",
+                "Kraken:ETH>Bitfinex:ETH", "Bitfinex:ETH>Bitfinex:USD", "Bitfinex:USD>Kraken:USD"))));
+
+        // Run the code under test
+        service.updateQuote("Bitfinex", "ETH", "USD", 502, NOW + 1000, NOW + 1000);
+        service.detectCycles();
+
+        // Check test result
+        assertThat(service.getCycles().size(), is(equalTo(0)));
+
+        // Run the code under test (the only remaining Kraken quote becomes outdated)
+        service.updateQuote("Kraken", "ETH", "USD", 400, NOW, NOW);
+        service.removeOutdatedQuotes(NOW + 60000);
+        service.detectCycles();
+
+        // Check test result
+        assertThat(service.getCycles().size(), is(equalTo(0)));
+    }
+
+    private static List<String> toPath(ArbitrageCycle cycle) {
+        return cycle.getSteps().stream()
+                .map(step -> step.getFromExchange() + ":" + step.getFromCurrency() + ">" + step.getToExchange() + ":"
+                        + step.getToCurrency())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return The steps of a cycle, rotated so that they start with the given step.
+     */
+    private static List<String> rotateTo(String first, String... steps) {
+        List<String> rotated = new ArrayList<>(Arrays.asList(steps));
+        Collections.rotate(rotated, -Math.max(0, rotated.indexOf(first)));
+        return rotated;
+    }
+}
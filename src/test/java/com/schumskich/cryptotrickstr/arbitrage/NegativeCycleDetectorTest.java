@@ -0,0 +1,136 @@
+package com.schumskich.cryptotrickstr.arbitrage;
+
+import com.schumskich.cryptotrickstr.app.arbitrage.engine.NegativeCycleDetector;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class NegativeCycleDetectorTest {
+
+    @Test
+    public void findsTriangularCycleUntilItIsGone() {
+        // Set up graph (the rates multiply to 1.2 along the cycle)
+        NegativeCycleDetector detector = new NegativeCycleDetector();
+        int a = detector.addNode();
+        int b = detector.addNode();
+        int c = detector.addNode();
+        int ab = detector.addEdge(a, b);
+        int bc = detector.addEdge(b, c);
+        int ca = detector.addEdge(c, a);
+        detector.setWeight(ab, -Math.log(2));
+        detector.setWeight(bc, -Math.log(3));
+        detector.setWeight(ca, -Math.log(0.2));
+
+        // Run the code under test
+        List<int[]> cycles = detector.findCycles();
+
+        // Check test result
+        assertThat(cycles.size(), is(equalTo(1)));
+        assertValidCycle(detector, cycles.get(0));
+        assertThat(cycles.get(0).length, is(equalTo(3)));
+
+        // Run the code under test
+        detector.setWeight(ca, -Math.log(0.1));
+        cycles = detector.findCycles();
+
+        // Check test result
+        assertThat(cycles.size(), is(equalTo(0)));
+        assertThat(detector.excludedEdgeCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void matchesBellmanFord() {
+        Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            // Set up graph
+            NegativeCycleDetector detector = new NegativeCycleDetector();
+            int nodes = 2 + random.nextInt(15);
+            for (int i = 0; i < nodes; i++) {
+                detector.addNode();
+            }
+            int edges = nodes * (1 + random.nextInt(3));
+            for (int i = 0; i < edges; i++) {
+                detector.addEdge(random.nextInt(nodes), random.nextInt(nodes));
+            }
+
+            for (int update = 0; update < 200; update++) {
+                // Run the code under test
+                double weight = random.nextInt(10) == 0 ? Double.POSITIVE_INFINITY : random.nextDouble() * 2 - 0.3;
+                detector.setWeight(random.nextInt(edges), weight);
+                List<int[]> cycles = detector.findCycles();
+
+                // Check test result
+                assertThat(!cycles.isEmpty(), is(equalTo(hasNegativeCycle(detector))));
+                for (int[] cycle : cycles) {
+                    assertValidCycle(detector, cycle);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void updateCostDoesNotDependOnGraphSize() {
+        // Set up graph (a grid of 10000 nodes without negative cycles)
+        int size = 100;
+        NegativeCycleDetector detector = new NegativeCycleDetector();
+        for (int i = 0; i < size * size; i++) {
+            detector.addNode();
+        }
+        int[] rightEdges = new int[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                int node = row * size + column;
+                if (column + 1 < size) {
+                    rightEdges[node] = detector.addEdge(node, node + 1);
+                    detector.setWeight(rightEdges[node], 1);
+                    detector.setWeight(detector.addEdge(node + 1, node), 1);
+                }
+                if (row + 1 < size) {
+                    detector.setWeight(detector.addEdge(node, node + size), 1);
+                    detector.setWeight(detector.addEdge(node + size, node), 1);
+                }
+            }
+        }
+        long settledBefore = detector.getSettledNodes();
+
+        // Run the code under test
+        detector.setWeight(rightEdges[size * size / 2], 0.5);
+
+        // Check test result
+        assertThat(detector.findCycles().size(), is(equalTo(0)));
+        assertThat(detector.getSettledNodes() - settledBefore, is(lessThan(10L)));
+    }
+
+    private static void assertValidCycle(NegativeCycleDetector detector, int[] cycle) {
+        double weight = 0;
+        for (int i = 0; i < cycle.length; i++) {
+            int next = cycle[(i + 1) % cycle.length];
+            assertThat(Arrays.toString(cycle), detector.getTo(cycle[i]), is(equalTo(detector.getFrom(next))));
+            weight += detector.getWeight(cycle[i]);
+        }
+        assertThat(weight, is(lessThan(0d)));
+    }
+
+    private static boolean hasNegativeCycle(NegativeCycleDetector detector) {
+        double[] distances = new double[detector.nodeCount()];
+        for (int round = 0; round < detector.nodeCount(); round++) {
+            for (int edge = 0; edge < detector.edgeCount(); edge++) {
+                distances[detector.getTo(edge)] = Math.min(distances[detector.getTo(edge)],
+                        distances[detector.getFrom(edge)] + detector.getWeight(edge));
+            }
+        }
+        for (int edge = 0; edge < detector.edgeCount(); edge++) {
+            if (distances[detector.getFrom(edge)] + detector.getWeight(edge) < distances[detector.getTo(edge)] - 1e-9) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,93 @@
+package com.schumskich.cryptotrickstr.arbitrage;
+
+import com.schumskich.cryptotrickstr.app.arbitrage.engine.ArbitrageRoutes;
+import com.schumskich.cryptotrickstr.app.arbitrage.engine.SpreadMatrixEngine;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeFilter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class SpreadMatrixEngineTest {
+
+    @Test
+    public void findsBestRoutesOrderedBySpread() {
+        // Set up quotes
+        ExchangeQuotes quotes = createQuotes(105, 100, 120, 101, 118);
+
+        // Run the code under test
+        ArbitrageRoutes routes = new ArbitrageRoutes(3);
+        new SpreadMatrixEngine().computeRoutes(quotes, routes);
+
+        // Check test result
+        assertThat(routes.size(), is(equalTo(3)));
+        assertRoute(quotes, routes, 0, "Exchange1", "Exchange2", 20.0);
+        assertRoute(quotes, routes, 1, "Exchange3", "Exchange2", 19.0);
+        assertRoute(quotes, routes, 2, "Exchange1", "Exchange4", 18.0);
+    }
+
+    @Test
+    public void findsNoRoutesWithoutPriceDifference() {
+        // Run the code under test
+        ArbitrageRoutes routes = new ArbitrageRoutes(3);
+        new SpreadMatrixEngine().computeRoutes(createQuotes(100, 100), routes);
+
+        // Check test result
+        assertThat(routes.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void matchesFullPairwiseComparison() {
+        Random random = new Random(42);
+        SpreadMatrixEngine engine = new SpreadMatrixEngine();
+        ArbitrageRoutes routes = new ArbitrageRoutes(4);
+        for (int run = 0; run < 100; run++) {
+            // Set up quotes
+            double[] prices = new double[1 + random.nextInt(30)];
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] = 100 + random.nextInt(50);
+            }
+            ExchangeQuotes quotes = createQuotes(prices);
+
+            // Run the code under test
+            engine.computeRoutes(quotes, routes);
+
+            // Check test result
+            List<Double> expectedSpreads = new ArrayList<>();
+            for (double buy : prices) {
+                for (double sell : prices) {
+                    if (sell > buy) {
+                        expectedSpreads.add(sell - buy);
+                    }
+                }
+            }
+            expectedSpreads.sort(Collections.reverseOrder());
+            assertThat(routes.size(), is(equalTo(Math.min(4, expectedSpreads.size()))));
+            for (int rank = 0; rank < routes.size(); rank++) {
+                assertThat(routes.getSpread(rank), is(equalTo(expectedSpreads.get(rank))));
+            }
+        }
+    }
+
+    private static void assertRoute(ExchangeQuotes quotes, ArbitrageRoutes routes, int rank,
+                                    String buyExchange, String sellExchange, double spread) {
+        assertThat(quotes.getExchangeName(routes.getBuyQuote(rank)), is(equalTo(buyExchange)));
+        assertThat(quotes.getExchangeName(routes.getSellQuote(rank)), is(equalTo(sellExchange)));
+        assertThat(routes.getSpread(rank), is(equalTo(spread)));
+    }
+
+    private static ExchangeQuotes createQuotes(double... prices) {
+        ExchangeQuotes quotes = new ExchangeQuotes(ExchangeFilter.acceptAll());
+        for (int i = 0; i < prices.length; i++) {
+            quotes.offer("Exchange" + i, prices[i], 1000, System.currentTimeMillis());
+        }
+        return quotes;
+    }
+}
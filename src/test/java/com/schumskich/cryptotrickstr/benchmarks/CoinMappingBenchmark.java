@@ -0,0 +1,101 @@
+package com.schumskich.cryptotrickstr.benchmarks;
+
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinSnapshotMapper;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinSnapshotMapperImpl;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.CoinSnapshotResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the build time generated {@link CoinSnapshotMapper} with the former Orika based mapping: the latency of
+ * mapping a coin snapshot onto an entity and the cost of creating a mapper and mapping the first snapshot (which
+ * includes generating the mapping classes in case of Orika).
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CoinMappingBenchmark {
+    private CoinSnapshotResponse.CoinInfo coinInfo;
+    private CoinSnapshotResponse.AggregatedData aggregatedData;
+    private CoinSnapshotMapper mapStructMapper;
+    private OrikaCoinSnapshotMapper orikaMapper;
+
+    @Setup
+    public void setUp() {
+        coinInfo = new CoinSnapshotResponse.CoinInfo();
+        coinInfo.setName("BTC");
+        coinInfo.setFullName("Bitcoin (BTC)");
+        coinInfo.setTotalCoinsMined(16_900_000L);
+        coinInfo.setTotalVolume24H(350_000d);
+
+        aggregatedData = new CoinSnapshotResponse.AggregatedData();
+        aggregatedData.setPrice(8_100.5);
+        aggregatedData.setLastUpdated(System.currentTimeMillis());
+        aggregatedData.setOpenDay(8_000.2);
+        aggregatedData.setHighDay(8_300.8);
+        aggregatedData.setLowDay(null); // Must not overwrite the value of the entity
+
+        mapStructMapper = new CoinSnapshotMapperImpl();
+        orikaMapper = new OrikaCoinSnapshotMapper();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public CoinEntity mapStructMapping() {
+        CoinEntity entity = new CoinEntity();
+        mapStructMapper.updateEntity(coinInfo, entity);
+        mapStructMapper.updateEntity(aggregatedData, entity);
+        return entity;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public CoinEntity orikaMapping() {
+        CoinEntity entity = new CoinEntity();
+        orikaMapper.map(coinInfo, entity);
+        orikaMapper.map(aggregatedData, entity);
+        return entity;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(10)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public CoinEntity mapStructStartup() {
+        CoinSnapshotMapper mapper = new CoinSnapshotMapperImpl();
+        CoinEntity entity = new CoinEntity();
+        mapper.updateEntity(coinInfo, entity);
+        mapper.updateEntity(aggregatedData, entity);
+        return entity;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(10)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public CoinEntity orikaStartup() {
+        OrikaCoinSnapshotMapper mapper = new OrikaCoinSnapshotMapper();
+        CoinEntity entity = new CoinEntity();
+        mapper.map(coinInfo, entity);
+        mapper.map(aggregatedData, entity);
+        return entity;
+    }
+}
@@ -0,0 +1,138 @@
+package com.schumskich.cryptotrickstr.benchmarks;
+
+import com.schumskich.cryptotrickstr.CryptoTrickstrTraderApplication;
+import com.schumskich.cryptotrickstr.app.coins.index.PriceGapIndex;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinBatchWriter;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving coins and the price gap range queries against an in-memory H2 database. The range queries are
+ * also run against the {@link PriceGapIndex} that serves them in the app.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CoinRepositoryBenchmark {
+    private static final int COIN_COUNT = 1000;
+    private static final int BATCH_SIZE = 50;
+
+    private final Random random = new Random(42);
+
+    private ConfigurableApplicationContext context;
+    private CoinRepository coinRepository;
+    private CoinBatchWriter coinBatchWriter;
+    private PriceGapIndex priceGapIndex;
+    private List<String> batchSymbols;
+
+    @Setup
+    public void setUp() {
+        // Passed as arguments, as they have to override application.yml
+        context = new SpringApplicationBuilder(CryptoTrickstrTraderApplication.class)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--server.port=0",
+                        "--history.quoteFile.enabled=false",
+                        "--logging.level.root=WARN");
+        coinRepository = context.getBean(CoinRepository.class);
+        coinBatchWriter = context.getBean(CoinBatchWriter.class);
+        priceGapIndex = context.getBean(PriceGapIndex.class);
+
+        List<CoinEntity> coins = new ArrayList<>();
+        for (int i = 0; i < COIN_COUNT; i++) {
+            CoinEntity coin = new CoinEntity();
+            coin.setSymbol("C" + i);
+            coin.setFullName("Coin " + i);
+            setPrices(coin);
+            coins.add(coin);
+        }
+        coinRepository.save(coins);
+        priceGapIndex.rebuild(coinRepository.findAll());
+
+        batchSymbols = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batchSymbols.add("C" + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CoinEntity> upsertBatch() {
+        return coinBatchWriter.upsert(batchSymbols, (symbol, coin) -> {
+            setPrices(coin);
+            return true;
+        });
+    }
+
+    /**
+     * Stores the same batch like the ingest pipeline did before the {@link CoinBatchWriter}: one query and one save
+     * per coin.
+     */
+    @Benchmark
+    public int saveOneByOne() {
+        for (String symbol : batchSymbols) {
+            CoinEntity coin = coinRepository.findOneBySymbol(symbol);
+            setPrices(coin);
+            coinRepository.save(coin);
+        }
+        return batchSymbols.size();
+    }
+
+    @Benchmark
+    public List<CoinEntity> repositoryFindByPriceGapBetween() {
+        return coinRepository.findByPriceGapBetween(100d, 200d);
+    }
+
+    @Benchmark
+    public List<CoinEntity> repositoryFindByPriceGapPercentBetween() {
+        return coinRepository.findByPriceGapPercentBetween(1d, 2d);
+    }
+
+    @Benchmark
+    public List<CoinEntity> indexFindByPriceGapBetween() {
+        return priceGapIndex.findByPriceGapBetween(100d, 200d);
+    }
+
+    @Benchmark
+    public List<CoinEntity> indexFindByPriceGapPercentBetween() {
+        return priceGapIndex.findByPriceGapPercentBetween(1d, 2d);
+    }
+
+    private void setPrices(CoinEntity coin) {
+        double minPrice = 1000 + random.nextDouble() * 9000;
+        double maxPrice = minPrice + random.nextDouble() * 1000;
+        coin.setMinPrice(minPrice);
+        coin.setMinPriceExchange("Kraken");
+        coin.setMinPriceUpdated(System.currentTimeMillis());
+        coin.setMaxPrice(maxPrice);
+        coin.setMaxPriceExchange("Bitfinex");
+        coin.setMaxPriceUpdated(System.currentTimeMillis());
+        coin.setPriceGap(maxPrice - minPrice);
+        coin.setPriceGapPercent(coin.getPriceGap() / minPrice * 100);
+    }
+}
@@ -0,0 +1,76 @@
+package com.schumskich.cryptotrickstr.benchmarks;
+
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeFilter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures filtering the quotes of all exchanges of a coin (whitelist and staleness) and selecting the minimum and
+ * maximum price, independent of JSON parsing.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExchangeQuotesBenchmark {
+    @Param({"14", "100"})
+    private int exchangeCount;
+
+    private String[] exchangeNames;
+    private double[] prices;
+    private double[] volumes;
+    private long[] lastUpdated;
+    private ExchangeFilter whitelistFilter;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        exchangeNames = new String[exchangeCount];
+        prices = new double[exchangeCount];
+        volumes = new double[exchangeCount];
+        lastUpdated = new long[exchangeCount];
+        for (int i = 0; i < exchangeCount; i++) {
+            boolean whitelisted = i < Fixtures.EXCHANGE_WHITELIST.size();
+            exchangeNames[i] = whitelisted ? Fixtures.EXCHANGE_WHITELIST.get(i) : "Exchange" + i;
+            prices[i] = 8000 + random.nextDouble() * 500;
+            volumes[i] = random.nextDouble() * 10000;
+            // Every tenth quote is stale
+            lastUpdated[i] = now - (i % 10 == 0 ? TimeUnit.DAYS.toMillis(1) : random.nextInt(3600000));
+        }
+        whitelistFilter = new ExchangeFilter(Fixtures.EXCHANGE_WHITELIST, TimeUnit.HOURS.toMillis(12));
+    }
+
+    @Benchmark
+    public double filterAndSelectMinMax() {
+        return offerAll(whitelistFilter);
+    }
+
+    @Benchmark
+    public double selectMinMaxWithoutFilter() {
+        return offerAll(ExchangeFilter.acceptAll());
+    }
+
+    private double offerAll(ExchangeFilter filter) {
+        ExchangeQuotes quotes = new ExchangeQuotes(filter);
+        for (int i = 0; i < exchangeCount; i++) {
+            quotes.offer(exchangeNames[i], prices[i], volumes[i], lastUpdated[i]);
+        }
+        return quotes.getMaxPrice() - quotes.getMinPrice();
+    }
+}
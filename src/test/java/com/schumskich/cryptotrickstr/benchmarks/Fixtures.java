@@ -0,0 +1,18 @@
+package com.schumskich.cryptotrickstr.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Data shared by the benchmarks.
+ */
+final class Fixtures {
+    /**
+     * The exchange whitelist of <code>application.yml</code>.
+     */
+    static final List<String> EXCHANGE_WHITELIST = Arrays.asList("Bitfinex", "Coinbase", "Bitstamp", "Kraken",
+            "Gemini", "HitBTC", "BitTrex", "itBit", "TrustDEX", "Poloniex", "Yobit", "BitBay", "WavesDEX", "Kucoin");
+
+    private Fixtures() {
+    }
+}
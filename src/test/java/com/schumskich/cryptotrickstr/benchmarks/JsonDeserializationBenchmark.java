@@ -0,0 +1,95 @@
+package com.schumskich.cryptotrickstr.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.CoinSnapshotResponse;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeFilter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.UnixTimestampDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the deserialization of the CryptoCompare responses from the fixture payloads in
+ * <code>src/test/resources/fixtures</code> (a coin snapshot with 100 exchanges and the top 100 coins).
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonDeserializationBenchmark {
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final UnixTimestampDeserializer timestampDeserializer = new UnixTimestampDeserializer();
+
+    private byte[] coinSnapshotJson;
+    private byte[] topCoinsJson;
+    private byte[] timestampJson;
+    private ObjectReader whitelistSnapshotReader;
+    private ObjectReader acceptAllSnapshotReader;
+    private ObjectReader topCoinsReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        coinSnapshotJson = readFixture("coin-snapshot-btc.json");
+        topCoinsJson = readFixture("top-coins.json");
+        timestampJson = "1518000000".getBytes(StandardCharsets.UTF_8);
+
+        // Configured like the object mapper of the app's RestTemplate (e.g. ignores unknown properties)
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        // The fixtures have been recorded at a fixed time, so their quotes must never be considered stale
+        whitelistSnapshotReader = objectMapper.readerFor(CoinSnapshotResponse.class)
+                .withAttribute(ExchangeFilter.class, new ExchangeFilter(Fixtures.EXCHANGE_WHITELIST, Long.MAX_VALUE));
+        acceptAllSnapshotReader = objectMapper.readerFor(CoinSnapshotResponse.class)
+                .withAttribute(ExchangeFilter.class, ExchangeFilter.acceptAll());
+        topCoinsReader = objectMapper.readerFor(TopCoinsResponse.class);
+    }
+
+    @Benchmark
+    public CoinSnapshotResponse coinSnapshotWithWhitelist() throws IOException {
+        return whitelistSnapshotReader.readValue(coinSnapshotJson);
+    }
+
+    @Benchmark
+    public CoinSnapshotResponse coinSnapshotWithoutWhitelist() throws IOException {
+        return acceptAllSnapshotReader.readValue(coinSnapshotJson);
+    }
+
+    @Benchmark
+    public TopCoinsResponse topCoins() throws IOException {
+        return topCoinsReader.readValue(topCoinsJson);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Long unixTimestamp() throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(timestampJson)) {
+            parser.nextToken();
+            return timestampDeserializer.deserialize(parser, null);
+        }
+    }
+
+    private static byte[] readFixture(String name) throws IOException {
+        try (InputStream in = JsonDeserializationBenchmark.class.getResourceAsStream("/fixtures/" + name)) {
+            return StreamUtils.copyToByteArray(in);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.schumskich.cryptotrickstr.benchmarks;
+
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.CoinSnapshotResponse;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.ConfigurableMapper;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+
+/**
+ * The Orika based mapping that was used before the build time generated
+ * {@link com.schumskich.cryptotrickstr.app.coins.ingest.CoinSnapshotMapper}. It is only kept as a baseline for
+ * benchmarks.
+ */
+public class OrikaCoinSnapshotMapper extends ConfigurableMapper {
+
+    @Override
+    protected void configure(final MapperFactory factory) {
+        factory.classMap(CoinSnapshotResponse.CoinInfo.class, CoinEntity.class)
+                .field("name", "symbol")
+                .byDefault()
+                .register();
+
+        factory.classMap(CoinSnapshotResponse.AggregatedData.class, CoinEntity.class)
+                .field("price", "aggregatedPrice")
+                .field("openDay", "aggregatedDayPriceOpen")
+                .field("highDay", "aggregatedDayPriceHigh")
+                .field("lowDay", "aggregatedDayPriceLow")
+                .byDefault()
+                .register();
+    }
+
+    @Override
+    protected void configureFactoryBuilder(final DefaultMapperFactory.Builder factoryBuilder) {
+        factoryBuilder.mapNulls(false);
+    }
+}
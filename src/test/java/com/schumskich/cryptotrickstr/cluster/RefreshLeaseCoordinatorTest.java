@@ -0,0 +1,185 @@
+package com.schumskich.cryptotrickstr.cluster;
+
+import com.schumskich.cryptotrickstr.app.cluster.PartitionedCoinSelector;
+import com.schumskich.cryptotrickstr.app.cluster.RefreshLeaseCoordinator;
+import com.schumskich.cryptotrickstr.app.cluster.persistence.ClusterNodeRepository;
+import com.schumskich.cryptotrickstr.app.cluster.persistence.RefreshLeaseEntity;
+import com.schumskich.cryptotrickstr.app.cluster.persistence.RefreshLeaseRepository;
+import com.schumskich.cryptotrickstr.app.cluster.persistence.RefreshSymbolRepository;
+import com.schumskich.cryptotrickstr.app.coins.ingest.TopCoinsSelector;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Matchers;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Simulates several nodes sharing one database. Each repository call runs in its own transaction (like on separate
+ * nodes), so that the optimistic locking of the leases takes effect.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RefreshLeaseCoordinatorTest {
+    private static final long LEASE_DURATION = 1000;
+
+    @Autowired
+    private RefreshLeaseRepository leaseRepository;
+
+    @Autowired
+    private ClusterNodeRepository nodeRepository;
+
+    @Autowired
+    private RefreshSymbolRepository symbolRepository;
+
+    @Captor
+    private ArgumentCaptor<Consumer<TopCoinsResponse.CoinInfo>> topCoinsConsumer;
+
+    private RefreshLeaseCoordinator nodeA;
+    private RefreshLeaseCoordinator nodeB;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        this.nodeA = createNode("node-a");
+        this.nodeB = createNode("node-b");
+        this.nodeA.createLeases();
+        this.nodeB.createLeases();
+    }
+
+    @After
+    public void tearDown() {
+        this.leaseRepository.deleteAll();
+        this.nodeRepository.deleteAll();
+        this.symbolRepository.deleteAll();
+    }
+
+    @Test
+    public void rebalancesPartitionsWhenNodesJoin() {
+        // Run the code under test
+        this.nodeA.heartbeat(0);
+        this.nodeB.heartbeat(10);
+
+        // Check test result
+        assertThat(this.nodeA.getOwnedPartitions(10), is(equalTo(new HashSet<>(Arrays.asList(0, 1, 2, 3)))));
+        assertThat(this.nodeB.getOwnedPartitions(10).isEmpty(), is(true));
+
+        // Run the code under test
+        this.nodeA.heartbeat(20);
+        this.nodeB.heartbeat(30);
+
+        // Check test result
+        assertThat(this.nodeA.getOwnedPartitions(30), is(equalTo(new HashSet<>(Arrays.asList(0, 1)))));
+        assertThat(this.nodeB.getOwnedPartitions(30), is(equalTo(new HashSet<>(Arrays.asList(2, 3)))));
+    }
+
+    @Test
+    public void takesOverPartitionsOfDeadNodes() {
+        // Set up mocks
+        this.nodeA.heartbeat(0);
+        this.nodeB.heartbeat(10);
+        this.nodeA.heartbeat(20);
+        this.nodeB.heartbeat(30);
+
+        // Run the code under test
+        this.nodeA.heartbeat(30 + LEASE_DURATION / 2);
+
+        // Check test result
+        assertThat(this.nodeA.getOwnedPartitions(30 + LEASE_DURATION / 2).size(), is(equalTo(2)));
+
+        // Run the code under test
+        this.nodeA.heartbeat(30 + 2 * LEASE_DURATION);
+
+        // Check test result
+        assertThat(this.nodeA.getOwnedPartitions(30 + 2 * LEASE_DURATION).size(), is(equalTo(4)));
+        assertThat(this.nodeB.getOwnedPartitions(30 + 2 * LEASE_DURATION).isEmpty(), is(true));
+    }
+
+    @Test
+    public void rejectsChangesOfOutdatedLeases() {
+        // Set up mocks
+        RefreshLeaseEntity outdatedLease = this.leaseRepository.findOne(0);
+        this.nodeA.heartbeat(0);
+
+        // Run the code under test
+        outdatedLease.setOwner("node-c");
+        try {
+            this.leaseRepository.save(outdatedLease);
+            fail("Expected the outdated lease to be rejected.");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Expected
+        }
+
+        // Check test result
+        assertThat(this.leaseRepository.findOne(0).getOwner(), is(equalTo("node-a")));
+    }
+
+    @Test
+    public void refreshesEachCoinOnceAndFetchesTheTopCoinsOnce() {
+        // Set up mocks
+        long now = System.currentTimeMillis();
+        this.nodeA.heartbeat(now);
+        this.nodeB.heartbeat(now);
+        this.nodeA.heartbeat(now);
+        this.nodeB.heartbeat(now);
+        TopCoinsSelector topCoinsSelectorMock = mock(TopCoinsSelector.class);
+        when(topCoinsSelectorMock.selectCoins(topCoinsConsumer.capture())).thenAnswer(invocation -> {
+            IntStream.range(0, 40).mapToObj(i -> createCoinInfo("COIN" + i)).forEach(topCoinsConsumer.getValue());
+            return 1;
+        });
+
+        // Run the code under test
+        List<TopCoinsResponse.CoinInfo> coinsOfA =
+                new PartitionedCoinSelector(this.nodeA, topCoinsSelectorMock, this.symbolRepository).selectCoins();
+        List<TopCoinsResponse.CoinInfo> coinsOfB =
+                new PartitionedCoinSelector(this.nodeB, topCoinsSelectorMock, this.symbolRepository).selectCoins();
+
+        // Check test result
+        verify(topCoinsSelectorMock, times(1)).selectCoins(Matchers.<Consumer<TopCoinsResponse.CoinInfo>>any());
+        List<String> symbols = new ArrayList<>();
+        coinsOfA.forEach(coin -> symbols.add(coin.getName()));
+        coinsOfB.forEach(coin -> symbols.add(coin.getName()));
+        assertThat(symbols.size(), is(equalTo(40)));
+        assertThat(new HashSet<>(symbols).size(), is(equalTo(40)));
+        assertThat(coinsOfA.isEmpty() || coinsOfB.isEmpty(), is(false));
+        assertThat(coinsOfB.get(0).getFullName(), is(equalTo(coinsOfB.get(0).getName() + " Coin")));
+    }
+
+    private RefreshLeaseCoordinator createNode(String nodeId) {
+        return new RefreshLeaseCoordinator(nodeId, 4, LEASE_DURATION, LEASE_DURATION / 3, this.leaseRepository,
+                this.nodeRepository);
+    }
+
+    private static TopCoinsResponse.CoinInfo createCoinInfo(String symbol) {
+        TopCoinsResponse.CoinInfo coin = new TopCoinsResponse.CoinInfo();
+        coin.setName(symbol);
+        coin.setFullName(symbol + " Coin");
+        return coin;
+    }
+}
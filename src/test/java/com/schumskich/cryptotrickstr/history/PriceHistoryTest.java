@@ -0,0 +1,132 @@
+package com.schumskich.cryptotrickstr.history;
+
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.history.PriceHistory;
+import com.schumskich.cryptotrickstr.app.history.PriceHistoryService;
+import com.schumskich.cryptotrickstr.app.history.PriceHistoryWriter;
+import com.schumskich.cryptotrickstr.app.history.persistence.CandleResolution;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceCandleEntity;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceCandleRepository;
+import com.schumskich.cryptotrickstr.app.history.persistence.PriceTickRepository;
+import com.schumskich.cryptotrickstr.config.HistoryConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Import(PriceHistoryWriter.class)
+public class PriceHistoryTest {
+    private static final long START = TimeUnit.DAYS.toMillis(17532);
+
+    @Autowired
+    private PriceHistoryWriter historyWriter;
+
+    @Autowired
+    private PriceTickRepository tickRepository;
+
+    @Autowired
+    private PriceCandleRepository candleRepository;
+
+    private PriceHistoryService historyService;
+
+    @Before
+    public void setUp() {
+        HistoryConfig config = new HistoryConfig();
+        config.setMinCandlesPerQuery(48);
+        config.getRetention().setTicks(7);
+        config.getRetention().setMinuteCandles(7);
+        config.getRetention().setHourCandles(90);
+        config.getRetention().setDayCandles(1825);
+        this.historyService = new PriceHistoryService(config, this.tickRepository, this.candleRepository);
+    }
+
+    @Test
+    public void downsamplesTicksIntoCandlesOfAllResolutions() {
+        // Run the code under test
+        this.historyWriter.append(Arrays.asList(createCoin("BTC", 100, 1.0, START),
+                createCoin("ETH", 10, 2.0, START)));
+        this.historyWriter.append(Arrays.asList(createCoin("BTC", 120, 3.0, START + 10000)));
+        this.historyWriter.append(Arrays.asList(createCoin("BTC", 90, 0.5, START + 70000)));
+
+        // Check test result
+        assertThat(this.tickRepository.count(), is(equalTo(4L)));
+
+        PriceHistory minutes = this.historyService.findCandles("BTC", new Date(START), new Date(START + 70000),
+                null);
+        assertThat(minutes.getResolution(), is(equalTo(CandleResolution.MINUTE)));
+        assertThat(minutes.getCandles().size(), is(equalTo(2)));
+        assertCandle(minutes.getCandles().get(0), 100, 120, 100, 120, 2);
+        assertThat(minutes.getCandles().get(0).getMaxPriceGapPercent(), is(equalTo(3.0)));
+        assertCandle(minutes.getCandles().get(1), 90, 90, 90, 90, 1);
+
+        PriceHistory days = this.historyService.findCandles("BTC", new Date(START), new Date(START + 70000),
+                CandleResolution.DAY);
+        assertThat(days.getCandles().size(), is(equalTo(1)));
+        assertCandle(days.getCandles().get(0), 100, 120, 90, 90, 3);
+        assertThat(days.getCandles().get(0).getMinExchangePrice(), is(equalTo(89.0)));
+        assertThat(days.getCandles().get(0).getMaxExchangePrice(), is(equalTo(121.0)));
+        assertThat(days.getCandles().get(0).getClosePriceGapPercent(), is(equalTo(0.5)));
+    }
+
+    @Test
+    public void selectsCoarsestResolutionThatFits() {
+        assertThat(select(TimeUnit.MINUTES.toMillis(30)), is(equalTo(CandleResolution.MINUTE)));
+        assertThat(select(TimeUnit.HOURS.toMillis(6)), is(equalTo(CandleResolution.MINUTE)));
+        assertThat(select(TimeUnit.DAYS.toMillis(2)), is(equalTo(CandleResolution.HOUR)));
+        assertThat(select(TimeUnit.DAYS.toMillis(30)), is(equalTo(CandleResolution.HOUR)));
+        assertThat(select(TimeUnit.DAYS.toMillis(90)), is(equalTo(CandleResolution.DAY)));
+    }
+
+    @Test
+    public void purgesHistoryThatExceedsTheRetention() {
+        // Set up history
+        this.historyWriter.append(Arrays.asList(createCoin("BTC", 100, 1.0, START)));
+        this.historyWriter.append(Arrays.asList(createCoin("BTC", 110, 1.0, START + TimeUnit.DAYS.toMillis(10))));
+
+        // Run the code under test
+        int removed = this.historyService.purge(new Date(START + TimeUnit.DAYS.toMillis(10)));
+
+        // Check test result
+        assertThat(removed, is(equalTo(2)));
+        assertThat(this.tickRepository.count(), is(equalTo(1L)));
+        assertThat(this.candleRepository.count(), is(equalTo(5L)));
+    }
+
+    private CandleResolution select(long windowMillis) {
+        return this.historyService.selectResolution(new Date(START), new Date(START + windowMillis));
+    }
+
+    private static void assertCandle(PriceCandleEntity candle, double open, double high, double low, double close,
+                                     int tickCount) {
+        assertThat(candle.getOpenPrice(), is(equalTo(open)));
+        assertThat(candle.getHighPrice(), is(equalTo(high)));
+        assertThat(candle.getLowPrice(), is(equalTo(low)));
+        assertThat(candle.getClosePrice(), is(equalTo(close)));
+        assertThat(candle.getTickCount(), is(equalTo(tickCount)));
+    }
+
+    private static CoinEntity createCoin(String symbol, double price, double priceGapPercent, long timestamp) {
+        CoinEntity coin = new CoinEntity();
+        coin.setSymbol(symbol);
+        coin.setAggregatedPrice(price);
+        coin.setMinPrice(price - 1);
+        coin.setMaxPrice(price + 1);
+        coin.setPriceGap(2.0);
+        coin.setPriceGapPercent(priceGapPercent);
+        coin.setDateUpdated(timestamp);
+        return coin;
+    }
+}
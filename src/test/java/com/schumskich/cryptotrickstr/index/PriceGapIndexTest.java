@@ -0,0 +1,127 @@
+package com.schumskich.cryptotrickstr.index;
+
+import com.schumskich.cryptotrickstr.app.coins.index.PriceGapIndex;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class PriceGapIndexTest {
+    private PriceGapIndex index;
+
+    @Before
+    public void setUp() {
+        this.index = new PriceGapIndex();
+        this.index.rebuild(Arrays.asList(
+                createCoin("BTC", 500.0, 5.5),
+                createCoin("ETH", 20.0, 2.0),
+                createCoin("LTC", 3.0, 2.0),
+                createCoin("XRP", null, null),
+                createCoin("BCH", 120.0, 10.0)
+        ));
+    }
+
+    @Test
+    public void findsCoinsByPriceGapIncludingBounds() {
+        assertThat(symbols(this.index.findByPriceGapBetween(20.0, 500.0)),
+                is(equalTo(Arrays.asList("ETH", "BCH", "BTC"))));
+        assertThat(symbols(this.index.findByPriceGapBetween(21.0, 119.0)), is(equalTo(Arrays.asList())));
+        assertThat(symbols(this.index.findByPriceGapBetween(600.0, 10.0)), is(equalTo(Arrays.asList())));
+    }
+
+    @Test
+    public void findsCoinsByPriceGapPercent() {
+        assertThat(symbols(this.index.findByPriceGapPercentBetween(2.0, 2.0)),
+                is(equalTo(Arrays.asList("ETH", "LTC"))));
+        assertThat(symbols(this.index.findByPriceGapPercentBetween(5.0, null)),
+                is(equalTo(Arrays.asList("BTC", "BCH"))));
+        assertThat(symbols(this.index.findByPriceGapPercentBetween(null, null)).size(), is(equalTo(4)));
+    }
+
+    @Test
+    public void replacesIndexOnRebuild() {
+        // Run the code under test
+        this.index.rebuild(Arrays.asList(createCoin("DOGE", 0.01, 1.0)));
+
+        // Check test result
+        assertThat(this.index.size(), is(equalTo(1)));
+        assertThat(symbols(this.index.findByPriceGapBetween(0.0, 1000.0)), is(equalTo(Arrays.asList("DOGE"))));
+    }
+
+    @Test
+    public void mergesChangedCoinsIntoIndex() {
+        // Run the code under test
+        this.index.update(Arrays.asList(createCoin("ETH", 600.0, 1.0), createCoin("DOGE", 0.01, 2.0),
+                createCoin("BCH", null, null)));
+
+        // Check test result
+        assertThat(this.index.size(), is(equalTo(6)));
+        assertThat(symbols(this.index.findByPriceGapBetween(null, null)),
+                is(equalTo(Arrays.asList("DOGE", "LTC", "BTC", "ETH"))));
+        assertThat(symbols(this.index.findByPriceGapPercentBetween(null, null)),
+                is(equalTo(Arrays.asList("ETH", "LTC", "DOGE", "BTC"))));
+    }
+
+    @Test
+    public void updateFindsTheSameCoinsAsRebuild() {
+        // Set up index
+        Random random = new Random(42);
+        Map<String, CoinEntity> coins = new LinkedHashMap<>();
+        this.index.rebuild(Collections.emptyList());
+
+        // Run the code under test
+        for (int batch = 0; batch < 50; batch++) {
+            List<CoinEntity> changedCoins = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                CoinEntity coin = createCoin("C" + random.nextInt(200),
+                        random.nextInt(10) == 0 ? null : (double) random.nextInt(100), (double) random.nextInt(20));
+                changedCoins.add(coin);
+                coins.put(coin.getSymbol(), coin);
+            }
+            this.index.update(changedCoins);
+        }
+
+        // Check test result
+        PriceGapIndex rebuilt = new PriceGapIndex();
+        rebuilt.rebuild(coins.values());
+        assertThat(this.index.size(), is(equalTo(coins.size())));
+        for (double from = 0; from < 100; from += 7) {
+            assertThat(keys(this.index.findByPriceGapBetween(from, from + 20), CoinEntity::getPriceGap),
+                    is(equalTo(keys(rebuilt.findByPriceGapBetween(from, from + 20), CoinEntity::getPriceGap))));
+            assertThat(new HashSet<>(this.index.findByPriceGapBetween(from, from + 20)),
+                    is(equalTo(new HashSet<>(rebuilt.findByPriceGapBetween(from, from + 20)))));
+        }
+        assertThat(new HashSet<>(this.index.findByPriceGapPercentBetween(null, null)),
+                is(equalTo(new HashSet<>(coins.values()))));
+    }
+
+    private static List<Double> keys(List<CoinEntity> coins, Function<CoinEntity, Double> keyFunction) {
+        return coins.stream().map(keyFunction).collect(Collectors.toList());
+    }
+
+    private static List<String> symbols(List<CoinEntity> coins) {
+        return coins.stream().map(CoinEntity::getSymbol).collect(Collectors.toList());
+    }
+
+    private static CoinEntity createCoin(String symbol, Double priceGap, Double priceGapPercent) {
+        return new CoinEntity() {{
+            setSymbol(symbol);
+            setPriceGap(priceGap);
+            setPriceGapPercent(priceGapPercent);
+        }};
+    }
+}
@@ -0,0 +1,60 @@
+package com.schumskich.cryptotrickstr.ingest;
+
+import com.schumskich.cryptotrickstr.app.arbitrage.ArbitrageRouteService;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinIngestService;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinSelector;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinSnapshotMapper;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinStore;
+import com.schumskich.cryptotrickstr.config.IngestConfig;
+import com.schumskich.cryptotrickstr.support.cryptocompare.CryptoCompareAdapter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.function.Consumer;
+
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CoinIngestServiceTest {
+
+    @Test(timeout = 10000)
+    public void endsRefreshCycleIfDiscoveryThrowsError() {
+        for (IngestConfig.FetchMode fetchMode : IngestConfig.FetchMode.values()) {
+            // Set up mocks
+            IngestConfig config = new IngestConfig();
+            config.setWorkerThreads(2);
+            config.setPersistBatchSize(10);
+            config.setFetchMode(fetchMode);
+            config.getDiscovery().setQueueCapacity(10);
+            CoinSelector coinSelectorMock = mock(CoinSelector.class);
+            doThrow(new StackOverflowError()).when(coinSelectorMock)
+                    .selectCoins(Matchers.<Consumer<TopCoinsResponse.CoinInfo>>any());
+            CoinIngestService ingestService = new CoinIngestService(config, mock(CryptoCompareAdapter.class),
+                    coinSelectorMock, mock(CoinSnapshotMapper.class), mock(CoinStore.class),
+                    mock(ArbitrageRouteService.class), mock(ApplicationEventPublisher.class), new IngestMetrics());
+
+            try {
+                // Run the code under test: the second cycle must not be skipped as still running
+                for (int cycle = 0; cycle < 2; cycle++) {
+                    try {
+                        ingestService.refresh();
+                        fail("Expected the error of the discovery.");
+                    } catch (StackOverflowError e) {
+                        // Expected
+                    }
+                }
+
+                // Check test result
+                verify(coinSelectorMock, times(2)).selectCoins(Matchers.<Consumer<TopCoinsResponse.CoinInfo>>any());
+            } finally {
+                ingestService.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.schumskich.cryptotrickstr.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records the latencies of the requests of one endpoint by one worker thread. All latencies are kept, so that the
+ * percentiles are exact. Recorders of several threads are combined using {@link #merge(LatencyRecorder)}.
+ */
+class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    void record(long latencyNanos) {
+        if (this.count == this.latencies.length) {
+            this.latencies = Arrays.copyOf(this.latencies, this.count * 2);
+        }
+        this.latencies[this.count++] = latencyNanos;
+    }
+
+    void recordError() {
+        this.errors++;
+    }
+
+    void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i]);
+        }
+        this.errors += other.errors;
+    }
+
+    /**
+     * @param durationNanos The duration of the measurement.
+     * @return The number of requests, errors, the throughput and the latency percentiles (in milliseconds).
+     */
+    Map<String, Object> summarize(long durationNanos) {
+        long[] sorted = Arrays.copyOf(this.latencies, this.count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", this.count);
+        summary.put("errors", this.errors);
+        summary.put("throughput", this.count / (durationNanos / 1e9));
+        summary.put("p50", percentile(sorted, 0.5));
+        summary.put("p90", percentile(sorted, 0.9));
+        summary.put("p99", percentile(sorted, 0.99));
+        summary.put("p999", percentile(sorted, 0.999));
+        summary.put("max", sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
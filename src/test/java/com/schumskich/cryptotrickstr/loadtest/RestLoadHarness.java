@@ -0,0 +1,222 @@
+package com.schumskich.cryptotrickstr.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.schumskich.cryptotrickstr.CryptoTrickstrTraderApplication;
+import com.schumskich.cryptotrickstr.app.coins.index.PriceGapIndex;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinStore;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Drives concurrent requests against the read API of the app and reports the throughput and latency percentiles
+ * of each endpoint. The app is started with an in-memory database that is seeded with synthetic coins. Each worker
+ * thread sends a request as soon as it has received the previous response (closed workload), choosing the endpoint
+ * of each request randomly according to the weights of the request mix.
+ * <p>
+ * Run using <code>mvn test-compile exec:exec -Ploadtest</code>. The following system properties are supported:
+ * <ul>
+ * <li><code>loadtest.coins</code>: The number of synthetic coins (default 10000).</li>
+ * <li><code>loadtest.threads</code>: The number of concurrent worker threads (default 16).</li>
+ * <li><code>loadtest.warmup</code>: The warm-up time in seconds, not included in the results (default 10).</li>
+ * <li><code>loadtest.duration</code>: The measurement time in seconds (default 30).</li>
+ * <li><code>loadtest.mix</code>: The weights of the endpoints (default
+ * <code>list:4,sorted:2,bySymbol:2,byName:1,gapPercent:2</code>).</li>
+ * <li><code>loadtest.resultFile</code>: The JSON file the results are written to (default none).</li>
+ * </ul>
+ */
+public class RestLoadHarness {
+    private static final String DEFAULT_MIX = "list:4,sorted:2,bySymbol:2,byName:1,gapPercent:2";
+
+    public static void main(String[] args) throws Exception {
+        int coins = Integer.getInteger("loadtest.coins", 10000);
+        int threads = Integer.getInteger("loadtest.threads", 16);
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Integer.getInteger("loadtest.warmup", 10));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Integer.getInteger("loadtest.duration", 30));
+        Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX));
+        String resultFile = System.getProperty("loadtest.resultFile", "");
+
+        // Passed as arguments, as they have to override application.yml
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CryptoTrickstrTraderApplication.class)
+                .run("--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--server.port=0",
+                        "--history.quoteFile.enabled=false",
+                        "--logging.level.root=WARN");
+        try {
+            seed(context, coins);
+            int port = ((EmbeddedWebApplicationContext) context).getEmbeddedServletContainer().getPort();
+            Map<String, IntFunction<String>> endpoints = createEndpoints(coins);
+            for (String name : mix.keySet()) {
+                if (!endpoints.containsKey(name)) {
+                    throw new IllegalArgumentException("Unknown endpoint '" + name + "', known endpoints are "
+                            + endpoints.keySet() + ".");
+                }
+            }
+
+            System.out.println("Seeded " + coins + " coins. Running " + threads + " threads for "
+                    + TimeUnit.NANOSECONDS.toSeconds(warmupNanos) + " s warm-up and "
+                    + TimeUnit.NANOSECONDS.toSeconds(durationNanos) + " s measurement with mix " + mix + ".");
+            Map<String, Object> results = run("http://localhost:" + port, endpoints, mix, threads, coins, warmupNanos,
+                    durationNanos);
+            report(results);
+            if (!resultFile.isEmpty()) {
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(resultFile),
+                        results);
+                System.out.println("Results written to " + resultFile + ".");
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    // Prices between 1 and 10000 and price gaps between 0 % and 20 %, scattered deterministically over the coins
+    private static final String PRICE = "(MOD(x * 7919, 10000) + 1)";
+    private static final String GAP = "(MOD(x * 104729, 2000) / 100.0)";
+
+    /**
+     * Inserts the synthetic coins with a single statement and rebuilds the price gap index.
+     */
+    private static void seed(ConfigurableApplicationContext context, int coins) {
+        // Timestamps are stored as epoch milliseconds
+        String now = Long.toString(System.currentTimeMillis());
+        context.getBean(JdbcTemplate.class).update("INSERT INTO coin_entity (id, symbol, full_name, "
+                + "total_coins_mined, aggregated_price, aggregated_day_price_open, aggregated_day_price_high, "
+                + "aggregated_day_price_low, total_volume24h, min_price, min_price_exchange, min_price_updated, "
+                + "max_price, max_price_exchange, max_price_updated, price_gap, price_gap_percent, date_created, "
+                + "date_updated) "
+                + "SELECT x, 'SYM' || x, 'Coin ' || x, x * 1000, " + PRICE + ", " + PRICE + ", " + PRICE + " * 1.1, "
+                + PRICE + " * 0.9, x * 10, " + PRICE + ", 'Kraken', " + now + ", " + PRICE + " * (1 + " + GAP
+                + " / 100), 'Bitfinex', " + now + ", " + PRICE + " * " + GAP + " / 100, " + GAP + ", " + now + ", "
+                + now + " FROM SYSTEM_RANGE(1, " + coins + ")");
+        // The coins are inserted behind the back of the ingest pipeline, so the index has to be rebuilt explicitly
+        PriceGapIndex priceGapIndex = context.getBean(PriceGapIndex.class);
+        priceGapIndex.rebuild(context.getBean(CoinStore.class).findAll());
+        if (priceGapIndex.size() != coins) {
+            throw new IllegalStateException("The price gap index holds " + priceGapIndex.size() + " coins instead of "
+                    + coins + ".");
+        }
+    }
+
+    private static Map<String, IntFunction<String>> createEndpoints(int coins) {
+        int pages = Math.max(1, coins / 20);
+        Map<String, IntFunction<String>> endpoints = new LinkedHashMap<>();
+        endpoints.put("list", random -> "/coins?page=" + (random % pages) + "&size=20");
+        endpoints.put("sorted", random -> "/coins?page=0&size=20&sort=priceGapPercent,desc");
+        endpoints.put("bySymbol", random -> "/coins/search/findOneBySymbol?symbol=SYM" + (random % coins + 1));
+        endpoints.put("byName", random -> "/coins/search/findByFullName?name=Coin%20" + (random % coins + 1));
+        endpoints.put("gapPercent", random -> {
+            // Ranges of 0.01 % match about 0.05 % of the coins
+            double from = (random % 2000) / 100.0;
+            return "/coins/search/findByPriceGapPercentBetween?from=" + from + "&to=" + (from + 0.01);
+        });
+        return endpoints;
+    }
+
+    private static Map<String, Object> run(String baseUrl, Map<String, IntFunction<String>> endpoints,
+                                           Map<String, Integer> mix, int threads, int coins, long warmupNanos,
+                                           long durationNanos) throws Exception {
+        List<String> weightedEndpoints = new ArrayList<>();
+        mix.forEach((name, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weightedEndpoints.add(name);
+            }
+        });
+
+        long measurementStart = System.nanoTime() + warmupNanos;
+        long measurementEnd = measurementStart + durationNanos;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Map<String, LatencyRecorder>>> workers = new ArrayList<>();
+        try (CloseableHttpClient httpClient = HttpClients.custom().setMaxConnTotal(threads)
+                .setMaxConnPerRoute(threads).build()) {
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (long now = System.nanoTime(); now < measurementEnd; now = System.nanoTime()) {
+                        String name = weightedEndpoints.get(random.nextInt(weightedEndpoints.size()));
+                        String url = baseUrl + endpoints.get(name).apply(random.nextInt(Integer.MAX_VALUE));
+                        LatencyRecorder recorder = now >= measurementStart
+                                ? recorders.computeIfAbsent(name, key -> new LatencyRecorder()) : null;
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse response = httpClient.execute(new HttpGet(url));
+                            EntityUtils.consume(response.getEntity());
+                            if (recorder != null) {
+                                recorder.record(System.nanoTime() - start);
+                                if (response.getStatusLine().getStatusCode() >= 400) {
+                                    recorder.recordError();
+                                }
+                            }
+                        } catch (Exception e) {
+                            if (recorder != null) {
+                                recorder.recordError();
+                            }
+                        }
+                    }
+                    return recorders;
+                }));
+            }
+
+            Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+            LatencyRecorder total = new LatencyRecorder();
+            for (Future<Map<String, LatencyRecorder>> worker : workers) {
+                worker.get().forEach((name, recorder) -> {
+                    recorders.computeIfAbsent(name, key -> new LatencyRecorder()).merge(recorder);
+                    total.merge(recorder);
+                });
+            }
+
+            Map<String, Object> results = new LinkedHashMap<>();
+            results.put("coins", coins);
+            results.put("threads", threads);
+            results.put("durationSeconds", TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+            Map<String, Object> endpointResults = new LinkedHashMap<>();
+            mix.keySet().forEach(name -> endpointResults.put(name,
+                    recorders.getOrDefault(name, new LatencyRecorder()).summarize(durationNanos)));
+            endpointResults.put("total", total.summarize(durationNanos));
+            results.put("endpoints", endpointResults);
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void report(Map<String, Object> results) {
+        System.out.println(String.format("%-12s %10s %8s %10s %9s %9s %9s %9s %9s", "endpoint", "requests", "errors",
+                "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms"));
+        ((Map<String, Map<String, Object>>) results.get("endpoints")).forEach((name, summary) ->
+                System.out.println(String.format("%-12s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f", name,
+                        summary.get("requests"), summary.get("errors"), summary.get("throughput"), summary.get("p50"),
+                        summary.get("p90"), summary.get("p99"), summary.get("p999"), summary.get("max"))));
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+        }
+        return weights;
+    }
+}
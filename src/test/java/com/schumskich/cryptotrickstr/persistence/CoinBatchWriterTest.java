@@ -0,0 +1,96 @@
+package com.schumskich.cryptotrickstr.persistence;
+
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinBatchWriter;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Checks that the {@link CoinBatchWriter} stores a batch of coins with one query and one (JDBC batched) insert or
+ * update statement. The time needed is measured by
+ * {@link com.schumskich.cryptotrickstr.benchmarks.CoinRepositoryBenchmark}.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Import(CoinBatchWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class CoinBatchWriterTest {
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private CoinRepository coinRepository;
+
+    @Autowired
+    private CoinBatchWriter coinBatchWriter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<String> symbols;
+
+    @Before
+    public void setUp() {
+        this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.symbols = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            this.symbols.add("SYM" + i);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        this.coinRepository.deleteAll();
+    }
+
+    @Test
+    public void insertsAndUpdatesABatchWithOneStatementEach() {
+        // Run the code under test
+        this.statistics.clear();
+        this.coinBatchWriter.upsert(this.symbols, (symbol, entity) -> update(symbol, entity, 1.0));
+        long insertStatements = this.statistics.getPrepareStatementCount();
+        this.statistics.clear();
+        List<CoinEntity> updated = this.coinBatchWriter.upsert(this.symbols,
+                (symbol, entity) -> !symbol.equals("SYM1") && update(symbol, entity, 2.0));
+        long updateStatements = this.statistics.getPrepareStatementCount();
+
+        // Check test result: the query of the existing coins and the insert, plus the id sequence (the pooled
+        // optimizer reads it twice when it is used for the first time)
+        assertThat(insertStatements, is(lessThanOrEqualTo(4L)));
+        // The query of the existing coins and the update
+        assertThat(updateStatements, is(equalTo(2L)));
+        assertThat(updated.size(), is(equalTo(BATCH_SIZE - 1)));
+        assertThat(this.coinRepository.count(), is(equalTo((long) BATCH_SIZE)));
+        assertThat(this.coinRepository.findOneBySymbol("SYM0").getAggregatedPrice(), is(equalTo(2.0)));
+        assertThat(this.coinRepository.findOneBySymbol("SYM1").getAggregatedPrice(), is(equalTo(1.0)));
+    }
+
+    private static boolean update(String symbol, CoinEntity entity, double price) {
+        entity.setSymbol(symbol);
+        entity.setFullName(symbol + "Coin");
+        entity.setAggregatedPrice(price);
+        return true;
+    }
+}
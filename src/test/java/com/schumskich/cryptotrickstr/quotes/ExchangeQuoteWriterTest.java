@@ -0,0 +1,182 @@
+package com.schumskich.cryptotrickstr.quotes;
+
+import com.schumskich.cryptotrickstr.app.quotes.ExchangeIds;
+import com.schumskich.cryptotrickstr.app.quotes.ExchangeQuote;
+import com.schumskich.cryptotrickstr.app.quotes.ExchangeQuoteService;
+import com.schumskich.cryptotrickstr.app.quotes.persistence.ExchangeQuoteEntity;
+import com.schumskich.cryptotrickstr.app.quotes.persistence.ExchangeQuoteRepository;
+import com.schumskich.cryptotrickstr.app.quotes.persistence.ExchangeQuoteWriter;
+import com.schumskich.cryptotrickstr.app.quotes.persistence.ExchangeRepository;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeFilter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * Writes quotes with a batch size of two quotes, so that each write consists of several statements. The statements
+ * are committed one by one, like outside of a transaction.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ExchangeQuoteWriterTest {
+    private static final Pageable ALL = new PageRequest(0, 100);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ExchangeRepository exchangeRepository;
+
+    @Autowired
+    private ExchangeQuoteRepository exchangeQuoteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExchangeIds exchangeIds;
+    private ExchangeQuoteWriter writer;
+    private ExchangeQuoteService service;
+
+    @Before
+    public void setUp() {
+        this.exchangeIds = new ExchangeIds(this.exchangeRepository, this.transactionManager);
+        this.writer = new ExchangeQuoteWriter(new JdbcTemplate(this.dataSource), this.exchangeIds, 2);
+        this.service = new ExchangeQuoteService(this.exchangeQuoteRepository, this.exchangeIds);
+    }
+
+    @After
+    public void tearDown() {
+        this.exchangeQuoteRepository.deleteAll();
+        this.exchangeRepository.deleteAll();
+    }
+
+    @Test
+    public void upsertsQuotesAndRemovesDelistedExchanges() {
+        // Set up mocks
+        Map<String, ExchangeQuotes> first = new LinkedHashMap<>();
+        first.put("ETH", quotes("Kraken", 10, "Bitfinex", 11, "Poloniex", 12));
+        first.put("BTC", quotes("Kraken", 100));
+        Map<String, ExchangeQuotes> second = new LinkedHashMap<>();
+        second.put("ETH", quotes("Kraken", 9.5, "Bitfinex", 11));
+
+        // Run the code under test
+        int writtenFirst = this.writer.write(1000, first);
+        int writtenSecond = this.writer.write(2000, second);
+
+        // Check test result
+        assertThat(writtenFirst, is(equalTo(4)));
+        assertThat(writtenSecond, is(equalTo(2)));
+        assertThat(this.exchangeQuoteRepository.count(), is(equalTo(3L)));
+        List<ExchangeQuoteEntity> kraken = this.exchangeQuoteRepository.findByExchangeIdOrderByPriceAsc(
+                this.exchangeIds.idOf("Kraken"), ALL).getContent();
+        assertThat(kraken.stream().map(ExchangeQuoteEntity::getSymbol).collect(Collectors.toList()),
+                contains("ETH", "BTC"));
+        assertThat(kraken.get(0).getPrice(), is(equalTo(9.5)));
+        assertThat(kraken.get(0).getReceived(), is(equalTo(2000L)));
+        assertThat(kraken.get(1).getReceived(), is(equalTo(1000L)));
+        assertThat(this.exchangeQuoteRepository.findByExchangeIdOrderByPriceAsc(this.exchangeIds.idOf("Poloniex"),
+                ALL).getContent(), is(empty()));
+    }
+
+    @Test
+    public void searchesByExchangeAndPriceRange() {
+        // Set up mocks
+        Map<String, ExchangeQuotes> quotesBySymbol = new LinkedHashMap<>();
+        quotesBySymbol.put("ETH", quotes("Kraken", 10, "Bitfinex", 11, "Poloniex", 12));
+        quotesBySymbol.put("LTC", quotes("Kraken", 15, "Bitfinex", 14));
+        this.writer.write(1000, quotesBySymbol);
+
+        // Run the code under test
+        Page<ExchangeQuote> bitfinex = this.service.findByExchange("Bitfinex", ALL);
+        Page<ExchangeQuote> firstRangePage = this.service.findByPriceBetween(11, 14, null, new PageRequest(0, 2));
+        Page<ExchangeQuote> secondRangePage = this.service.findByPriceBetween(11, 14, null, new PageRequest(1, 2));
+        Page<ExchangeQuote> krakenRange = this.service.findByPriceBetween(11, 20, "Kraken", ALL);
+        Page<ExchangeQuote> unknown = this.service.findByExchange("Unknown", ALL);
+
+        // Check test result
+        assertThat(bitfinex.getContent().stream().map(ExchangeQuote::getSymbol).collect(Collectors.toList()),
+                contains("ETH", "LTC"));
+        assertThat(firstRangePage.getContent().stream().map(quote -> quote.getSymbol() + "@" + quote.getExchange())
+                .collect(Collectors.toList()), contains("ETH@Bitfinex", "ETH@Poloniex"));
+        assertThat(secondRangePage.getContent().stream().map(quote -> quote.getSymbol() + "@" + quote.getExchange())
+                .collect(Collectors.toList()), contains("LTC@Bitfinex"));
+        assertThat(firstRangePage.getTotalElements(), is(equalTo(3L)));
+        assertThat(krakenRange.getContent().stream().map(ExchangeQuote::getPrice).collect(Collectors.toList()),
+                contains(15d));
+        assertThat(unknown.getContent(), is(empty()));
+        assertThat(unknown.getTotalElements(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void searchesCoinsCheapestOnExchange() {
+        // Set up mocks
+        Map<String, ExchangeQuotes> quotesBySymbol = new LinkedHashMap<>();
+        quotesBySymbol.put("ETH", quotes("Kraken", 10, "Bitfinex", 11, "Poloniex", 12));
+        quotesBySymbol.put("LTC", quotes("Kraken", 15, "Bitfinex", 14));
+        quotesBySymbol.put("XRP", quotes("Kraken", 1, "Bitfinex", 1));
+        quotesBySymbol.put("BTC", quotes("Kraken", 100));
+        this.writer.write(1000, quotesBySymbol);
+
+        // Run the code under test
+        Page<ExchangeQuote> kraken = this.service.findCheapestOn("Kraken", ALL);
+        Page<ExchangeQuote> firstBitfinexPage = this.service.findCheapestOn("Bitfinex", new PageRequest(0, 1));
+        Page<ExchangeQuote> poloniex = this.service.findCheapestOn("Poloniex", ALL);
+        Page<ExchangeQuote> unknown = this.service.findCheapestOn("Unknown", ALL);
+
+        // Check test result
+        assertThat(kraken.getContent().stream().map(ExchangeQuote::getSymbol).collect(Collectors.toList()),
+                contains("XRP", "ETH", "BTC"));
+        assertThat(firstBitfinexPage.getContent().stream().map(ExchangeQuote::getSymbol)
+                .collect(Collectors.toList()), contains("XRP"));
+        assertThat(firstBitfinexPage.getTotalElements(), is(equalTo(2L)));
+        assertThat(poloniex.getContent(), is(empty()));
+        assertThat(unknown.getContent(), is(empty()));
+    }
+
+    @Test
+    public void keepsRegisteredExchangesIfTheWriteIsRolledBack() {
+        // Run the code under test
+        int id = new TransactionTemplate(this.transactionManager).execute(status -> {
+            status.setRollbackOnly();
+            return this.exchangeIds.idOf("Kraken");
+        });
+
+        // Check test result
+        assertThat(this.exchangeRepository.findOneByName("Kraken").getId(), is(equalTo(id)));
+    }
+
+    private static ExchangeQuotes quotes(Object... exchangesAndPrices) {
+        ExchangeQuotes quotes = new ExchangeQuotes(ExchangeFilter.acceptAll());
+        for (int i = 0; i < exchangesAndPrices.length; i += 2) {
+            quotes.offer((String) exchangesAndPrices[i], ((Number) exchangesAndPrices[i + 1]).doubleValue(), 1000,
+                    System.currentTimeMillis());
+        }
+        return quotes;
+    }
+}
@@ -0,0 +1,201 @@
+package com.schumskich.cryptotrickstr.schedule;
+
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinIngestService;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinSelector;
+import com.schumskich.cryptotrickstr.app.coins.ingest.RefreshResult;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinStore;
+import com.schumskich.cryptotrickstr.app.coins.schedule.AdaptiveRefreshScheduler;
+import com.schumskich.cryptotrickstr.config.IngestConfig;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Matchers;
+import org.mockito.MockitoAnnotations;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AdaptiveRefreshSchedulerTest {
+    private static final long SECOND = TimeUnit.SECONDS.toMillis(1);
+
+    @Captor
+    private ArgumentCaptor<Consumer<TopCoinsResponse.CoinInfo>> topCoinsConsumer;
+
+    @Captor
+    private ArgumentCaptor<List<TopCoinsResponse.CoinInfo>> refreshedCoins;
+
+    private CoinIngestService ingestServiceMock;
+    private CoinSelector coinSelectorMock;
+    private CoinStore coinStoreMock;
+    private IngestMetrics metrics;
+    private AdaptiveRefreshScheduler scheduler;
+
+    private final Map<String, CoinEntity> coins = new HashMap<>();
+    private final Map<String, Integer> refreshCounts = new HashMap<>();
+    private int topCoinsPages = 1;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        IngestConfig config = new IngestConfig();
+        config.getAdaptive().setCallsPerMinute(60d);
+        config.getAdaptive().setTickInterval(SECOND);
+        config.getAdaptive().setMinInterval(10 * SECOND);
+        config.getAdaptive().setMaxInterval(600 * SECOND);
+        config.getAdaptive().setTopCoinsInterval(3600 * SECOND);
+        config.getAdaptive().setGapWeight(1d);
+        config.getAdaptive().setVolatilityWeight(20d);
+        config.getAdaptive().setVolumeWeight(1d);
+
+        ingestServiceMock = mock(CoinIngestService.class);
+        coinSelectorMock = mock(CoinSelector.class);
+        coinStoreMock = mock(CoinStore.class);
+        metrics = new IngestMetrics();
+        when(ingestServiceMock.refresh(refreshedCoins.capture())).thenAnswer(invocation -> {
+            refreshedCoins.getValue().forEach(coin -> refreshCounts.merge(coin.getName(), 1, Integer::sum));
+            return Optional.of(new RefreshResult());
+        });
+        when(coinStoreMock.findOneBySymbol(Matchers.anyString()))
+                .thenAnswer(invocation -> coins.get(invocation.getArgumentAt(0, String.class)));
+        scheduler = new AdaptiveRefreshScheduler(ingestServiceMock, coinSelectorMock, coinStoreMock, config, metrics);
+    }
+
+    @Test
+    public void refreshesCoinsWithLargeGapsMoreOften() {
+        // Set up mocks
+        addCoin("GAP", 10d, 0);
+        addCoin("QUIET", 0d, 0);
+        addCoin("VOLUME", 0d, 1e9);
+
+        // Run the code under test
+        runFor(600);
+
+        // Check test result
+        assertThat(scheduler.getInterval("GAP"), is(equalTo(600 * SECOND / 11)));
+        assertThat(scheduler.getInterval("QUIET"), is(equalTo(600 * SECOND)));
+        assertThat(scheduler.getInterval("VOLUME"), is(lessThan(600 * SECOND / 3)));
+        assertThat(refreshCounts.get("GAP"), is(greaterThanOrEqualTo(10)));
+        assertThat(refreshCounts.get("QUIET"), is(equalTo(1)));
+        assertThat(refreshCounts.get("GAP"), is(greaterThan(refreshCounts.get("VOLUME"))));
+    }
+
+    @Test
+    public void shortensTheIntervalOfVolatileCoins() {
+        // Set up mocks
+        addCoin("VOLATILE", 0d, 0);
+        when(coinStoreMock.findOneBySymbol("VOLATILE")).thenAnswer(invocation -> {
+            // The price alternates between 100 and 110
+            CoinEntity coin = coins.get("VOLATILE");
+            coin.setAggregatedPrice(coin.getAggregatedPrice() == 100 ? 110 : 100);
+            return coin;
+        });
+
+        // Run the code under test
+        runFor(1800);
+
+        // Check test result
+        assertThat(scheduler.getInterval("VOLATILE"), is(lessThan(60 * SECOND)));
+        assertThat(refreshCounts.get("VOLATILE"), is(greaterThan(10)));
+    }
+
+    @Test
+    public void staysWithinTheBudget() {
+        // Set up mocks
+        IntStream.range(0, 100).forEach(i -> addCoin("COIN" + i, 50d, 0));
+
+        // Run the code under test
+        runFor(120);
+
+        // Check test result
+        int refreshed = refreshCounts.values().stream().mapToInt(Integer::intValue).sum();
+        assertThat(refreshed, is(lessThanOrEqualTo(120)));
+        assertThat(refreshed, is(greaterThanOrEqualTo(115)));
+        assertThat(metrics.getCounter("adaptive.refreshedCoins"), is(equalTo((long) refreshed)));
+    }
+
+    @Test
+    public void chargesEachPageOfTheTopCoins() {
+        // Set up mocks
+        IntStream.range(0, 100).forEach(i -> addCoin("COIN" + i, 50d, 0));
+        topCoinsPages = 20;
+
+        // Run the code under test
+        runFor(120);
+
+        // Check test result
+        int refreshed = refreshCounts.values().stream().mapToInt(Integer::intValue).sum();
+        assertThat(refreshed, is(lessThanOrEqualTo(100)));
+        assertThat(refreshed, is(greaterThanOrEqualTo(95)));
+    }
+
+    @Test
+    public void retriesCoinsIfAnotherRefreshCycleIsRunning() {
+        // Set up mocks
+        addCoin("BTC", 1d, 0);
+        stubTopCoins();
+        doReturn(Optional.empty()).doReturn(Optional.of(new RefreshResult()))
+                .when(ingestServiceMock).refresh(Matchers.<List<TopCoinsResponse.CoinInfo>>any());
+
+        // Run the code under test
+        scheduler.tick(0);
+        int skippedTick = scheduler.tick(SECOND);
+        int nextTick = scheduler.tick(2 * SECOND);
+
+        // Check test result
+        assertThat(skippedTick, is(equalTo(0)));
+        assertThat(nextTick, is(equalTo(1)));
+    }
+
+    private void runFor(int seconds) {
+        stubTopCoins();
+        for (int second = 0; second < seconds; second++) {
+            scheduler.tick(second * SECOND);
+        }
+    }
+
+    private void stubTopCoins() {
+        List<TopCoinsResponse.CoinInfo> topCoins = coins.keySet().stream()
+                .map(symbol -> {
+                    TopCoinsResponse.CoinInfo coin = new TopCoinsResponse.CoinInfo();
+                    coin.setName(symbol);
+                    return coin;
+                })
+                .collect(Collectors.toList());
+        doAnswer(invocation -> {
+            Consumer<TopCoinsResponse.CoinInfo> consumer = topCoinsConsumer.getValue();
+            topCoins.forEach(consumer);
+            return topCoinsPages;
+        }).when(coinSelectorMock).selectCoins(topCoinsConsumer.capture());
+    }
+
+    private void addCoin(String symbol, Double priceGapPercent, double volumeUsd) {
+        CoinEntity coin = new CoinEntity();
+        coin.setSymbol(symbol);
+        coin.setAggregatedPrice(100);
+        coin.setPriceGapPercent(priceGapPercent);
+        coin.setTotalVolume24H(volumeUsd / 100);
+        coins.put(symbol, coin);
+    }
+}
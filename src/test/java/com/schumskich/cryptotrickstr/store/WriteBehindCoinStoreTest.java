@@ -0,0 +1,138 @@
+package com.schumskich.cryptotrickstr.store;
+
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinBatchWriter;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinRepository;
+import com.schumskich.cryptotrickstr.app.coins.store.CoinEntityCopierImpl;
+import com.schumskich.cryptotrickstr.app.coins.store.WriteBehindCoinStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Import(CoinBatchWriter.class)
+public class WriteBehindCoinStoreTest {
+    private static final long NEVER = 3600000;
+
+    @Autowired
+    private CoinBatchWriter coinBatchWriter;
+
+    @Autowired
+    private CoinRepository coinRepository;
+
+    private WriteBehindCoinStore coinStore;
+
+    @Before
+    public void setUp() {
+        CoinEntity stored = new CoinEntity();
+        stored.setSymbol("LTC");
+        stored.setAggregatedPrice(150);
+        this.coinRepository.save(stored);
+
+        this.coinStore = new WriteBehindCoinStore(this.coinBatchWriter, new CoinEntityCopierImpl(), NEVER, 2, 100);
+        this.coinStore.start();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        this.coinStore.stop();
+    }
+
+    @Test
+    public void coalescesUpdatesUntilTheNextFlush() {
+        // Run the code under test
+        for (int price = 1; price <= 3; price++) {
+            double aggregatedPrice = price;
+            this.coinStore.upsert(Arrays.asList("BTC", "ETH", "LTC"), (symbol, entity) -> {
+                entity.setSymbol(symbol);
+                entity.setAggregatedPrice(aggregatedPrice);
+                return true;
+            });
+        }
+
+        // Check test result
+        assertThat(this.coinStore.getQueueDepth(), is(equalTo(3)));
+        assertThat(this.coinStore.findOneBySymbol("BTC").getAggregatedPrice(), is(equalTo(3d)));
+        assertThat(this.coinRepository.findOneBySymbol("BTC"), is(nullValue()));
+        assertThat(this.coinRepository.findOneBySymbol("LTC").getAggregatedPrice(), is(equalTo(150d)));
+
+        // Run the code under test
+        this.coinStore.flush();
+
+        // Check test result
+        assertThat(this.coinStore.getQueueDepth(), is(equalTo(0)));
+        assertThat(this.coinStore.getLagMillis(), is(equalTo(0L)));
+        assertThat(this.coinRepository.count(), is(equalTo(3L)));
+        assertThat(this.coinRepository.findOneBySymbol("BTC").getAggregatedPrice(), is(equalTo(3d)));
+        assertThat(this.coinRepository.findOneBySymbol("LTC").getAggregatedPrice(), is(equalTo(3d)));
+        assertThat(this.coinStore.findOneBySymbol("ETH").getId(),
+                is(equalTo(this.coinRepository.findOneBySymbol("ETH").getId())));
+    }
+
+    @Test
+    public void doesNotModifyEntitiesVisibleToReaders() {
+        // Set up mocks
+        CoinEntity before = this.coinStore.findOneBySymbol("LTC");
+
+        // Run the code under test
+        List<CoinEntity> stored = this.coinStore.upsert(Collections.singleton("LTC"), (symbol, entity) -> {
+            entity.setAggregatedPrice(160);
+            return true;
+        });
+        List<CoinEntity> unchanged = this.coinStore.upsert(Collections.singleton("LTC"), (symbol, entity) -> {
+            entity.setAggregatedPrice(170);
+            return false;
+        });
+
+        // Check test result
+        assertThat(before.getAggregatedPrice(), is(equalTo(150d)));
+        assertThat(stored.get(0), is(not(before)));
+        assertThat(unchanged.isEmpty(), is(true));
+        assertThat(this.coinStore.findOneBySymbol("LTC").getAggregatedPrice(), is(equalTo(160d)));
+    }
+
+    @Test
+    public void keepsCoinsQueuedIfTheFlushFails() throws InterruptedException {
+        // Set up mocks
+        CoinBatchWriter failingWriter = mock(CoinBatchWriter.class);
+        when(failingWriter.findAll()).thenReturn(Collections.emptyList());
+        when(failingWriter.upsert(any(), any())).thenThrow(new DataAccessResourceFailureException("Disk full"));
+        WriteBehindCoinStore store = new WriteBehindCoinStore(failingWriter, new CoinEntityCopierImpl(), NEVER, 2, 100);
+        store.upsert(Arrays.asList("BTC", "ETH", "XRP"), (symbol, entity) -> {
+            entity.setSymbol(symbol);
+            return true;
+        });
+
+        // Run the code under test
+        try {
+            store.flush();
+        } catch (DataAccessResourceFailureException e) {
+            // Expected
+        }
+
+        // Check test result
+        assertThat(store.getQueueDepth(), is(equalTo(3)));
+        assertThat(store.metrics().stream().filter(metric -> metric.getName().endsWith(".flushErrors"))
+                .findFirst().get().getValue(), is(equalTo(1L)));
+    }
+}
@@ -0,0 +1,125 @@
+package com.schumskich.cryptotrickstr.stream;
+
+import com.schumskich.cryptotrickstr.app.coins.index.PriceGapIndex;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinsChangedEvent;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import com.schumskich.cryptotrickstr.app.coins.stream.PriceGapStream;
+import com.schumskich.cryptotrickstr.app.coins.stream.UpdateSink;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class PriceGapStreamTest {
+    private PriceGapIndex index;
+    private List<Runnable> dispatcherTasks;
+
+    @Before
+    public void setUp() {
+        this.index = new PriceGapIndex();
+        this.index.rebuild(Arrays.asList(createCoin("BTC", 100, 5.0), createCoin("ETH", 10, 1.0)));
+        this.dispatcherTasks = new ArrayList<>();
+    }
+
+    @Test
+    public void sendsSnapshotAndOnlyChangedFieldsOfMatchingCoins() {
+        // Set up stream
+        PriceGapStream stream = new PriceGapStream(this.index, Runnable::run, 60000);
+        RecordingSink sink = new RecordingSink();
+
+        // Run the code under test
+        stream.subscribe(2.0, null, sink);
+        stream.onCoinsChanged(new CoinsChangedEvent(Arrays.asList(createCoin("BTC", 101, 5.0),
+                createCoin("ETH", 11, 1.0))));
+
+        // Check test result
+        assertThat(sink.events, is(equalTo(Arrays.asList(
+                "snapshot [{symbol=BTC, fullName=BTC coin, aggregatedPrice=100.0, totalVolume24H=0.0, minPrice=null, "
+                        + "minPriceExchange=null, maxPrice=null, maxPriceExchange=null, priceGap=null, "
+                        + "priceGapPercent=5.0}]",
+                "changes [{symbol=BTC, aggregatedPrice=101.0}]"))));
+    }
+
+    @Test
+    public void sendsCoinsEnteringAndLeavingTheRange() {
+        // Set up stream
+        PriceGapStream stream = new PriceGapStream(this.index, Runnable::run, 60000);
+        RecordingSink sink = new RecordingSink();
+        stream.subscribe(2.0, 10.0, sink);
+
+        // Run the code under test
+        stream.onCoinsChanged(new CoinsChangedEvent(Arrays.asList(createCoin("BTC", 100, 12.0),
+                createCoin("ETH", 10, 3.0))));
+
+        // Check test result
+        assertThat(sink.events.get(1), is(equalTo("changes [{symbol=BTC, removed=true}, {symbol=ETH, "
+                + "fullName=ETH coin, aggregatedPrice=10.0, totalVolume24H=0.0, minPrice=null, minPriceExchange=null, "
+                + "maxPrice=null, maxPriceExchange=null, priceGap=null, priceGapPercent=3.0}]")));
+    }
+
+    @Test
+    public void coalescesUpdatesForSlowClients() {
+        // Set up stream
+        PriceGapStream stream = new PriceGapStream(this.index, this.dispatcherTasks::add, 60000);
+        RecordingSink slowSink = new RecordingSink();
+        stream.subscribe(null, null, slowSink);
+
+        // Run the code under test: the dispatcher is busy, so the updates of a coin are merged
+        stream.onCoinsChanged(new CoinsChangedEvent(Arrays.asList(createCoin("BTC", 101, 5.0))));
+        stream.onCoinsChanged(new CoinsChangedEvent(Arrays.asList(createCoin("BTC", 102, 6.0))));
+        stream.onCoinsChanged(new CoinsChangedEvent(Arrays.asList(createCoin("BTC", 103, 6.0))));
+        assertThat(this.dispatcherTasks.size(), is(equalTo(1)));
+        this.dispatcherTasks.get(0).run();
+
+        // Check test result
+        assertThat(slowSink.events.size(), is(equalTo(2)));
+        assertThat(slowSink.events.get(1), is(equalTo("changes [{symbol=BTC, aggregatedPrice=103.0, "
+                + "priceGapPercent=6.0}]")));
+    }
+
+    @Test
+    public void disconnectsClientsThatFallTooFarBehind() throws InterruptedException {
+        // Set up stream
+        PriceGapStream stream = new PriceGapStream(this.index, this.dispatcherTasks::add, 0);
+        RecordingSink slowSink = new RecordingSink();
+        stream.subscribe(null, null, slowSink);
+
+        // Run the code under test
+        Thread.sleep(5);
+        stream.onCoinsChanged(new CoinsChangedEvent(Arrays.asList(createCoin("BTC", 101, 5.0))));
+
+        // Check test result
+        assertThat(slowSink.closed, is(true));
+        assertThat(stream.getSubscriptionCount(), is(equalTo(0)));
+    }
+
+    private static CoinEntity createCoin(String symbol, double price, double priceGapPercent) {
+        CoinEntity coin = new CoinEntity();
+        coin.setSymbol(symbol);
+        coin.setFullName(symbol + " coin");
+        coin.setAggregatedPrice(price);
+        coin.setPriceGapPercent(priceGapPercent);
+        return coin;
+    }
+
+    private static class RecordingSink implements UpdateSink {
+        private final List<String> events = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void send(String name, Object data) {
+            this.events.add(name + " " + data);
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.schumskich.cryptotrickstr.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.CoinSnapshotResponse;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeFilter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class CoinSnapshotResponseDeserializationTest {
+    private static final long NOW_SECONDS = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+    private static final long TWO_DAYS_AGO_SECONDS = NOW_SECONDS - TimeUnit.DAYS.toSeconds(2);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void keepsMinAndMaxPriceOfRelevantExchangesOnly() throws IOException {
+        // Run the code under test
+        ExchangeFilter filter = new ExchangeFilter(Arrays.asList("Kraken", "Bitstamp", "Gemini"),
+                TimeUnit.HOURS.toMillis(12));
+        CoinSnapshotResponse response = this.objectMapper.readerFor(CoinSnapshotResponse.class)
+                .withAttribute(ExchangeFilter.class, filter)
+                .readValue(createSnapshotJson());
+
+        // Check test result
+        ExchangeQuotes quotes = response.getResponseData().getExchangeQuotes();
+        assertThat(quotes.getMinPriceExchange(), is(equalTo("Bitstamp")));
+        assertThat(quotes.getMinPrice(), is(equalTo(9000.0)));
+        assertThat(quotes.getMinPriceUpdated(), is(equalTo(TimeUnit.SECONDS.toMillis(NOW_SECONDS))));
+        assertThat(quotes.getMaxPriceExchange(), is(equalTo("Kraken")));
+        assertThat(quotes.getMaxPrice(), is(equalTo(9500.0)));
+
+        // Verify the fields around the exchanges are still deserialized
+        assertThat(response.getResponseData().getCoinInfo().getName(), is(equalTo("BTC")));
+        assertThat(response.getResponseData().getAggregatedData().getPrice(), is(equalTo(9200.5)));
+    }
+
+    @Test
+    public void acceptsAllExchangesWithoutFilter() throws IOException {
+        // Run the code under test
+        CoinSnapshotResponse response = this.objectMapper.readValue(createSnapshotJson(), CoinSnapshotResponse.class);
+
+        // Check test result
+        ExchangeQuotes quotes = response.getResponseData().getExchangeQuotes();
+        assertThat(quotes.getMinPriceExchange(), is(equalTo("Yobit")));
+        assertThat(quotes.getMaxPriceExchange(), is(equalTo("Gemini")));
+    }
+
+    @Test
+    public void doesNotCreateQuotesForMissingExchanges() throws IOException {
+        // Run the code under test
+        CoinSnapshotResponse response = this.objectMapper.readValue(
+                "{\"Response\":\"Success\",\"Data\":{\"Exchanges\":null}}", CoinSnapshotResponse.class);
+
+        // Check test result
+        assertThat(response.getResponseData().getExchangeQuotes(), is(equalTo(null)));
+    }
+
+    @Test
+    public void skipsExchangesThatAreNotObjects() throws IOException {
+        // Run the code under test: the exchanges come first, so that a parser left within them breaks the rest
+        CoinSnapshotResponse response = this.objectMapper.readValue("{\"Response\":\"Success\",\"Data\":{"
+                + "\"Exchanges\":[null,\"Kraken\",[1,{\"MARKET\":\"Nested\",\"PRICE\":1}],42,"
+                + createExchangeJson("Bitstamp", 9000, NOW_SECONDS) + ",{\"FLAGS\":[]},"
+                + createExchangeJson("Kraken", 9500, NOW_SECONDS) + "],"
+                + "\"CoinInfo\":{\"Name\":\"BTC\"},\"AggregatedData\":{\"PRICE\":9200.5}}}",
+                CoinSnapshotResponse.class);
+
+        // Check test result
+        ExchangeQuotes quotes = response.getResponseData().getExchangeQuotes();
+        assertThat(quotes.size(), is(equalTo(2)));
+        assertThat(quotes.getMinPriceExchange(), is(equalTo("Bitstamp")));
+        assertThat(quotes.getMaxPriceExchange(), is(equalTo("Kraken")));
+        assertThat(response.getResponseData().getCoinInfo().getName(), is(equalTo("BTC")));
+        assertThat(response.getResponseData().getAggregatedData().getPrice(), is(equalTo(9200.5)));
+    }
+
+    private static String createSnapshotJson() {
+        return "{\"Response\":\"Success\",\"Message\":\"OK\",\"Data\":{"
+                + "\"CoinInfo\":{\"Name\":\"BTC\",\"FullName\":\"Bitcoin (BTC)\",\"TotalCoinsMined\":16900000},"
+                + "\"AggregatedData\":{\"PRICE\":9200.5,\"LASTUPDATE\":" + NOW_SECONDS + ",\"OPENDAY\":9100},"
+                + "\"Exchanges\":["
+                + createExchangeJson("Kraken", 9500, NOW_SECONDS) + ","
+                + createExchangeJson("Bitstamp", 9000, NOW_SECONDS) + ","
+                + createExchangeJson("Yobit", 8000, NOW_SECONDS) + ","
+                + createExchangeJson("Gemini", 12000, TWO_DAYS_AGO_SECONDS)
+                + "]}}";
+    }
+
+    private static String createExchangeJson(String exchange, double price, long lastUpdateSeconds) {
+        return "{\"TYPE\":\"2\",\"MARKET\":\"" + exchange + "\",\"FROMSYMBOL\":\"BTC\",\"TOSYMBOL\":\"USD\","
+                + "\"PRICE\":" + price + ",\"LASTUPDATE\":" + lastUpdateSeconds + ",\"VOLUME24HOUR\":1500.5,"
+                + "\"OPEN24HOUR\":9100,\"HIGH24HOUR\":9700,\"LOW24HOUR\":8800,\"FLAGS\":{\"nested\":[1,2]}}";
+    }
+}
@@ -2,10 +2,12 @@ package com.schumskich.cryptotrickstr.support;
 
 import com.schumskich.cryptotrickstr.config.CryptoCompareConfig;
 import com.schumskich.cryptotrickstr.support.cryptocompare.CryptoCompareAdapterImpl;
+import com.schumskich.cryptotrickstr.support.cryptocompare.CryptoCompareRequestExecutor;
 import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareApiException;
 import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.CoinSnapshotResponse;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeFilter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.PriceMultiFullResponse;
 import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
-import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Matchers;
@@ -19,6 +21,19 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
 @ActiveProfiles("initializeDatabaseTaskTest")
 @RunWith(SpringRunner.class)
 @SpringBootTest
@@ -27,6 +42,12 @@ public class CryptoCompareAdapterTest {
     @Autowired
     private CryptoCompareConfig cryptoCompareConfig;
 
+    @Autowired
+    private ExchangeFilter exchangeFilter;
+
+    @Autowired
+    private CryptoCompareRequestExecutor requestExecutor;
+
     @MockBean
     private RestTemplate restTemplateMock;
 
@@ -37,7 +58,7 @@ public class CryptoCompareAdapterTest {
                 .thenReturn(new ResponseEntity<>(new CoinSnapshotResponse(), HttpStatus.OK));
 
         // Run the code under test
-        new CryptoCompareAdapterImpl(cryptoCompareConfig, restTemplateMock).fetchCoinSnapshot("");
+        createAdapter().fetchCoinSnapshot("");
     }
 
     @Test(expected = CryptoCompareApiException.class)
@@ -47,7 +68,7 @@ public class CryptoCompareAdapterTest {
                 .thenReturn(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
 
         // Run the code under test
-        new CryptoCompareAdapterImpl(cryptoCompareConfig, restTemplateMock).fetchCoinSnapshot("");
+        createAdapter().fetchCoinSnapshot("");
     }
 
     @Test(expected = CryptoCompareApiException.class)
@@ -59,7 +80,7 @@ public class CryptoCompareAdapterTest {
                 }}, HttpStatus.OK));
 
         // Run the code under test
-        new CryptoCompareAdapterImpl(cryptoCompareConfig, restTemplateMock).fetchCoinSnapshot("");
+        createAdapter().fetchCoinSnapshot("");
     }
 
     @Test(expected = CryptoCompareApiException.class)
@@ -71,6 +92,75 @@ public class CryptoCompareAdapterTest {
                 }}, HttpStatus.OK));
 
         // Run the code under test
-        new CryptoCompareAdapterImpl(cryptoCompareConfig, restTemplateMock).fetchCoinSnapshot("");
+        createAdapter().fetchCoinSnapshot("");
+    }
+
+    @Test
+    public void splitsSymbolsIntoChunksWithinLimits() {
+        // Run the code under test
+        List<List<String>> chunks = CryptoCompareAdapterImpl.chunkSymbols(
+                Arrays.asList("BTC", "ETH", "LTC", "XRP", "DOGE", "BCH"), 11, 3);
+
+        // Check test result
+        assertThat(chunks, is(equalTo(Arrays.asList(
+                Arrays.asList("BTC", "ETH", "LTC"),
+                Arrays.asList("XRP", "DOGE"),
+                Collections.singletonList("BCH")))));
+    }
+
+    @Test
+    public void fetchesCoinSnapshotsUsingOneRequestPerExchangeAndChunk() {
+        // Set up mocks
+        long now = System.currentTimeMillis();
+        String path = cryptoCompareConfig.getPriceMultiFullPath() + "BTC,ETH,XYZ";
+        Mockito.when(restTemplateMock.getForEntity(Matchers.startsWith(path),
+                Matchers.eq(PriceMultiFullResponse.class)))
+                .thenReturn(new ResponseEntity<>(new PriceMultiFullResponse() {{
+                    setResponse("Error");
+                }}, HttpStatus.OK));
+        Mockito.when(restTemplateMock.getForEntity(path, PriceMultiFullResponse.class))
+                .thenReturn(createPriceMultiFullResponse(now, "BTC", 105d, "ETH", 4d));
+        Mockito.when(restTemplateMock.getForEntity(path + "&e=Kraken", PriceMultiFullResponse.class))
+                .thenReturn(createPriceMultiFullResponse(now, "BTC", 100d));
+        Mockito.when(restTemplateMock.getForEntity(path + "&e=Bitfinex", PriceMultiFullResponse.class))
+                .thenReturn(createPriceMultiFullResponse(now, "BTC", 110d, "ETH", 5d));
+
+        // Run the code under test
+        Map<String, CoinSnapshotResponse> responses = createAdapter()
+                .fetchCoinSnapshots(Arrays.asList("BTC", "ETH", "XYZ"));
+
+        // Check test result
+        verify(restTemplateMock, times(1 + cryptoCompareConfig.getExchangeWhitelist().size()))
+                .getForEntity(Matchers.anyString(), Matchers.eq(PriceMultiFullResponse.class));
+        assertThat(responses.keySet(), is(equalTo(new HashSet<>(Arrays.asList("BTC", "ETH")))));
+
+        CoinSnapshotResponse.ResponseData btc = responses.get("BTC").getResponseData();
+        assertThat(btc.getCoinInfo().getName(), is(equalTo("BTC")));
+        assertThat(btc.getAggregatedData().getPrice(), is(equalTo(105d)));
+        assertThat(btc.getExchangeQuotes().size(), is(equalTo(2)));
+        assertThat(btc.getExchangeQuotes().getMinPriceExchange(), is(equalTo("Kraken")));
+        assertThat(btc.getExchangeQuotes().getMaxPriceExchange(), is(equalTo("Bitfinex")));
+
+        CoinSnapshotResponse.ResponseData eth = responses.get("ETH").getResponseData();
+        assertThat(eth.getExchangeQuotes().size(), is(equalTo(1)));
+        assertThat(eth.getExchangeQuotes().getMinPrice(), is(equalTo(5d)));
+    }
+
+    private CryptoCompareAdapterImpl createAdapter() {
+        return new CryptoCompareAdapterImpl(cryptoCompareConfig, restTemplateMock, exchangeFilter, requestExecutor);
+    }
+
+    private ResponseEntity<PriceMultiFullResponse> createPriceMultiFullResponse(long lastUpdated, Object... prices) {
+        Map<String, Map<String, PriceMultiFullResponse.PriceData>> raw = new HashMap<>();
+        for (int i = 0; i < prices.length; i += 2) {
+            PriceMultiFullResponse.PriceData data = new PriceMultiFullResponse.PriceData();
+            data.setPrice((Double) prices[i + 1]);
+            data.setVolume24H(1000d);
+            data.setLastUpdated(lastUpdated);
+            raw.put((String) prices[i], Collections.singletonMap("USD", data));
+        }
+        PriceMultiFullResponse response = new PriceMultiFullResponse();
+        response.setRaw(raw);
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.schumskich.cryptotrickstr.support;
+
+import com.schumskich.cryptotrickstr.config.CryptoCompareConfig;
+import com.schumskich.cryptotrickstr.support.cryptocompare.recording.ReplayClientHttpRequestFactory;
+import com.schumskich.cryptotrickstr.support.cryptocompare.recording.ResponseRecorder;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriTemplateHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.fail;
+
+/**
+ * Records the responses of a local stub server and replays them without the server.
+ */
+public class CryptoCompareRecordingTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = ("{\"Request\":\"" + exchange.getRequestURI() + "\",\"Count\":"
+                    + requestCount.incrementAndGet() + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void replaysRecordedResponsesInOrder() throws IOException {
+        // Set up recording
+        Path directory = folder.getRoot().toPath();
+        RestTemplate recordingTemplate = createRestTemplate("http://localhost:" + server.getAddress().getPort());
+        recordingTemplate.setInterceptors(Collections.singletonList(new ResponseRecorder(directory)));
+        String first = recordingTemplate.getForObject("/data/top?limit=1", String.class);
+        String second = recordingTemplate.getForObject("/data/top?limit=1", String.class);
+        String other = recordingTemplate.getForObject("/data/snapshot?fsym=BTC", String.class);
+        server.stop(0);
+
+        // Run the code under test
+        ReplayClientHttpRequestFactory replayFactory = new ReplayClientHttpRequestFactory(directory,
+                CryptoCompareConfig.ReplayTiming.FAST);
+        RestTemplate replayTemplate = createRestTemplate("http://replay.invalid");
+        replayTemplate.setRequestFactory(replayFactory);
+        ResponseEntity<String> replayedFirst = replayTemplate.getForEntity("/data/top?limit=1", String.class);
+
+        // Check test result
+        assertThat(first, is(equalTo("{\"Request\":\"/data/top?limit=1\",\"Count\":1}")));
+        assertThat(Files.walk(directory).filter(file -> file.toString().endsWith(".gz")).count(), is(equalTo(3L)));
+        assertThat(replayFactory.size(), is(equalTo(2)));
+        assertThat(replayedFirst.getBody(), is(equalTo(first)));
+        assertThat(replayedFirst.getHeaders().getContentType().toString(), is(equalTo("application/json")));
+        assertThat(replayTemplate.getForObject("/data/top?limit=1", String.class), is(equalTo(second)));
+        assertThat(replayTemplate.getForObject("/data/top?limit=1", String.class), is(equalTo(first)));
+        assertThat(replayTemplate.getForObject("/data/snapshot?fsym=BTC", String.class), is(equalTo(other)));
+        try {
+            replayTemplate.getForObject("/data/snapshot?fsym=ETH", String.class);
+            fail("Expected a request that has not been recorded to fail.");
+        } catch (HttpClientErrorException e) {
+            assertThat(e.getStatusCode(), is(equalTo(HttpStatus.NOT_FOUND)));
+        }
+    }
+
+    private static RestTemplate createRestTemplate(String baseUrl) {
+        DefaultUriTemplateHandler uriTemplateHandler = new DefaultUriTemplateHandler();
+        uriTemplateHandler.setBaseUrl(baseUrl);
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setUriTemplateHandler(uriTemplateHandler);
+        return restTemplate;
+    }
+}
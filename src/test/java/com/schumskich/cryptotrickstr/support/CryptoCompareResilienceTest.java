@@ -0,0 +1,209 @@
+package com.schumskich.cryptotrickstr.support;
+
+import com.schumskich.cryptotrickstr.config.CryptoCompareConfig;
+import com.schumskich.cryptotrickstr.support.cryptocompare.CryptoCompareAdapterImpl;
+import com.schumskich.cryptotrickstr.support.cryptocompare.CryptoCompareRequestExecutor;
+import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareApiException;
+import com.schumskich.cryptotrickstr.support.cryptocompare.exceptions.CryptoCompareUnavailableException;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeFilter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import com.schumskich.cryptotrickstr.support.ratelimit.AdaptiveRateLimiter;
+import com.schumskich.cryptotrickstr.support.resilience.CircuitBreaker;
+import com.schumskich.cryptotrickstr.support.resilience.ExponentialBackoff;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriTemplateHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the rate limiting, retry and circuit breaker behaviour of the adapter against a local stub server.
+ */
+public class CryptoCompareResilienceTest {
+    private static final String TOP_COINS = "{\"Response\":\"Success\",\"Data\":[{\"CoinInfo\":{\"Name\":\"BTC\"}}]}";
+    private static final String RATE_LIMITED =
+            "{\"Response\":\"Error\",\"Message\":\"You are over your rate limit please upgrade your account!\"}";
+
+    private HttpServer server;
+    private final Queue<StubResponse> responses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private AdaptiveRateLimiter rateLimiter;
+    private CircuitBreaker circuitBreaker;
+    private IngestMetrics metrics;
+    private CryptoCompareAdapterImpl adapter;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requestCount.incrementAndGet();
+            StubResponse response = responses.size() > 1 ? responses.poll() : responses.peek();
+            byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        DefaultUriTemplateHandler uriTemplateHandler = new DefaultUriTemplateHandler();
+        uriTemplateHandler.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setUriTemplateHandler(uriTemplateHandler);
+
+        CryptoCompareConfig config = new CryptoCompareConfig();
+        config.setTopSymbolsByVolumePath("/data/top/totalvol");
+        rateLimiter = new AdaptiveRateLimiter(1, 100, 1, 0.5, 10);
+        circuitBreaker = new CircuitBreaker(3, 60000);
+        metrics = new IngestMetrics();
+        CryptoCompareRequestExecutor requestExecutor = new CryptoCompareRequestExecutor(rateLimiter, circuitBreaker,
+                new ExponentialBackoff(1, 5), 3, metrics);
+        adapter = new CryptoCompareAdapterImpl(config, restTemplate, ExchangeFilter.acceptAll(), requestExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void retriesThrottledRequestsAndDecreasesRate() {
+        // Set up stub
+        responses.add(new StubResponse(200, RATE_LIMITED));
+        responses.add(new StubResponse(429, "{}"));
+        responses.add(new StubResponse(200, TOP_COINS));
+
+        // Run the code under test
+        TopCoinsResponse response = adapter.fetchTopCoins();
+
+        // Check test result
+        assertThat(response.getResponseData().get(0).getCoinInfo().getName(), is(equalTo("BTC")));
+        assertThat(requestCount.get(), is(equalTo(3)));
+        assertThat(rateLimiter.getRate(), is(lessThan(100d)));
+        assertThat(circuitBreaker.getState(), is(equalTo(CircuitBreaker.State.CLOSED)));
+        assertThat(metrics.getCounter("api.throttled"), is(equalTo(2L)));
+        assertThat(metrics.getCounter("api.retries"), is(equalTo(2L)));
+    }
+
+    @Test
+    public void opensCircuitAfterConsecutiveFailures() {
+        // Set up stub
+        responses.add(new StubResponse(503, "{}"));
+
+        // Run the code under test
+        try {
+            adapter.fetchTopCoins();
+            fail("Expected the request to fail.");
+        } catch (CryptoCompareUnavailableException e) {
+            // Expected after the last attempt
+        }
+        try {
+            adapter.fetchTopCoins();
+            fail("Expected the request to fail.");
+        } catch (CryptoCompareUnavailableException e) {
+            // Expected without sending requests
+        }
+
+        // Check test result
+        assertThat(requestCount.get(), is(equalTo(3)));
+        assertThat(circuitBreaker.getState(), is(equalTo(CircuitBreaker.State.OPEN)));
+        assertThat(metrics.getCounter("api.unavailable"), is(equalTo(3L)));
+        assertThat(metrics.getCounter("api.circuitOpenRejections"), is(equalTo(1L)));
+        assertThat(metrics.getCounter("api.failedRequests"), is(equalTo(1L)));
+        assertThat(metrics.getCounter("api.retries"), is(equalTo(2L)));
+    }
+
+    @Test
+    public void failsImmediatelyIfCircuitIsOpen() {
+        // Set up circuit breaker
+        CircuitBreaker openBreaker = new CircuitBreaker(1, 60000);
+        openBreaker.onFailure();
+        CryptoCompareRequestExecutor requestExecutor = new CryptoCompareRequestExecutor(rateLimiter, openBreaker,
+                new ExponentialBackoff(10000, 10000), 3, metrics);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Run the code under test
+        long start = System.nanoTime();
+        try {
+            requestExecutor.execute(calls::incrementAndGet);
+            fail("Expected the request to be rejected.");
+        } catch (CryptoCompareUnavailableException e) {
+            // Expected
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Check test result: no retry after the 10 s backoff
+        assertThat(calls.get(), is(equalTo(0)));
+        assertThat(elapsedMillis, is(lessThan(1000L)));
+        assertThat(metrics.getCounter("api.circuitOpenRejections"), is(equalTo(1L)));
+        assertThat(metrics.getCounter("api.retries"), is(equalTo(0L)));
+    }
+
+    @Test(expected = CryptoCompareApiException.class)
+    public void doesNotRetryApiErrors() {
+        // Set up stub
+        responses.add(new StubResponse(200, "{\"Response\":\"Error\",\"Message\":\"Unknown symbol\"}"));
+
+        // Run the code under test
+        try {
+            adapter.fetchTopCoins();
+        } finally {
+            // Check test result
+            assertThat(requestCount.get(), is(equalTo(1)));
+            assertThat(circuitBreaker.getState(), is(equalTo(CircuitBreaker.State.CLOSED)));
+            assertThat(metrics.getCounter("api.errors"), is(equalTo(1L)));
+        }
+    }
+
+    @Test
+    public void reopensCircuitIfTrialRequestThrowsError() {
+        // Set up circuit breaker
+        CircuitBreaker halfOpenBreaker = new CircuitBreaker(1, 0);
+        halfOpenBreaker.onFailure();
+        CryptoCompareRequestExecutor requestExecutor = new CryptoCompareRequestExecutor(rateLimiter, halfOpenBreaker,
+                new ExponentialBackoff(1, 5), 3, metrics);
+
+        // Run the code under test
+        try {
+            requestExecutor.execute(() -> {
+                throw new StackOverflowError();
+            });
+            fail("Expected the error to be rethrown.");
+        } catch (StackOverflowError e) {
+            // Expected
+        }
+
+        // Check test result
+        assertThat(halfOpenBreaker.getState(), is(equalTo(CircuitBreaker.State.OPEN)));
+        assertThat(halfOpenBreaker.tryAcquirePermission(), is(true));
+    }
+
+    private static class StubResponse {
+        private final int status;
+        private final String body;
+
+        private StubResponse(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
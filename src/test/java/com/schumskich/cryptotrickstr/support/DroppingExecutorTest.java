@@ -0,0 +1,50 @@
+package com.schumskich.cryptotrickstr.support;
+
+import com.schumskich.cryptotrickstr.support.concurrent.DroppingExecutor;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class DroppingExecutorTest {
+
+    @Test
+    public void dropsTasksIfQueueIsFull() throws InterruptedException {
+        // Set up mocks
+        IngestMetrics metrics = new IngestMetrics();
+        DroppingExecutor executor = new DroppingExecutor("test-", 2, metrics, "test.dropped");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+
+        // Run the code under test
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            completed.incrementAndGet();
+        }, 1);
+        started.await();
+        for (int i = 0; i < 4; i++) {
+            executor.execute(completed::incrementAndGet, 10);
+        }
+        release.countDown();
+        executor.shutdown();
+
+        // Check test result
+        assertThat(completed.get(), is(equalTo(3)));
+        assertThat(metrics.getCounter("test.dropped"), is(equalTo(20L)));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.schumskich.cryptotrickstr.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class EpochMillisDeserializerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void readsIsoStringsAndEpochMillis() throws IOException {
+        // Run the code under test
+        CoinEntity coin = objectMapper.readValue("{\"minPriceUpdated\":\"2018-03-01T00:00:00.000+0000\","
+                + "\"maxPriceUpdated\":1519862400000,\"dateCreated\":\"2018-03-01T00:00:01Z\","
+                + "\"dateUpdated\":\"1519862402000\"}", CoinEntity.class);
+
+        // Check test result
+        assertThat(coin.getMinPriceUpdated(), is(equalTo(1519862400000L)));
+        assertThat(coin.getMaxPriceUpdated(), is(equalTo(1519862400000L)));
+        assertThat(coin.getDateCreated(), is(equalTo(1519862401000L)));
+        assertThat(coin.getDateUpdated(), is(equalTo(1519862402000L)));
+    }
+
+    @Test
+    public void readsNulls() throws IOException {
+        // Run the code under test
+        CoinEntity coin = objectMapper.readValue("{\"minPriceUpdated\":null,\"dateCreated\":null}",
+                CoinEntity.class);
+
+        // Check test result
+        assertThat(coin.getMinPriceUpdated(), is(nullValue()));
+        assertThat(coin.getDateCreated(), is(equalTo(0L)));
+    }
+}
@@ -0,0 +1,117 @@
+package com.schumskich.cryptotrickstr.support;
+
+import com.schumskich.cryptotrickstr.support.tickfile.QuoteTickStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class QuoteTickStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void scansTimeRangeAcrossSegments() throws IOException {
+        try (QuoteTickStore store = new QuoteTickStore(folder.getRoot().toPath(), 3)) {
+            // Set up quotes
+            appendQuotes(store);
+
+            // Run the code under test
+            List<String> quotes = new ArrayList<>();
+            long visited = store.scan(2000, 4000, null, cursor -> quotes.add(cursor.getTimestamp() + " "
+                    + cursor.getSymbol() + " " + cursor.getExchange() + " " + cursor.getPrice()));
+
+            // Check test result
+            assertThat(store.size(), is(equalTo(8L)));
+            assertThat(visited, is(equalTo(4L)));
+            assertThat(quotes, is(equalTo(Arrays.asList("2000 BTC Kraken 102.0", "2000 BTC Bitfinex 103.0",
+                    "3000 ETH Kraken 10.0", "3000 BTC Kraken 104.0"))));
+        }
+    }
+
+    @Test
+    public void filtersBySymbol() throws IOException {
+        try (QuoteTickStore store = new QuoteTickStore(folder.getRoot().toPath(), 3)) {
+            // Set up quotes
+            appendQuotes(store);
+
+            // Run the code under test
+            List<Double> prices = new ArrayList<>();
+            store.scan(0, Long.MAX_VALUE, "ETH", cursor -> prices.add(cursor.getPrice()));
+
+            // Check test result
+            assertThat(prices, is(equalTo(Arrays.asList(10.0, 11.0))));
+            assertThat(store.scan(0, Long.MAX_VALUE, "XRP", cursor -> {
+            }), is(equalTo(0L)));
+        }
+    }
+
+    @Test
+    public void keepsQuotesAfterReopening() throws IOException {
+        // Set up quotes
+        Path directory = folder.getRoot().toPath();
+        try (QuoteTickStore store = new QuoteTickStore(directory, 3)) {
+            appendQuotes(store);
+        }
+
+        // Run the code under test
+        try (QuoteTickStore store = new QuoteTickStore(directory, 3)) {
+            store.append(1000, "LTC", "Kraken", 5.0, 1.0, 900);
+            List<String> quotes = new ArrayList<>();
+            store.scan(5000, Long.MAX_VALUE, null, cursor -> quotes.add(cursor.getTimestamp() + " "
+                    + cursor.getSymbol() + " " + cursor.getVolume24H() + " " + cursor.getLastUpdated()));
+
+            // Check test result: the earlier timestamp has been replaced to keep the rows ordered
+            assertThat(store.size(), is(equalTo(9L)));
+            assertThat(quotes, is(equalTo(Arrays.asList("5000 ETH 2.0 4900", "5000 LTC 1.0 900"))));
+        }
+    }
+
+    @Test
+    public void purgesOldSegments() throws IOException {
+        // Set up quotes: the segments contain the times 1000-2000, 2000-3000 and 4000-5000
+        Path directory = folder.getRoot().toPath();
+        try (QuoteTickStore store = new QuoteTickStore(directory, 3)) {
+            appendQuotes(store);
+
+            // Run the code under test
+            int purged = store.purge(3000);
+
+            // Check test result
+            assertThat(purged, is(equalTo(1)));
+            assertThat(store.size(), is(equalTo(5L)));
+            assertThat(store.purge(Long.MAX_VALUE), is(equalTo(1)));
+            assertThat(store.size(), is(equalTo(2L)));
+        }
+
+        // Check test result: new segments do not overwrite the remaining one
+        try (QuoteTickStore store = new QuoteTickStore(directory, 3)) {
+            store.append(6000, "BTC", "Kraken", 106.0, 1.0, 5900);
+            store.append(7000, "BTC", "Kraken", 107.0, 1.0, 6900);
+            assertThat(store.size(), is(equalTo(4L)));
+            assertThat(Files.exists(directory.resolve("quotes-00000000.seg")), is(false));
+            assertThat(Files.exists(directory.resolve("quotes-00000003.seg")), is(true));
+        }
+    }
+
+    private static void appendQuotes(QuoteTickStore store) throws IOException {
+        store.append(1000, "BTC", "Kraken", 100.0, 1.0, 900);
+        store.append(1000, "BTC", "Bitfinex", 101.0, 1.0, 900);
+        store.append(2000, "BTC", "Kraken", 102.0, 1.0, 1900);
+        store.append(2000, "BTC", "Bitfinex", 103.0, 1.0, 1900);
+        store.append(3000, "ETH", "Kraken", 10.0, 2.0, 2900);
+        store.append(3000, "BTC", "Kraken", 104.0, 1.0, 2900);
+        store.append(4000, "BTC", "Kraken", 105.0, 1.0, 3900);
+        store.append(5000, "ETH", "Kraken", 11.0, 2.0, 4900);
+    }
+}
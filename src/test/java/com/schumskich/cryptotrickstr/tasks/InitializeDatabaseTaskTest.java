@@ -1,13 +1,21 @@
 package com.schumskich.cryptotrickstr.tasks;
 
+import com.schumskich.cryptotrickstr.app.arbitrage.ArbitrageRouteService;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinIngestService;
+import com.schumskich.cryptotrickstr.app.coins.ingest.CoinSnapshotMapper;
+import com.schumskich.cryptotrickstr.app.coins.ingest.TopCoinsSelector;
+import com.schumskich.cryptotrickstr.app.coins.persistence.CoinBatchWriter;
 import com.schumskich.cryptotrickstr.app.coins.persistence.CoinEntity;
 import com.schumskich.cryptotrickstr.app.coins.persistence.CoinRepository;
 import com.schumskich.cryptotrickstr.app.coins.tasks.InitializeDatabaseTask;
 import com.schumskich.cryptotrickstr.config.CryptoCompareConfig;
-import com.schumskich.cryptotrickstr.config.OrikaBeanMapper;
+import com.schumskich.cryptotrickstr.config.IngestConfig;
 import com.schumskich.cryptotrickstr.support.cryptocompare.CryptoCompareAdapter;
 import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.CoinSnapshotResponse;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeFilter;
+import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.ExchangeQuotes;
 import com.schumskich.cryptotrickstr.support.cryptocompare.transfer.TopCoinsResponse;
+import com.schumskich.cryptotrickstr.support.metrics.IngestMetrics;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -18,13 +26,19 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -43,7 +57,10 @@ public class InitializeDatabaseTaskTest {
     private CryptoCompareConfig cryptoCompareConfig;
 
     @Autowired
-    private OrikaBeanMapper mapper;
+    private IngestConfig ingestConfig;
+
+    @Autowired
+    private CoinSnapshotMapper mapper;
 
     @MockBean
     private CryptoCompareAdapter adapterMock;
@@ -51,8 +68,27 @@ public class InitializeDatabaseTaskTest {
     @MockBean
     private CoinRepository repositoryMock;
 
+    @MockBean
+    private ArbitrageRouteService routeServiceMock;
+
+    private ApplicationEventPublisher eventPublisherMock = Mockito.mock(ApplicationEventPublisher.class);
+
+    private IngestMetrics metrics;
+
+    private CoinIngestService ingestService;
+
+    @Before
+    public void setUp() {
+        this.metrics = new IngestMetrics();
+        this.ingestService = new CoinIngestService(ingestConfig, adapterMock,
+                new TopCoinsSelector(ingestConfig, adapterMock, metrics), mapper, new CoinBatchWriter(repositoryMock),
+                routeServiceMock, eventPublisherMock, metrics);
+    }
+
     @After
     public void tearDown() {
+        this.ingestService.shutdown();
+        this.ingestConfig.setFetchMode(IngestConfig.FetchMode.SNAPSHOT);
         this.cryptoCompareConfig.getExchangeWhitelist().remove("Exchange0");
         this.cryptoCompareConfig.getExchangeWhitelist().remove("Exchange1");
     }
@@ -60,7 +96,7 @@ public class InitializeDatabaseTaskTest {
     @Test
     public void doesNotStartIfParameterNotSet() {
         // Run the code under test
-        new InitializeDatabaseTask(false, cryptoCompareConfig, adapterMock, mapper, repositoryMock)
+        new InitializeDatabaseTask(false, ingestService)
                 .onApplicationEvent(null);
 
         // Check test result
@@ -75,7 +111,7 @@ public class InitializeDatabaseTaskTest {
                 .thenReturn(createDefaultCoinSnapshotResponse("BTC"));
 
         // Run the code under test
-        new InitializeDatabaseTask(true, cryptoCompareConfig, adapterMock, mapper, repositoryMock)
+        new InitializeDatabaseTask(true, ingestService)
                 .onApplicationEvent(null);
 
         // Check test result
@@ -93,17 +129,19 @@ public class InitializeDatabaseTaskTest {
         Mockito.when(adapterMock.fetchTopCoins()).thenReturn(createDefaultTopCoinsResponse());
         Mockito.when(adapterMock.fetchCoinSnapshot(Matchers.matches("BTC")))
                 .thenReturn(createDefaultCoinSnapshotResponse("BTC"));
-        Mockito.when(repositoryMock.findOneBySymbol(any(String.class))).thenReturn(null);
 
         // Run the code under test
-        Date testStartTime = new Date();
-        new InitializeDatabaseTask(true, cryptoCompareConfig, adapterMock, mapper, repositoryMock)
+        long testStartTime = System.currentTimeMillis();
+        new InitializeDatabaseTask(true, ingestService)
                 .onApplicationEvent(null);
 
         // Check test result
-        ArgumentCaptor<CoinEntity> captor = ArgumentCaptor.forClass(CoinEntity.class);
-        Mockito.verify(repositoryMock).save(captor.capture());
-        verifyDefaultCoinEntity(captor, testStartTime);
+        verifyDefaultCoinEntity(captureSavedEntities().get(0), testStartTime);
+        assertThat(metrics.getTimerCount(IngestMetrics.TOP_COINS_FETCH), is(equalTo(1L)));
+        assertThat(metrics.getTimerCount(IngestMetrics.SNAPSHOT_FETCH), is(equalTo(1L)));
+        assertThat(metrics.getTimerCount(IngestMetrics.MAPPING), is(equalTo(1L)));
+        assertThat(metrics.getTimerCount(IngestMetrics.REPOSITORY_SAVE), is(equalTo(1L)));
+        assertThat(metrics.getCounter("coins.stored"), is(equalTo(1L)));
     }
 
     @Test
@@ -117,17 +155,41 @@ public class InitializeDatabaseTaskTest {
         Mockito.when(adapterMock.fetchCoinSnapshot(Matchers.matches("BTC")))
                 .thenReturn(createDefaultCoinSnapshotResponse("BTC"));
         // Returning an "existing" but empty object to update
-        Mockito.when(repositoryMock.findOneBySymbol(any(String.class))).thenReturn(new CoinEntity());
+        Mockito.when(repositoryMock.findBySymbolIn(Matchers.anyCollectionOf(String.class)))
+                .thenReturn(Collections.singletonList(new CoinEntity() {{
+                    setSymbol("BTC");
+                }}));
 
         // Run the code under test
-        Date testStartTime = new Date();
-        new InitializeDatabaseTask(true, cryptoCompareConfig, adapterMock, mapper, repositoryMock)
+        long testStartTime = System.currentTimeMillis();
+        new InitializeDatabaseTask(true, ingestService)
                 .onApplicationEvent(null);
 
         // Check test result
-        ArgumentCaptor<CoinEntity> captor = ArgumentCaptor.forClass(CoinEntity.class);
-        Mockito.verify(repositoryMock).save(captor.capture());
-        verifyDefaultCoinEntity(captor, testStartTime);
+        verifyDefaultCoinEntity(captureSavedEntities().get(0), testStartTime);
+    }
+
+    @Test
+    public void doesNotStoreUnchangedCoinEntity() {
+        // Set up exchange whitelist
+        cryptoCompareConfig.getExchangeWhitelist().add("Exchange0");
+        cryptoCompareConfig.getExchangeWhitelist().add("Exchange1");
+
+        // Set up mocks
+        CoinSnapshotResponse snapshot = createDefaultCoinSnapshotResponse("BTC");
+        Mockito.when(adapterMock.fetchTopCoins()).thenReturn(createDefaultTopCoinsResponse());
+        Mockito.when(adapterMock.fetchCoinSnapshot(Matchers.matches("BTC"))).thenReturn(snapshot);
+
+        // Run the code under test (the first run stores the entity, the second one gets the same snapshot)
+        new InitializeDatabaseTask(true, ingestService).onApplicationEvent(null);
+        CoinEntity storedEntity = captureSavedEntities().get(0);
+        Mockito.when(repositoryMock.findBySymbolIn(Matchers.anyCollectionOf(String.class)))
+                .thenReturn(Collections.singletonList(storedEntity));
+        new InitializeDatabaseTask(true, ingestService).onApplicationEvent(null);
+
+        // Check test result
+        verify(adapterMock, times(2)).fetchCoinSnapshot("BTC");
+        verify(repositoryMock, times(1)).save(Matchers.<Iterable<CoinEntity>>any());
     }
 
     @Test
@@ -137,25 +199,105 @@ public class InitializeDatabaseTaskTest {
         Mockito.when(adapterMock.fetchCoinSnapshot(Matchers.matches("BTC")))
                 .thenReturn(createDefaultCoinSnapshotResponse("BTC"));
         // Returning an "existing" but empty object to update
-        Mockito.when(repositoryMock.findOneBySymbol(any(String.class))).thenReturn(new CoinEntity());
+        Mockito.when(repositoryMock.findBySymbolIn(Matchers.anyCollectionOf(String.class)))
+                .thenReturn(Collections.singletonList(new CoinEntity() {{
+                    setSymbol("BTC");
+                }}));
 
         // Run the code under test
-        new InitializeDatabaseTask(true, cryptoCompareConfig, adapterMock, mapper, repositoryMock)
+        new InitializeDatabaseTask(true, ingestService)
                 .onApplicationEvent(null);
 
         // Check test result
-        ArgumentCaptor<CoinEntity> captor = ArgumentCaptor.forClass(CoinEntity.class);
-        Mockito.verify(repositoryMock).save(captor.capture());
+        CoinEntity entity = captureSavedEntities().get(0);
 
         // Verify price information
-        assertThat(captor.getValue().getMinPrice(), is(equalTo(null)));
-        assertThat(captor.getValue().getMinPriceExchange(), is(equalTo(null)));
-        assertThat(captor.getValue().getMinPriceUpdated(), is(equalTo(null)));
-        assertThat(captor.getValue().getMaxPrice(), is(equalTo(null)));
-        assertThat(captor.getValue().getMaxPriceExchange(), is(equalTo(null)));
-        assertThat(captor.getValue().getMaxPriceUpdated(), is(equalTo(null)));
-        assertThat(captor.getValue().getPriceGap(), is(equalTo(null)));
-        assertThat(captor.getValue().getPriceGapPercent(), is(equalTo(null)));
+        assertThat(entity.getMinPrice(), is(equalTo(null)));
+        assertThat(entity.getMinPriceExchange(), is(equalTo(null)));
+        assertThat(entity.getMinPriceUpdated(), is(equalTo(null)));
+        assertThat(entity.getMaxPrice(), is(equalTo(null)));
+        assertThat(entity.getMaxPriceExchange(), is(equalTo(null)));
+        assertThat(entity.getMaxPriceUpdated(), is(equalTo(null)));
+        assertThat(entity.getPriceGap(), is(equalTo(null)));
+        assertThat(entity.getPriceGapPercent(), is(equalTo(null)));
+    }
+
+    @Test
+    public void storesAllCoinsFetchedConcurrently() {
+        // Set up mocks
+        Mockito.when(adapterMock.fetchTopCoins()).thenReturn(createTopCoinsResponse("BTC", "ETH", "LTC", "XRP"));
+        Mockito.when(adapterMock.fetchCoinSnapshot(any(String.class)))
+                .thenAnswer(invocation -> createDefaultCoinSnapshotResponse(invocation.getArgumentAt(0, String.class)));
+
+        // Run the code under test
+        new InitializeDatabaseTask(true, ingestService)
+                .onApplicationEvent(null);
+
+        // Check test result
+        assertThat(captureSavedEntities().stream().map(CoinEntity::getSymbol).collect(Collectors.toSet()),
+                is(equalTo(new HashSet<>(Arrays.asList("BTC", "ETH", "LTC", "XRP")))));
+    }
+
+    @Test
+    public void discoversCoinsPageByPage() {
+        // Set up a discovery with small pages and a queue that only holds one coin
+        int maxCoins = ingestConfig.getDiscovery().getMaxCoins();
+        int pageSize = ingestConfig.getDiscovery().getPageSize();
+        int queueCapacity = ingestConfig.getDiscovery().getQueueCapacity();
+        ingestConfig.getDiscovery().setMaxCoins(4);
+        ingestConfig.getDiscovery().setPageSize(2);
+        ingestConfig.getDiscovery().setQueueCapacity(1);
+        this.ingestService.shutdown();
+        setUp();
+
+        // Set up mocks (ETH moved to the second page while paging)
+        Mockito.when(adapterMock.fetchTopCoins()).thenReturn(createTopCoinsResponse("BTC", "ETH"));
+        Mockito.when(adapterMock.fetchTopCoins(1)).thenReturn(createTopCoinsResponse("ETH", "LTC"));
+        Mockito.when(adapterMock.fetchTopCoins(2)).thenReturn(createTopCoinsResponse("XRP", "DASH"));
+        Mockito.when(adapterMock.fetchCoinSnapshot(any(String.class)))
+                .thenAnswer(invocation -> createDefaultCoinSnapshotResponse(invocation.getArgumentAt(0, String.class)));
+
+        // Run the code under test
+        try {
+            new InitializeDatabaseTask(true, ingestService)
+                    .onApplicationEvent(null);
+        } finally {
+            ingestConfig.getDiscovery().setMaxCoins(maxCoins);
+            ingestConfig.getDiscovery().setPageSize(pageSize);
+            ingestConfig.getDiscovery().setQueueCapacity(queueCapacity);
+        }
+
+        // Check test result
+        assertThat(captureSavedEntities().stream().map(CoinEntity::getSymbol).collect(Collectors.toSet()),
+                is(equalTo(new HashSet<>(Arrays.asList("BTC", "ETH", "LTC", "XRP")))));
+        verify(adapterMock, times(1)).fetchCoinSnapshot("ETH");
+        verify(adapterMock, times(0)).fetchCoinSnapshot("DASH");
+        verify(adapterMock, times(0)).fetchTopCoins(3);
+        assertThat(metrics.getCounter("coins.discovered"), is(equalTo(4L)));
+    }
+
+    @Test
+    public void storesCoinsFetchedInBatches() {
+        // Set up exchange whitelist
+        cryptoCompareConfig.getExchangeWhitelist().add("Exchange0");
+        cryptoCompareConfig.getExchangeWhitelist().add("Exchange1");
+        ingestConfig.setFetchMode(IngestConfig.FetchMode.BATCH);
+
+        // Set up mocks
+        CoinSnapshotResponse response = createDefaultCoinSnapshotResponse("BTC");
+        response.getResponseData().getCoinInfo().setFullName(null); // Not provided by the batch API
+        Mockito.when(adapterMock.fetchTopCoins()).thenReturn(createDefaultTopCoinsResponse());
+        Mockito.when(adapterMock.fetchCoinSnapshots(Collections.singletonList("BTC")))
+                .thenReturn(Collections.singletonMap("BTC", response));
+
+        // Run the code under test
+        long testStartTime = System.currentTimeMillis();
+        new InitializeDatabaseTask(true, ingestService)
+                .onApplicationEvent(null);
+
+        // Check test result
+        verify(adapterMock, times(0)).fetchCoinSnapshot(any(String.class));
+        verifyDefaultCoinEntity(captureSavedEntities().get(0), testStartTime);
     }
 
     @Test
@@ -168,50 +310,71 @@ public class InitializeDatabaseTaskTest {
         Mockito.when(adapterMock.fetchTopCoins()).thenReturn(createDefaultTopCoinsResponse());
         Mockito.when(adapterMock.fetchCoinSnapshot(Matchers.matches("BTC")))
                 .thenReturn(new CoinSnapshotResponse()); // Entity is empty (null values only)
-        Mockito.when(repositoryMock.findOneBySymbol(any(String.class))).thenReturn(null);
 
         // Run the code under test
-        new InitializeDatabaseTask(true, cryptoCompareConfig, adapterMock, mapper, repositoryMock)
+        new InitializeDatabaseTask(true, ingestService)
                 .onApplicationEvent(null);
 
         // Check test result
-        verify(repositoryMock, times(0)).save(Matchers.any(CoinEntity.class));
+        verify(repositoryMock, times(0)).save(Matchers.<Iterable<CoinEntity>>any());
+        assertThat(metrics.getCounter("skipped.missingData"), is(equalTo(1L)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CoinEntity> captureSavedEntities() {
+        ArgumentCaptor<Iterable<CoinEntity>> captor = ArgumentCaptor.forClass((Class) Iterable.class);
+        verify(repositoryMock).save(captor.capture());
+        List<CoinEntity> entities = new LinkedList<>();
+        captor.getValue().forEach(entities::add);
+        return entities;
     }
 
-    private void verifyDefaultCoinEntity(ArgumentCaptor<CoinEntity> captor, Date testStartTime) {
+    private void verifyDefaultCoinEntity(CoinEntity entity, long testStartTime) {
         // Verify mapping
-        assertThat(captor.getValue().getSymbol(), is(equalTo("BTC")));
-        assertThat(captor.getValue().getFullName(), is(equalTo("BTCCoin")));
-        assertThat(captor.getValue().getTotalCoinsMined(), is(equalTo(5L)));
-        assertThat(captor.getValue().getAggregatedPrice(), is(equalTo(100.5)));
-        assertThat(captor.getValue().getAggregatedDayPriceOpen(), is(equalTo(600.2)));
-        assertThat(captor.getValue().getTotalVolume24H(), is(equalTo(500000d)));
+        assertThat(entity.getSymbol(), is(equalTo("BTC")));
+        assertThat(entity.getFullName(), is(equalTo("BTCCoin")));
+        assertThat(entity.getTotalCoinsMined(), is(equalTo(5L)));
+        assertThat(entity.getAggregatedPrice(), is(equalTo(100.5)));
+        assertThat(entity.getAggregatedDayPriceOpen(), is(equalTo(600.2)));
+        assertThat(entity.getTotalVolume24H(), is(equalTo(500000d)));
 
         // Verify price information
-        assertThat(captor.getValue().getMinPrice(), is(equalTo(1100.4)));
-        assertThat(captor.getValue().getMinPriceExchange(), is(equalTo("Exchange0")));
-        assertThat(captor.getValue().getMinPriceUpdated(), is(greaterThan(testStartTime)));
-        assertThat(captor.getValue().getMaxPrice(), is(equalTo(2100.4)));
-        assertThat(captor.getValue().getMaxPriceExchange(), is(equalTo("Exchange1")));
-        assertThat(captor.getValue().getMaxPriceUpdated(), is(greaterThan(testStartTime)));
-        assertThat(captor.getValue().getPriceGap(), is(equalTo(1000.0)));
-        assertThat(captor.getValue().getPriceGapPercent(), is(equalTo(90.87604507451836)));
+        assertThat(entity.getMinPrice(), is(equalTo(1100.4)));
+        assertThat(entity.getMinPriceExchange(), is(equalTo("Exchange0")));
+        assertThat(entity.getMinPriceUpdated(), is(greaterThan(testStartTime)));
+        assertThat(entity.getMaxPrice(), is(equalTo(2100.4)));
+        assertThat(entity.getMaxPriceExchange(), is(equalTo("Exchange1")));
+        assertThat(entity.getMaxPriceUpdated(), is(greaterThan(testStartTime)));
+        assertThat(entity.getPriceGap(), is(equalTo(1000.0)));
+        assertThat(entity.getPriceGapPercent(), is(equalTo(90.87604507451836)));
 
         // Verify class does not touch the date of creation / update (set automatically by JPA)
-        assertThat(captor.getValue().getDateCreated(), is(equalTo(null)));
-        assertThat(captor.getValue().getDateUpdated(), is(equalTo(null)));
+        assertThat(entity.getDateCreated(), is(equalTo(0L)));
+        assertThat(entity.getDateUpdated(), is(equalTo(0L)));
+    }
+
+    private ExchangeFilter createExchangeFilter() {
+        return new ExchangeFilter(cryptoCompareConfig.getExchangeWhitelist(),
+                TimeUnit.HOURS.toMillis(cryptoCompareConfig.getExchangeDataStaleAfter()));
     }
 
     private TopCoinsResponse createDefaultTopCoinsResponse() {
+        return createTopCoinsResponse("BTC");
+    }
+
+    private TopCoinsResponse createTopCoinsResponse(String... symbols) {
         return new TopCoinsResponse() {{
             setResponse("Success");
             setMessage("OK");
             setResponseData(new LinkedList<TopCoinsResponse.ResponseData>() {{
-                add(new TopCoinsResponse.ResponseData() {{
-                    setCoinInfo(new CoinInfo() {{
-                        setName("BTC");
+                for (String symbol : symbols) {
+                    add(new TopCoinsResponse.ResponseData() {{
+                        setCoinInfo(new CoinInfo() {{
+                            setName(symbol);
+                            setFullName(symbol + "Coin");
+                        }});
                     }});
-                }});
+                }
             }});
         }};
     }
@@ -223,7 +386,7 @@ public class InitializeDatabaseTaskTest {
             setResponseData(new ResponseData() {{
                 setAggregatedData(new AggregatedData() {{
                     setPrice(100.5);
-                    setLastUpdated(new Date());
+                    setLastUpdated(System.currentTimeMillis());
                     setOpenDay(600.2);
                     setHighDay(700.8);
                     setLowDay(100d);
@@ -234,25 +397,9 @@ public class InitializeDatabaseTaskTest {
                     setTotalCoinsMined(5L);
                     setTotalVolume24H(500000.0);
                 }});
-                setExchangeInfoList(new LinkedList<ExchangeInfo>() {{
-                    add(new ExchangeInfo() {{
-                        setExchangeName("Exchange" + size());
-                        setPrice(1100.4);
-                        setLastUpdated(Date.from(Instant.now().plus(2, ChronoUnit.MINUTES)));
-                        setOpen24H(1200d);
-                        setHigh24H(1400d);
-                        setLow24H(150.5);
-                        setVolume24H(15000d);
-                    }});
-                    add(new ExchangeInfo() {{
-                        setExchangeName("Exchange" + size());
-                        setPrice(2100.4);
-                        setLastUpdated(Date.from(Instant.now().plus(3, ChronoUnit.MINUTES)));
-                        setOpen24H(2200d);
-                        setHigh24H(2400d);
-                        setLow24H(250.5);
-                        setVolume24H(25000d);
-                    }});
+                setExchangeQuotes(new ExchangeQuotes(createExchangeFilter()) {{
+                    offer("Exchange0", 1100.4, 15000d, Instant.now().plus(2, ChronoUnit.MINUTES).toEpochMilli());
+                    offer("Exchange1", 2100.4, 25000d, Instant.now().plus(3, ChronoUnit.MINUTES).toEpochMilli());
                 }});
             }});
         }};